@@ -1,6 +1,8 @@
 package uk.gov.moj.cpp.service.insights;
 
-import uk.gov.moj.cpp.service.insights.common.MethodProcessingResult;
+import uk.gov.moj.cpp.service.insights.common.CommandHandlerAnalyzer;
+import uk.gov.moj.cpp.service.insights.common.EventProcessorAnalyzer;
+import uk.gov.moj.cpp.service.insights.common.HandlerAnalysisResult;
 import uk.gov.moj.cpp.service.insights.html.ServiceHtmlGenerator;
 import uk.gov.moj.cpp.service.insights.indexer.IndexBuilderImpl;
 import uk.gov.moj.cpp.service.insights.model.Model;
@@ -11,7 +13,6 @@ import uk.gov.moj.cpp.service.insights.resolver.CallGraphResolver;
 import uk.gov.moj.cpp.service.insights.resolver.CallGraphResolverImpl;
 import uk.gov.moj.cpp.service.insights.service.MethodStackTracerService;
 import uk.gov.moj.cpp.service.insights.service.MethodStackTracerServiceImpl;
-import uk.gov.moj.cpp.service.insights.util.MethodTracer;
 import uk.gov.moj.cpp.service.insights.util.ServiceUtil;
 import uk.gov.moj.cpp.service.insights.util.ServiceUtil.EventInfo;
 import uk.gov.moj.cpp.service.insights.util.ServiceUtil.HandlesInfo;
@@ -26,8 +27,12 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 import org.apache.maven.plugin.AbstractMojo;
@@ -49,48 +54,18 @@ public class ServiceMojo extends AbstractMojo {
     @Parameter(property = "schemaFileName", required = false, defaultValue = "service-visualization.html")
     private String serviceFileName;
 
-    public static MethodProcessingResult processMethodBody(String methodBody,
-                                                           Map<String, String> classNameEventNameMapping,
-                                                           List<String> aggregatesNames, final Log log) {
-        MethodProcessingResult result = new MethodProcessingResult();
-        List<String> generatedEvents = new ArrayList<>();
-        List<String> matchingLines = new ArrayList<>();
-
-        String[] lines = methodBody.split("\\R");
-
-        classNameEventNameMapping.forEach((className, eventName) -> {
-            String regex = "\\b" + Pattern.quote(className) + "\\b(?!\\.class)";
-            Pattern pattern = Pattern.compile(regex);
-
-            for (String line : lines) {
-                Matcher matcher = pattern.matcher(line);
-                if (matcher.find()) {
-                    if (!generatedEvents.contains(eventName)) {
-                        result.addGeneratedEvent(eventName);
-                        generatedEvents.add(eventName);
-                    }
-                    matchingLines.add(line.trim());
-                }
-            }
-        });
+    /**
+     * Number of threads used to analyse @Handles methods. Defaults to the number of available processors.
+     */
+    @Parameter(property = "handlerThreads", required = false, defaultValue = "0")
+    private int handlerThreads;
 
-        if (!generatedEvents.isEmpty()) {
-            log.info("Generated Events: " + generatedEvents);
-        }
-        if (!matchingLines.isEmpty()) {
-            log.info("Matching Lines:");
-            matchingLines.forEach(log::info);
-        }
-
-        aggregatesNames.forEach(aggregate -> {
-            String regex = "\\b" + Pattern.quote(aggregate) + "\\b";
-            if (Pattern.compile(regex).matcher(methodBody).find()) {
-                result.addUsedAggregate(aggregate.replace(".class", ""));
-            }
-        });
-
-        return result;
-    }
+    /**
+     * When a handler calls an interface or abstract method with several implementations, follow only the
+     * implementations that are injected somewhere by their concrete type. By default all implementations are followed.
+     */
+    @Parameter(property = "injectedImplementationsOnly", required = false, defaultValue = "false")
+    private boolean injectedImplementationsOnly;
 
     @Override
     public void execute() throws MojoExecutionException {
@@ -99,7 +74,7 @@ public class ServiceMojo extends AbstractMojo {
 
         JavaFileParser parser = new JavaFileParserImpl();
         IndexBuilderImpl indexBuilder = new IndexBuilderImpl(parser);
-        CallGraphResolver callGraphResolver = new CallGraphResolverImpl(indexBuilder);
+        CallGraphResolver callGraphResolver = new CallGraphResolverImpl(indexBuilder, injectedImplementationsOnly);
         MethodStackTracerService tracerService = new MethodStackTracerServiceImpl(indexBuilder, callGraphResolver);
 
         List<Path> sourcePaths = Collections.singletonList(Path.of(rootDirectory));
@@ -117,9 +92,9 @@ public class ServiceMojo extends AbstractMojo {
             }
 
             Map<String, String> classNameEventNameMapping = new HashMap<>();
-            Map<String, Set<String>> commandUseAggregatesNames = new HashMap<>();
-            Map<String, Set<String>> commandGenerateEvents = new HashMap<>();
-            Map<String, Set<String>> processorGenerateEvents = new HashMap<>();
+            Map<String, Set<String>> commandUseAggregatesNames = new ConcurrentHashMap<>();
+            Map<String, Set<String>> commandGenerateEvents = new ConcurrentHashMap<>();
+            Map<String, Set<String>> processorGenerateEvents = new ConcurrentHashMap<>();
             List<String> aggregatesNames = new ArrayList<>();
 
             scanResults.forEach((moduleName, moduleResult) -> {
@@ -204,53 +179,76 @@ public class ServiceMojo extends AbstractMojo {
                                  Map<String, Set<String>> commandUseAggregatesNames,
                                  Map<String, Set<String>> commandGenerateEvents,
                                  Map<String, Set<String>> processorGenerateEvents,
-                                 Log log) {
+                                 Log log) throws MojoExecutionException {
+        // The index is complete at this point, so each handler is analysed independently against it
+        Map<String, String> eventMapping = Map.copyOf(classNameEventNameMapping);
+        List<String> aggregates = List.copyOf(aggregatesNames);
+        List<Callable<HandlerAnalysisResult>> tasks = new ArrayList<>();
+
         scanResults.forEach((moduleName, moduleResult) -> {
             if (moduleName.endsWith("command-handler")) {
-                moduleResult.handles().forEach(handleInfo -> {
-                    String methodBody = MethodTracer.collectMethodOutput(handleInfo.className(),
-                            handleInfo.methodName(), tracerService);
-
-                    MethodProcessingResult processingResult = ServiceMojo.processMethodBody(
-                            methodBody, classNameEventNameMapping, aggregatesNames, log);
-
-                    if (!processingResult.getGeneratedEvents().isEmpty()) {
-                        commandGenerateEvents.merge(handleInfo.handlesValue(),
-                                processingResult.getGeneratedEvents(),
-                                (existing, newEvents) -> {
-                                    existing.addAll(newEvents);
-                                    return existing;
-                                });
-                    }
-
-                    if (!processingResult.getUsedAggregates().isEmpty()) {
-                        commandUseAggregatesNames.merge(handleInfo.handlesValue(),
-                                processingResult.getUsedAggregates(),
-                                (existing, newAggregates) -> {
-                                    existing.addAll(newAggregates);
-                                    return existing;
-                                });
-                    }
-                });
+                moduleResult.handles().forEach(handleInfo -> tasks.add(() -> {
+                    CommandHandlerAnalyzer analyzer = new CommandHandlerAnalyzer(eventMapping, aggregates);
+                    boolean traced = tracerService.traceMethod(handleInfo.className(), handleInfo.methodName(), analyzer);
+                    return HandlerAnalysisResult.commandHandler(handleInfo, traced, analyzer);
+                }));
             }
             if (moduleName.endsWith("event-processor")) {
-                moduleResult.handles().forEach(handleInfo -> {
-                    String methodBody = MethodTracer.collectMethodOutput(
-                            handleInfo.className(),
-                            handleInfo.methodName(),
-                            tracerService
-                    );
-
-                    String modifiedMethodBody = moduleResult.variables().stream()
-                            .reduce(methodBody, (body, variableInfo) ->
-                                            body.replace(variableInfo.variableName(), ("\"" + variableInfo.variableValue() + "\"")),
-                                    (body1, body2) -> body1);
-
-                    processorGenerateEvents.put(handleInfo.handlesValue(),
-                            ServiceUtil.scanForServiceInQuotes(modifiedMethodBody));
-                });
+                moduleResult.handles().forEach(handleInfo -> tasks.add(() -> {
+                    EventProcessorAnalyzer analyzer = new EventProcessorAnalyzer(moduleResult.variables());
+                    boolean traced = tracerService.traceMethod(handleInfo.className(), handleInfo.methodName(), analyzer);
+                    return HandlerAnalysisResult.eventProcessor(handleInfo, traced, analyzer);
+                }));
             }
         });
+
+        int threads = handlerThreads > 0 ? handlerThreads : Runtime.getRuntime().availableProcessors();
+        log.info("Analysing " + tasks.size() + " handlers with " + threads + " threads.");
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            // invokeAll returns futures in task order, so results are reduced deterministically
+            for (Future<HandlerAnalysisResult> future : executor.invokeAll(tasks)) {
+                mergeHandlerResult(future.get(), commandUseAggregatesNames, commandGenerateEvents,
+                        processorGenerateEvents, log);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MojoExecutionException("Handler analysis was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new MojoExecutionException("Handler analysis failed: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void mergeHandlerResult(HandlerAnalysisResult result,
+                                    Map<String, Set<String>> commandUseAggregatesNames,
+                                    Map<String, Set<String>> commandGenerateEvents,
+                                    Map<String, Set<String>> processorGenerateEvents,
+                                    Log log) {
+        HandlesInfo handleInfo = result.handlesInfo();
+        if (!result.traced()) {
+            log.warn("Unable to trace handler " + handleInfo.className() + "#" + handleInfo.methodName());
+        }
+
+        if (result.handlerType() == HandlerAnalysisResult.HandlerType.EVENT_PROCESSOR) {
+            addAll(processorGenerateEvents, handleInfo.handlesValue(), result.commandsCalled());
+            return;
+        }
+
+        if (!result.generatedEvents().isEmpty()) {
+            log.info("Generated Events: " + result.generatedEvents());
+            log.info("Matching Lines:");
+            result.matchingLines().forEach(log::info);
+            addAll(commandGenerateEvents, handleInfo.handlesValue(), result.generatedEvents());
+        }
+        if (!result.usedAggregates().isEmpty()) {
+            addAll(commandUseAggregatesNames, handleInfo.handlesValue(), result.usedAggregates());
+        }
+    }
+
+    private static void addAll(Map<String, Set<String>> multimap, String key, Set<String> values) {
+        multimap.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).addAll(values);
     }
 
     private Set<String> flattenSet(Map<String, Set<String>> handlerMap) {
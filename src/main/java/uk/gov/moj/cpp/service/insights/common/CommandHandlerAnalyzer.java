@@ -0,0 +1,87 @@
+package uk.gov.moj.cpp.service.insights.common;
+
+import uk.gov.moj.cpp.service.insights.service.MethodVisitor;
+import uk.gov.moj.cpp.service.insights.util.ASTUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.BodyDeclaration;
+import com.github.javaparser.ast.expr.ClassExpr;
+import com.github.javaparser.ast.expr.NameExpr;
+import com.github.javaparser.ast.type.ClassOrInterfaceType;
+
+/**
+ * Collects the events generated and the aggregates used by a command handler,
+ * walking the AST of each method reachable from the handler.
+ */
+public class CommandHandlerAnalyzer implements MethodVisitor {
+
+    private final Map<String, String> classNameEventNameMapping;
+    private final Set<String> aggregateNames;
+    private final MethodProcessingResult result = new MethodProcessingResult();
+    private final List<String> matchingLines = new ArrayList<>();
+
+    /**
+     * Constructs a CommandHandlerAnalyzer.
+     *
+     * @param classNameEventNameMapping Map of simple event class names to event names.
+     * @param aggregatesNames           Aggregate class literals, e.g. {@code HearingAggregate.class}.
+     */
+    public CommandHandlerAnalyzer(Map<String, String> classNameEventNameMapping, List<String> aggregatesNames) {
+        this.classNameEventNameMapping = classNameEventNameMapping;
+        this.aggregateNames = aggregatesNames.stream()
+                .map(aggregate -> aggregate.replace(".class", ""))
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    @Override
+    public void visit(String methodSignature, BodyDeclaration<?> declaration) {
+        ASTUtils.getBody(declaration).ifPresent(body -> body.walk(node -> inspect(methodSignature, node)));
+    }
+
+    private void inspect(String methodSignature, Node node) {
+        if (node instanceof ClassExpr classExpr) {
+            // Aggregates are loaded through their class literal, e.g. aggregateService.get(stream, X.class)
+            String typeName = classExpr.getType().isClassOrInterfaceType()
+                    ? classExpr.getType().asClassOrInterfaceType().getNameAsString()
+                    : classExpr.getType().asString();
+            if (aggregateNames.contains(typeName)) {
+                result.addUsedAggregate(typeName);
+            }
+        } else if (node instanceof ClassOrInterfaceType type) {
+            // A class literal of an event class is not an event being generated
+            boolean isClassLiteral = type.getParentNode().filter(ClassExpr.class::isInstance).isPresent();
+            if (!isClassLiteral) {
+                matchEvent(methodSignature, type.getNameAsString(), node);
+            }
+        } else if (node instanceof NameExpr nameExpr) {
+            matchEvent(methodSignature, nameExpr.getNameAsString(), node);
+        }
+    }
+
+    private void matchEvent(String methodSignature, String name, Node node) {
+        String eventName = classNameEventNameMapping.get(name);
+        if (eventName != null) {
+            result.addGeneratedEvent(eventName);
+            matchingLines.add(methodSignature + node.getBegin().map(position -> " line " + position.line).orElse(""));
+        }
+    }
+
+    public MethodProcessingResult getResult() {
+        return result;
+    }
+
+    /**
+     * Retrieves the locations where event classes were referenced.
+     *
+     * @return List of method signatures with the line of each match.
+     */
+    public List<String> getMatchingLines() {
+        return matchingLines;
+    }
+}
@@ -0,0 +1,64 @@
+package uk.gov.moj.cpp.service.insights.common;
+
+import uk.gov.moj.cpp.service.insights.service.MethodVisitor;
+import uk.gov.moj.cpp.service.insights.util.ASTUtils;
+import uk.gov.moj.cpp.service.insights.util.ServiceUtil;
+import uk.gov.moj.cpp.service.insights.util.ServiceUtil.VariableInfo;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.BodyDeclaration;
+import com.github.javaparser.ast.expr.FieldAccessExpr;
+import com.github.javaparser.ast.expr.NameExpr;
+import com.github.javaparser.ast.expr.StringLiteralExpr;
+
+/**
+ * Collects the service actions (commands, queries and public events) an event processor calls,
+ * walking the AST of each method reachable from the processor.
+ * String literals are matched directly; references to the module's static String constants
+ * are replaced by their values.
+ */
+public class EventProcessorAnalyzer implements MethodVisitor {
+
+    private final Map<String, String> variableValues;
+    private final MethodProcessingResult result = new MethodProcessingResult();
+
+    /**
+     * Constructs an EventProcessorAnalyzer.
+     *
+     * @param variables The static String constants declared in the processor's module.
+     */
+    public EventProcessorAnalyzer(List<VariableInfo> variables) {
+        this.variableValues = variables.stream()
+                .collect(Collectors.toMap(VariableInfo::variableName, VariableInfo::variableValue,
+                        (existing, duplicate) -> existing));
+    }
+
+    @Override
+    public void visit(String methodSignature, BodyDeclaration<?> declaration) {
+        ASTUtils.getBody(declaration).ifPresent(body -> body.walk(this::inspect));
+    }
+
+    private void inspect(Node node) {
+        if (node instanceof StringLiteralExpr literal) {
+            addIfServiceReference(literal.getValue());
+        } else if (node instanceof NameExpr nameExpr) {
+            addIfServiceReference(variableValues.get(nameExpr.getNameAsString()));
+        } else if (node instanceof FieldAccessExpr fieldAccess) {
+            addIfServiceReference(variableValues.get(fieldAccess.getNameAsString()));
+        }
+    }
+
+    private void addIfServiceReference(String value) {
+        if (value != null && ServiceUtil.isServiceReference(value)) {
+            result.addCommandCalled(value);
+        }
+    }
+
+    public MethodProcessingResult getResult() {
+        return result;
+    }
+}
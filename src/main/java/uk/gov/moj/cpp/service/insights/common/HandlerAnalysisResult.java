@@ -0,0 +1,61 @@
+package uk.gov.moj.cpp.service.insights.common;
+
+import uk.gov.moj.cpp.service.insights.util.ServiceUtil.HandlesInfo;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Immutable result of analysing a single @Handles method.
+ */
+public record HandlerAnalysisResult(
+        HandlerType handlerType,
+        HandlesInfo handlesInfo,
+        boolean traced,
+        Set<String> generatedEvents,
+        Set<String> usedAggregates,
+        Set<String> commandsCalled,
+        List<String> matchingLines
+) {
+    /**
+     * Constructs a HandlerAnalysisResult record, taking immutable copies of the collections.
+     *
+     * @param handlerType     The kind of module the handler belongs to.
+     * @param handlesInfo     The analysed handler.
+     * @param traced          Whether the handler method was found in the index.
+     * @param generatedEvents The events generated by a command handler.
+     * @param usedAggregates  The aggregates used by a command handler.
+     * @param commandsCalled  The service actions called by an event processor.
+     * @param matchingLines   The locations where event classes were referenced.
+     */
+    public HandlerAnalysisResult {
+        Objects.requireNonNull(handlerType, "handlerType cannot be null");
+        Objects.requireNonNull(handlesInfo, "handlesInfo cannot be null");
+        generatedEvents = Set.copyOf(generatedEvents);
+        usedAggregates = Set.copyOf(usedAggregates);
+        commandsCalled = Set.copyOf(commandsCalled);
+        matchingLines = List.copyOf(matchingLines);
+    }
+
+    public static HandlerAnalysisResult commandHandler(HandlesInfo handlesInfo, boolean traced,
+                                                       CommandHandlerAnalyzer analyzer) {
+        MethodProcessingResult result = analyzer.getResult();
+        return new HandlerAnalysisResult(HandlerType.COMMAND_HANDLER, handlesInfo, traced,
+                result.getGeneratedEvents(), result.getUsedAggregates(), Set.of(), analyzer.getMatchingLines());
+    }
+
+    public static HandlerAnalysisResult eventProcessor(HandlesInfo handlesInfo, boolean traced,
+                                                       EventProcessorAnalyzer analyzer) {
+        return new HandlerAnalysisResult(HandlerType.EVENT_PROCESSOR, handlesInfo, traced,
+                Set.of(), Set.of(), analyzer.getResult().getCommandCalled(), List.of());
+    }
+
+    /**
+     * The kind of module a handler belongs to.
+     */
+    public enum HandlerType {
+        COMMAND_HANDLER,
+        EVENT_PROCESSOR
+    }
+}
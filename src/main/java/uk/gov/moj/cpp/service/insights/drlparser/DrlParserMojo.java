@@ -1,14 +1,26 @@
 package uk.gov.moj.cpp.service.insights.drlparser;
 
 import uk.gov.moj.cpp.service.insights.drlparser.parser.DrlParser;
+import uk.gov.moj.cpp.service.insights.drlparser.parser.IncrementalDrlParser;
 import uk.gov.moj.cpp.service.insights.drlparser.parser.JavaClassIndexer;
+import uk.gov.moj.cpp.service.insights.drlparser.parser.model.AclEvaluator;
+import uk.gov.moj.cpp.service.insights.drlparser.parser.model.AclIndex;
 import uk.gov.moj.cpp.service.insights.drlparser.parser.model.ActionGroupMappings;
+import uk.gov.moj.cpp.service.insights.drlparser.parser.model.DrlBuildState;
 import uk.gov.moj.cpp.service.insights.html.ACLHTMLGenerator;
+import uk.gov.moj.cpp.service.insights.parser.JavaFileParserImpl;
+import uk.gov.moj.cpp.service.insights.util.BuildStateUtil;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
@@ -24,6 +36,8 @@ public class DrlParserMojo extends AbstractMojo {
     private static final String COMMAND_RULE_LIST_SUBTITLE = "All Rules";
     private static final String QUERY_RULE_LIST_TITLE = "Query Rule List";
     private static final String QUERY_RULE_LIST_SUBTITLE = "All Rules";
+    private static final String BUILD_STATE_FILE = "acl-build-state.json";
+    private static final String NEW_VIRTUAL_THREAD_EXECUTOR = "newVirtualThreadPerTaskExecutor";
 
     /**
      * Directory containing Commaand API DRL files.
@@ -45,57 +59,158 @@ public class DrlParserMojo extends AbstractMojo {
      */
     @Parameter(property = "queryRule", defaultValue = "queryRule.html", required = false)
     private String queryRule;
+    /**
+     * The output file for the JSON export of the ACL index, mapping actions to groups and groups to actions.
+     */
+    @Parameter(property = "aclIndex", defaultValue = "acl-index.json", required = false)
+    private String aclIndex;
+    /**
+     * Optional JSON file mapping user profile names to their groups and permissions. When set, the actions
+     * permitted to each profile are written to {@code aclProfiles}.
+     */
+    @Parameter(property = "groupProfiles", required = false)
+    private File groupProfiles;
+    /**
+     * The output file for the actions permitted to each of the {@code groupProfiles}.
+     */
+    @Parameter(property = "aclProfiles", defaultValue = "acl-profiles.json", required = false)
+    private String aclProfiles;
+    /**
+     * Only parse the DRL files that changed, or whose referenced Java classes changed, since the previous run,
+     * and skip generating the HTML files when nothing changed.
+     */
+    @Parameter(property = "incremental", defaultValue = "true", required = false)
+    private boolean incremental;
+    /**
+     * Number of DRL files parsed concurrently. Defaults to the number of available processors.
+     */
+    @Parameter(property = "drlParserThreads", required = false, defaultValue = "0")
+    private int drlParserThreads;
+    /**
+     * Parse DRL files on virtual threads, still at most {@code drlParserThreads} at a time. Only available when
+     * Maven runs on Java 21 or later; otherwise platform threads are used.
+     */
+    @Parameter(property = "drlVirtualThreads", required = false, defaultValue = "false")
+    private boolean drlVirtualThreads;
 
     public void execute() throws MojoExecutionException {
+        int threads = drlParserThreads > 0 ? drlParserThreads : Runtime.getRuntime().availableProcessors();
+        ExecutorService executor = createExecutor(threads);
         try {
             // Convert directory strings to Path objects
             List<Path> paths = Arrays.asList(commandApiDir.toPath(), queryApiDir.toPath());
 
-            // Initialize JavaClassIndexer (implementation not shown)
-            JavaClassIndexer indexer = new JavaClassIndexer();
-            indexer.buildIndex(paths);
+            // Create the target directory for the HTML file if it doesn't exist
+            File targetDir = new File("target/html");
+            if (!targetDir.exists()) {
+                targetDir.mkdirs();
+            }
+
+            JavaClassIndexer indexer = new JavaClassIndexer(new JavaFileParserImpl());
 
-            // Instantiate DrlParser with Maven's Log
-            int numThreads = Runtime.getRuntime().availableProcessors();
-            getLog().info("Initializing ExecutorService with " + numThreads + " threads.");
-            ExecutorService executor = Executors.newFixedThreadPool(numThreads);
-            DrlParser parser = new DrlParser(getLog(), executor);
+            // Keep every worker busy while bounding the files held in flight
+            DrlParser parser = new DrlParser(getLog(), executor, drlVirtualThreads ? threads : threads * 2);
 
             // Parse DRL files
-            ActionGroupMappings mappings = parser.parse(paths, indexer);
+            Path buildStatePath = new File(targetDir, BUILD_STATE_FILE).toPath();
+            ActionGroupMappings mappings;
+            DrlBuildState buildState = null;
+            boolean changed = true;
+            if (incremental) {
+                IncrementalDrlParser.Result result = new IncrementalDrlParser(getLog(), parser)
+                        .parse(paths, indexer, BuildStateUtil.read(buildStatePath, DrlBuildState.class, getLog()).orElse(null));
+                mappings = result.mappings();
+                buildState = result.state();
+                changed = result.changed() || !outputsExist(targetDir);
+            } else {
+                indexer.buildIndex(paths);
+                mappings = parser.parse(paths, indexer);
+            }
 
             // Further processing with mappings
             getLog().info("Parsed ActionGroupMappings: " + mappings);
+            AclIndex index = AclIndex.of(mappings);
 
-            // Create the target directory for the HTML file if it doesn't exist
-            File targetDir = new File("target/html");
-            if (!targetDir.exists()) {
-                targetDir.mkdirs();
+            if (changed) {
+                generateOutputs(targetDir, mappings, index);
+            } else {
+                getLog().info("ACL rules are unchanged, skipping HTML generation.");
+            }
+
+            // Recorded only once the outputs are in line with it
+            if (buildState != null) {
+                BuildStateUtil.write(buildStatePath, buildState);
             }
 
-            // Generate the HTML file using CytoscapeHTMLGenerator
-            String commandRulePath = new File(targetDir, commandRule).getAbsolutePath();
-            getLog().info("Generating Command HTML file at: " + commandRulePath);
-            // Generate HTML for command rules
-            ACLHTMLGenerator.generateHTMLFile(
-                    mappings.getCommandActionToGroupsMap(),
-                    commandRulePath,
-                    COMMAND_RULE_LIST_TITLE,
-                    COMMAND_RULE_LIST_SUBTITLE
-            );
-            String queryRulePath = new File(targetDir, queryRule).getAbsolutePath();
-            getLog().info("Generating Query HTML file at: " + queryRulePath);
-            // Generate HTML for query rules
-            ACLHTMLGenerator.generateHTMLFile(
-                    mappings.getQueryActionToGroupsMap(),
-                    queryRulePath,
-                    QUERY_RULE_LIST_TITLE,
-                    QUERY_RULE_LIST_SUBTITLE
-            );
+            if (groupProfiles != null) {
+                evaluateGroupProfiles(index, new File(targetDir, aclProfiles).toPath());
+            }
 
         } catch (Exception e) {
             getLog().error("Failed to parse DRL files.", e);
             throw new MojoExecutionException("DRL parsing failed.", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private ExecutorService createExecutor(int threads) {
+        if (drlVirtualThreads) {
+            try {
+                ExecutorService executor = (ExecutorService) Executors.class.getMethod(NEW_VIRTUAL_THREAD_EXECUTOR).invoke(null);
+                getLog().info("Parsing DRL files on virtual threads, " + threads + " at a time.");
+                return executor;
+            } catch (ReflectiveOperationException e) {
+                getLog().warn("Virtual threads are not available on Java " + Runtime.version().feature() + ", using platform threads.");
+            }
+        }
+        getLog().info("Parsing DRL files with " + threads + " threads.");
+        return Executors.newFixedThreadPool(threads);
+    }
+
+    private void generateOutputs(File targetDir, ActionGroupMappings mappings, AclIndex index) throws IOException {
+        // Generate the HTML file using CytoscapeHTMLGenerator
+        String commandRulePath = new File(targetDir, commandRule).getAbsolutePath();
+        getLog().info("Generating Command HTML file at: " + commandRulePath);
+        // Generate HTML for command rules
+        ACLHTMLGenerator.generateHTMLFile(
+                mappings.getCommandActionToGroupsMap(),
+                commandRulePath,
+                COMMAND_RULE_LIST_TITLE,
+                COMMAND_RULE_LIST_SUBTITLE
+        );
+        String queryRulePath = new File(targetDir, queryRule).getAbsolutePath();
+        getLog().info("Generating Query HTML file at: " + queryRulePath);
+        // Generate HTML for query rules
+        ACLHTMLGenerator.generateHTMLFile(
+                mappings.getQueryActionToGroupsMap(),
+                queryRulePath,
+                QUERY_RULE_LIST_TITLE,
+                QUERY_RULE_LIST_SUBTITLE
+        );
+
+        Path aclIndexPath = new File(targetDir, aclIndex).toPath();
+        getLog().info("Writing ACL index at: " + aclIndexPath.toAbsolutePath());
+        try (Writer writer = Files.newBufferedWriter(aclIndexPath, StandardCharsets.UTF_8)) {
+            index.writeJson(writer);
+        }
+    }
+
+    private boolean outputsExist(File targetDir) {
+        return new File(targetDir, commandRule).isFile()
+                && new File(targetDir, queryRule).isFile()
+                && new File(targetDir, aclIndex).isFile();
+    }
+
+    private void evaluateGroupProfiles(AclIndex index, Path outputPath) throws IOException {
+        Map<String, List<String>> profiles;
+        try (Reader reader = Files.newBufferedReader(groupProfiles.toPath(), StandardCharsets.UTF_8)) {
+            profiles = AclEvaluator.readProfiles(reader);
+        }
+        getLog().info("Evaluating " + profiles.size() + " group profiles into: " + outputPath.toAbsolutePath());
+        Map<String, AclEvaluator.PermittedActions> results = AclEvaluator.of(index).evaluateAll(profiles);
+        try (Writer writer = Files.newBufferedWriter(outputPath, StandardCharsets.UTF_8)) {
+            AclEvaluator.writeJson(results, writer);
         }
     }
 }
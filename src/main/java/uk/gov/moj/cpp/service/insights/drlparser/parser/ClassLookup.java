@@ -0,0 +1,20 @@
+package uk.gov.moj.cpp.service.insights.drlparser.parser;
+
+import uk.gov.moj.cpp.service.insights.drlparser.parser.JavaClassIndexer.ClassInfo;
+
+import java.util.Optional;
+
+/**
+ * Finds indexed Java classes by name, for resolving the static members DRL conditions reference.
+ */
+@FunctionalInterface
+public interface ClassLookup {
+
+    /**
+     * Retrieves class information by its fully qualified name.
+     *
+     * @param className Fully qualified class name.
+     * @return Optional containing ClassInfo if found.
+     */
+    Optional<ClassInfo> getClassInfo(String className);
+}
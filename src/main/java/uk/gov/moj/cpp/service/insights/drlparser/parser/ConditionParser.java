@@ -0,0 +1,310 @@
+package uk.gov.moj.cpp.service.insights.drlparser.parser;
+
+import uk.gov.moj.cpp.service.insights.drlparser.parser.model.ConditionNode;
+import uk.gov.moj.cpp.service.insights.drlparser.parser.model.ConditionNode.Call;
+import uk.gov.moj.cpp.service.insights.drlparser.parser.model.ConditionNode.Literal;
+import uk.gov.moj.cpp.service.insights.drlparser.parser.model.ConditionNode.Logical;
+import uk.gov.moj.cpp.service.insights.drlparser.parser.model.ConditionNode.Name;
+import uk.gov.moj.cpp.service.insights.drlparser.parser.model.ConditionNode.Operation;
+import uk.gov.moj.cpp.service.insights.drlparser.parser.model.ConditionNode.Operator;
+import uk.gov.moj.cpp.service.insights.drlparser.parser.model.ConditionNode.StringLiteral;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Parses the body of a DRL {@code eval(...)} block into a {@link ConditionNode} tree.
+ * <p>
+ * The parser is a lenient recursive descent parser: eval bodies are MVEL/Java expressions and are not
+ * always well formed, so unexpected tokens are skipped rather than rejected. Unterminated string literals
+ * are dropped.
+ */
+public final class ConditionParser {
+
+    private static final Set<String> TWO_CHARACTER_SYMBOLS = Set.of("||", "&&", "==", "!=", "<=", ">=", "->", "::");
+    private static final Set<String> LITERAL_KEYWORDS = Set.of("true", "false", "null", "this", "new");
+    private static final String OR = "or";
+    private static final String AND = "and";
+
+    private final List<Token> tokens;
+    private int position;
+
+    private ConditionParser(List<Token> tokens) {
+        this.tokens = tokens;
+    }
+
+    /**
+     * Parses the body of an eval block.
+     *
+     * @param condition The text between the parentheses of {@code eval(...)}.
+     * @return The top-level expressions of the condition; normally exactly one.
+     */
+    public static List<ConditionNode> parse(String condition) {
+        ConditionParser parser = new ConditionParser(tokenize(condition));
+        List<ConditionNode> nodes = new ArrayList<>();
+        while (!parser.atEnd()) {
+            ConditionNode node = parser.parseOr();
+            if (node != null) {
+                nodes.add(node);
+            } else {
+                // Stray closing parenthesis, bracket or comma
+                parser.position++;
+            }
+        }
+        return nodes;
+    }
+
+    private ConditionNode parseOr() {
+        return parseLogical(Operator.OR);
+    }
+
+    private ConditionNode parseLogical(Operator operator) {
+        ConditionNode first = operator == Operator.OR ? parseLogical(Operator.AND) : parseUnary();
+        if (first == null) {
+            return null;
+        }
+        List<ConditionNode> operands = new ArrayList<>();
+        operands.add(first);
+        while (isLogicalOperator(peek(0), operator)) {
+            position++;
+            ConditionNode operand = operator == Operator.OR ? parseLogical(Operator.AND) : parseUnary();
+            if (operand != null) {
+                operands.add(operand);
+            }
+        }
+        return operands.size() == 1 ? first : new Logical(operator, operands);
+    }
+
+    private ConditionNode parseUnary() {
+        if (peek(0).isSymbol("!")) {
+            position++;
+            ConditionNode operand = parseUnary();
+            return operand == null ? null : new Logical(Operator.NOT, List.of(operand));
+        }
+        ConditionNode left = parsePrimary();
+        if (left == null) {
+            return null;
+        }
+        while (isOperator(peek(0))) {
+            String operator = tokens.get(position++).text();
+            ConditionNode right = parseUnary();
+            left = new Operation(operator, right == null ? List.of(left) : List.of(left, right));
+        }
+        return left;
+    }
+
+    private ConditionNode parsePrimary() {
+        Token token = peek(0);
+        switch (token.type()) {
+            case END:
+                return null;
+            case STRING:
+                position++;
+                return new StringLiteral(token.text());
+            case LITERAL:
+                position++;
+                return new Literal(token.text());
+            case IDENTIFIER:
+                return parsePostfix(parseNameOrCall());
+            default:
+                break;
+        }
+        if (token.isSymbol("(")) {
+            position++;
+            ConditionNode inner = parseOr();
+            if (peek(0).isSymbol(")")) {
+                position++;
+            }
+            return inner == null ? null : parsePostfix(inner);
+        }
+        if (!token.isSymbol(")") && !token.isSymbol(",") && !token.isSymbol("]")) {
+            // Skip symbols the tree does not model, e.g. braces of an array initialiser
+            position++;
+            return parsePrimary();
+        }
+        return null;
+    }
+
+    /**
+     * Parses a dotted name, e.g. {@code a.b.C.CONSTANT}, and the call it ends with if it is followed by
+     * an argument list.
+     */
+    private ConditionNode parseNameOrCall() {
+        Token first = tokens.get(position++);
+        if (LITERAL_KEYWORDS.contains(first.text())) {
+            return new Literal(first.text());
+        }
+        List<String> segments = new ArrayList<>();
+        segments.add(first.text());
+        while (peek(0).isSymbol(".") && peek(1).type() == TokenType.IDENTIFIER) {
+            segments.add(tokens.get(position + 1).text());
+            position += 2;
+        }
+
+        String name = segments.get(segments.size() - 1);
+        if (peek(0).isSymbol("(")) {
+            ConditionNode target = segments.size() == 1 ? null : toName(segments.subList(0, segments.size() - 1));
+            return new Call(target, name, parseArguments());
+        }
+        return toName(segments);
+    }
+
+    /**
+     * Parses calls and index expressions applied to the result of another expression, e.g.
+     * {@code groups().contains("x")}.
+     */
+    private ConditionNode parsePostfix(ConditionNode node) {
+        while (true) {
+            if (peek(0).isSymbol(".") && peek(1).type() == TokenType.IDENTIFIER) {
+                String name = tokens.get(position + 1).text();
+                position += 2;
+                if (peek(0).isSymbol("(")) {
+                    node = new Call(node, name, parseArguments());
+                }
+            } else if (peek(0).isSymbol("[")) {
+                position++;
+                ConditionNode index = parseOr();
+                if (peek(0).isSymbol("]")) {
+                    position++;
+                }
+                node = new Operation("[]", index == null ? List.of(node) : List.of(node, index));
+            } else {
+                return node;
+            }
+        }
+    }
+
+    private List<ConditionNode> parseArguments() {
+        position++; // (
+        List<ConditionNode> arguments = new ArrayList<>();
+        while (!atEnd()) {
+            if (peek(0).isSymbol(")")) {
+                position++;
+                break;
+            }
+            if (peek(0).isSymbol(",")) {
+                position++;
+                continue;
+            }
+            ConditionNode argument = parseOr();
+            if (argument != null) {
+                arguments.add(argument);
+            } else if (peek(0).isSymbol("]")) {
+                position++;
+            }
+        }
+        return arguments;
+    }
+
+    private static Name toName(List<String> segments) {
+        String qualifier = segments.size() == 1 ? null : String.join(".", segments.subList(0, segments.size() - 1));
+        return new Name(qualifier, segments.get(segments.size() - 1));
+    }
+
+    private static boolean isLogicalOperator(Token token, Operator operator) {
+        if (operator == Operator.OR) {
+            return token.isSymbol("||") || token.isWord(OR);
+        }
+        return token.isSymbol("&&") || token.isWord(AND);
+    }
+
+    private static boolean isOperator(Token token) {
+        return token.type() == TokenType.SYMBOL
+                && !token.isSymbol("||") && !token.isSymbol("&&")
+                && !token.isSymbol("(") && !token.isSymbol(")")
+                && !token.isSymbol(",") && !token.isSymbol("!")
+                && !token.isSymbol("[") && !token.isSymbol("]")
+                && !token.isSymbol("{") && !token.isSymbol("}")
+                && !token.isSymbol(".");
+    }
+
+    private boolean atEnd() {
+        return peek(0).type() == TokenType.END;
+    }
+
+    private Token peek(int offset) {
+        int index = position + offset;
+        return index < tokens.size() ? tokens.get(index) : Token.END_TOKEN;
+    }
+
+    private static List<Token> tokenize(String condition) {
+        List<Token> tokens = new ArrayList<>();
+        int length = condition.length();
+        int i = 0;
+        while (i < length) {
+            char c = condition.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '"' || c == '\'') {
+                i = readString(condition, i, tokens);
+            } else if (Character.isJavaIdentifierStart(c)) {
+                int start = i;
+                while (i < length && Character.isJavaIdentifierPart(condition.charAt(i))) {
+                    i++;
+                }
+                tokens.add(new Token(TokenType.IDENTIFIER, condition.substring(start, i)));
+            } else if (Character.isDigit(c)) {
+                int start = i;
+                while (i < length && (Character.isLetterOrDigit(condition.charAt(i)) || condition.charAt(i) == '.')) {
+                    i++;
+                }
+                tokens.add(new Token(TokenType.LITERAL, condition.substring(start, i)));
+            } else if (i + 1 < length && TWO_CHARACTER_SYMBOLS.contains(condition.substring(i, i + 2))) {
+                tokens.add(new Token(TokenType.SYMBOL, condition.substring(i, i + 2)));
+                i += 2;
+            } else {
+                tokens.add(new Token(TokenType.SYMBOL, String.valueOf(c)));
+                i++;
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Reads the string literal starting at {@code start} and returns the index following it. Literals that
+     * are not closed on the same line are dropped.
+     */
+    private static int readString(String condition, int start, List<Token> tokens) {
+        char quote = condition.charAt(start);
+        StringBuilder value = new StringBuilder();
+        int i = start + 1;
+        while (i < condition.length()) {
+            char c = condition.charAt(i);
+            if (c == quote) {
+                tokens.add(new Token(TokenType.STRING, value.toString()));
+                return i + 1;
+            }
+            if (c == '\n') {
+                return i;
+            }
+            if (c == '\\' && i + 1 < condition.length()) {
+                c = condition.charAt(++i);
+            }
+            value.append(c);
+            i++;
+        }
+        return i;
+    }
+
+    private enum TokenType {
+        IDENTIFIER,
+        STRING,
+        LITERAL,
+        SYMBOL,
+        END
+    }
+
+    private record Token(TokenType type, String text) {
+
+        private static final Token END_TOKEN = new Token(TokenType.END, "");
+
+        boolean isSymbol(String symbol) {
+            return type == TokenType.SYMBOL && symbol.equals(text);
+        }
+
+        boolean isWord(String word) {
+            return type == TokenType.IDENTIFIER && word.equalsIgnoreCase(text);
+        }
+    }
+}
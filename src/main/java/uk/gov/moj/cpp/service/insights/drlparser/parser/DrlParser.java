@@ -1,10 +1,14 @@
 package uk.gov.moj.cpp.service.insights.drlparser.parser;
 
 import uk.gov.moj.cpp.service.insights.drlparser.parser.model.ActionGroupMappings;
+import uk.gov.moj.cpp.service.insights.drlparser.parser.model.ConditionNode;
+import uk.gov.moj.cpp.service.insights.drlparser.parser.model.DrlRule;
+import uk.gov.moj.cpp.service.insights.drlparser.parser.model.ParsedDrlFile;
 import uk.gov.moj.cpp.service.insights.util.JsonUtil;
 import uk.gov.moj.cpp.service.insights.util.StringUtils;
 
 import java.io.IOException;
+import java.io.Reader;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
@@ -12,15 +16,20 @@ import java.nio.file.Path;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.PriorityQueue;
 import java.util.Set;
+import java.util.concurrent.CompletionService;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
@@ -38,26 +47,29 @@ import org.apache.maven.plugin.logging.Log;
 public class DrlParser {
 
     // Static variables extracted from constants
-    private static final Pattern IMPORT_PATTERN = Pattern.compile("import(?:\\s+static)?\\s+([^;]+);", Pattern.CASE_INSENSITIVE);
-    private static final Pattern RULE_PATTERN = Pattern.compile("(?s)rule\\s+\"([^\"]+)\".*?when(.*?)then.*?end", Pattern.CASE_INSENSITIVE);
     private static final Pattern ACTION_PATTERN = Pattern.compile("Action\\s*\\(\\s*name\\s*==\\s*\"([^\"]+)\"\\s*\\)", Pattern.CASE_INSENSITIVE);
-    private static final Pattern GROUP_PATTERN = Pattern.compile("\"([^\"]+)\"", Pattern.CASE_INSENSITIVE);
-    private static final Pattern CONDITION_SPLIT_PATTERN = Pattern.compile("\\|\\||\\bor\\b|\\band\\b", Pattern.CASE_INSENSITIVE);
 
     private static final String COMMAND_API = "command-api";
     private static final String QUERY_API = "query-api";
     private static final String DRL_EXTENSION = ".drl";
     private static final String EVAL_PREFIX = "eval(";
     private static final String ADD_METHOD = "add";
-    private static final String IS_MEMBER_OF_ANY_OF_THE_SUPPLIED_GROUPS = "userandgroupprovider.ismemberofanyofthesuppliedgroups";
-    private static final String IS_SYSTEM_USER = "userAndGroupProvider.isSystemUser";
+    private static final String USER_AND_GROUP_PROVIDER = "userAndGroupProvider";
+    private static final String IS_MEMBER_OF_ANY_OF_THE_SUPPLIED_GROUPS = "isMemberOfAnyOfTheSuppliedGroups";
+    private static final String IS_SYSTEM_USER = "isSystemUser";
     private static final String COMMAND_ACTION_CATEGORY = "-command";
     private static final String QUERY_ACTION_CATEGORY = "-query";
     private static final String SYSTEM_USERS = "System Users";
     private static final String NOT_FOUND = "not found";
+    private static final int DEFAULT_MAX_IN_FLIGHT_TASKS = 64;
+    private static final int SLOWEST_FILES_REPORTED = 5;
 
     private final Log log;
     private final ExecutorService executor;
+    private final int maxInFlightTasks;
+
+    // Groups and permissions of every static helper resolved during the current run, shared by all workers
+    private final Map<StaticMember, Set<String>> resolvedMembers = new ConcurrentHashMap<>();
 
     /**
      * Constructs a DrlParser with the provided Maven Log instance and ExecutorService.
@@ -66,27 +78,57 @@ public class DrlParser {
      * @param executor ExecutorService for handling concurrent file parsing.
      */
     public DrlParser(Log log, ExecutorService executor) {
+        this(log, executor, DEFAULT_MAX_IN_FLIGHT_TASKS);
+    }
+
+    /**
+     * Constructs a DrlParser that submits at most {@code maxInFlightTasks} files to the executor at a time.
+     *
+     * @param log              Maven's Log interface for logging messages.
+     * @param executor         ExecutorService for handling concurrent file parsing.
+     * @param maxInFlightTasks Maximum number of files submitted and not yet collected.
+     */
+    public DrlParser(Log log, ExecutorService executor, int maxInFlightTasks) {
+        if (maxInFlightTasks < 1) {
+            throw new IllegalArgumentException("maxInFlightTasks must be positive: " + maxInFlightTasks);
+        }
         this.log = log;
         this.executor = executor;
+        this.maxInFlightTasks = maxInFlightTasks;
     }
 
     /**
      * Parses DRL files located within the specified list of paths.
      *
      * @param paths   List of directory paths to search for DRL files.
-     * @param indexer JavaClassIndexer instance for resolving class information.
+     * @param indexer Lookup of the indexed classes for resolving class information.
      * @return ActionGroupMappings containing the mappings of actions to groups/permissions.
      * @throws IOException          If an I/O error occurs.
      * @throws InterruptedException If the thread is interrupted.
      * @throws ExecutionException   If a task execution fails.
      */
-    public ActionGroupMappings parse(List<Path> paths, JavaClassIndexer indexer) throws IOException, InterruptedException, ExecutionException {
+    public ActionGroupMappings parse(List<Path> paths, ClassLookup indexer) throws IOException, InterruptedException, ExecutionException {
         Objects.requireNonNull(paths, "Paths list cannot be null");
-        Objects.requireNonNull(indexer, "JavaClassIndexer cannot be null");
+        Objects.requireNonNull(indexer, "ClassLookup cannot be null");
 
         ActionGroupMappings mappings = new ActionGroupMappings();
-        List<Future<?>> futures = new ArrayList<>();
+        parseFiles(findDrlFiles(paths), indexer).values().forEach(parsedFile -> mappings.merge(parsedFile.mappings()));
 
+        log.info("Completed parsing DRL files. Total mappings: " + mappings.size());
+        return mappings;
+    }
+
+    /**
+     * Finds the DRL files located within the specified list of paths.
+     *
+     * @param paths List of directory paths to search for DRL files.
+     * @return The relevant DRL files in walk order.
+     * @throws IOException If an I/O error occurs.
+     */
+    public List<Path> findDrlFiles(List<Path> paths) throws IOException {
+        Objects.requireNonNull(paths, "Paths list cannot be null");
+
+        List<Path> drlFiles = new ArrayList<>();
         for (Path path : paths) {
             if (!Files.exists(path)) {
                 log.warn("Path does not exist and will be skipped: " + path);
@@ -102,35 +144,107 @@ public class DrlParser {
                 @Override
                 public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
                     if (isRelevantFile(file)) {
-                        log.debug("Submitting parsing task for file: " + file);
-                        futures.add(executor.submit(() -> {
-                            try {
-                                parseFile(file, mappings, indexer);
-                            } catch (IOException e) {
-                                log.error("Error parsing file: " + file, e);
-                            }
-                        }));
+                        drlFiles.add(file);
                     }
                     return FileVisitResult.CONTINUE;
                 }
             });
         }
+        return drlFiles;
+    }
 
-        // Await task completion
-        for (Future<?> future : futures) {
-            try {
-                future.get();
-            } catch (ExecutionException ee) {
-                log.error("ExecutionException during file parsing.", ee.getCause());
-                throw ee;
-            } catch (InterruptedException ie) {
-                log.error("InterruptedException during file parsing.", ie);
-                throw ie;
+    /**
+     * Parses the given DRL files concurrently. Files that cannot be read are logged and left out of the result.
+     * <p>
+     * No more than the configured number of files are in flight at a time, and the time spent on each file is
+     * logged so that a pathological file stands out.
+     *
+     * @param files   The DRL files to parse.
+     * @param indexer Lookup of the indexed classes for resolving class information.
+     * @return The outcome of each parsed file, in the order of the given files.
+     * @throws InterruptedException If the thread is interrupted.
+     * @throws ExecutionException   If a task execution fails.
+     */
+    public Map<Path, ParsedDrlFile> parseFiles(List<Path> files, ClassLookup indexer) throws InterruptedException, ExecutionException {
+        Objects.requireNonNull(indexer, "ClassLookup cannot be null");
+        resolvedMembers.clear();
+
+        long start = System.nanoTime();
+        ParsedDrlFile[] parsedFiles = new ParsedDrlFile[files.size()];
+        PriorityQueue<TimedParse> slowestFiles = new PriorityQueue<>(Comparator.comparingLong(TimedParse::elapsedNanos));
+        CompletionService<TimedParse> completionService = new ExecutorCompletionService<>(executor);
+        Set<Future<TimedParse>> inFlight = new HashSet<>();
+        try {
+            for (int i = 0; i < files.size(); i++) {
+                if (inFlight.size() >= maxInFlightTasks) {
+                    collect(completionService.take(), inFlight, parsedFiles, slowestFiles);
+                }
+                int index = i;
+                Path file = files.get(i);
+                log.debug("Submitting parsing task for file: " + file);
+                inFlight.add(completionService.submit(() -> timedParse(index, file, indexer)));
             }
+            while (!inFlight.isEmpty()) {
+                collect(completionService.take(), inFlight, parsedFiles, slowestFiles);
+            }
+        } catch (ExecutionException ee) {
+            log.error("ExecutionException during file parsing.", ee.getCause());
+            throw ee;
+        } catch (InterruptedException ie) {
+            log.error("InterruptedException during file parsing.", ie);
+            throw ie;
+        } finally {
+            inFlight.forEach(future -> future.cancel(true));
         }
 
-        log.info("Completed parsing DRL files. Total mappings: " + mappings.size());
-        return mappings;
+        logTimings(files.size(), System.nanoTime() - start, slowestFiles);
+        Map<Path, ParsedDrlFile> results = new LinkedHashMap<>();
+        for (int i = 0; i < parsedFiles.length; i++) {
+            if (parsedFiles[i] != null) {
+                results.put(files.get(i), parsedFiles[i]);
+            }
+        }
+        return results;
+    }
+
+    private TimedParse timedParse(int index, Path file, ClassLookup indexer) {
+        long start = System.nanoTime();
+        ParsedDrlFile parsedFile = null;
+        try {
+            parsedFile = parseFile(file, indexer);
+        } catch (IOException e) {
+            log.error("Error parsing file: " + file, e);
+        }
+        return new TimedParse(index, file, parsedFile, System.nanoTime() - start);
+    }
+
+    private void collect(Future<TimedParse> future, Set<Future<TimedParse>> inFlight, ParsedDrlFile[] parsedFiles,
+                         PriorityQueue<TimedParse> slowestFiles) throws InterruptedException, ExecutionException {
+        inFlight.remove(future);
+        TimedParse timedParse = future.get();
+        parsedFiles[timedParse.index()] = timedParse.parsedFile();
+        log.debug("Parsed DRL file " + timedParse.file() + " in " + toMillis(timedParse.elapsedNanos()) + " ms.");
+
+        slowestFiles.add(timedParse);
+        if (slowestFiles.size() > SLOWEST_FILES_REPORTED) {
+            slowestFiles.poll();
+        }
+    }
+
+    private void logTimings(int fileCount, long elapsedNanos, PriorityQueue<TimedParse> slowestFiles) {
+        List<TimedParse> slowest = new ArrayList<>(slowestFiles);
+        slowest.sort(Comparator.comparingLong(TimedParse::elapsedNanos).reversed());
+        StringBuilder message = new StringBuilder("Parsed " + fileCount + " DRL files in " + toMillis(elapsedNanos) + " ms.");
+        if (!slowest.isEmpty()) {
+            message.append(" Slowest:");
+            slowest.forEach(timedParse -> message.append(' ').append(timedParse.file().getFileName())
+                    .append(" (").append(toMillis(timedParse.elapsedNanos())).append(" ms)"));
+        }
+        log.info(message.toString());
+    }
+
+    private static long toMillis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
     }
 
     /**
@@ -152,55 +266,88 @@ public class DrlParser {
      *
      * @param file     Path to the DRL file to parse.
      * @param mappings Instance of ActionGroupMappings to update.
-     * @param indexer  JavaClassIndexer instance for resolving class information.
+     * @param indexer  Lookup of the indexed classes for resolving class information.
+     * @throws IOException If an I/O error occurs during file reading.
+     */
+    void parseFile(Path file, ActionGroupMappings mappings, ClassLookup indexer) throws IOException {
+        mappings.merge(parseFile(file, indexer).mappings());
+    }
+
+    /**
+     * Parses a single DRL file, recording the indexed classes its rules look up.
+     *
+     * @param file    Path to the DRL file to parse.
+     * @param indexer Lookup of the indexed classes for resolving class information.
+     * @return The actions of the file and the classes they depend on.
      * @throws IOException If an I/O error occurs during file reading.
      */
-    void parseFile(Path file, ActionGroupMappings mappings, JavaClassIndexer indexer) throws IOException {
+    ParsedDrlFile parseFile(Path file, ClassLookup indexer) throws IOException {
         log.debug("Parsing DRL file: " + file);
-        String content = Files.readString(file, StandardCharsets.UTF_8);
+        ImportTable imports = new ImportTable();
+        ActionGroupMappings mappings = new ActionGroupMappings();
+        Set<String> referencedClasses = new HashSet<>();
+        ClassLookup fileIndexer = new ReferenceRecordingLookup(indexer, referencedClasses);
 
-        Set<String> staticImports = extractStaticImports(content);
-        log.debug("Extracted " + staticImports.size() + " static imports from file: " + file);
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            DrlRuleSegmenter.segment(reader, new DrlSegmentVisitor() {
+                @Override
+                public void visitImport(String importTarget) {
+                    imports.addImport(importTarget);
+                }
 
-        Matcher ruleMatcher = RULE_PATTERN.matcher(content);
+                @Override
+                public void visitRule(DrlRule rule) {
+                    processRule(rule, imports, file, mappings, fileIndexer);
+                }
+            });
+        }
+        log.debug("Extracted " + imports.size() + " imports from file: " + file);
+        return new ParsedDrlFile(mappings, referencedClasses);
+    }
 
-        while (ruleMatcher.find()) {
-            String ruleName = ruleMatcher.group(1);
-            String whenSection = ruleMatcher.group(2);
-            log.debug("Processing rule: " + ruleName);
+    /**
+     * Processes a single rule and updates the provided ActionGroupMappings.
+     *
+     * @param rule          The rule segmented out of the DRL file.
+     * @param imports       Lookup tables over the imports declared by the file.
+     * @param file          Path to the DRL file.
+     * @param mappings      Instance of ActionGroupMappings to update.
+     * @param indexer       Lookup of the indexed classes for resolving class information.
+     */
+    private void processRule(DrlRule rule, ImportTable imports, Path file, ActionGroupMappings mappings, ClassLookup indexer) {
+        String ruleName = rule.name();
+        String whenSection = rule.whenSection();
+        log.debug("Processing rule: " + ruleName);
 
-            Matcher actionMatcher = ACTION_PATTERN.matcher(whenSection);
+        Matcher actionMatcher = ACTION_PATTERN.matcher(whenSection);
 
-            if (actionMatcher.find()) {
-                String actionName = actionMatcher.group(1);
-                Set<String> groupsAndPermissions = ConcurrentHashMap.newKeySet();
+        if (actionMatcher.find()) {
+            String actionName = actionMatcher.group(1);
+            Set<String> groupsAndPermissions = new HashSet<>();
 
-                // Extract all eval(...) blocks using the helper method
-                List<String> evalBlocks = extractEvalBlocks(whenSection);
+            // Extract all eval(...) blocks using the helper method
+            List<String> evalBlocks = extractEvalBlocks(whenSection);
 
-                int evalCount = 0;
-                for (String evalContent : evalBlocks) {
-                    evalCount++;
-                    log.debug("Processing eval #" + evalCount + ": " + evalContent);
+            int evalCount = 0;
+            for (String evalContent : evalBlocks) {
+                evalCount++;
+                log.debug("Processing eval #" + evalCount + ": " + evalContent);
 
-                    // Split the condition based on logical operators
-                    String[] conditions = CONDITION_SPLIT_PATTERN.split(evalContent);
-                    for (String condition : conditions) {
-                        processCondition(condition.trim(), staticImports, file, indexer, groupsAndPermissions);
-                    }
+                for (ConditionNode condition : ConditionParser.parse(evalContent)) {
+                    processCondition(condition, imports, file, indexer, groupsAndPermissions);
                 }
+            }
 
-                log.info("Total evals processed in rule \"" + ruleName + "\": " + evalCount);
-
-                if (groupsAndPermissions.isEmpty()) {
-                    groupsAndPermissions.add(NOT_FOUND);
-                }
+            log.info("Total evals processed in rule \"" + ruleName + "\": " + evalCount);
 
-                categorizeAction(file, actionName, groupsAndPermissions, mappings);
-                log.info("Mapped action: " + actionName + " to groups/permissions: " + groupsAndPermissions);
-            } else {
-                log.warn("No action found in rule: " + ruleName + " in file: " + file);
+            if (groupsAndPermissions.isEmpty()) {
+                groupsAndPermissions.add(NOT_FOUND);
             }
+
+            categorizeAction(file, actionName, groupsAndPermissions, mappings);
+            log.info("Mapped action: " + actionName + " to groups/permissions: " + groupsAndPermissions);
+        } else {
+            log.warn("No action found in rule: " + ruleName + " in file: " + file);
         }
     }
 
@@ -212,9 +359,10 @@ public class DrlParser {
      */
     private List<String> extractEvalBlocks(String whenSection) {
         List<String> evalBlocks = new ArrayList<>();
+        String lowerCaseWhenSection = whenSection.toLowerCase();
         int index = 0;
         while (index < whenSection.length()) {
-            int evalStart = whenSection.toLowerCase().indexOf(EVAL_PREFIX.toLowerCase(), index);
+            int evalStart = lowerCaseWhenSection.indexOf(EVAL_PREFIX, index);
             if (evalStart == -1) {
                 break;
             }
@@ -244,143 +392,104 @@ public class DrlParser {
     }
 
     /**
-     * Extracts static imports from the DRL file content.
+     * Walks the expression tree of an eval condition and collects the groups and permissions it refers to.
      *
-     * @param content Content of the DRL file.
-     * @return Set of static import statements.
-     */
-    private Set<String> extractStaticImports(String content) {
-        Set<String> staticImports = new HashSet<>();
-        Matcher staticImportMatcher = IMPORT_PATTERN.matcher(content);
-        while (staticImportMatcher.find()) {
-            staticImports.add(staticImportMatcher.group(1));
-        }
-        return staticImports;
-    }
-
-    /**
-     * Processes a single condition extracted from the EVAL section.
-     *
-     * @param condition            The condition string.
-     * @param staticImports        Set of static imports from the file.
+     * @param node                 The condition node.
+     * @param imports              Lookup tables over the imports declared by the file.
      * @param file                 Path to the DRL file.
-     * @param indexer              JavaClassIndexer instance.
+     * @param indexer              Lookup of the indexed classes.
      * @param groupsAndPermissions Set to accumulate groups and permissions.
      */
-    private void processCondition(String condition, Set<String> staticImports, Path file, JavaClassIndexer indexer, Set<String> groupsAndPermissions) {
-        log.debug("Processing condition: " + condition + " in file: " + file);
-
-        // Handle different types of conditions
-        handleUnqualifiedMethodCalls(condition, staticImports, file, indexer, groupsAndPermissions);
-        handleQualifiedMethodCalls(condition, staticImports, file, indexer, groupsAndPermissions);
-        handleUnqualifiedVariableReferences(condition, staticImports, file, indexer, groupsAndPermissions);
-        handleQualifiedVariableReferences(condition, staticImports, file, indexer, groupsAndPermissions);
-        handleDirectGroupMembership(condition, groupsAndPermissions);
-        handleSystemUserCondition(condition, groupsAndPermissions);
-    }
-
-    /**
-     * Handles unqualified method calls in the condition.
-     */
-    private void handleUnqualifiedMethodCalls(String condition, Set<String> staticImports, Path file, JavaClassIndexer indexer, Set<String> groupsAndPermissions) {
-        Pattern pattern = Pattern.compile("(?<!\\.)\\b(\\w+)\\s*\\(", Pattern.CASE_INSENSITIVE);
-        Matcher matcher = pattern.matcher(condition);
-        while (matcher.find()) {
-            String methodName = matcher.group(1);
-            log.debug("Found unqualified static method call: " + methodName + " in file: " + file);
-            resolveMethodCall(methodName, staticImports, indexer, groupsAndPermissions);
+    private void processCondition(ConditionNode node, ImportTable imports, Path file, ClassLookup indexer, Set<String> groupsAndPermissions) {
+        if (node instanceof ConditionNode.Call call) {
+            handleMethodCall(call, imports, file, indexer, groupsAndPermissions);
+            if (call.target() != null && !(call.target() instanceof ConditionNode.Name)) {
+                processCondition(call.target(), imports, file, indexer, groupsAndPermissions);
+            }
+            for (ConditionNode argument : call.arguments()) {
+                processCondition(argument, imports, file, indexer, groupsAndPermissions);
+            }
+        } else if (node instanceof ConditionNode.Name name) {
+            handleVariableReference(name, imports, file, indexer, groupsAndPermissions);
+        } else if (node instanceof ConditionNode.Logical logical) {
+            for (ConditionNode operand : logical.operands()) {
+                processCondition(operand, imports, file, indexer, groupsAndPermissions);
+            }
+        } else if (node instanceof ConditionNode.Operation operation) {
+            for (ConditionNode operand : operation.operands()) {
+                processCondition(operand, imports, file, indexer, groupsAndPermissions);
+            }
         }
     }
 
     /**
-     * Handles qualified method calls in the condition.
+     * Handles a method call: group membership and system user checks of the user and group provider, and
+     * static helper methods returning groups or permissions.
      */
-    private void handleQualifiedMethodCalls(String condition, Set<String> staticImports, Path file, JavaClassIndexer indexer, Set<String> groupsAndPermissions) {
-        Pattern pattern = Pattern.compile("\\b(\\w+)\\.(\\w+)\\s*\\(", Pattern.CASE_INSENSITIVE);
-        Matcher matcher = pattern.matcher(condition);
-        while (matcher.find()) {
-            String className = matcher.group(1);
-            String methodName = matcher.group(2);
-            log.debug("Found qualified static method call: " + className + "." + methodName + " in file: " + file);
-            resolveQualifiedMethodCall(className, methodName, staticImports, indexer, groupsAndPermissions);
+    private void handleMethodCall(ConditionNode.Call call, ImportTable imports, Path file, ClassLookup indexer, Set<String> groupsAndPermissions) {
+        String methodName = call.name();
+        if (IS_MEMBER_OF_ANY_OF_THE_SUPPLIED_GROUPS.equalsIgnoreCase(methodName)) {
+            call.arguments().forEach(argument -> collectGroupNames(argument, groupsAndPermissions));
+        } else if (IS_SYSTEM_USER.equalsIgnoreCase(methodName)) {
+            log.debug("Found condition: isSystemUser");
+            groupsAndPermissions.add(SYSTEM_USERS);
         }
-    }
 
-    /**
-     * Handles unqualified variable references in the condition.
-     */
-    private void handleUnqualifiedVariableReferences(String condition, Set<String> staticImports, Path file, JavaClassIndexer indexer, Set<String> groupsAndPermissions) {
-        Pattern pattern = Pattern.compile("(?<!\\.)\\b(\\w+)\\s*(?!\\()", Pattern.CASE_INSENSITIVE);
-        Matcher matcher = pattern.matcher(condition);
-        while (matcher.find()) {
-            String variableName = matcher.group(1);
-            int end = matcher.end();
-            if (end < condition.length()) {
-                char nextChar = condition.charAt(end);
-                if (nextChar == '.' || nextChar == '(') {
-                    continue;
-                }
-            }
-            log.debug("Found unqualified static variable reference: " + variableName + " in file: " + file);
-            resolveVariableReference(variableName, staticImports, indexer, groupsAndPermissions);
+        if (call.target() == null) {
+            log.debug("Found unqualified static method call: " + methodName + " in file: " + file);
+            resolveMethodCall(methodName, imports, indexer, groupsAndPermissions);
+        } else if (call.target() instanceof ConditionNode.Name target && isStaticReference(target)) {
+            log.debug("Found qualified static method call: " + target.name() + "." + methodName + " in file: " + file);
+            resolveQualifiedMethodCall(target.name(), methodName, imports, indexer, groupsAndPermissions);
         }
     }
 
     /**
-     * Handles qualified variable references in the condition.
+     * Handles a simple or qualified variable reference.
      */
-    private void handleQualifiedVariableReferences(String condition, Set<String> staticImports, Path file, JavaClassIndexer indexer, Set<String> groupsAndPermissions) {
-        Pattern pattern = Pattern.compile("\\b(\\w+)\\.(\\w+)\\b", Pattern.CASE_INSENSITIVE);
-        Matcher matcher = pattern.matcher(condition);
-        while (matcher.find()) {
-            String className = matcher.group(1);
-            String variableName = matcher.group(2);
-            log.debug("Found qualified static variable reference: " + className + "." + variableName + " in file: " + file);
-            resolveQualifiedVariableReference(className, variableName, staticImports, indexer, groupsAndPermissions);
+    private void handleVariableReference(ConditionNode.Name name, ImportTable imports, Path file, ClassLookup indexer, Set<String> groupsAndPermissions) {
+        if (!isStaticReference(name)) {
+            return;
+        }
+        if (name.qualifier() == null) {
+            log.debug("Found unqualified static variable reference: " + name.name() + " in file: " + file);
+            resolveVariableReference(name.name(), imports, indexer, groupsAndPermissions);
+        } else {
+            log.debug("Found qualified static variable reference: " + name.simpleQualifier() + "." + name.name() + " in file: " + file);
+            resolveQualifiedVariableReference(name.simpleQualifier(), name.name(), imports, indexer, groupsAndPermissions);
         }
     }
 
     /**
-     * Handles direct group membership conditions.
+     * Collects the string literals passed to a group membership check as group names.
      */
-    private void handleDirectGroupMembership(String condition, Set<String> groupsAndPermissions) {
-        if (condition.toLowerCase().contains(IS_MEMBER_OF_ANY_OF_THE_SUPPLIED_GROUPS.toLowerCase())) {
-            Matcher groupMatcher = GROUP_PATTERN.matcher(condition);
-            while (groupMatcher.find()) {
-                String groupName = groupMatcher.group(1);
-                log.debug("Found group: " + groupName + " in condition: " + condition);
-                groupsAndPermissions.add(StringUtils.humanReadable(groupName));
-            }
+    private void collectGroupNames(ConditionNode node, Set<String> groupsAndPermissions) {
+        if (node instanceof ConditionNode.StringLiteral literal) {
+            log.debug("Found group: " + literal.value());
+            groupsAndPermissions.add(StringUtils.humanReadable(literal.value()));
+        } else if (node instanceof ConditionNode.Call call) {
+            call.arguments().forEach(argument -> collectGroupNames(argument, groupsAndPermissions));
         }
     }
 
     /**
-     * Handles system user conditions.
+     * Checks if a name may refer to a static member, rather than to a rule variable such as {@code $action}
+     * or to the user and group provider global.
      */
-    private void handleSystemUserCondition(String condition, Set<String> groupsAndPermissions) {
-        if (condition.toLowerCase().contains(IS_SYSTEM_USER.toLowerCase())) {
-            log.debug("Found condition: isSystemUser");
-            groupsAndPermissions.add(SYSTEM_USERS);
-        }
+    private boolean isStaticReference(ConditionNode.Name name) {
+        String root = name.qualifier() == null ? name.name() : name.qualifier().split("\\.", 2)[0];
+        return !root.startsWith("$") && !USER_AND_GROUP_PROVIDER.equalsIgnoreCase(root);
     }
 
     /**
      * Resolves an unqualified method call using static imports.
      */
-    private void resolveMethodCall(String methodName, Set<String> staticImports, JavaClassIndexer indexer, Set<String> groupsAndPermissions) {
-        Optional<String> methodClassOpt = staticImports.stream()
-                .filter(importStr -> importStr.toLowerCase().endsWith("." + methodName.toLowerCase()) || importStr.toLowerCase().endsWith(".*"))
-                .findFirst();
+    private void resolveMethodCall(String methodName, ImportTable imports, ClassLookup indexer, Set<String> groupsAndPermissions) {
+        Optional<String> methodClassOpt = imports.resolveMemberOwner(methodName,
+                className -> indexer.getClassInfo(className).flatMap(classInfo -> classInfo.getMethod(methodName)).isPresent());
 
         if (methodClassOpt.isPresent()) {
-            String methodClass = methodClassOpt.get();
-            if (methodClass.endsWith(".*")) {
-                methodClass = methodClass.substring(0, methodClass.length() - 2);
-            } else {
-                methodClass = methodClass.substring(0, methodClass.lastIndexOf('.'));
-            }
-
-            resolveStaticMethod(methodClass, methodName, indexer, groupsAndPermissions);
+            resolveStaticMethod(methodClassOpt.get(), methodName, indexer, groupsAndPermissions);
         } else {
             log.warn("No matching static import found for method: " + methodName);
         }
@@ -389,47 +498,45 @@ public class DrlParser {
     /**
      * Resolves a qualified method call using static imports.
      */
-    private void resolveQualifiedMethodCall(String className, String methodName, Set<String> staticImports, JavaClassIndexer indexer, Set<String> groupsAndPermissions) {
-        Optional<String> methodClassOpt = staticImports.stream()
-                .filter(importStr -> importStr.toLowerCase().endsWith("." + className.toLowerCase()) || importStr.toLowerCase().endsWith(".*"))
-                .findFirst();
+    private void resolveQualifiedMethodCall(String className, String methodName, ImportTable imports, ClassLookup indexer, Set<String> groupsAndPermissions) {
+        Optional<String> methodClassOpt = imports.resolveClass(className, candidate -> indexer.getClassInfo(candidate).isPresent());
 
         if (methodClassOpt.isPresent()) {
-            String methodClass = methodClassOpt.get();
-            if (methodClass.endsWith(".*")) {
-                methodClass = methodClass.substring(0, methodClass.length() - 2);
-            }
-
-            resolveStaticMethod(methodClass, methodName, indexer, groupsAndPermissions);
+            resolveStaticMethod(methodClassOpt.get(), methodName, indexer, groupsAndPermissions);
         } else {
             log.warn("No matching static import found for class: " + className);
         }
     }
 
     /**
-     * Resolves a static method and updates the mappings.
+     * Resolves a static method and updates the mappings. Each method is evaluated once per run; later
+     * references reuse the memoised result.
      */
-    private void resolveStaticMethod(String className, String methodName, JavaClassIndexer indexer, Set<String> groupsAndPermissions) {
+    private void resolveStaticMethod(String className, String methodName, ClassLookup indexer, Set<String> groupsAndPermissions) {
+        StaticMember member = new StaticMember(className, methodName, MemberKind.METHOD);
+        groupsAndPermissions.addAll(resolvedMembers.computeIfAbsent(member, key -> evaluateStaticMethod(className, methodName, indexer)));
+    }
+
+    private Set<String> evaluateStaticMethod(String className, String methodName, ClassLookup indexer) {
         Optional<JavaClassIndexer.ClassInfo> classInfoOpt = indexer.getClassInfo(className);
         if (classInfoOpt.isPresent()) {
             JavaClassIndexer.ClassInfo classInfo = classInfoOpt.get();
             Optional<MethodDeclaration> methodOpt = classInfo.getMethod(methodName);
             if (methodOpt.isPresent()) {
-                MethodDeclaration method = methodOpt.get();
-                Set<String> groups = parseStaticMethod(method, classInfo, indexer);
-                groupsAndPermissions.addAll(groups);
+                return Set.copyOf(parseStaticMethod(methodOpt.get(), classInfo, indexer));
             } else {
                 log.warn("Method not found: " + methodName + " in class " + className);
             }
         } else {
             log.warn("Class not found in index: " + className);
         }
+        return Set.of();
     }
 
     /**
      * Parses a static method to extract groups and permissions.
      */
-    Set<String> parseStaticMethod(MethodDeclaration method, JavaClassIndexer.ClassInfo classInfo, JavaClassIndexer indexer) {
+    Set<String> parseStaticMethod(MethodDeclaration method, JavaClassIndexer.ClassInfo classInfo, ClassLookup indexer) {
         Set<String> groups = new HashSet<>();
         Map<String, String> keyValueMap = new HashMap<>();
         method.findFirst(com.github.javaparser.ast.stmt.ReturnStmt.class).ifPresent(returnStmt -> {
@@ -493,20 +600,12 @@ public class DrlParser {
     /**
      * Resolves an unqualified variable reference using static imports.
      */
-    private void resolveVariableReference(String variableName, Set<String> staticImports, JavaClassIndexer indexer, Set<String> groupsAndPermissions) {
-        Optional<String> variableClassOpt = staticImports.stream()
-                .filter(importStr -> importStr.toLowerCase().endsWith("." + variableName.toLowerCase()) || importStr.toLowerCase().endsWith(".*"))
-                .findFirst();
+    private void resolveVariableReference(String variableName, ImportTable imports, ClassLookup indexer, Set<String> groupsAndPermissions) {
+        Optional<String> variableClassOpt = imports.resolveMemberOwner(variableName,
+                className -> indexer.getClassInfo(className).flatMap(classInfo -> classInfo.getField(variableName)).isPresent());
 
         if (variableClassOpt.isPresent()) {
-            String variableClass = variableClassOpt.get();
-            if (variableClass.endsWith(".*")) {
-                variableClass = variableClass.substring(0, variableClass.length() - 2);
-            } else {
-                variableClass = variableClass.substring(0, variableClass.lastIndexOf('.'));
-            }
-
-            resolveStaticVariable(variableClass, variableName, indexer, groupsAndPermissions);
+            resolveStaticVariable(variableClassOpt.get(), variableName, indexer, groupsAndPermissions);
         } else {
             log.warn("No matching static import found for variable: " + variableName);
         }
@@ -515,67 +614,58 @@ public class DrlParser {
     /**
      * Resolves a qualified variable reference using static imports.
      */
-    private void resolveQualifiedVariableReference(String className, String variableName, Set<String> staticImports, JavaClassIndexer indexer, Set<String> groupsAndPermissions) {
-        String fullVariableImport = className + "." + variableName;
-        boolean isFullyImported = staticImports.stream()
-                .anyMatch(importStr -> importStr.equalsIgnoreCase(fullVariableImport));
-
-        if (isFullyImported) {
-            String variableClass = staticImports.stream()
-                    .filter(importStr -> importStr.equalsIgnoreCase(fullVariableImport))
-                    .findFirst()
-                    .orElse(className);
-            resolveStaticVariable(variableClass, variableName, indexer, groupsAndPermissions);
+    private void resolveQualifiedVariableReference(String className, String variableName, ImportTable imports, ClassLookup indexer, Set<String> groupsAndPermissions) {
+        Optional<String> variableClassOpt = imports.resolveClass(className, candidate -> indexer.getClassInfo(candidate).isPresent());
+
+        if (variableClassOpt.isPresent()) {
+            resolveStaticVariable(variableClassOpt.get(), variableName, indexer, groupsAndPermissions);
         } else {
-            Optional<String> wildcardImportOpt = staticImports.stream()
-                    .filter(importStr -> importStr.toLowerCase().endsWith("." + className.toLowerCase()) || importStr.toLowerCase().endsWith(".*"))
-                    .findFirst();
-            if (wildcardImportOpt.isPresent()) {
-                String variableClass = wildcardImportOpt.get();
-                if (variableClass.endsWith(".*")) {
-                    variableClass = variableClass.substring(0, variableClass.length() - 2);
-                }
-                resolveStaticVariable(variableClass, variableName, indexer, groupsAndPermissions);
-            } else {
-                log.warn("No matching static import found for variable: " + className + "." + variableName);
-            }
+            log.warn("No matching static import found for variable: " + className + "." + variableName);
         }
     }
 
     /**
-     * Resolves a static variable and updates the mappings.
+     * Resolves a static variable and updates the mappings. Each variable is evaluated once per run; later
+     * references reuse the memoised result.
      */
-    private void resolveStaticVariable(String className, String variableName, JavaClassIndexer indexer, Set<String> groupsAndPermissions) {
+    private void resolveStaticVariable(String className, String variableName, ClassLookup indexer, Set<String> groupsAndPermissions) {
+        StaticMember member = new StaticMember(className, variableName, MemberKind.FIELD);
+        groupsAndPermissions.addAll(resolvedMembers.computeIfAbsent(member, key -> evaluateStaticVariable(className, variableName, indexer)));
+    }
+
+    private Set<String> evaluateStaticVariable(String className, String variableName, ClassLookup indexer) {
         Optional<JavaClassIndexer.ClassInfo> classInfoOpt = indexer.getClassInfo(className);
-        if (classInfoOpt.isPresent()) {
-            JavaClassIndexer.ClassInfo classInfo = classInfoOpt.get();
-            classInfo.getField(variableName).ifPresent(fieldDecl -> {
-                boolean isStatic = fieldDecl.isStatic();
-                if (isStatic) {
-                    log.debug("Variable " + variableName + " is static.");
-                    fieldDecl.getVariable(0).getInitializer().ifPresent(initializer -> {
-                        if (initializer.isMethodCallExpr()) {
-                            String methodType = StringUtils.determineMethodType(initializer.asMethodCallExpr(), classInfo);
-                            log.debug("Detected method call in static variable: " + methodType + " in variable: " + variableName);
-
-                            initializer.asMethodCallExpr().getArguments().forEach(arg -> {
-                                String enumConstant = StringUtils.extractEnumConstant(arg, classInfo, indexer);
-                                if (enumConstant != null) {
-                                    log.debug("Found enum constant: " + enumConstant + " in static variable: " + variableName);
-                                    groupsAndPermissions.add(StringUtils.humanReadable(enumConstant));
-                                }
-                            });
-                        } else {
-                            String value = initializer.toString().replace("\"", "");
-                            log.debug("Static variable " + variableName + " has initializer value: " + value);
-                            groupsAndPermissions.add(StringUtils.humanReadable(value));
-                        }
-                    });
-                }
-            });
-        } else {
+        if (classInfoOpt.isEmpty()) {
             log.warn("Class not found in index: " + className);
+            return Set.of();
         }
+        JavaClassIndexer.ClassInfo classInfo = classInfoOpt.get();
+        Set<String> groups = new HashSet<>();
+        classInfo.getField(variableName).ifPresent(fieldDecl -> {
+            boolean isStatic = fieldDecl.isStatic();
+            if (isStatic) {
+                log.debug("Variable " + variableName + " is static.");
+                fieldDecl.getVariable(0).getInitializer().ifPresent(initializer -> {
+                    if (initializer.isMethodCallExpr()) {
+                        String methodType = StringUtils.determineMethodType(initializer.asMethodCallExpr(), classInfo);
+                        log.debug("Detected method call in static variable: " + methodType + " in variable: " + variableName);
+
+                        initializer.asMethodCallExpr().getArguments().forEach(arg -> {
+                            String enumConstant = StringUtils.extractEnumConstant(arg, classInfo, indexer);
+                            if (enumConstant != null) {
+                                log.debug("Found enum constant: " + enumConstant + " in static variable: " + variableName);
+                                groups.add(StringUtils.humanReadable(enumConstant));
+                            }
+                        });
+                    } else {
+                        String value = initializer.toString().replace("\"", "");
+                        log.debug("Static variable " + variableName + " has initializer value: " + value);
+                        groups.add(StringUtils.humanReadable(value));
+                    }
+                });
+            }
+        });
+        return Set.copyOf(groups);
     }
 
     /**
@@ -615,4 +705,41 @@ public class DrlParser {
             log.warn("Executor was abruptly shut down. " + droppedTasks.size() + " tasks will not be executed.");
         }
     }
+
+    /**
+     * View of the index used while parsing one file, recording every class found through it. The owner of a
+     * helper memoised by another file is still found through this view while the imports are resolved, so it
+     * is recorded as well.
+     */
+    private record ReferenceRecordingLookup(ClassLookup delegate, Set<String> referencedClasses) implements ClassLookup {
+
+        @Override
+        public Optional<JavaClassIndexer.ClassInfo> getClassInfo(String className) {
+            Optional<JavaClassIndexer.ClassInfo> classInfo = delegate.getClassInfo(className);
+            if (classInfo.isPresent()) {
+                referencedClasses.add(className);
+            }
+            return classInfo;
+        }
+    }
+
+    /**
+     * Outcome of parsing one file on a worker, with the time it took.
+     */
+    private record TimedParse(int index, Path file, ParsedDrlFile parsedFile, long elapsedNanos) {
+    }
+
+    /**
+     * Kind of static member a DRL condition can reference.
+     */
+    private enum MemberKind {
+        METHOD,
+        FIELD
+    }
+
+    /**
+     * Key of a memoised static member.
+     */
+    private record StaticMember(String className, String memberName, MemberKind kind) {
+    }
 }
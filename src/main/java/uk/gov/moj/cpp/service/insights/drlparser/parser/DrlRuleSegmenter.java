@@ -0,0 +1,260 @@
+package uk.gov.moj.cpp.service.insights.drlparser.parser;
+
+import uk.gov.moj.cpp.service.insights.drlparser.parser.model.DrlRule;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Segments a DRL file into its imports and {@code rule ... when ... then ... end} blocks in a single
+ * forward pass over a reader.
+ * <p>
+ * The segmenter is a small hand-written tokenizer rather than a regular expression, so the cost is
+ * linear in the size of the file no matter how long the rules are. Keywords are only recognised
+ * outside string literals and comments, and a keyword used as a member name (e.g. {@code $range.end})
+ * is not treated as one. String literals end at the end of the line, as they do in DRL, so a stray
+ * quote cannot swallow the rest of the file.
+ * <p>
+ * Rules are handed to the visitor as soon as their {@code end} keyword is read. Rules that are cut
+ * off by the end of the file are dropped.
+ */
+public final class DrlRuleSegmenter {
+
+    private static final int EOF = -1;
+    private static final int BUFFER_SIZE = 8192;
+
+    private static final String IMPORT = "import";
+    private static final String STATIC = "static";
+    private static final String RULE = "rule";
+    private static final String WHEN = "when";
+    private static final String THEN = "then";
+    private static final String END = "end";
+
+    private final Reader reader;
+    private final DrlSegmentVisitor visitor;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private int limit;
+
+    // Receives every character consumed while a when section is read; comments are replaced by a space
+    private StringBuilder capture;
+    private boolean afterDot;
+
+    private DrlRuleSegmenter(Reader reader, DrlSegmentVisitor visitor) {
+        this.reader = reader;
+        this.visitor = visitor;
+    }
+
+    /**
+     * Segments the DRL content read from the given reader. The reader is not closed.
+     *
+     * @param reader  Reader over the DRL content.
+     * @param visitor Visitor receiving the imports and rules in file order.
+     * @throws IOException If reading fails.
+     */
+    public static void segment(Reader reader, DrlSegmentVisitor visitor) throws IOException {
+        new DrlRuleSegmenter(reader, visitor).segmentAll();
+    }
+
+    private void segmentAll() throws IOException {
+        Token token;
+        while ((token = nextToken()) != null) {
+            if (token.isKeyword(IMPORT)) {
+                readImport();
+            } else if (token.isKeyword(RULE)) {
+                readRule();
+            }
+        }
+    }
+
+    /**
+     * Reads the remainder of an import statement, which ends at a semicolon or at the end of the line.
+     */
+    private void readImport() throws IOException {
+        StringBuilder statement = new StringBuilder();
+        int c;
+        while ((c = peek(0)) != EOF && c != ';' && c != '\n') {
+            statement.append((char) read());
+        }
+        String importTarget = statement.toString().trim();
+        if (importTarget.startsWith(STATIC) && importTarget.length() > STATIC.length()
+                && Character.isWhitespace(importTarget.charAt(STATIC.length()))) {
+            importTarget = importTarget.substring(STATIC.length()).trim();
+        }
+        if (!importTarget.isEmpty()) {
+            visitor.visitImport(importTarget);
+        }
+    }
+
+    /**
+     * Reads a rule following the {@code rule} keyword: its name, its attributes, the when section and the
+     * consequence.
+     */
+    private void readRule() throws IOException {
+        Token nameToken = nextToken();
+        if (nameToken == null) {
+            return;
+        }
+
+        if (!skipToKeyword(WHEN)) {
+            return;
+        }
+
+        capture = new StringBuilder();
+        boolean thenFound = skipToKeyword(THEN);
+        String whenSection = capture.toString();
+        capture = null;
+        if (!thenFound) {
+            return;
+        }
+        whenSection = whenSection.substring(0, whenSection.length() - THEN.length()).trim();
+
+        if (skipToKeyword(END)) {
+            visitor.visitRule(new DrlRule(nameToken.text(), whenSection));
+        }
+    }
+
+    private boolean skipToKeyword(String keyword) throws IOException {
+        Token token;
+        while ((token = nextToken()) != null) {
+            if (token.isKeyword(keyword)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Token nextToken() throws IOException {
+        while (true) {
+            int c = peek(0);
+            if (c == EOF) {
+                return null;
+            }
+            if (Character.isWhitespace(c)) {
+                read();
+            } else if (c == '/' && (peek(1) == '/' || peek(1) == '*')) {
+                skipComment();
+            } else if (c == '"' || c == '\'') {
+                return token(TokenType.STRING, readString());
+            } else if (Character.isJavaIdentifierStart(c)) {
+                return token(TokenType.WORD, readWord());
+            } else {
+                return token(TokenType.SYMBOL, String.valueOf((char) read()));
+            }
+        }
+    }
+
+    private Token token(TokenType type, String text) {
+        Token token = new Token(type, text, afterDot);
+        afterDot = type == TokenType.SYMBOL && ".".equals(text);
+        return token;
+    }
+
+    private void skipComment() throws IOException {
+        skip();
+        boolean blockComment = skip() == '*';
+        int c;
+        if (blockComment) {
+            while ((c = skip()) != EOF && !(c == '*' && peek(0) == '/')) {
+                // Skip the comment body
+            }
+            skip();
+        } else {
+            while ((c = peek(0)) != EOF && c != '\n') {
+                skip();
+            }
+        }
+        if (capture != null) {
+            capture.append(' ');
+        }
+    }
+
+    /**
+     * Reads a string literal and returns its content without the quotes. Unterminated literals end at the
+     * end of the line.
+     */
+    private String readString() throws IOException {
+        int quote = read();
+        StringBuilder text = new StringBuilder();
+        int c;
+        while ((c = peek(0)) != EOF && c != '\n') {
+            read();
+            if (c == quote) {
+                break;
+            }
+            if (c == '\\' && peek(0) != EOF && peek(0) != '\n') {
+                c = read();
+            }
+            text.append((char) c);
+        }
+        return text.toString();
+    }
+
+    private String readWord() throws IOException {
+        StringBuilder word = new StringBuilder();
+        int c;
+        while ((c = peek(0)) != EOF && Character.isJavaIdentifierPart(c)) {
+            word.append((char) read());
+        }
+        return word.toString();
+    }
+
+    /**
+     * Consumes the next character, recording it if a when section is being captured.
+     */
+    private int read() throws IOException {
+        int c = skip();
+        if (c != EOF && capture != null) {
+            capture.append((char) c);
+        }
+        return c;
+    }
+
+    /**
+     * Consumes the next character without recording it.
+     */
+    private int skip() throws IOException {
+        if (!ensureAvailable(1)) {
+            return EOF;
+        }
+        return buffer[position++];
+    }
+
+    private int peek(int offset) throws IOException {
+        if (!ensureAvailable(offset + 1)) {
+            return EOF;
+        }
+        return buffer[position + offset];
+    }
+
+    private boolean ensureAvailable(int count) throws IOException {
+        if (limit - position >= count) {
+            return true;
+        }
+        // Move the unread characters to the front and top the buffer up
+        System.arraycopy(buffer, position, buffer, 0, limit - position);
+        limit -= position;
+        position = 0;
+        while (limit < count) {
+            int read = reader.read(buffer, limit, buffer.length - limit);
+            if (read == EOF) {
+                return false;
+            }
+            limit += read;
+        }
+        return true;
+    }
+
+    private enum TokenType {
+        WORD,
+        STRING,
+        SYMBOL
+    }
+
+    private record Token(TokenType type, String text, boolean qualified) {
+
+        boolean isKeyword(String keyword) {
+            return type == TokenType.WORD && !qualified && keyword.equals(text);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package uk.gov.moj.cpp.service.insights.drlparser.parser;
+
+import uk.gov.moj.cpp.service.insights.drlparser.parser.model.DrlRule;
+
+/**
+ * Callback receiving the top-level statements of a DRL file as {@link DrlRuleSegmenter} reaches them.
+ */
+public interface DrlSegmentVisitor {
+
+    /**
+     * Visits an import statement.
+     *
+     * @param importTarget The imported name without the {@code import} and {@code static} keywords,
+     *                     e.g. {@code com.example.Groups.*}.
+     */
+    void visitImport(String importTarget);
+
+    /**
+     * Visits a complete rule. Imports always precede rules in a DRL file, so every import of the
+     * file has been visited by the time its first rule is.
+     *
+     * @param rule The rule.
+     */
+    void visitRule(DrlRule rule);
+}
@@ -0,0 +1,111 @@
+package uk.gov.moj.cpp.service.insights.drlparser.parser;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+/**
+ * Lookup tables over the imports of a single DRL file, used to resolve the names referenced by its rules.
+ * <p>
+ * Explicit imports are indexed by their last segment, compared case-insensitively, so resolving a name is
+ * a single hash lookup. Wildcard imports are kept in file order and tried one after the other, keeping the
+ * first one that actually declares the name.
+ * <p>
+ * The table is filled while the file is segmented and only read once its rules are processed; it is not
+ * shared between threads.
+ */
+public final class ImportTable {
+
+    private static final String WILDCARD_SUFFIX = ".*";
+
+    // Lower-cased last segment -> import, e.g. "admingroups" -> "com.example.Groups.adminGroups"
+    private final Map<String, String> explicitImports = new HashMap<>();
+
+    // Owners of wildcard imports in file order, e.g. "com.example.Groups" for "com.example.Groups.*"
+    private final List<String> wildcardOwners = new ArrayList<>();
+
+    /**
+     * Adds an import. When two explicit imports end with the same name the first one wins.
+     *
+     * @param importTarget The imported name, e.g. {@code com.example.Groups.*}.
+     */
+    public void addImport(String importTarget) {
+        if (importTarget.endsWith(WILDCARD_SUFFIX)) {
+            wildcardOwners.add(importTarget.substring(0, importTarget.length() - WILDCARD_SUFFIX.length()));
+        } else if (importTarget.indexOf('.') > 0) {
+            explicitImports.putIfAbsent(key(lastSegment(importTarget)), importTarget);
+        }
+    }
+
+    /**
+     * Resolves the class owning a statically imported member.
+     *
+     * @param memberName     The name of the method or field.
+     * @param declaresMember Checks whether a candidate class declares the member.
+     * @return The first candidate declaring the member, trying the explicit import before the wildcard imports
+     * in file order. If no candidate declares it, the first candidate; empty if there is none.
+     */
+    public Optional<String> resolveMemberOwner(String memberName, Predicate<String> declaresMember) {
+        List<String> candidates = new ArrayList<>();
+        String explicitImport = explicitImports.get(key(memberName));
+        if (explicitImport != null) {
+            candidates.add(explicitImport.substring(0, explicitImport.lastIndexOf('.')));
+        }
+        candidates.addAll(wildcardOwners);
+        return firstMatching(candidates, declaresMember);
+    }
+
+    /**
+     * Resolves the fully qualified name of a class referenced by its simple name.
+     *
+     * @param simpleClassName The simple class name.
+     * @param isKnownClass    Checks whether a candidate fully qualified name denotes a known class.
+     * @return The first known candidate, trying the explicit import before the wildcard imports in file order.
+     * If no candidate is known, the first candidate; empty if there is none.
+     */
+    public Optional<String> resolveClass(String simpleClassName, Predicate<String> isKnownClass) {
+        List<String> candidates = new ArrayList<>();
+        String explicitImport = explicitImports.get(key(simpleClassName));
+        if (explicitImport != null) {
+            candidates.add(explicitImport);
+        }
+        for (String wildcardOwner : wildcardOwners) {
+            // Either a static import of the class's own members or a package (or outer class) import
+            if (lastSegment(wildcardOwner).equalsIgnoreCase(simpleClassName)) {
+                candidates.add(wildcardOwner);
+            }
+            candidates.add(wildcardOwner + "." + simpleClassName);
+        }
+        return firstMatching(candidates, isKnownClass);
+    }
+
+    /**
+     * Returns the number of imports in the table.
+     *
+     * @return The number of explicit and wildcard imports.
+     */
+    public int size() {
+        return explicitImports.size() + wildcardOwners.size();
+    }
+
+    private static Optional<String> firstMatching(List<String> candidates, Predicate<String> predicate) {
+        for (String candidate : candidates) {
+            if (predicate.test(candidate)) {
+                return Optional.of(candidate);
+            }
+        }
+        return candidates.stream().findFirst();
+    }
+
+    private static String lastSegment(String name) {
+        return name.substring(name.lastIndexOf('.') + 1);
+    }
+
+    private static String key(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+}
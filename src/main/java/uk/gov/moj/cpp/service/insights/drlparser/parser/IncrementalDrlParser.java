@@ -0,0 +1,165 @@
+package uk.gov.moj.cpp.service.insights.drlparser.parser;
+
+import uk.gov.moj.cpp.service.insights.drlparser.parser.model.ActionGroupMappings;
+import uk.gov.moj.cpp.service.insights.drlparser.parser.model.DrlBuildState;
+import uk.gov.moj.cpp.service.insights.drlparser.parser.model.ParsedDrlFile;
+import uk.gov.moj.cpp.service.insights.util.HashUtil;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * Parses DRL files incrementally, reusing the actions recorded by the previous run for every file whose content
+ * and dependencies are unchanged.
+ * <p>
+ * A file depends on the Java source files declaring the classes its rules looked up in the
+ * {@link JavaClassIndexer}. Adding or removing a Java source file may change how names resolve, so it causes
+ * every file to be parsed again. The Java sources are only indexed when at least one file has to be parsed.
+ */
+public class IncrementalDrlParser {
+
+    private final Log log;
+    private final DrlParser parser;
+
+    // Hashes of the files read during the current run
+    private final Map<Path, String> fileHashes = new HashMap<>();
+
+    /**
+     * Constructs an IncrementalDrlParser.
+     *
+     * @param log    Maven's Log interface for logging messages.
+     * @param parser Parser for the DRL files that have to be parsed again.
+     */
+    public IncrementalDrlParser(Log log, DrlParser parser) {
+        this.log = log;
+        this.parser = parser;
+    }
+
+    /**
+     * Parses the DRL files located within the specified list of paths.
+     *
+     * @param paths         List of directory paths to search for DRL and Java files.
+     * @param indexer       Index of the Java classes, not yet built; it is built from {@code paths} if needed.
+     * @param previousState The state recorded by the previous run, or {@code null} to parse every file.
+     * @return The mappings of all files and the state to record for the next run.
+     * @throws IOException          If an I/O error occurs.
+     * @throws InterruptedException If the thread is interrupted.
+     * @throws ExecutionException   If a task execution fails.
+     */
+    public Result parse(List<Path> paths, JavaClassIndexer indexer, DrlBuildState previousState)
+            throws IOException, InterruptedException, ExecutionException {
+        fileHashes.clear();
+        List<Path> drlFiles = parser.findDrlFiles(paths);
+        String javaSources = fingerprint(JavaClassIndexer.findJavaFiles(paths));
+        boolean reusable = previousState != null && javaSources.equals(previousState.getJavaSources());
+
+        DrlBuildState state = new DrlBuildState(javaSources);
+        List<Path> changedFiles = new ArrayList<>();
+        Set<String> currentFiles = new HashSet<>();
+        for (Path drlFile : drlFiles) {
+            String key = key(drlFile);
+            currentFiles.add(key);
+            Optional<DrlBuildState.DrlFileState> previousFile = reusable ? previousState.getFile(key) : Optional.empty();
+            if (previousFile.isPresent() && isCurrent(drlFile, previousFile.get())) {
+                state.putFile(key, previousFile.get());
+            } else {
+                changedFiles.add(drlFile);
+            }
+        }
+
+        if (!changedFiles.isEmpty()) {
+            log.info("Parsing " + changedFiles.size() + " of " + drlFiles.size() + " DRL files.");
+            indexer.buildIndex(paths);
+            for (Map.Entry<Path, ParsedDrlFile> entry : parser.parseFiles(changedFiles, indexer).entrySet()) {
+                Path drlFile = entry.getKey();
+                ParsedDrlFile parsedFile = entry.getValue();
+                state.putFile(key(drlFile), new DrlBuildState.DrlFileState(hash(drlFile),
+                        dependencies(parsedFile.referencedClasses(), indexer), parsedFile.mappings()));
+            }
+        } else {
+            log.info("All " + drlFiles.size() + " DRL files are unchanged.");
+        }
+
+        boolean removedFiles = previousState != null && !currentFiles.containsAll(previousState.getDrlFiles());
+        boolean changed = previousState == null || !changedFiles.isEmpty() || removedFiles;
+
+        // Files are merged in walk order, whether they were parsed again or not
+        ActionGroupMappings mappings = new ActionGroupMappings();
+        for (Path drlFile : drlFiles) {
+            state.getFile(key(drlFile)).ifPresent(fileState -> mappings.merge(fileState.toMappings()));
+        }
+        return new Result(mappings, state, changed);
+    }
+
+    private boolean isCurrent(Path drlFile, DrlBuildState.DrlFileState fileState) throws IOException {
+        if (!hash(drlFile).equals(fileState.getHash())) {
+            log.debug("DRL file changed: " + drlFile);
+            return false;
+        }
+        for (Map.Entry<String, String> dependency : fileState.getDependencies().entrySet()) {
+            Path javaFile = Path.of(dependency.getKey());
+            if (!Files.isRegularFile(javaFile) || !hash(javaFile).equals(dependency.getValue())) {
+                log.debug("Dependency " + javaFile + " of DRL file " + drlFile + " changed.");
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Map<String, String> dependencies(Set<String> referencedClasses, JavaClassIndexer indexer) throws IOException {
+        Map<String, String> dependencies = new TreeMap<>();
+        for (String className : referencedClasses) {
+            Optional<Path> sourceFile = indexer.getClassInfo(className).flatMap(JavaClassIndexer.ClassInfo::getSourceFile);
+            if (sourceFile.isPresent()) {
+                dependencies.put(key(sourceFile.get()), hash(sourceFile.get()));
+            }
+        }
+        return dependencies;
+    }
+
+    private String hash(Path file) throws IOException {
+        String hash = fileHashes.get(file);
+        if (hash == null) {
+            hash = HashUtil.hash(file);
+            fileHashes.put(file, hash);
+        }
+        return hash;
+    }
+
+    private static String fingerprint(List<Path> javaFiles) {
+        MessageDigest digest = HashUtil.newDigest();
+        javaFiles.stream()
+                .map(IncrementalDrlParser::key)
+                .sorted()
+                .forEach(javaFile -> digest.update((javaFile + "\n").getBytes(StandardCharsets.UTF_8)));
+        return HashUtil.toHex(digest);
+    }
+
+    private static String key(Path file) {
+        return file.toAbsolutePath().normalize().toString();
+    }
+
+    /**
+     * Outcome of an incremental run.
+     *
+     * @param mappings The mappings of all DRL files.
+     * @param state    The state to record for the next run.
+     * @param changed  Whether the mappings may differ from those of the previous run.
+     */
+    public record Result(ActionGroupMappings mappings, DrlBuildState state, boolean changed) {
+    }
+}
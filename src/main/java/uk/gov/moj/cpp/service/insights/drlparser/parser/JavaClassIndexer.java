@@ -1,11 +1,15 @@
 package uk.gov.moj.cpp.service.insights.drlparser.parser;
 
+import uk.gov.moj.cpp.service.insights.parser.JavaFileParser;
+import uk.gov.moj.cpp.service.insights.parser.JavaFileParserImpl;
+
 import java.io.IOException;
 import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -14,7 +18,6 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
-import com.github.javaparser.StaticJavaParser;
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.body.FieldDeclaration;
 import com.github.javaparser.ast.body.MethodDeclaration;
@@ -22,10 +25,27 @@ import com.github.javaparser.ast.body.TypeDeclaration;
 
 /**
  * Builds an index of Java classes, including their static methods and variables.
+ * <p>
+ * Source files are parsed in parallel and then indexed in file order, so the index does not depend on
+ * thread scheduling.
  */
-public class JavaClassIndexer {
+public class JavaClassIndexer implements ClassLookup {
 
     private final Map<String, ClassInfo> classInfoMap = new ConcurrentHashMap<>();
+    private final JavaFileParser parser;
+
+    public JavaClassIndexer() {
+        this(new JavaFileParserImpl());
+    }
+
+    /**
+     * Constructs a JavaClassIndexer parsing source files with the given parser.
+     *
+     * @param parser Parser for Java source files.
+     */
+    public JavaClassIndexer(JavaFileParser parser) {
+        this.parser = parser;
+    }
 
     /**
      * Builds an index from the specified source directories.
@@ -34,36 +54,54 @@ public class JavaClassIndexer {
      * @throws IOException If an I/O error occurs.
      */
     public void buildIndex(List<Path> sourcePaths) throws IOException {
+        List<Path> javaFiles = findJavaFiles(sourcePaths);
+
+        List<Optional<CompilationUnit>> compilationUnits = javaFiles.parallelStream()
+                .map(this::parseJavaFile)
+                .toList();
+        for (int i = 0; i < javaFiles.size(); i++) {
+            Path javaFile = javaFiles.get(i);
+            compilationUnits.get(i).ifPresent(cu -> indexCompilationUnit(cu, javaFile));
+        }
+    }
+
+    /**
+     * Finds the Java source files that {@link #buildIndex(List)} would index, without parsing them.
+     *
+     * @param sourcePaths List of source directories.
+     * @return The Java source files in walk order.
+     * @throws IOException If an I/O error occurs.
+     */
+    public static List<Path> findJavaFiles(List<Path> sourcePaths) throws IOException {
+        List<Path> javaFiles = new ArrayList<>();
         for (Path sourcePath : sourcePaths) {
-            indexSourcePath(sourcePath);
+            collectJavaFiles(sourcePath, javaFiles);
         }
+        return javaFiles;
     }
 
-    private void indexSourcePath(Path sourcePath) throws IOException {
+    private static void collectJavaFiles(Path sourcePath, List<Path> javaFiles) throws IOException {
         Files.walkFileTree(sourcePath, new SimpleFileVisitor<>() {
             @Override
             public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
                 if (file.toString().endsWith(".java")) {
-                    try {
-                        parseJavaFile(file);
-                    } catch (IOException e) {
-                        e.printStackTrace();
-                    }
+                    javaFiles.add(file);
                 }
                 return FileVisitResult.CONTINUE;
             }
         });
     }
 
-    private void parseJavaFile(Path file) throws IOException {
-        CompilationUnit cu;
+    private Optional<CompilationUnit> parseJavaFile(Path file) {
         try {
-            cu = StaticJavaParser.parse(file);
+            return Optional.of(parser.parse(file));
         } catch (Exception e) {
             e.printStackTrace();
-            return;
+            return Optional.empty();
         }
+    }
 
+    private void indexCompilationUnit(CompilationUnit cu, Path sourceFile) {
         String packageName = cu.getPackageDeclaration()
                 .map(pd -> pd.getNameAsString())
                 .orElse("");
@@ -76,11 +114,11 @@ public class JavaClassIndexer {
         }
 
         for (var typeDecl : cu.getTypes()) {
-            processTypeDeclaration(typeDecl, packageName, staticImports);
+            processTypeDeclaration(typeDecl, packageName, staticImports, sourceFile);
         }
     }
 
-    private void processTypeDeclaration(TypeDeclaration<?> typeDecl, String packageName, Set<String> staticImports) {
+    private void processTypeDeclaration(TypeDeclaration<?> typeDecl, String packageName, Set<String> staticImports, Path sourceFile) {
         String className = typeDecl.getNameAsString();
         String fullClassName = packageName.isEmpty() ? className : packageName + "." + className;
 
@@ -100,22 +138,17 @@ public class JavaClassIndexer {
             }
         }
 
-        classInfoMap.put(fullClassName, new ClassInfo(fullClassName, methods, fields, new HashSet<>(staticImports)));
+        classInfoMap.put(fullClassName, new ClassInfo(fullClassName, methods, fields, new HashSet<>(staticImports), sourceFile));
 
         // Process nested types
         for (var member : typeDecl.getMembers()) {
             if (member instanceof TypeDeclaration<?> nestedType) {
-                processTypeDeclaration(nestedType, fullClassName, staticImports);
+                processTypeDeclaration(nestedType, fullClassName, staticImports, sourceFile);
             }
         }
     }
 
-    /**
-     * Retrieves class information by its fully qualified name.
-     *
-     * @param className Fully qualified class name.
-     * @return Optional containing ClassInfo if found.
-     */
+    @Override
     public Optional<ClassInfo> getClassInfo(String className) {
         return Optional.ofNullable(classInfoMap.get(className));
     }
@@ -128,12 +161,18 @@ public class JavaClassIndexer {
         private final Map<String, MethodDeclaration> methods;
         private final Map<String, FieldDeclaration> fields;
         private final Set<String> staticImports;
+        private final Path sourceFile;
 
         public ClassInfo(String className, Map<String, MethodDeclaration> methods, Map<String, FieldDeclaration> fields, Set<String> staticImports) {
+            this(className, methods, fields, staticImports, null);
+        }
+
+        public ClassInfo(String className, Map<String, MethodDeclaration> methods, Map<String, FieldDeclaration> fields, Set<String> staticImports, Path sourceFile) {
             this.className = className;
             this.methods = methods;
             this.fields = fields;
             this.staticImports = staticImports;
+            this.sourceFile = sourceFile;
         }
 
         public Optional<MethodDeclaration> getMethod(String methodName) {
@@ -147,6 +186,15 @@ public class JavaClassIndexer {
         public Set<String> getStaticImports() {
             return staticImports;
         }
+
+        /**
+         * Returns the source file declaring the class.
+         *
+         * @return Optional containing the source file, empty if the class was not indexed from a file.
+         */
+        public Optional<Path> getSourceFile() {
+            return Optional.ofNullable(sourceFile);
+        }
     }
 }
 
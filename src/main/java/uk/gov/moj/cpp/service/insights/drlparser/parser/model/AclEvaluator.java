@@ -0,0 +1,173 @@
+package uk.gov.moj.cpp.service.insights.drlparser.parser.model;
+
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+
+/**
+ * Answers which command and query actions a user profile, i.e. a combination of groups and permissions,
+ * is allowed to perform.
+ * <p>
+ * Each distinct group or permission is given a bit index and each action a bitset of the groups allowed to
+ * perform it, stored in a single flat array of words. A profile is turned into the same kind of bitset once,
+ * after which every action is checked with a few word-wise ANDs in one pass over the array, so thousands of
+ * profiles can be evaluated without touching a map or a string.
+ * <p>
+ * The evaluator is immutable and can be shared between threads.
+ */
+public final class AclEvaluator {
+
+    private static final Gson GSON = new GsonBuilder().disableHtmlEscaping().setPrettyPrinting().create();
+    private static final Type PROFILES_TYPE = new TypeToken<LinkedHashMap<String, List<String>>>() {
+    }.getType();
+
+    private final Map<String, Integer> groupIndex;
+    private final int wordsPerAction;
+    private final ActionMasks commandMasks;
+    private final ActionMasks queryMasks;
+
+    private AclEvaluator(Map<String, Integer> groupIndex, ActionMasks commandMasks, ActionMasks queryMasks) {
+        this.groupIndex = groupIndex;
+        this.wordsPerAction = wordCount(groupIndex.size());
+        this.commandMasks = commandMasks;
+        this.queryMasks = queryMasks;
+    }
+
+    /**
+     * Builds the evaluator from an ACL index.
+     *
+     * @param index The ACL index.
+     * @return The evaluator.
+     */
+    public static AclEvaluator of(AclIndex index) {
+        Map<String, Integer> groupIndex = new HashMap<>();
+        for (String group : index.getGroupsAndPermissions()) {
+            groupIndex.put(group, groupIndex.size());
+        }
+        int words = wordCount(groupIndex.size());
+        return new AclEvaluator(Collections.unmodifiableMap(groupIndex),
+                ActionMasks.of(index.getCommandActionToGroupsMap(), groupIndex, words),
+                ActionMasks.of(index.getQueryActionToGroupsMap(), groupIndex, words));
+    }
+
+    /**
+     * Evaluates a single profile. Groups and permissions that no rule refers to are ignored.
+     *
+     * @param groups The groups and permissions of the profile.
+     * @return The actions the profile is allowed to perform, in alphabetical order.
+     */
+    public PermittedActions evaluate(Collection<String> groups) {
+        long[] profile = new long[wordsPerAction];
+        boolean known = false;
+        for (String group : groups) {
+            Integer bit = groupIndex.get(group);
+            if (bit != null) {
+                profile[bit >>> 6] |= 1L << bit;
+                known = true;
+            }
+        }
+        if (!known) {
+            return PermittedActions.NONE;
+        }
+        return new PermittedActions(commandMasks.permitted(profile), queryMasks.permitted(profile));
+    }
+
+    /**
+     * Evaluates a batch of profiles.
+     *
+     * @param profiles The groups and permissions of each profile, by profile name.
+     * @return The permitted actions by profile name, in the order of the given profiles.
+     */
+    public Map<String, PermittedActions> evaluateAll(Map<String, ? extends Collection<String>> profiles) {
+        Map<String, PermittedActions> results = new LinkedHashMap<>();
+        profiles.forEach((name, groups) -> results.put(name, evaluate(groups)));
+        return results;
+    }
+
+    /**
+     * Reads profiles from a JSON object mapping each profile name to an array of groups and permissions.
+     *
+     * @param reader Reader over the JSON profiles.
+     * @return The groups and permissions by profile name, in file order.
+     * @throws JsonParseException If the content is not a JSON object of string arrays.
+     */
+    public static Map<String, List<String>> readProfiles(Reader reader) {
+        Map<String, List<String>> profiles = GSON.fromJson(reader, PROFILES_TYPE);
+        if (profiles == null) {
+            throw new JsonParseException("Empty group profiles.");
+        }
+        return profiles;
+    }
+
+    /**
+     * Writes the permitted actions of each profile as JSON.
+     *
+     * @param results The permitted actions by profile name.
+     * @param writer  Writer receiving the JSON.
+     */
+    public static void writeJson(Map<String, PermittedActions> results, Writer writer) {
+        GSON.toJson(results, writer);
+    }
+
+    private static int wordCount(int bits) {
+        return Math.max(1, (bits + Long.SIZE - 1) / Long.SIZE);
+    }
+
+    /**
+     * The command and query actions permitted to a profile.
+     */
+    public record PermittedActions(Set<String> commandActions, Set<String> queryActions) {
+
+        static final PermittedActions NONE = new PermittedActions(Set.of(), Set.of());
+
+        public PermittedActions {
+            commandActions = Collections.unmodifiableSet(new LinkedHashSet<>(commandActions));
+            queryActions = Collections.unmodifiableSet(new LinkedHashSet<>(queryActions));
+        }
+    }
+
+    /**
+     * Actions in alphabetical order with the group bitset of action {@code i} stored in
+     * {@code masks[i * words] .. masks[i * words + words - 1]}.
+     */
+    private record ActionMasks(String[] actions, long[] masks, int words) {
+
+        static ActionMasks of(Map<String, Set<String>> actionToGroups, Map<String, Integer> groupIndex, int words) {
+            String[] actions = actionToGroups.keySet().toArray(new String[0]);
+            long[] masks = new long[actions.length * words];
+            for (int i = 0; i < actions.length; i++) {
+                for (String group : actionToGroups.get(actions[i])) {
+                    int bit = groupIndex.get(group);
+                    masks[i * words + (bit >>> 6)] |= 1L << bit;
+                }
+            }
+            return new ActionMasks(actions, masks, words);
+        }
+
+        Set<String> permitted(long[] profile) {
+            Set<String> permitted = new LinkedHashSet<>();
+            for (int i = 0, offset = 0; i < actions.length; i++, offset += words) {
+                for (int word = 0; word < words; word++) {
+                    if ((masks[offset + word] & profile[word]) != 0) {
+                        permitted.add(actions[i]);
+                        break;
+                    }
+                }
+            }
+            return permitted;
+        }
+    }
+}
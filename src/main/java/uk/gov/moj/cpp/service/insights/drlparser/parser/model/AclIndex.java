@@ -0,0 +1,148 @@
+package uk.gov.moj.cpp.service.insights.drlparser.parser.model;
+
+import java.io.Reader;
+import java.io.Writer;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+
+/**
+ * Immutable two-way index of the ACL rules: from each command or query action to the groups and permissions
+ * allowed to perform it, and from each group or permission to the actions it allows.
+ * <p>
+ * Lookups in either direction are hash lookups. The index can be exported to compact JSON and loaded again
+ * by other tooling without parsing the DRL files.
+ */
+public final class AclIndex {
+
+    private static final Gson GSON = new GsonBuilder().disableHtmlEscaping().create();
+
+    private final Map<String, Set<String>> commandActionToGroups;
+    private final Map<String, Set<String>> queryActionToGroups;
+    private final Map<String, Set<String>> groupToCommandActions;
+    private final Map<String, Set<String>> groupToQueryActions;
+
+    private AclIndex(Map<String, Set<String>> commandActionToGroups, Map<String, Set<String>> queryActionToGroups,
+                     Map<String, Set<String>> groupToCommandActions, Map<String, Set<String>> groupToQueryActions) {
+        this.commandActionToGroups = commandActionToGroups;
+        this.queryActionToGroups = queryActionToGroups;
+        this.groupToCommandActions = groupToCommandActions;
+        this.groupToQueryActions = groupToQueryActions;
+    }
+
+    /**
+     * Builds the index from parsed mappings.
+     *
+     * @param mappings The mappings of actions to groups and permissions.
+     * @return The index.
+     */
+    public static AclIndex of(ActionGroupMappings mappings) {
+        return new AclIndex(
+                freeze(mappings.getCommandActionToGroupsMap()),
+                freeze(mappings.getQueryActionToGroupsMap()),
+                freeze(invert(mappings.getCommandActionToGroupsMap())),
+                freeze(invert(mappings.getQueryActionToGroupsMap())));
+    }
+
+    /**
+     * Loads an index previously exported with {@link #writeJson(Writer)}.
+     *
+     * @param reader Reader over the JSON export.
+     * @return The index.
+     * @throws JsonParseException If the content is not a valid export.
+     */
+    public static AclIndex readJson(Reader reader) {
+        AclIndexJson json = GSON.fromJson(reader, AclIndexJson.class);
+        if (json == null) {
+            throw new JsonParseException("Empty ACL index export.");
+        }
+        return new AclIndex(freeze(json.commandActions), freeze(json.queryActions),
+                freeze(json.commandActionsByGroup), freeze(json.queryActionsByGroup));
+    }
+
+    /**
+     * Writes the index as compact JSON, with actions, groups and permissions in alphabetical order.
+     *
+     * @param writer Writer receiving the JSON export.
+     */
+    public void writeJson(Writer writer) {
+        AclIndexJson json = new AclIndexJson();
+        json.commandActions = commandActionToGroups;
+        json.queryActions = queryActionToGroups;
+        json.commandActionsByGroup = groupToCommandActions;
+        json.queryActionsByGroup = groupToQueryActions;
+        GSON.toJson(json, AclIndexJson.class, writer);
+    }
+
+    public Set<String> getCommandActions(String groupOrPermission) {
+        return groupToCommandActions.getOrDefault(groupOrPermission, Set.of());
+    }
+
+    public Set<String> getQueryActions(String groupOrPermission) {
+        return groupToQueryActions.getOrDefault(groupOrPermission, Set.of());
+    }
+
+    public Set<String> getCommandActionGroups(String action) {
+        return commandActionToGroups.getOrDefault(action, Set.of());
+    }
+
+    public Set<String> getQueryActionGroups(String action) {
+        return queryActionToGroups.getOrDefault(action, Set.of());
+    }
+
+    public Map<String, Set<String>> getCommandActionToGroupsMap() {
+        return commandActionToGroups;
+    }
+
+    public Map<String, Set<String>> getQueryActionToGroupsMap() {
+        return queryActionToGroups;
+    }
+
+    /**
+     * Returns every group and permission that allows at least one command or query action.
+     *
+     * @return The groups and permissions in alphabetical order.
+     */
+    public Set<String> getGroupsAndPermissions() {
+        Set<String> groups = new TreeSet<>(groupToCommandActions.keySet());
+        groups.addAll(groupToQueryActions.keySet());
+        return Collections.unmodifiableSet(groups);
+    }
+
+    private static Map<String, Set<String>> invert(Map<String, Set<String>> actionToGroups) {
+        Map<String, Set<String>> groupToActions = new TreeMap<>();
+        actionToGroups.forEach((action, groups) ->
+                groups.forEach(group -> groupToActions.computeIfAbsent(group, key -> new TreeSet<>()).add(action)));
+        return groupToActions;
+    }
+
+    /**
+     * Copies a multimap into an unmodifiable one with sorted keys and values, keeping hash lookups.
+     */
+    private static Map<String, Set<String>> freeze(Map<String, ? extends Set<String>> map) {
+        Map<String, Set<String>> frozen = new LinkedHashMap<>();
+        if (map != null) {
+            new TreeMap<>(map).forEach((key, values) ->
+                    frozen.put(key, Collections.unmodifiableSet(new LinkedHashSet<>(new TreeSet<>(values)))));
+        }
+        return Collections.unmodifiableMap(frozen);
+    }
+
+    /**
+     * Shape of the JSON export.
+     */
+    private static final class AclIndexJson {
+        private Map<String, Set<String>> commandActions;
+        private Map<String, Set<String>> queryActions;
+        private Map<String, Set<String>> commandActionsByGroup;
+        private Map<String, Set<String>> queryActionsByGroup;
+    }
+}
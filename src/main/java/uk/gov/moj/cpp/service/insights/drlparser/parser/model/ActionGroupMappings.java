@@ -8,12 +8,19 @@ import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Holds mappings between actions and their associated groups/permissions.
+ * <p>
+ * Group sets are interned: every action is mapped to an immutable, canonical set, so actions with the same
+ * groups and permissions share one set instance and each distinct group string is held only once.
  */
 public class ActionGroupMappings {
 
     private final Map<String, Set<String>> commandActionToGroupsMap = new ConcurrentHashMap<>();
     private final Map<String, Set<String>> queryActionToGroupsMap = new ConcurrentHashMap<>();
 
+    // Canonical instances of the group strings and group sets added so far
+    private final Map<String, String> groupPool = new ConcurrentHashMap<>();
+    private final Map<Set<String>, Set<String>> groupSetPool = new ConcurrentHashMap<>();
+
     public Map<String, Set<String>> getCommandActionToGroupsMap() {
         return commandActionToGroupsMap;
     }
@@ -23,11 +30,34 @@ public class ActionGroupMappings {
     }
 
     public void addCommandAction(String actionName, Set<String> groupsAndPermissions) {
-        this.commandActionToGroupsMap.put(actionName, groupsAndPermissions);
+        this.commandActionToGroupsMap.put(actionName, intern(groupsAndPermissions));
     }
 
     public void addQueryAction(String actionName, Set<String> groupsAndPermissions) {
-        this.queryActionToGroupsMap.put(actionName, groupsAndPermissions);
+        this.queryActionToGroupsMap.put(actionName, intern(groupsAndPermissions));
+    }
+
+    /**
+     * Returns the canonical immutable instance of a group set.
+     *
+     * @param groupsAndPermissions The groups and permissions.
+     * @return An immutable set equal to the given one, shared with every other equal set of these mappings.
+     */
+    public Set<String> intern(Set<String> groupsAndPermissions) {
+        Set<String> canonicalGroups = new HashSet<>();
+        for (String group : groupsAndPermissions) {
+            canonicalGroups.add(groupPool.computeIfAbsent(group, key -> key));
+        }
+        return groupSetPool.computeIfAbsent(Set.copyOf(canonicalGroups), key -> key);
+    }
+
+    /**
+     * Returns the number of distinct group sets across all actions.
+     *
+     * @return The number of interned group sets.
+     */
+    public int distinctGroupSetCount() {
+        return groupSetPool.size();
     }
 
     /**
@@ -37,18 +67,20 @@ public class ActionGroupMappings {
      */
     public void merge(ActionGroupMappings other) {
         other.commandActionToGroupsMap.forEach((action, groups) ->
-                this.commandActionToGroupsMap
-                        .computeIfAbsent(action, k -> new HashSet<>())
-                        .addAll(groups)
+                this.commandActionToGroupsMap.merge(action, intern(groups), this::union)
         );
 
         other.queryActionToGroupsMap.forEach((action, groups) ->
-                this.queryActionToGroupsMap
-                        .computeIfAbsent(action, k -> new HashSet<>())
-                        .addAll(groups)
+                this.queryActionToGroupsMap.merge(action, intern(groups), this::union)
         );
     }
 
+    private Set<String> union(Set<String> groups, Set<String> otherGroups) {
+        Set<String> union = new HashSet<>(groups);
+        union.addAll(otherGroups);
+        return intern(union);
+    }
+
     /**
      * Returns the total number of actions (command and query).
      *
@@ -0,0 +1,98 @@
+package uk.gov.moj.cpp.service.insights.drlparser.parser.model;
+
+import java.util.List;
+
+/**
+ * Node of the expression tree parsed from the body of a DRL {@code eval(...)} block.
+ * <p>
+ * The tree only models what the ACL analysis needs: method calls, qualified names, string literals and
+ * boolean operators. Any other operator is kept as an {@link Operation} so that its operands are still
+ * visited.
+ */
+public sealed interface ConditionNode
+        permits ConditionNode.Call, ConditionNode.Name, ConditionNode.StringLiteral, ConditionNode.Literal,
+        ConditionNode.Logical, ConditionNode.Operation {
+
+    /**
+     * A method call such as {@code Groups.adminGroups()} or {@code provider.isSystemUser($action)}.
+     *
+     * @param target    The expression the method is called on, or {@code null} for an unqualified call.
+     * @param name      The method name.
+     * @param arguments The call arguments.
+     */
+    record Call(ConditionNode target, String name, List<ConditionNode> arguments) implements ConditionNode {
+
+        public Call {
+            arguments = List.copyOf(arguments);
+        }
+    }
+
+    /**
+     * A simple or qualified name such as {@code ADMIN_GROUP} or {@code GroupConstants.ADMIN_GROUP}.
+     *
+     * @param qualifier The dotted qualifier, or {@code null} for a simple name.
+     * @param name      The last segment of the name.
+     */
+    record Name(String qualifier, String name) implements ConditionNode {
+
+        /**
+         * Returns the segment directly before the name, which is the simple class name of a static member.
+         *
+         * @return The last segment of the qualifier, or {@code null} for a simple name.
+         */
+        public String simpleQualifier() {
+            return qualifier == null ? null : qualifier.substring(qualifier.lastIndexOf('.') + 1);
+        }
+    }
+
+    /**
+     * A string literal, without its quotes.
+     *
+     * @param value The literal value.
+     */
+    record StringLiteral(String value) implements ConditionNode {
+    }
+
+    /**
+     * Any other literal, e.g. a number, {@code true} or {@code null}.
+     *
+     * @param text The literal as written.
+     */
+    record Literal(String text) implements ConditionNode {
+    }
+
+    /**
+     * A boolean combination of conditions.
+     *
+     * @param operator The boolean operator.
+     * @param operands The operands; a single one for {@link Operator#NOT}.
+     */
+    record Logical(Operator operator, List<ConditionNode> operands) implements ConditionNode {
+
+        public Logical {
+            operands = List.copyOf(operands);
+        }
+    }
+
+    /**
+     * Any non-boolean operator, e.g. a comparison.
+     *
+     * @param operator The operator as written.
+     * @param operands The operands.
+     */
+    record Operation(String operator, List<ConditionNode> operands) implements ConditionNode {
+
+        public Operation {
+            operands = List.copyOf(operands);
+        }
+    }
+
+    /**
+     * Boolean operators; {@code or} and {@code and} are parsed as {@link #OR} and {@link #AND}.
+     */
+    enum Operator {
+        AND,
+        OR,
+        NOT
+    }
+}
@@ -0,0 +1,104 @@
+package uk.gov.moj.cpp.service.insights.drlparser.parser.model;
+
+import uk.gov.moj.cpp.service.insights.util.BuildState;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * State recorded by an incremental run of the acl goal: for each DRL file, the hash of its content, the hashes
+ * of the Java source files declaring the classes its rules looked up, and the actions it declares.
+ * <p>
+ * A file whose own hash and dependency hashes are unchanged on the next run does not need to be parsed again;
+ * its actions are taken from the state instead.
+ */
+public final class DrlBuildState implements BuildState {
+
+    /**
+     * Version of the state layout; state written with another version is ignored.
+     */
+    public static final int VERSION = 1;
+
+    private int version = VERSION;
+    private String javaSources;
+    private Map<String, DrlFileState> files = new LinkedHashMap<>();
+
+    /**
+     * Creates an empty state.
+     *
+     * @param javaSources Fingerprint of the set of Java source files the index was built from.
+     */
+    public DrlBuildState(String javaSources) {
+        this.javaSources = javaSources;
+    }
+
+    @Override
+    public boolean isCurrent() {
+        return version == VERSION && files != null;
+    }
+
+    public String getJavaSources() {
+        return javaSources;
+    }
+
+    public Optional<DrlFileState> getFile(String drlFile) {
+        return Optional.ofNullable(files.get(drlFile));
+    }
+
+    public void putFile(String drlFile, DrlFileState fileState) {
+        files.put(drlFile, fileState);
+    }
+
+    public Set<String> getDrlFiles() {
+        return Collections.unmodifiableSet(files.keySet());
+    }
+
+    /**
+     * State of a single DRL file.
+     */
+    public static final class DrlFileState {
+        private final String hash;
+        private final Map<String, String> dependencies;
+        private final Map<String, Set<String>> commandActions;
+        private final Map<String, Set<String>> queryActions;
+
+        /**
+         * @param hash         Hash of the content of the DRL file.
+         * @param dependencies Hash of each Java source file the rules of the file depend on, by path.
+         * @param mappings     The actions declared by the file.
+         */
+        public DrlFileState(String hash, Map<String, String> dependencies, ActionGroupMappings mappings) {
+            this.hash = hash;
+            this.dependencies = new LinkedHashMap<>(dependencies);
+            this.commandActions = new LinkedHashMap<>(mappings.getCommandActionToGroupsMap());
+            this.queryActions = new LinkedHashMap<>(mappings.getQueryActionToGroupsMap());
+        }
+
+        public String getHash() {
+            return hash;
+        }
+
+        public Map<String, String> getDependencies() {
+            return dependencies == null ? Map.of() : Collections.unmodifiableMap(dependencies);
+        }
+
+        /**
+         * Rebuilds the actions declared by the file.
+         *
+         * @return The mappings of the file.
+         */
+        public ActionGroupMappings toMappings() {
+            ActionGroupMappings mappings = new ActionGroupMappings();
+            if (commandActions != null) {
+                commandActions.forEach(mappings::addCommandAction);
+            }
+            if (queryActions != null) {
+                queryActions.forEach(mappings::addQueryAction);
+            }
+            return mappings;
+        }
+    }
+}
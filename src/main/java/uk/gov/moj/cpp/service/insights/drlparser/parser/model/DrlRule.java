@@ -0,0 +1,17 @@
+package uk.gov.moj.cpp.service.insights.drlparser.parser.model;
+
+import java.util.Objects;
+
+/**
+ * A rule segmented out of a DRL file.
+ *
+ * @param name        The name of the rule.
+ * @param whenSection The raw text between the {@code when} and {@code then} keywords, with comments blanked out.
+ */
+public record DrlRule(String name, String whenSection) {
+
+    public DrlRule {
+        Objects.requireNonNull(name, "name cannot be null");
+        Objects.requireNonNull(whenSection, "whenSection cannot be null");
+    }
+}
@@ -0,0 +1,19 @@
+package uk.gov.moj.cpp.service.insights.drlparser.parser.model;
+
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * The outcome of parsing a single DRL file.
+ *
+ * @param mappings          The actions declared by the file and their groups and permissions.
+ * @param referencedClasses The fully qualified names of the indexed Java classes looked up while resolving the
+ *                          static members referenced by its rules.
+ */
+public record ParsedDrlFile(ActionGroupMappings mappings, Set<String> referencedClasses) {
+
+    public ParsedDrlFile {
+        Objects.requireNonNull(mappings, "mappings cannot be null");
+        referencedClasses = Set.copyOf(referencedClasses);
+    }
+}
@@ -1,5 +1,7 @@
 package uk.gov.moj.cpp.service.insights.html;
 
+import uk.gov.moj.cpp.service.insights.util.HtmlUtil;
+
 import java.io.BufferedWriter;
 import java.io.FileWriter;
 import java.io.IOException;
@@ -66,9 +68,9 @@ public class ACLHTMLGenerator {
         htmlBuilder.append("</head>\n");
         htmlBuilder.append("<body>\n");
         htmlBuilder.append("    <div id=\"sidebar\" class=\"bg-light\">\n");
-        htmlBuilder.append("        <h2 class=\"text-primary\">" + escapeHtml(primaryText) + "</h2>\n");
+        htmlBuilder.append("        <h2 class=\"text-primary\">" + HtmlUtil.escapeHtml(primaryText) + "</h2>\n");
         htmlBuilder.append("        <ul class=\"list-group\">\n");
-        htmlBuilder.append("            <li class=\"list-group-item\"><a onclick=\"showGraph('all')\">" + escapeHtml(allTitle) + "</a></li>\n");
+        htmlBuilder.append("            <li class=\"list-group-item\"><a onclick=\"showGraph('all')\">" + HtmlUtil.escapeHtml(allTitle) + "</a></li>\n");
 
 
         // Append event names to the sidebar
@@ -76,11 +78,11 @@ public class ACLHTMLGenerator {
             if (event.startsWith("public")) {
                 htmlBuilder.append(String.format(
                         "            <li class=\"list-group-item\"><a class=\"public-link\" onclick=\"showGraph('%s')\">%s</a></li><br>",
-                        escapeJs(event), escapeHtml(event)));
+                        escapeJs(event), HtmlUtil.escapeHtml(event)));
             } else {
                 htmlBuilder.append(String.format(
                         "            <li class=\"list-group-item\"><a onclick=\"showGraph('%s')\">%s</a></li><br>",
-                        escapeJs(event), escapeHtml(event)));
+                        escapeJs(event), HtmlUtil.escapeHtml(event)));
             }
         }
 
@@ -143,7 +145,7 @@ public class ACLHTMLGenerator {
                         escapedValue, labelValue));
                 htmlBuilder.append(String.format(
                         "                    eventLinksHTML += '<div class=\"event-link\">%s</div>';%n",
-                        escapeHtml(value)));
+                        HtmlUtil.escapeHtml(value)));
                 String cssClass = determineCssClass(value);
                 htmlBuilder.append(String.format(
                         "                    elements.push({ data: { source: '%s', target: '%s' }, classes: '%s' });%n",
@@ -293,21 +295,6 @@ public class ACLHTMLGenerator {
         }
     }
 
-    /**
-     * Escapes special characters in HTML to prevent injection.
-     *
-     * @param text The text to escape.
-     * @return The escaped HTML string.
-     */
-    private static String escapeHtml(String text) {
-        if (text == null) {return "";}
-        return text.replace("&", "&amp;")
-                .replace("<", "&lt;")
-                .replace(">", "&gt;")
-                .replace("\"", "&quot;")
-                .replace("'", "&#39;");
-    }
-
     /**
      * Escapes special characters in JavaScript strings to prevent injection.
      *
@@ -0,0 +1,196 @@
+package uk.gov.moj.cpp.service.insights.indexer;
+
+import uk.gov.moj.cpp.service.insights.model.ClassInfo;
+import uk.gov.moj.cpp.service.insights.model.DependencyInfo;
+import uk.gov.moj.cpp.service.insights.model.MethodInfo;
+import uk.gov.moj.cpp.service.insights.util.ASTUtils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import com.github.javaparser.ast.body.MethodDeclaration;
+
+/**
+ * Class hierarchy analysis dispatch table, computed once the index is complete.
+ * Maps every interface or abstract method signature to the signatures of the concrete
+ * methods a call to it may dispatch to at runtime. Overridable methods with a body, such as
+ * default interface methods or non-final methods of a base class, are only mapped when some
+ * class overrides them; their targets then include the method itself for the classes that inherit it.
+ * <p>
+ * Instances are immutable and safe to share between threads.
+ */
+public final class DispatchTable {
+
+    private static final DispatchTable EMPTY = new DispatchTable(Map.of(), Map.of());
+
+    // Dispatched method signature -> every concrete target
+    private final Map<String, List<String>> targets;
+
+    // Dispatched method signature -> targets declared by classes that are injected by their concrete type
+    private final Map<String, List<String>> injectedTargets;
+
+    private DispatchTable(Map<String, List<String>> targets, Map<String, List<String>> injectedTargets) {
+        this.targets = targets;
+        this.injectedTargets = injectedTargets;
+    }
+
+    public static DispatchTable empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Builds the dispatch table for a complete index.
+     *
+     * @param classInfoMap Map of fully qualified class names to ClassInfo.
+     * @return The dispatch table.
+     */
+    public static DispatchTable build(Map<String, ClassInfo> classInfoMap) {
+        Set<String> injectedTypes = collectInjectedTypes(classInfoMap);
+        Map<String, Set<String>> targets = new HashMap<>();
+        Map<String, Set<String>> injectedTargets = new HashMap<>();
+
+        // Sorted so that the order of targets does not depend on hashing
+        for (String className : new TreeSet<>(classInfoMap.keySet())) {
+            ClassInfo concreteClass = classInfoMap.get(className);
+            if (!concreteClass.isConcrete()) {
+                continue;
+            }
+            boolean injected = injectedTypes.contains(className);
+            // The class itself is included, as a concrete base class dispatches its own methods to itself
+            Set<String> types = new LinkedHashSet<>();
+            types.add(className);
+            types.addAll(collectSupertypes(concreteClass, classInfoMap));
+            for (String type : types) {
+                ClassInfo typeInfo = classInfoMap.get(type);
+                for (MethodInfo method : typeInfo.getMethods().values()) {
+                    if (!isOverridable(method)) {
+                        continue;
+                    }
+                    String target = findConcreteImplementation(concreteClass, methodPart(method.getSignature()), classInfoMap);
+                    if (target == null && ASTUtils.getBody(method.getMethodDeclaration()).isPresent()) {
+                        target = method.getSignature(); // Inherited default method
+                    }
+                    if (target != null) {
+                        targets.computeIfAbsent(method.getSignature(), k -> new LinkedHashSet<>()).add(target);
+                        if (injected) {
+                            injectedTargets.computeIfAbsent(method.getSignature(), k -> new LinkedHashSet<>()).add(target);
+                        }
+                    }
+                }
+            }
+        }
+        // A method with a body that no class overrides only dispatches to itself, like a plain call
+        Set<String> notOverridden = new HashSet<>();
+        targets.forEach((signature, signatures) -> {
+            if (signatures.equals(Set.of(signature))) {
+                notOverridden.add(signature);
+            }
+        });
+        targets.keySet().removeAll(notOverridden);
+        injectedTargets.keySet().removeAll(notOverridden);
+        return new DispatchTable(freeze(targets), freeze(injectedTargets));
+    }
+
+    /**
+     * Retrieves the concrete methods a call to an interface, abstract or overridden method may dispatch to.
+     *
+     * @param methodSignature      The signature of the interface, abstract or overridden method.
+     * @param injectedTargetsOnly  Whether to keep only implementations that some class injects by their
+     *                             concrete type. Falls back to all implementations if none are injected.
+     * @return The target method signatures; empty if the method is not dispatched.
+     */
+    public List<String> getTargets(String methodSignature, boolean injectedTargetsOnly) {
+        if (injectedTargetsOnly) {
+            List<String> injected = injectedTargets.get(methodSignature);
+            if (injected != null) {
+                return injected;
+            }
+        }
+        return targets.getOrDefault(methodSignature, List.of());
+    }
+
+    public boolean isDispatched(String methodSignature) {
+        return targets.containsKey(methodSignature);
+    }
+
+    private static Set<String> collectInjectedTypes(Map<String, ClassInfo> classInfoMap) {
+        Set<String> injectedTypes = new HashSet<>();
+        for (ClassInfo classInfo : classInfoMap.values()) {
+            for (DependencyInfo dependency : classInfo.getDependencies()) {
+                if (dependency.isInjected() && dependency.getType() != null) {
+                    injectedTypes.add(dependency.getType());
+                }
+            }
+        }
+        return injectedTypes;
+    }
+
+    /**
+     * Whether a call to a method may dispatch to an override: instance methods that are neither private nor final.
+     */
+    private static boolean isOverridable(MethodInfo method) {
+        return method.getMethodDeclaration() instanceof MethodDeclaration declaration
+                && !declaration.isStatic() && !declaration.isPrivate() && !declaration.isFinal();
+    }
+
+    /**
+     * Collects every indexed superclass and interface of a class, including super-interfaces.
+     */
+    private static Set<String> collectSupertypes(ClassInfo classInfo, Map<String, ClassInfo> classInfoMap) {
+        Set<String> supertypes = new LinkedHashSet<>();
+        Deque<ClassInfo> pending = new ArrayDeque<>();
+        pending.push(classInfo);
+        while (!pending.isEmpty()) {
+            ClassInfo current = pending.pop();
+            List<String> parents = new ArrayList<>(current.getImplementedInterfaces());
+            if (current.getSuperclassName() != null) {
+                parents.add(current.getSuperclassName());
+            }
+            for (String parent : parents) {
+                ClassInfo parentInfo = classInfoMap.get(parent);
+                if (parentInfo != null && supertypes.add(parent)) {
+                    pending.push(parentInfo);
+                }
+            }
+        }
+        return supertypes;
+    }
+
+    /**
+     * Finds the method with a body that a concrete class uses for the given method, walking up its superclasses.
+     */
+    private static String findConcreteImplementation(ClassInfo concreteClass, String methodPart,
+                                                     Map<String, ClassInfo> classInfoMap) {
+        Set<String> visited = new HashSet<>();
+        ClassInfo current = concreteClass;
+        while (current != null && visited.add(current.getClassName())) {
+            MethodInfo method = current.getMethods().get(current.getClassName() + "#" + methodPart);
+            if (method != null && ASTUtils.getBody(method.getMethodDeclaration()).isPresent()) {
+                return method.getSignature();
+            }
+            String superClass = current.getSuperclassName();
+            current = superClass == null ? null : classInfoMap.get(superClass);
+        }
+        return null;
+    }
+
+    // "com.example.Interface#methodName(paramType1,paramType2,...)" -> "methodName(paramType1,paramType2,...)"
+    private static String methodPart(String methodSignature) {
+        return methodSignature.substring(methodSignature.indexOf('#') + 1);
+    }
+
+    private static Map<String, List<String>> freeze(Map<String, Set<String>> table) {
+        Map<String, List<String>> frozen = new HashMap<>();
+        table.forEach((signature, signatures) -> frozen.put(signature, List.copyOf(signatures)));
+        return Collections.unmodifiableMap(frozen);
+    }
+}
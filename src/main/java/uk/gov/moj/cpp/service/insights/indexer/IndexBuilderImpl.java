@@ -12,7 +12,10 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -40,13 +43,16 @@ public class IndexBuilderImpl implements IndexBuilder {
     private final JavaFileParser parser;
 
     // Map of fully qualified class name to ClassInfo
-    private final Map<String, ClassInfo> classInfoMap = new ConcurrentHashMap<>();
+    private Map<String, ClassInfo> classInfoMap = new ConcurrentHashMap<>();
 
     // Map of interface name to implementing class names
-    private final Map<String, Set<String>> interfaceImplMap = new ConcurrentHashMap<>();
+    private Map<String, Set<String>> interfaceImplMap = new ConcurrentHashMap<>();
 
-    // Assuming callGraphResolver is a field that needs to be defined and initialized
-    private final CallGraphResolver callGraphResolver = new CallGraphResolver();
+    // Set once buildIndex completes; the maps above are immutable from then on
+    private volatile boolean frozen;
+
+    // Interface and abstract method signature to concrete implementations, computed when the index is frozen
+    private DispatchTable dispatchTable = DispatchTable.empty();
 
     public IndexBuilderImpl(JavaFileParser parser) {
         this.parser = parser;
@@ -54,11 +60,15 @@ public class IndexBuilderImpl implements IndexBuilder {
 
     @Override
     public void buildIndex(List<Path> sourcePaths) throws IOException {
+        if (frozen) {
+            throw new IllegalStateException("Index has already been built and frozen.");
+        }
         for (Path sourcePath : sourcePaths) {
             indexSourcePath(sourcePath);
         }
         resolveInterfaceImplementations();
         resolveInheritedMethods(); // New method to resolve inherited methods
+        freeze();
     }
 
     private void indexSourcePath(Path sourcePath) throws IOException {
@@ -101,6 +111,7 @@ public class IndexBuilderImpl implements IndexBuilder {
 
         // Initialize ClassInfo
         ClassInfo classInfo = classInfoMap.computeIfAbsent(fullClassName, k -> new ClassInfo(fullClassName, packageName, importMap));
+        classInfo.setTypeDeclaration(typeDecl);
 
         if (typeDecl instanceof ClassOrInterfaceDeclaration coiDecl) {
             // Handle superclass relationships
@@ -110,9 +121,15 @@ public class IndexBuilderImpl implements IndexBuilder {
                     String superClassFullName = resolveFullyQualifiedClassName(superClassName, packageName, importMap);
                     if (superClassFullName != null) {
                         classInfo.setSuperClass(superClassFullName);
+                        if (coiDecl.isInterface()) {
+                            // Record every super-interface, an interface may extend several
+                            classInfo.addImplementedInterface(superClassFullName);
+                        }
                     }
                 }
             }
+            classInfo.setInterface(coiDecl.isInterface());
+            classInfo.setAbstract(coiDecl.isAbstract());
             if (coiDecl.isInterface()) {
                 // If it's an interface, ensure it's in the interfaceImplMap with an empty set
                 interfaceImplMap.putIfAbsent(fullClassName, ConcurrentHashMap.newKeySet());
@@ -221,24 +238,24 @@ public class IndexBuilderImpl implements IndexBuilder {
     /**
      * Resolves dependencies that are interfaces by mapping them to their implementing classes.
      * If an interface has exactly one implementation, updates the dependency type to the implementing class.
-     * If multiple implementations exist, logs a warning.
-     * If no implementations are found, logs a warning.
+     * If multiple implementations exist, records them and keeps the interface type.
+     * If no implementations are found, marks the dependency as UNRESOLVED.
      */
     private void resolveInterfaceImplementations() {
         for (ClassInfo classInfo : classInfoMap.values()) {
-            for (DependencyInfo dependency : classInfo.getDependencies()) {
+            for (DependencyInfo dependency : List.copyOf(classInfo.getDependencies())) {
                 String depType = dependency.getType();
                 // Check if depType is an interface by checking if it exists in interfaceImplMap
                 if (depType != null && interfaceImplMap.containsKey(depType)) {
                     Set<String> implClasses = interfaceImplMap.get(depType);
                     if (implClasses.size() == 1) {
                         String implClass = implClasses.iterator().next();
-                        dependency.setType(implClass);
-                        dependency.addImplementingClass(implClass);
+                        classInfo.replaceDependency(dependency.resolvedTo(implClass, List.of(implClass)));
                     } else if (implClasses.size() > 1) {
-                        dependency.addImplementingClass("AMBIGUOUS");
+                        // Calls through this dependency are followed to every implementation via the dispatch table
+                        classInfo.replaceDependency(dependency.resolvedTo(depType, List.copyOf(implClasses)));
                     } else {
-                        dependency.addImplementingClass("UNRESOLVED");
+                        classInfo.replaceDependency(dependency.resolvedTo(depType, List.of("UNRESOLVED")));
                     }
                 }
             }
@@ -273,6 +290,31 @@ public class IndexBuilderImpl implements IndexBuilder {
         }
     }
 
+    /**
+     * Converts the index into immutable structures. After this point the index is complete and
+     * concurrent analyses can read it without synchronisation or defensive copies.
+     */
+    private void freeze() {
+        classInfoMap.values().forEach(ClassInfo::freeze);
+        classInfoMap = Collections.unmodifiableMap(new LinkedHashMap<>(classInfoMap));
+
+        Map<String, Set<String>> frozenImplMap = new LinkedHashMap<>();
+        interfaceImplMap.forEach((iface, impls) ->
+                frozenImplMap.put(iface, Collections.unmodifiableSet(new LinkedHashSet<>(impls))));
+        interfaceImplMap = Collections.unmodifiableMap(frozenImplMap);
+        dispatchTable = DispatchTable.build(classInfoMap);
+        frozen = true;
+    }
+
+    /**
+     * Indicates whether the index has been built and frozen.
+     *
+     * @return {@code true} once {@link #buildIndex(List)} has completed.
+     */
+    public boolean isFrozen() {
+        return frozen;
+    }
+
     @Override
     public Optional<ClassInfo> getClassInfo(String className) {
         return Optional.ofNullable(classInfoMap.get(className));
@@ -288,91 +330,16 @@ public class IndexBuilderImpl implements IndexBuilder {
         return classInfoMap;
     }
 
-    /**
-     * Retrieves the body of a method given its signature.
-     * If the method is part of an interface, retrieves the body from the implementing class.
-     *
-     * @param methodSignature The signature of the method.
-     * @return Optional containing the method body as a String.
-     */
-    public Optional<String> getMethodBody(String methodSignature) {
-        Optional<MethodInfo> methodInfoOpt = callGraphResolver.findMethodInfo(methodSignature);
-        if (methodInfoOpt.isEmpty()) {
-            return Optional.empty();
-        }
-
-        BodyDeclaration<?> bodyDecl = methodInfoOpt.get().getMethodDeclaration();
-
-        if (bodyDecl instanceof MethodDeclaration methodDecl) {
-            Optional<String> body = methodDecl.getBody().map(v -> v.toString());
-            if (body.isPresent()) {
-                return body;
-            } else {
-                // Likely an abstract method or interface method
-                // Attempt to find the implementing class's method body
-                return findImplementingMethodBody(methodSignature);
-            }
-        } else if (bodyDecl instanceof ConstructorDeclaration constructorDecl) {
-            return Optional.of(constructorDecl.getBody().toString());
-        }
-
-        return Optional.empty();
+    public Map<String, Set<String>> getInterfaceImplMap() {
+        return interfaceImplMap;
     }
 
     /**
-     * Finds the method body from the implementing class for a given interface method signature.
+     * Retrieves the class hierarchy analysis dispatch table for interface and abstract methods.
      *
-     * @param interfaceMethodSignature The method signature from the interface.
-     * @return Optional containing the implementing class's method body if found.
+     * @return The dispatch table; empty until the index has been built.
      */
-    private Optional<String> findImplementingMethodBody(String interfaceMethodSignature) {
-        // Parse the interface method signature
-        // Expected format: "com.example.Interface#methodName(paramType1,paramType2,...)"
-        int hashIndex = interfaceMethodSignature.indexOf('#');
-        if (hashIndex == -1) {
-            return Optional.empty();
-        }
-
-        String interfaceName = interfaceMethodSignature.substring(0, hashIndex);
-        String methodPart = interfaceMethodSignature.substring(hashIndex + 1); // "methodName(paramType1,paramType2,...)"
-
-        // Find implementing classes
-        Set<String> implementingClasses = interfaceImplMap.getOrDefault(interfaceName, Set.of());
-
-        if (implementingClasses.isEmpty()) {
-            return Optional.empty();
-        }
-
-        // For simplicity, handle the case with exactly one implementation
-        if (implementingClasses.size() == 1) {
-            String implClass = implementingClasses.iterator().next();
-            String implMethodSignature = implClass + "#" + methodPart;
-            Optional<MethodInfo> implMethodInfoOpt = callGraphResolver.findMethodInfo(implMethodSignature);
-            if (implMethodInfoOpt.isPresent()) {
-                BodyDeclaration<?> implBodyDecl = implMethodInfoOpt.get().getMethodDeclaration();
-                if (implBodyDecl instanceof MethodDeclaration implMethodDecl) {
-                    return implMethodDecl.getBody().map(v -> v.toString());
-                } else if (implBodyDecl instanceof ConstructorDeclaration implConstructorDecl) {
-                    return Optional.of(implConstructorDecl.getBody().toString());
-                }
-            }
-        }
-
-        return Optional.empty();
-    }
-
-    public Map<String, Set<String>> getInterfaceImplMap() {
-        return interfaceImplMap;
-    }
-
-    // Mock implementation of CallGraphResolver for completeness
-    // Replace this with your actual implementation
-    private static class CallGraphResolver {
-        public Optional<MethodInfo> findMethodInfo(String methodSignature) {
-            // Implementation to find MethodInfo based on methodSignature
-            // This could involve looking up in classInfoMap or another data structure
-            // For demonstration, return empty
-            return Optional.empty(); // Placeholder
-        }
+    public DispatchTable getDispatchTable() {
+        return dispatchTable;
     }
 }
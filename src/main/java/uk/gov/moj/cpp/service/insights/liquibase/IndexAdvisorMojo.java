@@ -0,0 +1,153 @@
+package uk.gov.moj.cpp.service.insights.liquibase;
+
+import uk.gov.moj.cpp.service.insights.liquibase.analysis.ForeignKeyIndexAdvisor;
+import uk.gov.moj.cpp.service.insights.liquibase.analysis.ForeignKeyIndexAdvisor.UnindexedForeignKey;
+import uk.gov.moj.cpp.service.insights.liquibase.analysis.IndexAdviceReport;
+import uk.gov.moj.cpp.service.insights.liquibase.analysis.RedundantIndexDetector;
+import uk.gov.moj.cpp.service.insights.liquibase.analysis.RedundantIndexDetector.RedundantIndex;
+import uk.gov.moj.cpp.service.insights.liquibase.model.Table;
+import uk.gov.moj.cpp.service.insights.liquibase.parser.ChangeLogParser;
+import uk.gov.moj.cpp.service.insights.liquibase.parser.ChangeLogPipeline;
+
+import java.io.File;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+/**
+ * Maven Plugin to check the indexes of a Liquibase schema: foreign keys without a covering index, and indexes made
+ * redundant by the primary key or another index.
+ */
+@Mojo(name = "index-advisor", defaultPhase = LifecyclePhase.VERIFY, threadSafe = true)
+public class IndexAdvisorMojo extends AbstractMojo {
+
+    /**
+     * Directory containing Liquibase change log XML files.
+     */
+    @Parameter(property = "changeLogsDir", required = true)
+    private File changeLogsDir;
+
+    /**
+     * Master change log, relative to changeLogsDir. When set, only the files it includes, directly or not, are
+     * parsed, in include order; otherwise every XML file under changeLogsDir is parsed in file name order.
+     */
+    @Parameter(property = "masterChangeLog", required = false)
+    private String masterChangeLog;
+
+    /**
+     * Output directory for the index advice report.
+     */
+    @Parameter(property = "outputDir", required = true, defaultValue = "target/html")
+    private File outputDir;
+
+    /**
+     * Name of the JSON index advice report.
+     */
+    @Parameter(property = "indexAdviceFileName", required = false, defaultValue = "liquibase-index-advice.json")
+    private String indexAdviceFileName;
+
+    /**
+     * Also check the references inferred from column names ending with _id or _key, as shown by the schema
+     * visualization, and not only the declared foreign keys.
+     */
+    @Parameter(property = "includeInferredForeignKeys", required = false, defaultValue = "true")
+    private boolean includeInferredForeignKeys;
+
+    /**
+     * Maximum number of foreign keys without a covering index before the build fails. Negative to never fail.
+     */
+    @Parameter(property = "maxUnindexedForeignKeys", required = false, defaultValue = "-1")
+    private int maxUnindexedForeignKeys;
+
+    /**
+     * Maximum number of redundant indexes, duplicating or prefixing the primary key or another index, before the
+     * build fails. Negative to never fail.
+     */
+    @Parameter(property = "maxRedundantIndexes", required = false, defaultValue = "-1")
+    private int maxRedundantIndexes;
+
+    /**
+     * Number of threads parsing change log files ahead of the one being applied. Defaults to the number of
+     * available processors.
+     */
+    @Parameter(property = "changeLogThreads", required = false, defaultValue = "0")
+    private int changeLogThreads;
+
+    public void execute() throws MojoExecutionException, MojoFailureException {
+        getLog().info("Starting Liquibase Index Advisor...");
+
+        if (!changeLogsDir.exists() || !changeLogsDir.isDirectory()) {
+            throw new MojoExecutionException("The provided changeLogsDir does not exist or is not a directory: " + changeLogsDir);
+        }
+
+        if (!outputDir.exists()) {
+            if (!outputDir.mkdirs()) {
+                throw new MojoExecutionException("Failed to create output directory: " + outputDir);
+            }
+        }
+
+        IndexAdviceReport report;
+        int threads = changeLogThreads > 0 ? changeLogThreads : Runtime.getRuntime().availableProcessors();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            Map<String, Table> tables = new ChangeLogPipeline(new ChangeLogParser(), executor, threads * 2)
+                    .buildSchema(changeLogsDir, masterChangeLog);
+
+            report = new IndexAdviceReport(ForeignKeyIndexAdvisor.findUnindexedForeignKeys(tables, includeInferredForeignKeys),
+                    RedundantIndexDetector.findRedundantIndexes(tables));
+            logReport(report);
+
+            File reportFile = new File(outputDir, indexAdviceFileName);
+            try (Writer writer = Files.newBufferedWriter(reportFile.toPath(), StandardCharsets.UTF_8)) {
+                report.writeJson(writer);
+            }
+            getLog().info("Index advice report generated at: " + reportFile.getAbsolutePath());
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MojoExecutionException("Index advice generation was interrupted", e);
+        } catch (Exception e) {
+            throw new MojoExecutionException("Error during index advice generation", e);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        int unindexedForeignKeys = report.unindexedForeignKeys().size();
+        if (maxUnindexedForeignKeys >= 0 && unindexedForeignKeys > maxUnindexedForeignKeys) {
+            throw new MojoFailureException(unindexedForeignKeys + " foreign keys have no covering index, more than the "
+                    + maxUnindexedForeignKeys + " allowed by maxUnindexedForeignKeys.");
+        }
+        int redundantIndexes = report.redundantIndexCount();
+        if (maxRedundantIndexes >= 0 && redundantIndexes > maxRedundantIndexes) {
+            throw new MojoFailureException(redundantIndexes + " indexes are redundant, more than the "
+                    + maxRedundantIndexes + " allowed by maxRedundantIndexes.");
+        }
+    }
+
+    private void logReport(IndexAdviceReport report) {
+        getLog().info("Found " + report.unindexedForeignKeys().size() + " foreign keys without a covering index.");
+        for (UnindexedForeignKey fk : report.unindexedForeignKeys()) {
+            getLog().warn("Unindexed " + (fk.inferred() ? "inferred " : "") + "foreign key " + fk.tableName() + "."
+                    + fk.columnName() + " -> " + fk.referencedTable());
+        }
+        getLog().info("Found " + report.redundantIndexCount() + " redundant indexes in "
+                + report.redundantIndexes().size() + " tables.");
+        report.redundantIndexes().forEach((tableName, indexes) -> {
+            for (RedundantIndex index : indexes) {
+                getLog().warn("Redundant index " + tableName + "." + index.indexName() + " " + index.columns() + ": "
+                        + (index.redundancy() == RedundantIndexDetector.Redundancy.DUPLICATE ? "duplicate of " : "prefix of ")
+                        + index.coveringIndex());
+            }
+        });
+    }
+}
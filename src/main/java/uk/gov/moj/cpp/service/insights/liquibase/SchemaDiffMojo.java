@@ -0,0 +1,120 @@
+package uk.gov.moj.cpp.service.insights.liquibase;
+
+import uk.gov.moj.cpp.service.insights.liquibase.diff.SchemaDiff;
+import uk.gov.moj.cpp.service.insights.liquibase.diff.SchemaDiffReportWriter;
+import uk.gov.moj.cpp.service.insights.liquibase.model.Table;
+import uk.gov.moj.cpp.service.insights.liquibase.parser.CachingChangeLogParser;
+import uk.gov.moj.cpp.service.insights.liquibase.parser.ChangeLogParser;
+import uk.gov.moj.cpp.service.insights.liquibase.parser.ChangeLogPipeline;
+
+import java.io.File;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+/**
+ * Maven Plugin to compare the Liquibase schemas of two change log trees, e.g. a base checkout and the working tree.
+ */
+@Mojo(name = "schema-diff", defaultPhase = LifecyclePhase.GENERATE_RESOURCES, threadSafe = true)
+public class SchemaDiffMojo extends AbstractMojo {
+
+    /**
+     * Directory containing the Liquibase change log XML files of the base schema.
+     */
+    @Parameter(property = "baseChangeLogsDir", required = true)
+    private File baseChangeLogsDir;
+
+    /**
+     * Directory containing the Liquibase change log XML files of the schema compared to the base.
+     */
+    @Parameter(property = "changeLogsDir", required = true)
+    private File changeLogsDir;
+
+    /**
+     * Output directory for the schema diff files.
+     */
+    @Parameter(property = "outputDir", required = true, defaultValue = "target/html")
+    private File outputDir;
+
+    /**
+     * Name of the schema diff files, without extension; a .json and a .html file are written.
+     */
+    @Parameter(property = "schemaDiffFileName", required = false, defaultValue = "liquibase-schema-diff")
+    private String schemaDiffFileName;
+
+    /**
+     * Number of threads parsing change log files ahead of the one being applied. Defaults to the number of
+     * available processors.
+     */
+    @Parameter(property = "changeLogThreads", required = false, defaultValue = "0")
+    private int changeLogThreads;
+
+    /**
+     * Master change log, relative to each of the change log directories. When set, only the files it includes are
+     * parsed, in include order; otherwise every XML file under the directory is parsed in file name order.
+     */
+    @Parameter(property = "masterChangeLog", required = false)
+    private String masterChangeLog;
+
+    public void execute() throws MojoExecutionException {
+        getLog().info("Starting Liquibase Schema Diff...");
+
+        for (File dir : List.of(baseChangeLogsDir, changeLogsDir)) {
+            if (!dir.exists() || !dir.isDirectory()) {
+                throw new MojoExecutionException("The provided change log directory does not exist or is not a directory: " + dir);
+            }
+        }
+
+        if (!outputDir.exists()) {
+            if (!outputDir.mkdirs()) {
+                throw new MojoExecutionException("Failed to create output directory: " + outputDir);
+            }
+        }
+
+        // Files with the same content on both sides are only parsed once
+        CachingChangeLogParser parser = new CachingChangeLogParser(new ChangeLogParser());
+
+        int threads = changeLogThreads > 0 ? changeLogThreads : Runtime.getRuntime().availableProcessors();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            ChangeLogPipeline pipeline = new ChangeLogPipeline(parser, executor, threads * 2);
+            Map<String, Table> baseTables = pipeline.buildSchema(baseChangeLogsDir, masterChangeLog);
+            Map<String, Table> tables = pipeline.buildSchema(changeLogsDir, masterChangeLog);
+            getLog().info("Reused the parsed content of " + parser.getHits() + " change log files.");
+
+            SchemaDiff diff = SchemaDiff.between(baseTables, tables);
+            getLog().info("Schema diff: " + diff.addedTables().size() + " added tables, " + diff.droppedTables().size()
+                    + " dropped tables, " + diff.modifiedTables().size() + " modified tables.");
+
+            File jsonFile = new File(outputDir, schemaDiffFileName + ".json");
+            try (Writer writer = Files.newBufferedWriter(jsonFile.toPath(), StandardCharsets.UTF_8)) {
+                SchemaDiffReportWriter.writeJson(diff, writer);
+            }
+            File htmlFile = new File(outputDir, schemaDiffFileName + ".html");
+            try (Writer writer = Files.newBufferedWriter(htmlFile.toPath(), StandardCharsets.UTF_8)) {
+                SchemaDiffReportWriter.writeHtml(diff, "Schema diff: " + baseChangeLogsDir.getName() + " vs " + changeLogsDir.getName(), writer);
+            }
+            getLog().info("Schema diff generated at: " + htmlFile.getAbsolutePath());
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MojoExecutionException("Schema diff generation was interrupted", e);
+        } catch (Exception e) {
+            throw new MojoExecutionException("Error during schema diff generation", e);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        getLog().info("Liquibase Schema Diff completed successfully.");
+    }
+}
@@ -1,17 +1,25 @@
 package uk.gov.moj.cpp.service.insights.liquibase;
 
-import uk.gov.moj.cpp.service.insights.liquibase.collector.FileCollector;
+import uk.gov.moj.cpp.service.insights.liquibase.collector.ServiceCollector;
+import uk.gov.moj.cpp.service.insights.liquibase.model.SchemaBuildState;
+import uk.gov.moj.cpp.service.insights.liquibase.model.SchemaHistory;
+import uk.gov.moj.cpp.service.insights.liquibase.model.Service;
 import uk.gov.moj.cpp.service.insights.liquibase.model.Table;
 import uk.gov.moj.cpp.service.insights.liquibase.parser.ChangeLogParser;
+import uk.gov.moj.cpp.service.insights.liquibase.parser.ChangeLogPipeline;
 import uk.gov.moj.cpp.service.insights.liquibase.parser.IChangeLogParser;
 import uk.gov.moj.cpp.service.insights.liquibase.visualization.IVisualizationGenerator;
+import uk.gov.moj.cpp.service.insights.liquibase.visualization.ServiceSchemaVisualizer;
 import uk.gov.moj.cpp.service.insights.liquibase.visualization.VisualizationGenerator;
+import uk.gov.moj.cpp.service.insights.util.BuildStateUtil;
 import uk.gov.moj.cpp.service.insights.util.ServiceUtil;
 
 import java.io.File;
-import java.util.LinkedHashMap;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
@@ -25,12 +33,21 @@ import org.apache.maven.plugins.annotations.Parameter;
 @Mojo(name = "visualize-schema", defaultPhase = LifecyclePhase.GENERATE_RESOURCES, threadSafe = true)
 public class SchemaVisualizerMojo extends AbstractMojo {
 
+    private static final String BUILD_STATE_FILE = "schema-build-state.json";
+
     /**
-     * Directory containing Liquibase change log XML files.
+     * Directory containing Liquibase change log XML files. Required unless servicesRootDir is set.
      */
-    @Parameter(property = "changeLogsDir", required = true)
+    @Parameter(property = "changeLogsDir", required = false)
     private File changeLogsDir;
 
+    /**
+     * Root directory containing the cpp.context.* service directories. When set, the schema of every service found
+     * under it is visualized on its own page, and an index page links to them; changeLogsDir is then ignored.
+     */
+    @Parameter(property = "servicesRootDir", required = false)
+    private File servicesRootDir;
+
     /**
      * Output directory for the schema visualization HTML file.
      */
@@ -38,15 +55,64 @@ public class SchemaVisualizerMojo extends AbstractMojo {
     private File outputDir;
 
     /**
-     * Name of the schema visualization file.
+     * Name of the schema visualization file. In multi-service mode, each page is prefixed with the service name.
      */
     @Parameter(property = "schemaFileName", required = false, defaultValue = "liquibase-schema-visualization.html")
     private String schemaFileName;
 
+    /**
+     * Name of the index page written in multi-service mode.
+     */
+    @Parameter(property = "schemaIndexFileName", required = false, defaultValue = "liquibase-schema-index.html")
+    private String schemaIndexFileName;
+
+    /**
+     * Number of threads parsing change log files ahead of the one being applied. Defaults to the number of
+     * available processors.
+     */
+    @Parameter(property = "changeLogThreads", required = false, defaultValue = "0")
+    private int changeLogThreads;
+
+    /**
+     * Number of services visualized concurrently in multi-service mode. Defaults to the number of available
+     * processors.
+     */
+    @Parameter(property = "serviceThreads", required = false, defaultValue = "0")
+    private int serviceThreads;
+
+    /**
+     * In multi-service mode, skip the services whose change log files are unchanged since the previous run; the
+     * state of the previous run is kept in the output directory.
+     */
+    @Parameter(property = "schemaIncremental", required = false, defaultValue = "true")
+    private boolean incremental;
+
+    /**
+     * Master change log, relative to changeLogsDir. When set, only the files it includes, directly or not, are
+     * parsed, in include order; otherwise every XML file under changeLogsDir is parsed in file name order.
+     */
+    @Parameter(property = "masterChangeLog", required = false)
+    private String masterChangeLog;
+
+    /**
+     * Id of a changeSet, or tag set by a tagDatabase change. When set, the visualization shows the schema as it was
+     * right after that changeSet instead of after all of them. Cannot be combined with servicesRootDir.
+     */
+    @Parameter(property = "schemaAsOf", required = false)
+    private String schemaAsOf;
+
     public void execute() throws MojoExecutionException {
         getLog().info("Starting Liquibase Schema Visualization...");
 
-        if (!changeLogsDir.exists() || !changeLogsDir.isDirectory()) {
+        if (servicesRootDir != null) {
+            if (!servicesRootDir.isDirectory()) {
+                throw new MojoExecutionException("The provided servicesRootDir does not exist or is not a directory: " + servicesRootDir);
+            }
+            if (schemaAsOf != null && !schemaAsOf.isBlank()) {
+                // A changeSet id or tag belongs to the change logs of a single service
+                throw new MojoExecutionException("schemaAsOf cannot be used with servicesRootDir.");
+            }
+        } else if (changeLogsDir == null || !changeLogsDir.exists() || !changeLogsDir.isDirectory()) {
             throw new MojoExecutionException("The provided changeLogsDir does not exist or is not a directory: " + changeLogsDir);
         }
 
@@ -57,31 +123,72 @@ public class SchemaVisualizerMojo extends AbstractMojo {
         }
 
         IChangeLogParser parser = new ChangeLogParser();
-        IVisualizationGenerator generator = new VisualizationGenerator();
 
+        int threads = changeLogThreads > 0 ? changeLogThreads : Runtime.getRuntime().availableProcessors();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
         try {
-            // Collect all change log XML files in the specified directory
-            List<File> xmlFiles = FileCollector.collectChangeLogFiles(changeLogsDir.getAbsolutePath());
-
-            // Build the schema model
-            Map<String, Table> tables = new LinkedHashMap<>();
-            for (File xmlFile : xmlFiles) {
-                parser.parseChangeLog(xmlFile, tables);
-            }
-
-            // Generate HTML visualization
-            if (!tables.isEmpty()) {
-                String filePath = new File(outputDir, schemaFileName).getAbsolutePath();
-                generator.generateHTMLVisualization(tables, filePath, ServiceUtil.getServiceNameRegex(changeLogsDir.getAbsolutePath()));
-                getLog().info("Schema visualization generated at: " + filePath);
+            // Files are parsed concurrently and applied in order
+            ChangeLogPipeline pipeline = new ChangeLogPipeline(parser, executor, threads * 2);
+            if (servicesRootDir != null) {
+                visualizeServices(pipeline);
             } else {
-                getLog().warn("No tables found to generate visualization.");
+                visualizeChangeLogs(pipeline);
             }
-
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MojoExecutionException("Schema visualization generation was interrupted", e);
+        } catch (MojoExecutionException e) {
+            throw e;
         } catch (Exception e) {
             throw new MojoExecutionException("Error during schema visualization generation", e);
+        } finally {
+            executor.shutdownNow();
         }
 
         getLog().info("Liquibase Schema Visualization completed successfully.");
     }
+
+    private void visualizeChangeLogs(ChangeLogPipeline pipeline) throws Exception {
+        // Build the schema model
+        Map<String, Table> tables;
+        if (schemaAsOf != null && !schemaAsOf.isBlank()) {
+            SchemaHistory history = pipeline.buildHistory(changeLogsDir, masterChangeLog);
+            tables = history.getSchemaAsOf(schemaAsOf).orElseThrow(() ->
+                    new MojoExecutionException("No changeSet or tag found for schemaAsOf: " + schemaAsOf));
+            getLog().info("Showing the schema as of " + schemaAsOf + " out of " + history.size() + " changeSets.");
+        } else {
+            tables = pipeline.buildSchema(changeLogsDir, masterChangeLog);
+        }
+
+        // Generate HTML visualization
+        if (!tables.isEmpty()) {
+            String filePath = new File(outputDir, schemaFileName).getAbsolutePath();
+            IVisualizationGenerator generator = new VisualizationGenerator();
+            generator.generateHTMLVisualization(tables, filePath, ServiceUtil.getServiceNameRegex(changeLogsDir.getAbsolutePath()));
+            getLog().info("Schema visualization generated at: " + filePath);
+        } else {
+            getLog().warn("No tables found to generate visualization.");
+        }
+    }
+
+    /**
+     * Visualizes every service found under servicesRootDir and links them from an index page. The change log files
+     * of all the services are parsed by the pipeline's executor.
+     */
+    private void visualizeServices(ChangeLogPipeline pipeline) throws Exception {
+        List<Service> services = new ServiceCollector().collectServices(servicesRootDir.getAbsolutePath());
+        getLog().info("Found " + services.size() + " services with Liquibase change logs under: " + servicesRootDir);
+
+        Path buildStatePath = new File(outputDir, BUILD_STATE_FILE).toPath();
+        SchemaBuildState previousState = incremental
+                ? BuildStateUtil.read(buildStatePath, SchemaBuildState.class, getLog()).orElse(null)
+                : null;
+
+        int threads = serviceThreads > 0 ? serviceThreads : Runtime.getRuntime().availableProcessors();
+        SchemaBuildState buildState = new ServiceSchemaVisualizer(getLog(), pipeline, new VisualizationGenerator(),
+                masterChangeLog, threads).visualize(services, previousState, outputDir, schemaFileName, schemaIndexFileName);
+
+        // Recorded only once the pages are in line with it
+        BuildStateUtil.write(buildStatePath, buildState);
+    }
 }
@@ -0,0 +1,105 @@
+package uk.gov.moj.cpp.service.insights.liquibase.analysis;
+
+import uk.gov.moj.cpp.service.insights.liquibase.analysis.ReferenceInference.InferredReference;
+import uk.gov.moj.cpp.service.insights.liquibase.model.ForeignKey;
+import uk.gov.moj.cpp.service.insights.liquibase.model.Index;
+import uk.gov.moj.cpp.service.insights.liquibase.model.Table;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Finds the foreign keys whose columns are not covered by an index, which makes joins and cascading deletes on the
+ * referenced table scan the referencing table.
+ * <p>
+ * A foreign key column is covered when an index of its table, or its primary key, starts with it. Liquibase foreign
+ * key constraints over several columns are recorded as one {@link ForeignKey} per column sharing the constraint
+ * name, so a column is also covered when it appears in a leading run of index columns that all belong to its
+ * constraint, e.g. an index on (case_id, case_version) for a foreign key on those two columns. Independent foreign
+ * keys to the same table are not grouped: an index on (from_court_id, to_court_id) does not cover to_court_id.
+ */
+public final class ForeignKeyIndexAdvisor {
+
+    private ForeignKeyIndexAdvisor() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated.");
+    }
+
+    /**
+     * Finds the foreign keys without a covering index.
+     *
+     * @param tables          The schema model.
+     * @param includeInferred Whether to also check the references inferred from column names by
+     *                        {@link ReferenceInference}.
+     * @return The unindexed foreign keys, by table then column name.
+     */
+    public static List<UnindexedForeignKey> findUnindexedForeignKeys(Map<String, Table> tables, boolean includeInferred) {
+        List<UnindexedForeignKey> unindexed = new ArrayList<>();
+        for (Table table : tables.values()) {
+            for (ForeignKey fk : table.foreignKeys()) {
+                if (!isCovered(table, fk.columnName(), fk.constraintName())) {
+                    unindexed.add(new UnindexedForeignKey(table.name(), fk.columnName(), fk.referencedTable(), false));
+                }
+            }
+        }
+        if (includeInferred) {
+            for (InferredReference reference : ReferenceInference.inferReferences(tables)) {
+                Table table = tables.get(reference.tableName());
+                if (!isCovered(table, reference.columnName(), null)) {
+                    unindexed.add(new UnindexedForeignKey(reference.tableName(), reference.columnName(), reference.referencedTable(), true));
+                }
+            }
+        }
+        unindexed.sort(Comparator.comparing(UnindexedForeignKey::tableName).thenComparing(UnindexedForeignKey::columnName));
+        return unindexed;
+    }
+
+    private static boolean isCovered(Table table, String columnName, String constraintName) {
+        // Columns of the same composite foreign key constraint
+        Set<String> siblingColumns = table.foreignKeys().stream()
+                .filter(fk -> constraintName != null && constraintName.equalsIgnoreCase(fk.constraintName()))
+                .map(fk -> fk.columnName().toLowerCase())
+                .collect(Collectors.toCollection(HashSet::new));
+        siblingColumns.add(columnName.toLowerCase());
+
+        if (leadingRunContains(table.primaryKeys(), columnName, siblingColumns)) {
+            return true;
+        }
+        for (Index index : table.indexes()) {
+            if (leadingRunContains(index.columns(), columnName, siblingColumns)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether the column is among the leading index columns that all belong to the sibling columns.
+     */
+    private static boolean leadingRunContains(List<String> indexColumns, String columnName, Set<String> siblingColumns) {
+        for (String indexColumn : indexColumns) {
+            if (indexColumn == null || !siblingColumns.contains(indexColumn.toLowerCase())) {
+                return false;
+            }
+            if (indexColumn.equalsIgnoreCase(columnName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * A foreign key without a covering index.
+     *
+     * @param tableName       The name of the referencing table.
+     * @param columnName      The foreign key column.
+     * @param referencedTable The referenced table.
+     * @param inferred        Whether the reference is inferred from the column name rather than declared.
+     */
+    public record UnindexedForeignKey(String tableName, String columnName, String referencedTable, boolean inferred) {
+    }
+}
@@ -0,0 +1,46 @@
+package uk.gov.moj.cpp.service.insights.liquibase.analysis;
+
+import uk.gov.moj.cpp.service.insights.liquibase.analysis.ForeignKeyIndexAdvisor.UnindexedForeignKey;
+import uk.gov.moj.cpp.service.insights.liquibase.analysis.RedundantIndexDetector.RedundantIndex;
+
+import java.io.Writer;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+/**
+ * Findings of the index-advisor goal for a schema.
+ *
+ * @param unindexedForeignKeys Foreign keys without a covering index.
+ * @param redundantIndexes     Indexes that can be dropped, by table name.
+ */
+public record IndexAdviceReport(List<UnindexedForeignKey> unindexedForeignKeys,
+                                Map<String, List<RedundantIndex>> redundantIndexes) {
+
+    private static final Gson GSON = new GsonBuilder().disableHtmlEscaping().setPrettyPrinting().create();
+
+    public IndexAdviceReport {
+        unindexedForeignKeys = List.copyOf(unindexedForeignKeys);
+        redundantIndexes = Collections.unmodifiableMap(new LinkedHashMap<>(redundantIndexes));
+    }
+
+    /**
+     * @return The number of redundant indexes, over all tables.
+     */
+    public int redundantIndexCount() {
+        return redundantIndexes.values().stream().mapToInt(List::size).sum();
+    }
+
+    /**
+     * Writes the report as JSON.
+     *
+     * @param writer Writer receiving the JSON.
+     */
+    public void writeJson(Writer writer) {
+        GSON.toJson(this, IndexAdviceReport.class, writer);
+    }
+}
@@ -0,0 +1,165 @@
+package uk.gov.moj.cpp.service.insights.liquibase.analysis;
+
+import uk.gov.moj.cpp.service.insights.liquibase.model.Index;
+import uk.gov.moj.cpp.service.insights.liquibase.model.Table;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds the indexes that can be dropped without slowing down any query, because another index, or the primary key,
+ * already serves every lookup they serve. Each of them costs a write on every insert and on every update of their
+ * columns.
+ * <p>
+ * An index is redundant when it has the same columns, in the same order, as the primary key or another index, or
+ * when its columns are a leading prefix of those of the primary key or another index. A unique index enforces a
+ * constraint and is only redundant when its duplicate is unique as well; it is never reported as the prefix of a
+ * wider index. Of two duplicate indexes, the unique one, then the first created, is kept.
+ */
+public final class RedundantIndexDetector {
+
+    private static final String PRIMARY_KEY = "PRIMARY KEY";
+
+    private RedundantIndexDetector() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated.");
+    }
+
+    /**
+     * Finds the redundant indexes of a schema.
+     *
+     * @param tables The schema model.
+     * @return The redundant indexes, by table name, in table name order.
+     */
+    public static Map<String, List<RedundantIndex>> findRedundantIndexes(Map<String, Table> tables) {
+        Map<String, List<RedundantIndex>> redundantIndexes = new LinkedHashMap<>();
+        List<Table> sortedTables = new ArrayList<>(tables.values());
+        sortedTables.sort(Comparator.comparing(Table::name));
+        for (Table table : sortedTables) {
+            List<RedundantIndex> tableFindings = findRedundantIndexes(table);
+            if (!tableFindings.isEmpty()) {
+                redundantIndexes.put(table.name(), tableFindings);
+            }
+        }
+        return redundantIndexes;
+    }
+
+    /**
+     * Finds the redundant indexes of a table.
+     *
+     * @param table The table.
+     * @return The redundant indexes, in index creation order.
+     */
+    public static List<RedundantIndex> findRedundantIndexes(Table table) {
+        List<String> primaryKey = lowerCase(table.primaryKeys());
+        List<Index> indexes = table.indexes();
+
+        // Indexes kept so far; a later index that duplicates one of them is redundant
+        List<Index> kept = new ArrayList<>();
+        Map<Index, RedundantIndex> redundant = new IdentityHashMap<>();
+        for (Index index : indexes) {
+            List<String> columns = lowerCase(index.columns());
+            if (columns.isEmpty()) {
+                continue;
+            }
+            if (columns.equals(primaryKey)) {
+                redundant.put(index, new RedundantIndex(table.name(), index.name(), index.columns(), Redundancy.DUPLICATE, PRIMARY_KEY));
+                continue;
+            }
+            Index duplicate = findDuplicate(kept, columns);
+            if (duplicate == null) {
+                kept.add(index);
+            } else if (index.unique() && !duplicate.unique()) {
+                // The unique index enforces a constraint the kept one does not, so it is kept instead
+                kept.set(kept.indexOf(duplicate), index);
+                redundant.put(duplicate, new RedundantIndex(table.name(), duplicate.name(), duplicate.columns(), Redundancy.DUPLICATE, index.name()));
+            } else {
+                redundant.put(index, new RedundantIndex(table.name(), index.name(), index.columns(), Redundancy.DUPLICATE, duplicate.name()));
+            }
+        }
+
+        for (Index index : kept) {
+            if (index.unique()) {
+                continue;
+            }
+            List<String> columns = lowerCase(index.columns());
+            String coveringIndex = isStrictPrefix(columns, primaryKey) ? PRIMARY_KEY : findCoveringIndex(kept, columns);
+            if (coveringIndex != null) {
+                redundant.put(index, new RedundantIndex(table.name(), index.name(), index.columns(), Redundancy.PREFIX, coveringIndex));
+            }
+        }
+
+        List<RedundantIndex> findings = new ArrayList<>();
+        for (Index index : indexes) {
+            RedundantIndex finding = redundant.get(index);
+            if (finding != null) {
+                findings.add(finding);
+            }
+        }
+        return findings;
+    }
+
+    private static Index findDuplicate(List<Index> indexes, List<String> columns) {
+        for (Index index : indexes) {
+            if (lowerCase(index.columns()).equals(columns)) {
+                return index;
+            }
+        }
+        return null;
+    }
+
+    private static String findCoveringIndex(List<Index> indexes, List<String> columns) {
+        for (Index index : indexes) {
+            if (isStrictPrefix(columns, lowerCase(index.columns()))) {
+                return index.name();
+            }
+        }
+        return null;
+    }
+
+    private static boolean isStrictPrefix(List<String> prefix, List<String> columns) {
+        return prefix.size() < columns.size() && columns.subList(0, prefix.size()).equals(prefix);
+    }
+
+    private static List<String> lowerCase(List<String> columns) {
+        List<String> lowerCased = new ArrayList<>(columns.size());
+        for (String column : columns) {
+            lowerCased.add(column == null ? null : column.toLowerCase());
+        }
+        return lowerCased;
+    }
+
+    /**
+     * Why an index is redundant.
+     */
+    public enum Redundancy {
+        /**
+         * Same columns, in the same order, as the covering index.
+         */
+        DUPLICATE,
+        /**
+         * Columns are a leading prefix of those of the covering index.
+         */
+        PREFIX
+    }
+
+    /**
+     * An index that can be dropped.
+     *
+     * @param tableName     The name of the table.
+     * @param indexName     The name of the redundant index.
+     * @param columns       Its columns.
+     * @param redundancy    Why it is redundant.
+     * @param coveringIndex The name of the index that serves its lookups, or {@code PRIMARY KEY}.
+     */
+    public record RedundantIndex(String tableName, String indexName, List<String> columns, Redundancy redundancy,
+                                 String coveringIndex) {
+
+        public RedundantIndex {
+            columns = List.copyOf(columns);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package uk.gov.moj.cpp.service.insights.liquibase.analysis;
+
+import uk.gov.moj.cpp.service.insights.liquibase.model.Column;
+import uk.gov.moj.cpp.service.insights.liquibase.model.Table;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Infers the references between tables that are not declared as foreign keys, based on naming conventions:
+ * a column named {@code <table>_id} or {@code <table>_key} is taken to reference that table.
+ */
+public final class ReferenceInference {
+
+    private static final Set<String> AUDIT_COLUMNS = Set.of(
+            "created_at",
+            "created_by",
+            "payload",
+            "last_modified_ts",
+            "last_updated_ts",
+            "updated_by",
+            "deleted_at",
+            "deleted_by"
+            // Add any other audit columns as needed
+    );
+
+    private static final List<String> TABLE_NAME_AFFIXES = Arrays.asList("_details", "_detail", "details", "detail", "cpp_", "cpp", "ha_");
+
+    private ReferenceInference() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated.");
+    }
+
+    /**
+     * Establish reference relationships based on naming conventions.
+     * Only considers columns ending with _id or _key, excluding audit and foreign key columns.
+     *
+     * @param tables The schema model.
+     * @return The inferred references, by table name in case-insensitive order, then by column in table order.
+     */
+    public static List<InferredReference> inferReferences(Map<String, Table> tables) {
+        List<InferredReference> references = new ArrayList<>();
+
+        // Preprocess: Create a map for quick table name lookup (case-insensitive)
+        Map<String, String> lowerCaseTableMap = tables.keySet().stream()
+                .collect(Collectors.toMap(String::toLowerCase, name -> name));
+
+        List<String> sortedTableNames = new ArrayList<>(tables.keySet());
+        sortedTableNames.sort(String.CASE_INSENSITIVE_ORDER);
+        for (String tableName : sortedTableNames) {
+            Table table = tables.get(tableName);
+            for (Column column : table.columns().values()) {
+                String columnName = column.name().toLowerCase();
+
+                // Skip audit columns
+                if (AUDIT_COLUMNS.contains(columnName)) {
+                    continue;
+                }
+
+                // Skip foreign key columns
+                if (isForeignKeyColumn(column, table)) {
+                    continue;
+                }
+
+                // Check if column ends with _id or _key
+                if (columnName.endsWith("_id") || columnName.endsWith("_key")) {
+                    // Remove the suffix to get the base name
+                    String baseName = columnName.endsWith("_id") ?
+                            columnName.substring(0, columnName.length() - 3) :
+                            columnName.substring(0, columnName.length() - 4);
+
+                    String referencedTable = findReferencedTable(baseName, lowerCaseTableMap);
+                    if (referencedTable != null) {
+                        references.add(new InferredReference(table.name(), column.name(), referencedTable));
+                    }
+                }
+            }
+        }
+
+        return references;
+    }
+
+    /**
+     * Determines if a column is part of a foreign key.
+     */
+    private static boolean isForeignKeyColumn(Column column, Table table) {
+        return table.foreignKeys().stream()
+                .anyMatch(fk -> fk.columnName().equalsIgnoreCase(column.name()));
+    }
+
+    /**
+     * Attempts to find the referenced table based on the base name.
+     * First tries exact match, then appends various suffixes and retries.
+     *
+     * @param baseName          The base name derived from the column name.
+     * @param lowerCaseTableMap The map of table names in lowercase to actual names.
+     * @return The referenced table name if found, otherwise null.
+     */
+    private static String findReferencedTable(String baseName, Map<String, String> lowerCaseTableMap) {
+        // Direct match (case-insensitive)
+        String matchedTable = lowerCaseTableMap.get(baseName.toLowerCase());
+        if (matchedTable != null) {
+            return matchedTable;
+        }
+
+        // Attempt to find matching table with suffixes
+        for (String suffix : TABLE_NAME_AFFIXES) {
+            String nameWithSuffix = baseName + suffix;
+            matchedTable = lowerCaseTableMap.get(nameWithSuffix.toLowerCase());
+            if (matchedTable != null) {
+                return matchedTable;
+            }
+
+            nameWithSuffix = suffix + baseName;
+            matchedTable = lowerCaseTableMap.get(nameWithSuffix.toLowerCase());
+            if (matchedTable != null) {
+                return matchedTable;
+            }
+        }
+
+        // If no match found, return null
+        return null;
+    }
+
+    /**
+     * A reference inferred from the name of a column.
+     *
+     * @param tableName       The name of the table owning the column.
+     * @param columnName      The name of the column.
+     * @param referencedTable The name of the table it is taken to reference.
+     */
+    public record InferredReference(String tableName, String columnName, String referencedTable) {
+    }
+}
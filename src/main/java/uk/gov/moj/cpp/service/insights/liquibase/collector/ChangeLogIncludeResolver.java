@@ -0,0 +1,101 @@
+package uk.gov.moj.cpp.service.insights.liquibase.collector;
+
+import uk.gov.moj.cpp.service.insights.liquibase.exception.ChangeLogParsingException;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Resolves the {@code <include>} and {@code <includeAll>} elements of a change log to the files they include.
+ * <p>
+ * The files of an {@code includeAll} are taken from its directory and sub-directories in path order. Paths are
+ * resolved against the directory of the including file when {@code relativeToChangelogFile} is {@code true}.
+ * Otherwise they are resolved like classpath resources: against the change logs directory, then against each of
+ * its parent directories in turn, so that {@code liquibase/changesets/001.xml} is found from
+ * {@code src/main/resources/liquibase}.
+ */
+public class ChangeLogIncludeResolver {
+
+    private static final String XML_EXTENSION = ".xml";
+
+    private final Path changeLogsDir;
+
+    /**
+     * Constructs a ChangeLogIncludeResolver.
+     *
+     * @param changeLogsDir Directory the paths of non-relative includes are resolved against.
+     */
+    public ChangeLogIncludeResolver(File changeLogsDir) {
+        this.changeLogsDir = changeLogsDir.toPath().toAbsolutePath().normalize();
+    }
+
+    /**
+     * Resolves an include of a change log.
+     *
+     * @param changeLog The absolute path of the including change log.
+     * @param include   The include.
+     * @return The absolute paths of the included files, in the order Liquibase runs them.
+     * @throws ChangeLogParsingException If the included file or directory does not exist.
+     */
+    public List<Path> resolve(Path changeLog, Include include) throws ChangeLogParsingException {
+        Path target = resolvePath(changeLog, include);
+        if (include.all()) {
+            return listChangeLogs(target);
+        }
+        if (!Files.isRegularFile(target)) {
+            throw new ChangeLogParsingException("Included change log not found: " + target);
+        }
+        return List.of(target);
+    }
+
+    private Path resolvePath(Path changeLog, Include include) {
+        String path = include.path().trim();
+        if (include.relativeToChangeLog()) {
+            return changeLog.getParent().resolve(path).normalize();
+        }
+        Path candidate = Path.of(path);
+        if (candidate.isAbsolute()) {
+            return candidate.normalize();
+        }
+        // Search the change logs directory, then its parents, the way a classpath resource would be found
+        for (Path root = changeLogsDir; root != null; root = root.getParent()) {
+            Path resolved = root.resolve(path).normalize();
+            if (Files.exists(resolved)) {
+                return resolved;
+            }
+        }
+        return changeLogsDir.resolve(path).normalize();
+    }
+
+    private static List<Path> listChangeLogs(Path directory) throws ChangeLogParsingException {
+        if (!Files.isDirectory(directory)) {
+            throw new ChangeLogParsingException("Included change log directory not found: " + directory);
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            return paths
+                    .filter(Files::isRegularFile)
+                    .filter(path -> path.toString().endsWith(XML_EXTENSION))
+                    .sorted(Comparator.comparing(Path::toString))
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new ChangeLogParsingException("Failed to list change log directory: " + directory, e);
+        }
+    }
+
+    /**
+     * An {@code <include>} or {@code <includeAll>} element of a change log.
+     *
+     * @param path                The {@code file} of an include, or the {@code path} of an includeAll.
+     * @param all                 Whether the element is an includeAll.
+     * @param relativeToChangeLog Whether the path is relative to the including change log.
+     * @param position            The number of changeSets of the including change log that come before it.
+     */
+    public record Include(String path, boolean all, boolean relativeToChangeLog, int position) {
+    }
+}
@@ -12,6 +12,7 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 public class FileCollector {
+
     public static List<File> collectChangeLogFiles(String directoryPath) throws IOException {
         Path startPath = Paths.get(directoryPath);
 
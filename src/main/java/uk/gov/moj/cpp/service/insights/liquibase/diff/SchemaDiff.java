@@ -0,0 +1,142 @@
+package uk.gov.moj.cpp.service.insights.liquibase.diff;
+
+import uk.gov.moj.cpp.service.insights.liquibase.model.Column;
+import uk.gov.moj.cpp.service.insights.liquibase.model.ForeignKey;
+import uk.gov.moj.cpp.service.insights.liquibase.model.Index;
+import uk.gov.moj.cpp.service.insights.liquibase.model.Table;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+
+/**
+ * Differences between two schemas: the tables added and dropped, and for the tables present in both, the columns,
+ * primary key, foreign keys and indexes that changed. Tables and columns are matched by lower-cased name and
+ * listed in alphabetical order.
+ *
+ * @param addedTables    Tables only present in the target schema.
+ * @param droppedTables  Tables only present in the base schema.
+ * @param modifiedTables Differences of the tables present in both schemas, for those that differ.
+ */
+public record SchemaDiff(List<Table> addedTables, List<Table> droppedTables, List<TableDiff> modifiedTables) {
+
+    public SchemaDiff {
+        addedTables = List.copyOf(addedTables);
+        droppedTables = List.copyOf(droppedTables);
+        modifiedTables = List.copyOf(modifiedTables);
+    }
+
+    /**
+     * Compares two schemas.
+     *
+     * @param base   The tables of the base schema, by lower-cased name.
+     * @param target The tables of the target schema, by lower-cased name.
+     * @return The differences from base to target.
+     */
+    public static SchemaDiff between(Map<String, Table> base, Map<String, Table> target) {
+        List<Table> addedTables = new ArrayList<>();
+        List<Table> droppedTables = new ArrayList<>();
+        List<TableDiff> modifiedTables = new ArrayList<>();
+
+        TreeSet<String> tableNames = new TreeSet<>(base.keySet());
+        tableNames.addAll(target.keySet());
+        for (String tableName : tableNames) {
+            Table baseTable = base.get(tableName);
+            Table targetTable = target.get(tableName);
+            if (baseTable == null) {
+                addedTables.add(targetTable);
+            } else if (targetTable == null) {
+                droppedTables.add(baseTable);
+            } else if (!baseTable.equals(targetTable)) {
+                TableDiff tableDiff = TableDiff.between(baseTable, targetTable);
+                if (!tableDiff.isEmpty()) {
+                    modifiedTables.add(tableDiff);
+                }
+            }
+        }
+        return new SchemaDiff(addedTables, droppedTables, modifiedTables);
+    }
+
+    public boolean isEmpty() {
+        return addedTables.isEmpty() && droppedTables.isEmpty() && modifiedTables.isEmpty();
+    }
+
+    /**
+     * Differences of a table present in both schemas.
+     *
+     * @param tableName          The lower-cased table name.
+     * @param addedColumns       Columns only present in the target table.
+     * @param droppedColumns     Columns only present in the base table.
+     * @param modifiedColumns    Columns whose type, constraints or default value changed.
+     * @param basePrimaryKey     The primary key columns of the base table, if the primary key changed; otherwise null.
+     * @param targetPrimaryKey   The primary key columns of the target table, if the primary key changed; otherwise null.
+     * @param addedForeignKeys   Foreign keys only present in the target table.
+     * @param droppedForeignKeys Foreign keys only present in the base table.
+     * @param addedIndexes       Indexes only present in the target table, or whose definition changed.
+     * @param droppedIndexes     Indexes only present in the base table, or whose definition changed.
+     */
+    public record TableDiff(String tableName,
+                            List<Column> addedColumns, List<Column> droppedColumns, List<ColumnChange> modifiedColumns,
+                            List<String> basePrimaryKey, List<String> targetPrimaryKey,
+                            List<ForeignKey> addedForeignKeys, List<ForeignKey> droppedForeignKeys,
+                            List<Index> addedIndexes, List<Index> droppedIndexes) {
+
+        static TableDiff between(Table base, Table target) {
+            List<Column> addedColumns = new ArrayList<>();
+            List<Column> droppedColumns = new ArrayList<>();
+            List<ColumnChange> modifiedColumns = new ArrayList<>();
+            TreeSet<String> columnNames = new TreeSet<>(base.columns().keySet());
+            columnNames.addAll(target.columns().keySet());
+            for (String columnName : columnNames) {
+                Column baseColumn = base.columns().get(columnName);
+                Column targetColumn = target.columns().get(columnName);
+                if (baseColumn == null) {
+                    addedColumns.add(targetColumn);
+                } else if (targetColumn == null) {
+                    droppedColumns.add(baseColumn);
+                } else if (!baseColumn.equals(targetColumn)) {
+                    modifiedColumns.add(new ColumnChange(columnName, baseColumn, targetColumn));
+                }
+            }
+
+            boolean primaryKeyChanged = !new TreeSet<>(lowerCase(base.primaryKeys())).equals(new TreeSet<>(lowerCase(target.primaryKeys())));
+            return new TableDiff(target.name(), addedColumns, droppedColumns, modifiedColumns,
+                    primaryKeyChanged ? List.copyOf(base.primaryKeys()) : null,
+                    primaryKeyChanged ? List.copyOf(target.primaryKeys()) : null,
+                    missingFrom(base.foreignKeys(), target.foreignKeys()),
+                    missingFrom(target.foreignKeys(), base.foreignKeys()),
+                    missingFrom(base.indexes(), target.indexes()),
+                    missingFrom(target.indexes(), base.indexes()));
+        }
+
+        public boolean isEmpty() {
+            return addedColumns.isEmpty() && droppedColumns.isEmpty() && modifiedColumns.isEmpty()
+                    && basePrimaryKey == null
+                    && addedForeignKeys.isEmpty() && droppedForeignKeys.isEmpty()
+                    && addedIndexes.isEmpty() && droppedIndexes.isEmpty();
+        }
+
+        /**
+         * Returns the elements of {@code candidates} that are not in {@code reference}.
+         */
+        private static <T> List<T> missingFrom(List<T> reference, List<T> candidates) {
+            return candidates.stream().filter(candidate -> !reference.contains(candidate)).toList();
+        }
+
+        private static List<String> lowerCase(List<String> names) {
+            return names.stream().filter(Objects::nonNull).map(String::toLowerCase).toList();
+        }
+    }
+
+    /**
+     * A column whose definition changed.
+     *
+     * @param columnName The lower-cased column name.
+     * @param base       The column in the base table.
+     * @param target     The column in the target table.
+     */
+    public record ColumnChange(String columnName, Column base, Column target) {
+    }
+}
@@ -0,0 +1,134 @@
+package uk.gov.moj.cpp.service.insights.liquibase.diff;
+
+import uk.gov.moj.cpp.service.insights.liquibase.diff.SchemaDiff.ColumnChange;
+import uk.gov.moj.cpp.service.insights.liquibase.diff.SchemaDiff.TableDiff;
+import uk.gov.moj.cpp.service.insights.liquibase.model.Column;
+import uk.gov.moj.cpp.service.insights.liquibase.model.ForeignKey;
+import uk.gov.moj.cpp.service.insights.liquibase.model.Index;
+import uk.gov.moj.cpp.service.insights.liquibase.model.Table;
+import uk.gov.moj.cpp.service.insights.util.HtmlUtil;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.function.Function;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+/**
+ * Writes a {@link SchemaDiff} as JSON, for tooling, and as a standalone HTML page, for review.
+ */
+public final class SchemaDiffReportWriter {
+
+    private static final Gson GSON = new GsonBuilder().disableHtmlEscaping().setPrettyPrinting().create();
+
+    private SchemaDiffReportWriter() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated.");
+    }
+
+    /**
+     * Writes the differences as JSON; unchanged primary keys are left out.
+     *
+     * @param diff   The differences.
+     * @param writer Writer receiving the JSON.
+     */
+    public static void writeJson(SchemaDiff diff, Writer writer) {
+        GSON.toJson(diff, SchemaDiff.class, writer);
+    }
+
+    /**
+     * Writes the differences as an HTML page.
+     *
+     * @param diff   The differences.
+     * @param title  Title of the page, e.g. the names of the compared trees.
+     * @param writer Writer receiving the HTML.
+     * @throws IOException If an I/O error occurs.
+     */
+    public static void writeHtml(SchemaDiff diff, String title, Writer writer) throws IOException {
+        StringBuilder html = new StringBuilder();
+        html.append("<!DOCTYPE html>\n");
+        html.append("<html lang=\"en\">\n");
+        html.append("<head>\n");
+        html.append("    <meta charset=\"UTF-8\">\n");
+        html.append("    <title>").append(HtmlUtil.escapeHtml(title)).append("</title>\n");
+        html.append("    <link href=\"https://stackpath.bootstrapcdn.com/bootstrap/4.5.2/css/bootstrap.min.css\" rel=\"stylesheet\">\n");
+        html.append("    <style>\n");
+        html.append("        .added { color: #1e7e34; }\n");
+        html.append("        .dropped { color: #bd2130; text-decoration: line-through; }\n");
+        html.append("    </style>\n");
+        html.append("</head>\n");
+        html.append("<body class=\"container my-4\">\n");
+        html.append("    <h1 class=\"h3\">").append(HtmlUtil.escapeHtml(title)).append("</h1>\n");
+
+        if (diff.isEmpty()) {
+            html.append("    <p>No schema differences.</p>\n");
+        }
+        appendTables(html, "Added tables", "added", diff.addedTables());
+        appendTables(html, "Dropped tables", "dropped", diff.droppedTables());
+        if (!diff.modifiedTables().isEmpty()) {
+            html.append("    <h2 class=\"h4 mt-4\">Modified tables</h2>\n");
+            for (TableDiff tableDiff : diff.modifiedTables()) {
+                appendTableDiff(html, tableDiff);
+            }
+        }
+
+        html.append("</body>\n");
+        html.append("</html>\n");
+        writer.write(html.toString());
+    }
+
+    private static void appendTables(StringBuilder html, String heading, String cssClass, List<Table> tables) {
+        if (tables.isEmpty()) {
+            return;
+        }
+        html.append("    <h2 class=\"h4 mt-4\">").append(heading).append("</h2>\n");
+        html.append("    <ul>\n");
+        for (Table table : tables) {
+            html.append("        <li class=\"").append(cssClass).append("\"><strong>").append(HtmlUtil.escapeHtml(table.name()))
+                    .append("</strong> (").append(HtmlUtil.escapeHtml(String.join(", ", table.columns().keySet()))).append(")</li>\n");
+        }
+        html.append("    </ul>\n");
+    }
+
+    private static void appendTableDiff(StringBuilder html, TableDiff tableDiff) {
+        html.append("    <h3 class=\"h5 mt-3\">").append(HtmlUtil.escapeHtml(tableDiff.tableName())).append("</h3>\n");
+        html.append("    <ul>\n");
+        appendItems(html, "added", "Column", tableDiff.addedColumns(), SchemaDiffReportWriter::describe);
+        appendItems(html, "dropped", "Column", tableDiff.droppedColumns(), SchemaDiffReportWriter::describe);
+        appendItems(html, "", "Column changed", tableDiff.modifiedColumns(), SchemaDiffReportWriter::describe);
+        if (tableDiff.basePrimaryKey() != null) {
+            html.append("        <li>Primary key: ").append(HtmlUtil.escapeHtml(String.join(", ", tableDiff.basePrimaryKey())))
+                    .append(" &rarr; ").append(HtmlUtil.escapeHtml(String.join(", ", tableDiff.targetPrimaryKey()))).append("</li>\n");
+        }
+        appendItems(html, "added", "Foreign key", tableDiff.addedForeignKeys(), SchemaDiffReportWriter::describe);
+        appendItems(html, "dropped", "Foreign key", tableDiff.droppedForeignKeys(), SchemaDiffReportWriter::describe);
+        appendItems(html, "added", "Index", tableDiff.addedIndexes(), SchemaDiffReportWriter::describe);
+        appendItems(html, "dropped", "Index", tableDiff.droppedIndexes(), SchemaDiffReportWriter::describe);
+        html.append("    </ul>\n");
+    }
+
+    private static <T> void appendItems(StringBuilder html, String cssClass, String label, List<T> items, Function<T, String> describe) {
+        for (T item : items) {
+            html.append("        <li class=\"").append(cssClass).append("\">").append(label).append(": ")
+                    .append(HtmlUtil.escapeHtml(describe.apply(item))).append("</li>\n");
+        }
+    }
+
+    private static String describe(Column column) {
+        return column.name() + " " + column.type() + (column.isNullable() ? "" : " NOT NULL")
+                + (column.defaultValue() == null ? "" : " DEFAULT " + column.defaultValue());
+    }
+
+    private static String describe(ColumnChange change) {
+        return describe(change.base()) + " -> " + describe(change.target());
+    }
+
+    private static String describe(ForeignKey foreignKey) {
+        return foreignKey.columnName() + " -> " + foreignKey.referencedTable() + "(" + foreignKey.referencedColumn() + ")";
+    }
+
+    private static String describe(Index index) {
+        return index.name() + (index.unique() ? " UNIQUE" : "") + " (" + String.join(", ", index.columns()) + ")";
+    }
+}
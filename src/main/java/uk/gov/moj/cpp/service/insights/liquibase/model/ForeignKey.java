@@ -1,11 +1,22 @@
 package uk.gov.moj.cpp.service.insights.liquibase.model;
 
+/**
+ * A foreign key column. A constraint over several columns is recorded as one ForeignKey per column, sharing the
+ * constraint name.
+ *
+ * @param columnName       The referencing column.
+ * @param referencedTable  The referenced table.
+ * @param referencedColumn The referenced column.
+ * @param constraintName   The name of the constraint, or null for a reference declared on a column.
+ */
 public record ForeignKey(
         String columnName,
         String referencedTable,
-        String referencedColumn
-
-
+        String referencedColumn,
+        String constraintName
 ) {
-}
 
+    public ForeignKey(String columnName, String referencedTable, String referencedColumn) {
+        this(columnName, referencedTable, referencedColumn, null);
+    }
+}
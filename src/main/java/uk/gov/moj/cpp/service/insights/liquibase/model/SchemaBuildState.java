@@ -0,0 +1,65 @@
+package uk.gov.moj.cpp.service.insights.liquibase.model;
+
+import uk.gov.moj.cpp.service.insights.util.BuildState;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * State recorded by a multi-service run of the visualize-schema goal: for each service, the hash of its change
+ * logs and the number of tables of its schema.
+ * <p>
+ * A service whose change logs hash the same on the next run, and whose page still exists, is not visualized
+ * again; its entry in the index page is taken from the state instead.
+ */
+public final class SchemaBuildState implements BuildState {
+
+    /**
+     * Version of the state layout; state written with another version is ignored.
+     */
+    public static final int VERSION = 1;
+
+    private int version = VERSION;
+    private Map<String, ServiceState> services = new LinkedHashMap<>();
+
+    @Override
+    public boolean isCurrent() {
+        return version == VERSION && services != null;
+    }
+
+    public Optional<ServiceState> getService(String serviceName) {
+        return Optional.ofNullable(services.get(serviceName));
+    }
+
+    public void putService(String serviceName, ServiceState serviceState) {
+        services.put(serviceName, serviceState);
+    }
+
+    /**
+     * State of a single service.
+     */
+    public static final class ServiceState {
+        private final String hash;
+        private final int tableCount;
+
+        /**
+         * @param hash       Hash of the master change log name, and of the paths and content of the change log
+         *                   files of the service in file name order, or null when the schema depends on files
+         *                   outside its Liquibase directory, which are not hashed.
+         * @param tableCount Number of tables of the schema of the service.
+         */
+        public ServiceState(String hash, int tableCount) {
+            this.hash = hash;
+            this.tableCount = tableCount;
+        }
+
+        public String getHash() {
+            return hash;
+        }
+
+        public int getTableCount() {
+            return tableCount;
+        }
+    }
+}
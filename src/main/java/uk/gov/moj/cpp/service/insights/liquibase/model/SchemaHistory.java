@@ -0,0 +1,168 @@
+package uk.gov.moj.cpp.service.insights.liquibase.model;
+
+import uk.gov.moj.cpp.service.insights.liquibase.parser.changes.Change;
+import uk.gov.moj.cpp.service.insights.liquibase.parser.changes.ChangeSet;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Schema after each changeSet applied, so that the schema as of any changeSet or tag can be queried without
+ * replaying the change logs.
+ * <p>
+ * The changes are applied to a single {@link SchemaModel}. After each changeSet, only the tables it modified
+ * are copied into an immutable revision; tables it did not touch are shared with the previous revisions. Every
+ * {@code checkpointInterval} revisions, the revision also keeps the full table map, so rebuilding a schema
+ * replays at most that many revisions from the nearest checkpoint.
+ * <p>
+ * The returned schemas are unmodifiable and are not affected by changeSets applied later.
+ */
+public final class SchemaHistory {
+
+    private static final int DEFAULT_CHECKPOINT_INTERVAL = 32;
+
+    private final SchemaModel schema = new SchemaModel();
+    private final int checkpointInterval;
+    private final List<Revision> revisions = new ArrayList<>();
+    private final Map<String, Integer> revisionsByChangeSetId = new HashMap<>();
+    private final Map<String, Integer> revisionsByTag = new HashMap<>();
+
+    public SchemaHistory() {
+        this(DEFAULT_CHECKPOINT_INTERVAL);
+    }
+
+    /**
+     * Constructs a SchemaHistory.
+     *
+     * @param checkpointInterval Number of revisions between two full copies of the table map.
+     */
+    public SchemaHistory(int checkpointInterval) {
+        if (checkpointInterval < 1) {
+            throw new IllegalArgumentException("checkpointInterval must be positive: " + checkpointInterval);
+        }
+        this.checkpointInterval = checkpointInterval;
+    }
+
+    /**
+     * Applies the changes of a changeSet and records the resulting schema as a new revision.
+     *
+     * @param changeSet The changeSet.
+     */
+    public void apply(ChangeSet changeSet) {
+        for (Change change : changeSet.changes()) {
+            change.apply(schema);
+        }
+
+        Map<String, Table> updatedTables = new LinkedHashMap<>();
+        List<String> droppedTables = new ArrayList<>();
+        for (String tableName : schema.takeModifiedTables()) {
+            Table table = schema.tables().get(tableName);
+            if (table == null) {
+                droppedTables.add(tableName);
+            } else {
+                updatedTables.put(tableName, freeze(table));
+            }
+        }
+
+        int revision = revisions.size();
+        Map<String, Table> checkpoint = null;
+        if (revision % checkpointInterval == 0) {
+            checkpoint = Collections.unmodifiableMap(replay(revision - 1, updatedTables, droppedTables));
+        }
+        revisions.add(new Revision(updatedTables, droppedTables, checkpoint));
+
+        // Ids are only unique within a change log, so the first changeSet with a given id is the one found
+        revisionsByChangeSetId.putIfAbsent(changeSet.id(), revision);
+        if (changeSet.tag() != null) {
+            revisionsByTag.put(changeSet.tag(), revision);
+        }
+    }
+
+    /**
+     * Returns the number of revisions, i.e. of changeSets applied.
+     *
+     * @return The number of revisions.
+     */
+    public int size() {
+        return revisions.size();
+    }
+
+    /**
+     * Returns the schema right after a changeSet.
+     *
+     * @param revision The position of the changeSet in the order they were applied, from 0.
+     * @return The tables by lower-cased name.
+     * @throws IndexOutOfBoundsException If there is no such revision.
+     */
+    public Map<String, Table> getSchema(int revision) {
+        if (revision < 0 || revision >= revisions.size()) {
+            throw new IndexOutOfBoundsException("No revision " + revision + " in a history of " + revisions.size());
+        }
+        Revision target = revisions.get(revision);
+        if (target.checkpoint() != null) {
+            return target.checkpoint();
+        }
+        return Collections.unmodifiableMap(replay(revision - 1, target.updatedTables(), target.droppedTables()));
+    }
+
+    /**
+     * Returns the schema after every changeSet applied so far.
+     *
+     * @return The tables by lower-cased name; empty if no changeSet was applied.
+     */
+    public Map<String, Table> getCurrentSchema() {
+        return revisions.isEmpty() ? Map.of() : getSchema(revisions.size() - 1);
+    }
+
+    /**
+     * Returns the schema right after the changeSet with the given id, or after the changeSet tagging the database
+     * with the given tag.
+     *
+     * @param changeSetIdOrTag The id of the changeSet or the tag; tags are looked up first.
+     * @return The tables by lower-cased name, or empty if there is no such changeSet or tag.
+     */
+    public Optional<Map<String, Table>> getSchemaAsOf(String changeSetIdOrTag) {
+        Integer revision = revisionsByTag.getOrDefault(changeSetIdOrTag, revisionsByChangeSetId.get(changeSetIdOrTag));
+        return Optional.ofNullable(revision).map(this::getSchema);
+    }
+
+    /**
+     * Rebuilds the table map of a revision from the nearest checkpoint, then applies the given delta.
+     */
+    private Map<String, Table> replay(int previousRevision, Map<String, Table> updatedTables, List<String> droppedTables) {
+        int checkpointRevision = previousRevision - Math.floorMod(previousRevision, checkpointInterval);
+        Map<String, Table> tables = new LinkedHashMap<>();
+        if (previousRevision >= 0) {
+            tables.putAll(revisions.get(checkpointRevision).checkpoint());
+            for (int revision = checkpointRevision + 1; revision <= previousRevision; revision++) {
+                Revision delta = revisions.get(revision);
+                applyDelta(tables, delta.updatedTables(), delta.droppedTables());
+            }
+        }
+        applyDelta(tables, updatedTables, droppedTables);
+        return tables;
+    }
+
+    private static void applyDelta(Map<String, Table> tables, Map<String, Table> updatedTables, List<String> droppedTables) {
+        droppedTables.forEach(tables::remove);
+        tables.putAll(updatedTables);
+    }
+
+    /**
+     * Copies a table of the live schema, so that later changes to the schema leave the copy alone.
+     */
+    private static Table freeze(Table table) {
+        return new Table(table.name(), table.columns(), table.primaryKeys(), table.foreignKeys(), table.indexes());
+    }
+
+    /**
+     * Tables modified and dropped by a changeSet, and the full table map for checkpoint revisions.
+     */
+    private record Revision(Map<String, Table> updatedTables, List<String> droppedTables, Map<String, Table> checkpoint) {
+    }
+}
@@ -0,0 +1,350 @@
+package uk.gov.moj.cpp.service.insights.liquibase.model;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Mutable schema built by applying Liquibase changes, with a reverse index of foreign keys.
+ * <p>
+ * Tables are kept by lower-cased name and their columns by lower-cased column name, as the changes expect.
+ * In addition, every foreign key is indexed by the table and column it references, so that renaming or
+ * dropping a table or column only touches the foreign keys pointing at it, rather than sweeping every table.
+ * <p>
+ * Tables only expose read-only views of their columns, keys and indexes, and this class is the only one that
+ * changes them, which keeps the index in line and the names of the tables modified since the last call to
+ * {@link #takeModifiedTables()} known.
+ */
+public final class SchemaModel {
+
+    private final Map<String, Table> tables;
+
+    // Referenced table -> referenced column -> foreign keys pointing at it
+    private final Map<String, Map<String, List<InboundForeignKey>>> inboundForeignKeys = new LinkedHashMap<>();
+
+    // Tables created, modified, renamed or dropped since the last call to takeModifiedTables()
+    private final Set<String> modifiedTables = new LinkedHashSet<>();
+
+    /**
+     * Creates an empty schema.
+     */
+    public SchemaModel() {
+        this(new LinkedHashMap<>());
+    }
+
+    /**
+     * Creates a schema over existing tables, which are indexed and then updated in place.
+     *
+     * @param tables The tables by lower-cased name.
+     */
+    public SchemaModel(Map<String, Table> tables) {
+        this.tables = tables;
+        tables.values().forEach(table -> table.foreignKeys().forEach(fk -> index(table.name(), fk)));
+    }
+
+    /**
+     * Returns the tables of the schema, in creation order.
+     *
+     * @return The live map of tables by lower-cased name.
+     */
+    public Map<String, Table> tables() {
+        return tables;
+    }
+
+    public Optional<Table> getTable(String tableName) {
+        return Optional.ofNullable(tables.get(tableName));
+    }
+
+    /**
+     * Returns a table, creating an empty one if a change refers to a table that was never created.
+     *
+     * @param tableName The lower-cased table name.
+     * @return The table.
+     */
+    public Table getOrCreateTable(String tableName) {
+        modifiedTables.add(tableName);
+        return tables.computeIfAbsent(tableName, name ->
+                new Table(name, new LinkedHashMap<>(), new ArrayList<>(), new ArrayList<>(), new ArrayList<>()));
+    }
+
+    /**
+     * Adds a table, replacing any table with the same name.
+     *
+     * @param table The table.
+     */
+    public void putTable(Table table) {
+        modifiedTables.add(table.name());
+        Table replaced = tables.put(table.name(), table);
+        if (replaced != null) {
+            replaced.foreignKeys().forEach(fk -> unindex(replaced.name(), fk));
+        }
+        table.foreignKeys().forEach(fk -> index(table.name(), fk));
+    }
+
+    /**
+     * Adds a foreign key to a table, creating the table if needed.
+     *
+     * @param tableName  The lower-cased name of the table owning the foreign key.
+     * @param foreignKey The foreign key.
+     */
+    public void addForeignKey(String tableName, ForeignKey foreignKey) {
+        getOrCreateTable(tableName).mutableForeignKeys().add(foreignKey);
+        index(tableName, foreignKey);
+    }
+
+    /**
+     * Adds a column to a table, replacing any column with the same name and creating the table if needed.
+     *
+     * @param tableName The lower-cased table name.
+     * @param column    The column, kept by its lower-cased name.
+     */
+    public void putColumn(String tableName, Column column) {
+        getOrCreateTable(tableName).mutableColumns().put(column.name().toLowerCase(), column);
+    }
+
+    /**
+     * Adds a column to the primary key of a table, unless it is already part of it, creating the table if needed.
+     *
+     * @param tableName  The lower-cased table name.
+     * @param columnName The column name.
+     */
+    public void addPrimaryKey(String tableName, String columnName) {
+        List<String> primaryKeys = getOrCreateTable(tableName).mutablePrimaryKeys();
+        if (!primaryKeys.contains(columnName)) {
+            primaryKeys.add(columnName);
+        }
+    }
+
+    /**
+     * Adds an index to a table, creating the table if needed.
+     *
+     * @param tableName The lower-cased table name.
+     * @param index     The index.
+     */
+    public void addIndex(String tableName, Index index) {
+        getOrCreateTable(tableName).mutableIndexes().add(index);
+    }
+
+    /**
+     * Returns the names of the tables created, modified, renamed or dropped since the last call, and forgets them.
+     *
+     * @return The lower-cased table names, in the order they were first modified.
+     */
+    public Set<String> takeModifiedTables() {
+        Set<String> taken = new LinkedHashSet<>(modifiedTables);
+        modifiedTables.clear();
+        return taken;
+    }
+
+    /**
+     * Returns the foreign keys referencing a table.
+     *
+     * @param tableName The lower-cased name of the referenced table.
+     * @return The foreign keys and the tables owning them.
+     */
+    public List<InboundForeignKey> getInboundForeignKeys(String tableName) {
+        List<InboundForeignKey> inbound = new ArrayList<>();
+        inboundForeignKeys.getOrDefault(tableName, Map.of()).values().forEach(inbound::addAll);
+        return inbound;
+    }
+
+    /**
+     * Renames a table; the foreign keys referencing it are retargeted to the new name.
+     *
+     * @param oldTableName The lower-cased current name.
+     * @param newTableName The lower-cased new name.
+     */
+    public void renameTable(String oldTableName, String newTableName) {
+        Table table = tables.remove(oldTableName);
+        if (table == null) {
+            return;
+        }
+        modifiedTables.add(oldTableName);
+        modifiedTables.add(newTableName);
+        table.foreignKeys().forEach(fk -> unindex(oldTableName, fk));
+        Table renamedTable = new Table(newTableName, table.columns(), table.primaryKeys(), table.foreignKeys(), table.indexes());
+        tables.put(newTableName, renamedTable);
+        table.foreignKeys().forEach(fk -> index(newTableName, fk));
+
+        Map<String, List<InboundForeignKey>> inbound = inboundForeignKeys.remove(oldTableName);
+        if (inbound != null) {
+            inbound.values().forEach(foreignKeys -> foreignKeys.forEach(ref ->
+                    replaceForeignKey(ref, new ForeignKey(ref.foreignKey().columnName(), newTableName, ref.foreignKey().referencedColumn(),
+                            ref.foreignKey().constraintName()))));
+        }
+    }
+
+    /**
+     * Renames a column, along with the primary key and the foreign keys of its table using it and the foreign
+     * keys referencing it.
+     *
+     * @param tableName     The lower-cased table name.
+     * @param oldColumnName The lower-cased current column name.
+     * @param newColumnName The lower-cased new column name.
+     */
+    public void renameColumn(String tableName, String oldColumnName, String newColumnName) {
+        Table table = tables.get(tableName);
+        if (table == null) {
+            return;
+        }
+        Column column = table.mutableColumns().remove(oldColumnName);
+        if (column == null) {
+            return;
+        }
+        modifiedTables.add(tableName);
+        Column renamedColumn = new Column(newColumnName, column.type(), column.isPrimaryKey(), column.isNullable(),
+                column.defaultValue(), column.foreignKeyReference());
+        table.mutableColumns().put(newColumnName, renamedColumn);
+
+        // Update primary keys if necessary
+        if (renamedColumn.isPrimaryKey()) {
+            table.mutablePrimaryKeys().remove(oldColumnName);
+            table.mutablePrimaryKeys().add(newColumnName);
+        }
+
+        // Foreign keys owned by the table
+        for (ForeignKey fk : List.copyOf(table.foreignKeys())) {
+            if (fk.columnName().equals(oldColumnName)) {
+                replaceForeignKey(new InboundForeignKey(tableName, fk), new ForeignKey(newColumnName, fk.referencedTable(), fk.referencedColumn(), fk.constraintName()));
+            }
+        }
+
+        // Foreign keys referencing the column
+        Map<String, List<InboundForeignKey>> inbound = inboundForeignKeys.get(tableName);
+        List<InboundForeignKey> referencing = inbound == null ? null : inbound.get(oldColumnName);
+        if (referencing != null) {
+            List.copyOf(referencing).forEach(ref ->
+                    replaceForeignKey(ref, new ForeignKey(ref.foreignKey().columnName(), tableName, newColumnName,
+                            ref.foreignKey().constraintName())));
+        }
+    }
+
+    /**
+     * Drops a table and the foreign keys referencing it.
+     *
+     * @param tableName The lower-cased table name.
+     */
+    public void dropTable(String tableName) {
+        Table table = tables.remove(tableName);
+        if (table != null) {
+            modifiedTables.add(tableName);
+            table.foreignKeys().forEach(fk -> unindex(tableName, fk));
+        }
+        Map<String, List<InboundForeignKey>> inbound = inboundForeignKeys.remove(tableName);
+        if (inbound != null) {
+            inbound.values().forEach(foreignKeys -> foreignKeys.forEach(ref ->
+                    getTable(ref.tableName()).ifPresent(owner -> {
+                        owner.mutableForeignKeys().remove(ref.foreignKey());
+                        modifiedTables.add(ref.tableName());
+                    })));
+        }
+    }
+
+    /**
+     * Drops a column, along with the primary key, foreign keys and indexes of its table using it.
+     *
+     * @param tableName  The lower-cased table name.
+     * @param columnName The lower-cased column name.
+     */
+    public void dropColumn(String tableName, String columnName) {
+        Table table = tables.get(tableName);
+        if (table == null) {
+            return;
+        }
+        Column removedColumn = table.mutableColumns().remove(columnName);
+        if (removedColumn == null) {
+            return;
+        }
+        modifiedTables.add(tableName);
+
+        // Remove primary key if the dropped column was part of it
+        if (removedColumn.isPrimaryKey()) {
+            table.mutablePrimaryKeys().remove(columnName);
+        }
+
+        // Remove foreign keys of the dropped column
+        table.mutableForeignKeys().removeIf(fk -> {
+            if (fk.columnName().equals(columnName)) {
+                unindex(tableName, fk);
+                return true;
+            }
+            return false;
+        });
+
+        // Remove indexes that include the dropped column
+        table.mutableIndexes().removeIf(index -> index.columns().contains(columnName));
+    }
+
+    /**
+     * Drops an index of a table.
+     *
+     * @param tableName The lower-cased table name.
+     * @param indexName The index name, compared case-insensitively.
+     */
+    public void dropIndex(String tableName, String indexName) {
+        Table table = tables.get(tableName);
+        if (table != null && table.mutableIndexes().removeIf(index -> index.name().equalsIgnoreCase(indexName))) {
+            modifiedTables.add(tableName);
+        }
+    }
+
+    private void replaceForeignKey(InboundForeignKey ref, ForeignKey replacement) {
+        Table owner = tables.get(ref.tableName());
+        if (owner == null) {
+            return;
+        }
+        int position = owner.foreignKeys().indexOf(ref.foreignKey());
+        if (position < 0) {
+            return;
+        }
+        modifiedTables.add(ref.tableName());
+        unindex(ref.tableName(), ref.foreignKey());
+        owner.mutableForeignKeys().set(position, replacement);
+        index(ref.tableName(), replacement);
+    }
+
+    private void index(String tableName, ForeignKey foreignKey) {
+        if (foreignKey.referencedTable() == null || foreignKey.referencedColumn() == null) {
+            return;
+        }
+        inboundForeignKeys.computeIfAbsent(foreignKey.referencedTable(), key -> new LinkedHashMap<>())
+                .computeIfAbsent(foreignKey.referencedColumn(), key -> new ArrayList<>())
+                .add(new InboundForeignKey(tableName, foreignKey));
+    }
+
+    private void unindex(String tableName, ForeignKey foreignKey) {
+        Map<String, List<InboundForeignKey>> byColumn = inboundForeignKeys.get(foreignKey.referencedTable());
+        if (byColumn == null) {
+            return;
+        }
+        List<InboundForeignKey> referencing = byColumn.get(foreignKey.referencedColumn());
+        if (referencing != null) {
+            referencing.remove(new InboundForeignKey(tableName, foreignKey));
+            if (referencing.isEmpty()) {
+                byColumn.remove(foreignKey.referencedColumn());
+            }
+        }
+        if (byColumn.isEmpty()) {
+            inboundForeignKeys.remove(foreignKey.referencedTable());
+        }
+    }
+
+    /**
+     * A foreign key and the table owning it.
+     *
+     * @param tableName  The lower-cased name of the table owning the foreign key.
+     * @param foreignKey The foreign key.
+     */
+    public record InboundForeignKey(String tableName, ForeignKey foreignKey) {
+
+        public InboundForeignKey {
+            Objects.requireNonNull(tableName, "tableName cannot be null");
+            Objects.requireNonNull(foreignKey, "foreignKey cannot be null");
+        }
+    }
+}
@@ -1,8 +1,24 @@
 package uk.gov.moj.cpp.service.insights.liquibase.model;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
+/**
+ * A table of the schema.
+ * <p>
+ * The table keeps its own copies of the collections it is created with and only exposes read-only views of
+ * them; {@link SchemaModel} is the only class that changes them, so that its reverse index of foreign keys and
+ * its record of modified tables stay in line.
+ *
+ * @param name        The lower-cased table name.
+ * @param columns     The columns by lower-cased column name.
+ * @param primaryKeys The primary key columns.
+ * @param foreignKeys The foreign keys owned by the table.
+ * @param indexes     The indexes, in creation order.
+ */
 public record Table(
         String name,
         Map<String, Column> columns,
@@ -10,6 +26,47 @@ public record Table(
         List<ForeignKey> foreignKeys,
         List<Index> indexes
 ) {
-}
 
+    public Table {
+        columns = new LinkedHashMap<>(columns);
+        primaryKeys = new ArrayList<>(primaryKeys);
+        foreignKeys = new ArrayList<>(foreignKeys);
+        indexes = new ArrayList<>(indexes);
+    }
+
+    @Override
+    public Map<String, Column> columns() {
+        return Collections.unmodifiableMap(columns);
+    }
+
+    @Override
+    public List<String> primaryKeys() {
+        return Collections.unmodifiableList(primaryKeys);
+    }
+
+    @Override
+    public List<ForeignKey> foreignKeys() {
+        return Collections.unmodifiableList(foreignKeys);
+    }
+
+    @Override
+    public List<Index> indexes() {
+        return Collections.unmodifiableList(indexes);
+    }
 
+    Map<String, Column> mutableColumns() {
+        return columns;
+    }
+
+    List<String> mutablePrimaryKeys() {
+        return primaryKeys;
+    }
+
+    List<ForeignKey> mutableForeignKeys() {
+        return foreignKeys;
+    }
+
+    List<Index> mutableIndexes() {
+        return indexes;
+    }
+}
@@ -0,0 +1,65 @@
+package uk.gov.moj.cpp.service.insights.liquibase.parser;
+
+import uk.gov.moj.cpp.service.insights.liquibase.exception.ChangeLogParsingException;
+import uk.gov.moj.cpp.service.insights.liquibase.parser.changes.ChangeLog;
+import uk.gov.moj.cpp.service.insights.util.HashUtil;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * IChangeLogParser that remembers the change logs it has read by the SHA-256 hash of the file content, so that
+ * identical files are parsed only once, whatever their path. This lets two change log trees that mostly share
+ * their files, such as a base checkout and a working tree, be built for the cost of parsing their differences.
+ * <p>
+ * The change logs, changeSets and changes are immutable and are shared between callers. The parser can be used
+ * by several threads at once.
+ */
+public class CachingChangeLogParser implements IChangeLogParser {
+
+    private final IChangeLogParser delegate;
+    private final Map<String, ChangeLog> changeLogsByHash = new ConcurrentHashMap<>();
+    private final AtomicInteger hits = new AtomicInteger();
+
+    /**
+     * Constructs a CachingChangeLogParser.
+     *
+     * @param delegate Parser used for files whose content was not read yet.
+     */
+    public CachingChangeLogParser(IChangeLogParser delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public ChangeLog readChangeLog(File xmlFile) throws ChangeLogParsingException {
+        String hash = hash(xmlFile);
+        ChangeLog cached = changeLogsByHash.get(hash);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return cached;
+        }
+        ChangeLog changeLog = delegate.readChangeLog(xmlFile);
+        changeLogsByHash.putIfAbsent(hash, changeLog);
+        return changeLog;
+    }
+
+    /**
+     * Returns the number of files whose change log was taken from the cache.
+     *
+     * @return The number of cache hits so far.
+     */
+    public int getHits() {
+        return hits.get();
+    }
+
+    private static String hash(File xmlFile) throws ChangeLogParsingException {
+        try {
+            return HashUtil.hash(xmlFile.toPath());
+        } catch (IOException e) {
+            throw new ChangeLogParsingException("Failed to read change log: " + xmlFile.getName(), e);
+        }
+    }
+}
@@ -1,77 +1,288 @@
 package uk.gov.moj.cpp.service.insights.liquibase.parser;
 
+import uk.gov.moj.cpp.service.insights.liquibase.collector.ChangeLogIncludeResolver.Include;
 import uk.gov.moj.cpp.service.insights.liquibase.exception.ChangeLogParsingException;
-import uk.gov.moj.cpp.service.insights.liquibase.model.Table;
+import uk.gov.moj.cpp.service.insights.liquibase.model.Column;
+import uk.gov.moj.cpp.service.insights.liquibase.model.Index;
 import uk.gov.moj.cpp.service.insights.liquibase.parser.changes.AddColumnChange;
 import uk.gov.moj.cpp.service.insights.liquibase.parser.changes.AddForeignKeyConstraintChange;
 import uk.gov.moj.cpp.service.insights.liquibase.parser.changes.AddPrimaryKeyChange;
+import uk.gov.moj.cpp.service.insights.liquibase.parser.changes.AddUniqueConstraintChange;
 import uk.gov.moj.cpp.service.insights.liquibase.parser.changes.Change;
+import uk.gov.moj.cpp.service.insights.liquibase.parser.changes.ChangeLog;
+import uk.gov.moj.cpp.service.insights.liquibase.parser.changes.ChangeSet;
 import uk.gov.moj.cpp.service.insights.liquibase.parser.changes.CreateIndexChange;
 import uk.gov.moj.cpp.service.insights.liquibase.parser.changes.CreateTableChange;
 import uk.gov.moj.cpp.service.insights.liquibase.parser.changes.DropColumnChange;
 import uk.gov.moj.cpp.service.insights.liquibase.parser.changes.DropIndexChange;
 import uk.gov.moj.cpp.service.insights.liquibase.parser.changes.DropTableChange;
+import uk.gov.moj.cpp.service.insights.liquibase.parser.changes.DropUniqueConstraintChange;
 import uk.gov.moj.cpp.service.insights.liquibase.parser.changes.RenameColumnChange;
 import uk.gov.moj.cpp.service.insights.liquibase.parser.changes.RenameTableChange;
 
+import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.IOException;
-import java.util.Map;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
-
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-import org.xml.sax.SAXException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
+/**
+ * Reads Liquibase change logs with a StAX cursor in a single forward pass, turning each supported change of
+ * every changeSet into a typed {@link Change}, and recording the {@code <include>} and {@code <includeAll>}
+ * elements with their position among the changeSets. No DOM is built; nested elements that are not needed, such
+ * as rollbacks, comments and preconditions, are skipped without being materialised.
+ * <p>
+ * The input factory is configured once and shared, so reading a file only costs creating a stream reader.
+ * The parser holds no other state and can be used by several threads at once.
+ */
 public class ChangeLogParser implements IChangeLogParser {
 
+    private static final XMLInputFactory INPUT_FACTORY = createInputFactory();
+
     @Override
-    public void parseChangeLog(File xmlFile, Map<String, Table> tables) throws ChangeLogParsingException {
-
-        try {
-            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-            factory.setNamespaceAware(true); // Handle namespaces
-            DocumentBuilder builder = factory.newDocumentBuilder();
-            Document doc = builder.parse(xmlFile);
-
-            NodeList changeSetNodes = doc.getElementsByTagNameNS("*", "changeSet");
-            for (int i = 0; i < changeSetNodes.getLength(); i++) {
-                Element changeSetElement = (Element) changeSetNodes.item(i);
-                NodeList changeNodes = changeSetElement.getChildNodes();
-                for (int j = 0; j < changeNodes.getLength(); j++) {
-                    Node changeNode = changeNodes.item(j);
-                    if (changeNode instanceof Element changeElement) { // Pattern matching for instanceof
-                        String changeType = changeElement.getLocalName();
-                        Change change = switch (changeType) {
-                            case "createTable" -> new CreateTableChange(changeElement);
-                            case "addColumn" -> new AddColumnChange(changeElement);
-                            case "addPrimaryKey" -> new AddPrimaryKeyChange(changeElement);
-                            case "addForeignKeyConstraint" ->
-                                    new AddForeignKeyConstraintChange(changeElement);
-                            case "renameTable" -> new RenameTableChange(changeElement);
-                            case "renameColumn" -> new RenameColumnChange(changeElement);
-                            case "dropTable" -> new DropTableChange(changeElement);
-                            case "createIndex" -> new CreateIndexChange(changeElement);
-                            case "dropIndex" -> new DropIndexChange(changeElement);
-                            case "dropColumn" -> new DropColumnChange(changeElement);
-                            default -> {
-                                yield null;
-                            }
-                        };
-                        if (change != null) {
-                            change.apply(tables);
+    public ChangeLog readChangeLog(File xmlFile) throws ChangeLogParsingException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(xmlFile.toPath()))) {
+            XMLStreamReader reader = INPUT_FACTORY.createXMLStreamReader(in);
+            try {
+                List<ChangeSet> changeSets = new ArrayList<>();
+                List<Include> includes = new ArrayList<>();
+                while (reader.hasNext()) {
+                    if (reader.next() != XMLStreamConstants.START_ELEMENT) {
+                        continue;
+                    }
+                    switch (reader.getLocalName()) {
+                        case "changeSet" -> changeSets.add(readChangeSet(reader));
+                        case "include" -> readInclude(reader, "file", false, changeSets.size(), includes);
+                        case "includeAll" -> readInclude(reader, "path", true, changeSets.size(), includes);
+                        default -> {
+                            // Other elements are either containers or skipped within their changeSet
                         }
                     }
                 }
+                return new ChangeLog(changeSets, includes);
+            } finally {
+                reader.close();
             }
-        } catch (ParserConfigurationException | SAXException | IOException e) {
+        } catch (XMLStreamException | IOException e) {
             throw new ChangeLogParsingException("Failed to parse change log: " + xmlFile.getName(), e);
         }
     }
-}
 
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true); // Handle namespaces
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+
+    /**
+     * Reads an include, positioned on its start tag; includes without a path are ignored.
+     */
+    private static void readInclude(XMLStreamReader reader, String pathAttribute, boolean all, int position,
+                                    List<Include> includes) {
+        String path = attribute(reader, pathAttribute);
+        if (!path.isBlank()) {
+            includes.add(new Include(path, all, Boolean.parseBoolean(attribute(reader, "relativeToChangelogFile")), position));
+        }
+    }
+
+    /**
+     * Reads a changeSet, positioned on its start tag, up to its end tag.
+     */
+    private ChangeSet readChangeSet(XMLStreamReader reader) throws XMLStreamException {
+        String id = attribute(reader, "id");
+        String author = attribute(reader, "author");
+        List<Change> changes = new ArrayList<>();
+        String[] tag = new String[1];
+        readChildren(reader, changeType -> {
+            if ("tagDatabase".equals(changeType)) {
+                tag[0] = attribute(reader, "tag");
+                skipElement(reader);
+            } else {
+                readChange(reader, changeType, changes);
+            }
+        });
+        return new ChangeSet(id, author, tag[0] == null || tag[0].isEmpty() ? null : tag[0], changes);
+    }
+
+    /**
+     * Reads a child element of a changeSet, positioned on its start tag, up to its end tag.
+     */
+    private void readChange(XMLStreamReader reader, String changeType, List<Change> changes) throws XMLStreamException {
+        Change change = switch (changeType) {
+            case "createTable" -> readCreateTable(reader);
+            case "addColumn" -> new AddColumnChange(attribute(reader, "tableName"), readColumns(reader));
+            case "addPrimaryKey" -> new AddPrimaryKeyChange(attribute(reader, "tableName"),
+                    attribute(reader, "constraintName"), attribute(reader, "columnNames"));
+            case "addForeignKeyConstraint" -> new AddForeignKeyConstraintChange(attribute(reader, "baseTableName"),
+                    attribute(reader, "baseColumnNames"), attribute(reader, "referencedTableName"),
+                    attribute(reader, "referencedColumnNames"), attribute(reader, "constraintName"));
+            case "renameTable" -> new RenameTableChange(attribute(reader, "oldTableName"), attribute(reader, "newTableName"));
+            case "renameColumn" -> new RenameColumnChange(attribute(reader, "tableName"),
+                    attribute(reader, "oldColumnName"), attribute(reader, "newColumnName"));
+            case "dropTable" -> new DropTableChange(attribute(reader, "tableName"));
+            case "createIndex" -> new CreateIndexChange(attribute(reader, "tableName"), attribute(reader, "indexName"),
+                    Boolean.parseBoolean(attribute(reader, "unique")), readColumnNames(reader));
+            case "dropIndex" -> new DropIndexChange(attribute(reader, "tableName"), attribute(reader, "indexName"));
+            case "dropColumn" -> new DropColumnChange(attribute(reader, "tableName"), attribute(reader, "columnName"));
+            case "addUniqueConstraint" -> new AddUniqueConstraintChange(attribute(reader, "tableName"),
+                    attribute(reader, "constraintName"), attribute(reader, "columnNames"));
+            case "dropUniqueConstraint" -> new DropUniqueConstraintChange(attribute(reader, "tableName"),
+                    attribute(reader, "constraintName"));
+            default -> null;
+        };
+        if (change != null) {
+            changes.add(change);
+        }
+        // Changes built from attributes alone leave the reader on their start tag
+        if (reader.isStartElement()) {
+            skipElement(reader);
+        }
+    }
+
+    private CreateTableChange readCreateTable(XMLStreamReader reader) throws XMLStreamException {
+        String tableName = attribute(reader, "tableName");
+        List<Column> columns = new ArrayList<>();
+        List<Index> indexes = new ArrayList<>();
+        readChildren(reader, child -> {
+            switch (child) {
+                case "column" -> columns.add(readColumn(reader));
+                case "index" -> readIndex(reader, indexes);
+                default -> skipElement(reader);
+            }
+        });
+        return new CreateTableChange(tableName, columns, indexes);
+    }
+
+    private List<Column> readColumns(XMLStreamReader reader) throws XMLStreamException {
+        List<Column> columns = new ArrayList<>();
+        readChildren(reader, child -> {
+            if ("column".equals(child)) {
+                columns.add(readColumn(reader));
+            } else {
+                skipElement(reader);
+            }
+        });
+        return columns;
+    }
+
+    /**
+     * Reads a <column> element, including its <constraints>, into a Column object.
+     */
+    private Column readColumn(XMLStreamReader reader) throws XMLStreamException {
+        var name = attribute(reader, "name").toLowerCase();
+        var type = attribute(reader, "type");
+        var constraints = new ColumnConstraints();
+        readChildren(reader, child -> {
+            if ("constraints".equals(child) && !constraints.read) {
+                constraints.read(reader);
+            }
+            skipElement(reader);
+        });
+        return new Column(name, type, constraints.primaryKey, constraints.nullable, null, constraints.foreignKeyReference);
+    }
+
+    /**
+     * Reads an <index> element of a createTable; indexes without a name or columns are ignored.
+     */
+    private void readIndex(XMLStreamReader reader, List<Index> indexes) throws XMLStreamException {
+        var indexName = attribute(reader, "name");
+        var unique = Boolean.parseBoolean(attribute(reader, "unique"));
+        var columns = readColumnNames(reader);
+        if (!indexName.isEmpty() && !columns.isEmpty()) {
+            indexes.add(new Index(indexName, columns, unique));
+        }
+    }
+
+    private List<String> readColumnNames(XMLStreamReader reader) throws XMLStreamException {
+        List<String> columns = new ArrayList<>();
+        readChildren(reader, child -> {
+            if ("column".equals(child)) {
+                columns.add(attribute(reader, "name").toLowerCase());
+            }
+            skipElement(reader);
+        });
+        return columns;
+    }
+
+    /**
+     * Calls the handler for each child element of the element the reader is positioned on, and leaves the reader
+     * on the end tag of that element. The handler is called on the start tag of the child and must consume the
+     * child up to its end tag.
+     */
+    private static void readChildren(XMLStreamReader reader, ChildHandler handler) throws XMLStreamException {
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                handler.handle(reader.getLocalName());
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Moves the reader from the start tag of an element to its end tag.
+     */
+    private static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0 && reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    /**
+     * Returns the value of an attribute of the current element, or an empty string if it is absent.
+     */
+    private static String attribute(XMLStreamReader reader, String localName) {
+        String value = reader.getAttributeValue(null, localName);
+        return value == null ? "" : value;
+    }
+
+    @FunctionalInterface
+    private interface ChildHandler {
+        void handle(String localName) throws XMLStreamException;
+    }
+
+    /**
+     * Constraints of a column, read from the attributes of its <constraints> element.
+     */
+    private static final class ColumnConstraints {
+        private boolean read;
+        private boolean primaryKey;
+        private boolean nullable = true;
+        private String foreignKeyReference;
+
+        private void read(XMLStreamReader reader) {
+            read = true;
+            nullable = !"false".equalsIgnoreCase(attribute(reader, "nullable"));
+            primaryKey = "true".equalsIgnoreCase(attribute(reader, "primaryKey"));
+
+            // Extract foreign key information
+            var referencedTableName = attribute(reader, "referencedTableName");
+            var referencedColumnNames = attribute(reader, "referencedColumnNames");
+            var references = attribute(reader, "references");
+
+            if (!referencedTableName.isEmpty() && !referencedColumnNames.isEmpty()) {
+                // Foreign key defined using referencedTableName and referencedColumnNames
+                foreignKeyReference = referencedTableName + "(" + referencedColumnNames + ")";
+            } else if (!references.isEmpty()) {
+                // Foreign key defined using references attribute
+                foreignKeyReference = references;
+            }
+        }
+    }
+}
@@ -0,0 +1,307 @@
+package uk.gov.moj.cpp.service.insights.liquibase.parser;
+
+import uk.gov.moj.cpp.service.insights.liquibase.collector.ChangeLogIncludeResolver;
+import uk.gov.moj.cpp.service.insights.liquibase.collector.ChangeLogIncludeResolver.Include;
+import uk.gov.moj.cpp.service.insights.liquibase.collector.FileCollector;
+import uk.gov.moj.cpp.service.insights.liquibase.exception.ChangeLogParsingException;
+import uk.gov.moj.cpp.service.insights.liquibase.model.SchemaHistory;
+import uk.gov.moj.cpp.service.insights.liquibase.model.SchemaModel;
+import uk.gov.moj.cpp.service.insights.liquibase.model.Table;
+import uk.gov.moj.cpp.service.insights.liquibase.parser.changes.ChangeLog;
+import uk.gov.moj.cpp.service.insights.liquibase.parser.changes.ChangeSet;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Builds a schema from change log files by parsing them concurrently and applying their changes sequentially.
+ * <p>
+ * Parsing a file does not depend on any other file, but applying changes does depend on their order. Files are
+ * therefore submitted to the executor as they come, while the calling thread applies the changes of each file
+ * in turn as soon as that file is parsed. At most a given number of files are parsed ahead of the one being
+ * applied, which bounds the parsed changes held in memory.
+ * <p>
+ * From a master change log, the files are discovered while they are read: each file is parsed once, with its
+ * changeSets and includes, and its changeSets are applied in document order, the included files being run at
+ * the place of their include, depth first. The same bound applies: the files known to run next are submitted in
+ * run order, and more are submitted as each one is applied. A file reached twice is only run the first time,
+ * like Liquibase does.
+ */
+public class ChangeLogPipeline {
+
+    private final IChangeLogParser parser;
+    private final ExecutorService executor;
+    private final int maxFilesAhead;
+
+    /**
+     * Constructs a ChangeLogPipeline.
+     *
+     * @param parser        Parser reading the changes of a file; it is called from the executor's threads.
+     * @param executor      ExecutorService parsing the files.
+     * @param maxFilesAhead Maximum number of files submitted and not yet applied.
+     */
+    public ChangeLogPipeline(IChangeLogParser parser, ExecutorService executor, int maxFilesAhead) {
+        if (maxFilesAhead < 1) {
+            throw new IllegalArgumentException("maxFilesAhead must be positive: " + maxFilesAhead);
+        }
+        this.parser = parser;
+        this.executor = executor;
+        this.maxFilesAhead = maxFilesAhead;
+    }
+
+    /**
+     * Builds the schema resulting from applying the given files in order.
+     *
+     * @param changeLogFiles The change log files, in the order their changes are applied.
+     * @return The tables by name.
+     * @throws ChangeLogParsingException If a file cannot be parsed; the files after it are not applied.
+     * @throws InterruptedException      If the thread is interrupted.
+     */
+    public Map<String, Table> buildSchema(List<File> changeLogFiles) throws ChangeLogParsingException, InterruptedException {
+        Map<String, Table> tables = new LinkedHashMap<>();
+        apply(changeLogFiles, tables);
+        return tables;
+    }
+
+    /**
+     * Applies the changes of the given files, in order, to the given tables.
+     *
+     * @param changeLogFiles The change log files, in the order their changes are applied.
+     * @param tables         The tables to update.
+     * @throws ChangeLogParsingException If a file cannot be parsed; the files after it are not applied.
+     * @throws InterruptedException      If the thread is interrupted.
+     */
+    public void apply(List<File> changeLogFiles, Map<String, Table> tables) throws ChangeLogParsingException, InterruptedException {
+        SchemaModel schema = new SchemaModel(tables);
+        pipe(changeLogFiles, parser::readChanges, changes -> changes.forEach(change -> change.apply(schema)));
+    }
+
+    /**
+     * Builds the schema resulting from applying the change logs of a directory.
+     *
+     * @param changeLogsDir   The directory containing the change logs.
+     * @param masterChangeLog Master change log relative to the directory. When set, only the files it includes,
+     *                        directly or not, are applied, in the order Liquibase runs them; when null or blank,
+     *                        every XML file under the directory is applied in file name order.
+     * @return The tables by name.
+     * @throws IOException               If the directory cannot be walked.
+     * @throws ChangeLogParsingException If a file cannot be parsed or an included file does not exist.
+     * @throws InterruptedException      If the thread is interrupted.
+     */
+    public Map<String, Table> buildSchema(File changeLogsDir, String masterChangeLog)
+            throws IOException, ChangeLogParsingException, InterruptedException {
+        return buildSchema(changeLogsDir, masterChangeLog, new ArrayList<>());
+    }
+
+    /**
+     * Builds the schema resulting from applying the change logs of a directory, as
+     * {@link #buildSchema(File, String)} does, and collects the files applied.
+     *
+     * @param changeLogsDir   The directory containing the change logs.
+     * @param masterChangeLog Master change log relative to the directory, or null or blank.
+     * @param appliedFiles    Receives the absolute paths of the files applied, in the order they are applied; with
+     *                        a master change log, they may lie outside the directory.
+     * @return The tables by name.
+     * @throws IOException               If the directory cannot be walked.
+     * @throws ChangeLogParsingException If a file cannot be parsed or an included file does not exist.
+     * @throws InterruptedException      If the thread is interrupted.
+     */
+    public Map<String, Table> buildSchema(File changeLogsDir, String masterChangeLog, List<Path> appliedFiles)
+            throws IOException, ChangeLogParsingException, InterruptedException {
+        if (masterChangeLog == null || masterChangeLog.isBlank()) {
+            List<File> changeLogFiles = FileCollector.collectChangeLogFiles(changeLogsDir.getAbsolutePath());
+            changeLogFiles.forEach(file -> appliedFiles.add(file.toPath().toAbsolutePath().normalize()));
+            return buildSchema(changeLogFiles);
+        }
+        Map<String, Table> tables = new LinkedHashMap<>();
+        SchemaModel schema = new SchemaModel(tables);
+        pipeIncludes(changeLogsDir, masterChangeLog, changeSet -> changeSet.changes().forEach(change -> change.apply(schema)),
+                appliedFiles);
+        return tables;
+    }
+
+    /**
+     * Builds the history of the schema, with a revision for each changeSet of the given files.
+     *
+     * @param changeLogFiles The change log files, in the order their changes are applied.
+     * @return The history.
+     * @throws ChangeLogParsingException If a file cannot be parsed; the files after it are not applied.
+     * @throws InterruptedException      If the thread is interrupted.
+     */
+    public SchemaHistory buildHistory(List<File> changeLogFiles) throws ChangeLogParsingException, InterruptedException {
+        SchemaHistory history = new SchemaHistory();
+        pipe(changeLogFiles, parser::readChangeSets, changeSets -> changeSets.forEach(history::apply));
+        return history;
+    }
+
+    /**
+     * Builds the history of the schema, with a revision for each changeSet of the change logs of a directory.
+     *
+     * @param changeLogsDir   The directory containing the change logs.
+     * @param masterChangeLog Master change log relative to the directory, as for
+     *                        {@link #buildSchema(File, String)}.
+     * @return The history.
+     * @throws IOException               If the directory cannot be walked.
+     * @throws ChangeLogParsingException If a file cannot be parsed or an included file does not exist.
+     * @throws InterruptedException      If the thread is interrupted.
+     */
+    public SchemaHistory buildHistory(File changeLogsDir, String masterChangeLog)
+            throws IOException, ChangeLogParsingException, InterruptedException {
+        if (masterChangeLog == null || masterChangeLog.isBlank()) {
+            return buildHistory(FileCollector.collectChangeLogFiles(changeLogsDir.getAbsolutePath()));
+        }
+        SchemaHistory history = new SchemaHistory();
+        pipeIncludes(changeLogsDir, masterChangeLog, history::apply, new ArrayList<>());
+        return history;
+    }
+
+    /**
+     * Reads the files on the executor, at most maxFilesAhead at a time, and hands the results to the consumer
+     * on the calling thread in file order.
+     */
+    private <T> void pipe(List<File> changeLogFiles, FileReader<T> reader, Consumer<T> consumer)
+            throws ChangeLogParsingException, InterruptedException {
+        Deque<Future<T>> pending = new ArrayDeque<>();
+        int next = 0;
+        try {
+            while (next < changeLogFiles.size() || !pending.isEmpty()) {
+                while (next < changeLogFiles.size() && pending.size() < maxFilesAhead) {
+                    File changeLogFile = changeLogFiles.get(next++);
+                    pending.add(executor.submit(() -> reader.read(changeLogFile)));
+                }
+                consumer.accept(await(pending.remove()));
+            }
+        } finally {
+            pending.forEach(future -> future.cancel(true));
+        }
+    }
+
+    /**
+     * Reads the master change log and the files it includes on the executor, and hands their changeSets to the
+     * consumer on the calling thread in the order Liquibase runs them; the files run are added to appliedFiles.
+     */
+    private void pipeIncludes(File changeLogsDir, String masterChangeLog, Consumer<ChangeSet> consumer,
+                              List<Path> appliedFiles) throws ChangeLogParsingException, InterruptedException {
+        Path master = new File(changeLogsDir, masterChangeLog).toPath().toAbsolutePath().normalize();
+        if (!Files.isRegularFile(master)) {
+            throw new ChangeLogParsingException("Master change log not found: " + master);
+        }
+        IncludeWalk walk = new IncludeWalk(new ChangeLogIncludeResolver(changeLogsDir), consumer, appliedFiles);
+        try {
+            walk.upcoming.add(master);
+            walk.topUp();
+            walk.visit(master);
+        } finally {
+            walk.reads.values().forEach(future -> future.cancel(true));
+        }
+    }
+
+    private static <T> T await(Future<T> future) throws ChangeLogParsingException, InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof ChangeLogParsingException parsingException) {
+                throw parsingException;
+            }
+            throw new ChangeLogParsingException("Failed to parse change log: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * State of a depth-first walk through the includes of a master change log.
+     */
+    private final class IncludeWalk {
+        private final ChangeLogIncludeResolver resolver;
+        private final Consumer<ChangeSet> consumer;
+        private final List<Path> appliedFiles;
+        private final Map<Path, Future<ChangeLog>> reads = new HashMap<>();
+        private final Set<Path> visited = new HashSet<>();
+        // The files known to run next, in run order; the files a change log includes are pushed in front
+        private final Deque<Path> upcoming = new ArrayDeque<>();
+
+        private IncludeWalk(ChangeLogIncludeResolver resolver, Consumer<ChangeSet> consumer, List<Path> appliedFiles) {
+            this.resolver = resolver;
+            this.consumer = consumer;
+            this.appliedFiles = appliedFiles;
+        }
+
+        /**
+         * Submits the first files of the upcoming ones that are neither run nor submitted, until maxFilesAhead
+         * files are submitted and not yet run.
+         */
+        private void topUp() {
+            int ahead = 0;
+            for (Path changeLog : upcoming) {
+                if (ahead == maxFilesAhead) {
+                    return;
+                }
+                if (visited.contains(changeLog)) {
+                    continue;
+                }
+                if (!reads.containsKey(changeLog)) {
+                    if (reads.size() == maxFilesAhead) {
+                        return;
+                    }
+                    reads.put(changeLog, executor.submit(() -> parser.readChangeLog(changeLog.toFile())));
+                }
+                ahead++;
+            }
+        }
+
+        private void visit(Path changeLog) throws ChangeLogParsingException, InterruptedException {
+            upcoming.removeFirst();
+            if (!visited.add(changeLog)) {
+                return;
+            }
+            appliedFiles.add(changeLog);
+            // The next file is always submitted by the previous top up, which had a free slot
+            Future<ChangeLog> read = reads.remove(changeLog);
+            ChangeLog content = await(read != null ? read : executor.submit(() -> parser.readChangeLog(changeLog.toFile())));
+
+            // Included files are parsed while the changeSets before them are applied
+            List<List<Path>> includedFiles = new ArrayList<>();
+            for (Include include : content.includes()) {
+                includedFiles.add(resolver.resolve(changeLog, include));
+            }
+            for (int i = includedFiles.size() - 1; i >= 0; i--) {
+                List<Path> files = includedFiles.get(i);
+                for (int j = files.size() - 1; j >= 0; j--) {
+                    upcoming.addFirst(files.get(j));
+                }
+            }
+            topUp();
+
+            List<ChangeSet> changeSets = content.changeSets();
+            int next = 0;
+            for (int i = 0; i < includedFiles.size(); i++) {
+                int position = content.includes().get(i).position();
+                changeSets.subList(next, position).forEach(consumer);
+                next = position;
+                for (Path includedFile : includedFiles.get(i)) {
+                    visit(includedFile);
+                }
+            }
+            changeSets.subList(next, changeSets.size()).forEach(consumer);
+        }
+    }
+
+    @FunctionalInterface
+    private interface FileReader<T> {
+        T read(File changeLogFile) throws ChangeLogParsingException;
+    }
+}
@@ -2,12 +2,71 @@ package uk.gov.moj.cpp.service.insights.liquibase.parser;
 
 
 import uk.gov.moj.cpp.service.insights.liquibase.exception.ChangeLogParsingException;
+import uk.gov.moj.cpp.service.insights.liquibase.model.SchemaModel;
 import uk.gov.moj.cpp.service.insights.liquibase.model.Table;
+import uk.gov.moj.cpp.service.insights.liquibase.parser.changes.Change;
+import uk.gov.moj.cpp.service.insights.liquibase.parser.changes.ChangeLog;
+import uk.gov.moj.cpp.service.insights.liquibase.parser.changes.ChangeSet;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
+/**
+ * Reads Liquibase change logs. Implementations only read the {@link ChangeLog} of a file; the other methods are
+ * derived from it.
+ */
 public interface IChangeLogParser {
-    void parseChangeLog(File xmlFile, Map<String, Table> tables) throws ChangeLogParsingException;
-}
 
+    /**
+     * Applies the supported changes of a change log, in the order they appear, to the given tables.
+     *
+     * @param xmlFile The change log XML file.
+     * @param tables  The tables to update.
+     * @throws ChangeLogParsingException If the file cannot be read or is not well-formed.
+     */
+    default void parseChangeLog(File xmlFile, Map<String, Table> tables) throws ChangeLogParsingException {
+        SchemaModel schema = new SchemaModel(tables);
+        for (Change change : readChanges(xmlFile)) {
+            change.apply(schema);
+        }
+    }
+
+    /**
+     * Reads the supported changes of a change log, in the order they appear, without applying them.
+     *
+     * @param xmlFile The change log XML file.
+     * @return The changes of all its changeSets.
+     * @throws ChangeLogParsingException If the file cannot be read or is not well-formed.
+     */
+    default List<Change> readChanges(File xmlFile) throws ChangeLogParsingException {
+        List<Change> changes = new ArrayList<>();
+        for (ChangeSet changeSet : readChangeSets(xmlFile)) {
+            changes.addAll(changeSet.changes());
+        }
+        return changes;
+    }
+
+    /**
+     * Reads the changeSets of a change log with their supported changes, in the order they appear, without
+     * applying them.
+     *
+     * @param xmlFile The change log XML file.
+     * @return Its changeSets.
+     * @throws ChangeLogParsingException If the file cannot be read or is not well-formed.
+     */
+    default List<ChangeSet> readChangeSets(File xmlFile) throws ChangeLogParsingException {
+        return readChangeLog(xmlFile).changeSets();
+    }
+
+    /**
+     * Reads the changeSets of a change log with their supported changes, and its includes, in the order they
+     * appear, without applying them or following the includes.
+     *
+     * @param xmlFile The change log XML file.
+     * @return Its changeSets and includes.
+     * @throws ChangeLogParsingException If the file cannot be read or is not well-formed.
+     */
+    ChangeLog readChangeLog(File xmlFile) throws ChangeLogParsingException;
+}
@@ -2,39 +2,31 @@ package uk.gov.moj.cpp.service.insights.liquibase.parser.changes;
 
 import uk.gov.moj.cpp.service.insights.liquibase.model.Column;
 import uk.gov.moj.cpp.service.insights.liquibase.model.ForeignKey;
-import uk.gov.moj.cpp.service.insights.liquibase.model.Table;
+import uk.gov.moj.cpp.service.insights.liquibase.model.SchemaModel;
 
-import java.util.ArrayList;
-import java.util.LinkedHashMap;
-import java.util.Map;
+import java.util.List;
 import java.util.Optional;
 
-import org.w3c.dom.Element;
-
 /**
  * Handles the <addColumn> Liquibase change type.
+ *
+ * @param tableName The name of the altered table.
+ * @param columns   The columns declared by its <column> elements, with their constraints.
  */
-public final class AddColumnChange implements Change {
-    private final Element element;
+public record AddColumnChange(String tableName, List<Column> columns) implements Change {
 
-    public AddColumnChange(Element element) {
-        this.element = element;
+    public AddColumnChange {
+        columns = List.copyOf(columns);
     }
 
     @Override
-    public void apply(Map<String, Table> tables) {
-        var tableName = element.getAttribute("tableName").toLowerCase();
-        var table = tables.computeIfAbsent(tableName, name ->
-                new Table(name, new LinkedHashMap<>(), new ArrayList<>(), new ArrayList<>(), new ArrayList<>())
-        );
-
-        var columnElements = getChildElementsNS(element, "*", "column");
-        for (var columnElement : columnElements) {
-            var column = parseColumn(columnElement);
-            table.columns().put(column.name().toLowerCase(), column);
+    public void apply(SchemaModel schema) {
+        var tableName = this.tableName.toLowerCase();
+        for (var column : columns) {
+            schema.putColumn(tableName, column);
 
             if (column.isPrimaryKey()) {
-                table.primaryKeys().add(column.name());
+                schema.addPrimaryKey(tableName, column.name());
             }
 
             // Handle Foreign Key if present
@@ -42,51 +34,12 @@ public final class AddColumnChange implements Change {
                     .ifPresent(ref -> {
                         var foreignKey = parseForeignKey(ref, column.name());
                         if (foreignKey != null) {
-                            table.foreignKeys().add(foreignKey);
+                            schema.addForeignKey(tableName, foreignKey);
                         }
                     });
         }
     }
 
-    /**
-     * Parses a <column> element into a Column object.
-     *
-     * @param columnElement The <column> XML element.
-     * @return The parsed Column object.
-     */
-    private Column parseColumn(Element columnElement) {
-        var name = columnElement.getAttribute("name").toLowerCase();
-        var type = columnElement.getAttribute("type");
-        boolean isPrimaryKey = false;
-        boolean isNullable = true;
-        String defaultValue = null;
-        String foreignKeyReference = null;
-
-        var constraintsElement = getChildElementNS(columnElement, "*", "constraints");
-        if (constraintsElement != null) {
-            var nullableAttr = constraintsElement.getAttribute("nullable");
-            isNullable = !"false".equalsIgnoreCase(nullableAttr);
-
-            var primaryKeyAttr = constraintsElement.getAttribute("primaryKey");
-            isPrimaryKey = "true".equalsIgnoreCase(primaryKeyAttr);
-
-            // Extract foreign key information
-            var referencedTableName = constraintsElement.getAttribute("referencedTableName");
-            var referencedColumnNames = constraintsElement.getAttribute("referencedColumnNames");
-            var references = constraintsElement.getAttribute("references");
-
-            if (!referencedTableName.isEmpty() && !referencedColumnNames.isEmpty()) {
-                // Foreign key defined using referencedTableName and referencedColumnNames
-                foreignKeyReference = referencedTableName + "(" + referencedColumnNames + ")";
-            } else if (!references.isEmpty()) {
-                // Foreign key defined using references attribute
-                foreignKeyReference = references;
-            }
-        }
-
-        return new Column(name, type, isPrimaryKey, isNullable, defaultValue, foreignKeyReference);
-    }
-
     /**
      * Parses the foreign key reference string into a ForeignKey object.
      *
@@ -109,34 +62,4 @@ public final class AddColumnChange implements Change {
 
         return new ForeignKey(columnName, referencedTable, referencedColumn);
     }
-
-    /**
-     * Retrieves all child elements matching the specified namespace and local name.
-     *
-     * @param parent       The parent element.
-     * @param namespaceURI The namespace URI.
-     * @param localName    The local name of the child elements.
-     * @return An array of matching child elements.
-     */
-    private Element[] getChildElementsNS(Element parent, String namespaceURI, String localName) {
-        var nodeList = parent.getElementsByTagNameNS(namespaceURI, localName);
-        var elements = new Element[nodeList.getLength()];
-        for (int i = 0; i < nodeList.getLength(); i++) {
-            elements[i] = (Element) nodeList.item(i);
-        }
-        return elements;
-    }
-
-    /**
-     * Retrieves the first child element matching the specified namespace and local name.
-     *
-     * @param parent       The parent element.
-     * @param namespaceURI The namespace URI.
-     * @param localName    The local name of the child element.
-     * @return The first matching child element, or null if none found.
-     */
-    private Element getChildElementNS(Element parent, String namespaceURI, String localName) {
-        var nodeList = parent.getElementsByTagNameNS(namespaceURI, localName);
-        return nodeList.getLength() > 0 ? (Element) nodeList.item(0) : null;
-    }
 }
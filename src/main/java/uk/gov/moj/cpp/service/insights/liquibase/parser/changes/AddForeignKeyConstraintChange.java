@@ -1,36 +1,24 @@
 package uk.gov.moj.cpp.service.insights.liquibase.parser.changes;
 
-
 import uk.gov.moj.cpp.service.insights.liquibase.model.Column;
 import uk.gov.moj.cpp.service.insights.liquibase.model.ForeignKey;
+import uk.gov.moj.cpp.service.insights.liquibase.model.SchemaModel;
 import uk.gov.moj.cpp.service.insights.liquibase.model.Table;
 
-import java.util.ArrayList;
-import java.util.LinkedHashMap;
-import java.util.Map;
-
-import org.w3c.dom.Element;
-
-public final class AddForeignKeyConstraintChange implements Change {
-    private final Element element;
-
-    public AddForeignKeyConstraintChange(Element element) {
-        this.element = element;
-    }
+public record AddForeignKeyConstraintChange(String baseTableName, String baseColumnNames, String referencedTableName, String referencedColumnNames,
+                                            String constraintName) implements Change {
 
     @Override
-    public void apply(Map<String, Table> tables) {
-        String baseTableName = element.getAttribute("baseTableName").toLowerCase();
-        String baseColumnNames = element.getAttribute("baseColumnNames").toLowerCase();
-        String referencedTableName = element.getAttribute("referencedTableName").toLowerCase();
-        String referencedColumnNames = element.getAttribute("referencedColumnNames").toLowerCase();
-
-        Table baseTable = tables.get(baseTableName);
-        if (baseTable == null) {
-            // Handle table not existing
-            baseTable = new Table(baseTableName, new LinkedHashMap<>(), new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
-            tables.put(baseTableName, baseTable);
-        }
+    public void apply(SchemaModel schema) {
+        String baseTableName = this.baseTableName.toLowerCase();
+        String baseColumnNames = this.baseColumnNames.toLowerCase();
+        String referencedTableName = this.referencedTableName.toLowerCase();
+        String referencedColumnNames = this.referencedColumnNames.toLowerCase();
+        // Liquibase requires the name; without it the columns cannot be grouped into one constraint
+        String constraintName = this.constraintName == null || this.constraintName.isBlank()
+                ? null : this.constraintName.trim().toLowerCase();
+
+        Table baseTable = schema.getOrCreateTable(baseTableName);
 
         String[] baseColumns = baseColumnNames.split(",");
         String[] referencedColumns = referencedColumnNames.split(",");
@@ -39,8 +27,8 @@ public final class AddForeignKeyConstraintChange implements Change {
             String baseColumn = baseColumns[i].trim();
             String referencedColumn = referencedColumns[i].trim();
 
-            ForeignKey fk = new ForeignKey(baseColumn, referencedTableName, referencedColumn);
-            baseTable.foreignKeys().add(fk);
+            ForeignKey fk = new ForeignKey(baseColumn, referencedTableName, referencedColumn, constraintName);
+            schema.addForeignKey(baseTableName, fk);
 
             Column column = baseTable.columns().get(baseColumn.toLowerCase());
             if (column != null) {
@@ -52,11 +40,11 @@ public final class AddForeignKeyConstraintChange implements Change {
                         column.defaultValue(),
                         referencedTableName + "(" + referencedColumn + ")"
                 );
-                baseTable.columns().put(baseColumn.toLowerCase(), column);
+                schema.putColumn(baseTableName, column);
             } else {
                 // Column might not exist yet; create it
                 column = new Column(baseColumn, "UNKNOWN", false, true, null, referencedTableName + "(" + referencedColumn + ")");
-                baseTable.columns().put(baseColumn.toLowerCase(), column);
+                schema.putColumn(baseTableName, column);
             }
         }
     }
@@ -0,0 +1,29 @@
+package uk.gov.moj.cpp.service.insights.liquibase.parser.changes;
+
+import uk.gov.moj.cpp.service.insights.liquibase.model.Index;
+import uk.gov.moj.cpp.service.insights.liquibase.model.SchemaModel;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Adds a unique constraint, recorded as the unique index the database creates to enforce it.
+ */
+public record AddUniqueConstraintChange(String tableName, String constraintName, String columnNames) implements Change {
+
+    @Override
+    public void apply(SchemaModel schema) {
+        String tableName = this.tableName.toLowerCase();
+
+        if (tableName.isEmpty() || columnNames.isEmpty()) {
+            return;
+        }
+
+        List<String> columns = new ArrayList<>();
+        for (String column : columnNames.split(",")) {
+            columns.add(column.trim().toLowerCase());
+        }
+
+        schema.addIndex(tableName, new Index(constraintName, columns, true));
+    }
+}
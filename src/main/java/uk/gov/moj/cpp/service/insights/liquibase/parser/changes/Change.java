@@ -1,14 +1,18 @@
 package uk.gov.moj.cpp.service.insights.liquibase.parser.changes;
 
 
-import uk.gov.moj.cpp.service.insights.liquibase.model.Table;
-
-import java.util.Map;
+import uk.gov.moj.cpp.service.insights.liquibase.model.SchemaModel;
 
 public sealed interface Change permits CreateTableChange, AddColumnChange, AddPrimaryKeyChange,
-        AddForeignKeyConstraintChange, RenameTableChange, RenameColumnChange, DropTableChange, CreateIndexChange, DropIndexChange, DropColumnChange {
+        AddForeignKeyConstraintChange, RenameTableChange, RenameColumnChange, DropTableChange, CreateIndexChange, DropIndexChange, DropColumnChange,
+        AddUniqueConstraintChange, DropUniqueConstraintChange {
 
-    void apply(Map<String, Table> tables);
+    /**
+     * Applies the change to the schema built so far.
+     *
+     * @param schema The schema, updated in place.
+     */
+    void apply(SchemaModel schema);
 }
 
 
@@ -0,0 +1,20 @@
+package uk.gov.moj.cpp.service.insights.liquibase.parser.changes;
+
+import uk.gov.moj.cpp.service.insights.liquibase.collector.ChangeLogIncludeResolver.Include;
+
+import java.util.List;
+
+/**
+ * The changeSets and includes of a change log file. Each include records how many changeSets come before it, so
+ * that the included files can be run at their place in the document.
+ *
+ * @param changeSets The changeSets, in the order they appear.
+ * @param includes   The {@code <include>} and {@code <includeAll>} elements, in the order they appear.
+ */
+public record ChangeLog(List<ChangeSet> changeSets, List<Include> includes) {
+
+    public ChangeLog {
+        changeSets = List.copyOf(changeSets);
+        includes = List.copyOf(includes);
+    }
+}
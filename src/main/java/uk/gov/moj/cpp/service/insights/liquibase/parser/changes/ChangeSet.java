@@ -0,0 +1,18 @@
+package uk.gov.moj.cpp.service.insights.liquibase.parser.changes;
+
+import java.util.List;
+
+/**
+ * The supported changes of a <changeSet>, in the order they appear.
+ *
+ * @param id      The id of the changeSet.
+ * @param author  The author of the changeSet.
+ * @param tag     The tag set by a <tagDatabase> change of the changeSet, or null if it sets none.
+ * @param changes The changes of the changeSet.
+ */
+public record ChangeSet(String id, String author, String tag, List<Change> changes) {
+
+    public ChangeSet {
+        changes = List.copyOf(changes);
+    }
+}
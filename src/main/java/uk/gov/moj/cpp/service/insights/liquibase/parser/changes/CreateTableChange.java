@@ -3,37 +3,38 @@ package uk.gov.moj.cpp.service.insights.liquibase.parser.changes;
 import uk.gov.moj.cpp.service.insights.liquibase.model.Column;
 import uk.gov.moj.cpp.service.insights.liquibase.model.ForeignKey;
 import uk.gov.moj.cpp.service.insights.liquibase.model.Index;
+import uk.gov.moj.cpp.service.insights.liquibase.model.SchemaModel;
 import uk.gov.moj.cpp.service.insights.liquibase.model.Table;
 
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
-import java.util.Map;
+import java.util.List;
 import java.util.Optional;
 
-import org.w3c.dom.Element;
-
 /**
  * Handles the <createTable> Liquibase change type.
+ *
+ * @param tableName The name of the created table.
+ * @param columns   The columns declared by its <column> elements, with their constraints.
+ * @param indexes   The indexes declared by its <index> elements.
  */
-public final class CreateTableChange implements Change {
-    private final Element element;
+public record CreateTableChange(String tableName, List<Column> columns, List<Index> indexes) implements Change {
 
-    public CreateTableChange(Element element) {
-        this.element = element;
+    public CreateTableChange {
+        columns = List.copyOf(columns);
+        indexes = List.copyOf(indexes);
     }
 
     @Override
-    public void apply(Map<String, Table> tables) {
-        var tableName = element.getAttribute("tableName").toLowerCase();
+    public void apply(SchemaModel schema) {
+        var tableName = this.tableName.toLowerCase();
         var columns = new LinkedHashMap<String, Column>();
         var primaryKeys = new ArrayList<String>();
         var foreignKeys = new ArrayList<ForeignKey>();
         var indexes = new ArrayList<Index>(); // Initialize indexes list
 
-        // Parse columns
-        var columnElements = getChildElementsNS(element, "*", "column");
-        for (var columnElement : columnElements) {
-            var column = parseColumn(columnElement);
+        // Apply columns
+        for (var column : this.columns) {
             columns.put(column.name().toLowerCase(), column);
 
             if (column.isPrimaryKey()) {
@@ -50,57 +51,14 @@ public final class CreateTableChange implements Change {
                     });
         }
 
-        // Parse index elements within createTable (if any)
-        var indexElements = getChildElementsNS(element, "*", "index"); // Adjust tag name as per XML
-        for (var indexElement : indexElements) {
-            var index = parseIndex(indexElement);
-            if (index != null) {
-                indexes.add(index);
-            }
+        // Apply indexes declared within createTable (if any)
+        for (var index : this.indexes) {
+            indexes.add(new Index(index.name(), new ArrayList<>(index.columns()), index.unique()));
         }
 
         // Create the Table instance with indexes
         var table = new Table(tableName, columns, primaryKeys, foreignKeys, indexes);
-        tables.put(tableName, table);
-    }
-
-    /**
-     * Parses a <column> element into a Column object.
-     *
-     * @param columnElement The <column> XML element.
-     * @return The parsed Column object.
-     */
-    private Column parseColumn(Element columnElement) {
-        var name = columnElement.getAttribute("name").toLowerCase();
-        var type = columnElement.getAttribute("type");
-        boolean isPrimaryKey = false;
-        boolean isNullable = true;
-        String defaultValue = null;
-        String foreignKeyReference = null;
-
-        var constraintsElement = getChildElementNS(columnElement, "*", "constraints");
-        if (constraintsElement != null) {
-            var nullableAttr = constraintsElement.getAttribute("nullable");
-            isNullable = !"false".equalsIgnoreCase(nullableAttr);
-
-            var primaryKeyAttr = constraintsElement.getAttribute("primaryKey");
-            isPrimaryKey = "true".equalsIgnoreCase(primaryKeyAttr);
-
-            // Extract foreign key information
-            var referencedTableName = constraintsElement.getAttribute("referencedTableName");
-            var referencedColumnNames = constraintsElement.getAttribute("referencedColumnNames");
-            var references = constraintsElement.getAttribute("references");
-
-            if (!referencedTableName.isEmpty() && !referencedColumnNames.isEmpty()) {
-                // Foreign key defined using referencedTableName and referencedColumnNames
-                foreignKeyReference = referencedTableName + "(" + referencedColumnNames + ")";
-            } else if (!references.isEmpty()) {
-                // Foreign key defined using references attribute
-                foreignKeyReference = references;
-            }
-        }
-
-        return new Column(name, type, isPrimaryKey, isNullable, defaultValue, foreignKeyReference);
+        schema.putTable(table);
     }
 
     /**
@@ -125,58 +83,4 @@ public final class CreateTableChange implements Change {
 
         return new ForeignKey(columnName, referencedTable, referencedColumn);
     }
-
-    /**
-     * Parses an <index> element into an Index object.
-     *
-     * @param indexElement The <index> XML element.
-     * @return The parsed Index object, or null if invalid.
-     */
-    private Index parseIndex(Element indexElement) {
-        var indexName = indexElement.getAttribute("name");
-        var unique = Boolean.parseBoolean(indexElement.getAttribute("unique"));
-
-        var columnElements = getChildElementsNS(indexElement, "*", "column");
-        var columns = new ArrayList<String>();
-        for (var columnElement : columnElements) {
-            var columnName = columnElement.getAttribute("name").toLowerCase();
-            columns.add(columnName);
-        }
-
-        if (!indexName.isEmpty() && !columns.isEmpty()) {
-            return new Index(indexName, columns, unique);
-        } else {
-            return null;
-        }
-    }
-
-    /**
-     * Retrieves all child elements matching the specified namespace and local name.
-     *
-     * @param parent       The parent element.
-     * @param namespaceURI The namespace URI.
-     * @param localName    The local name of the child elements.
-     * @return An array of matching child elements.
-     */
-    private Element[] getChildElementsNS(Element parent, String namespaceURI, String localName) {
-        var nodeList = parent.getElementsByTagNameNS(namespaceURI, localName);
-        var elements = new Element[nodeList.getLength()];
-        for (int i = 0; i < nodeList.getLength(); i++) {
-            elements[i] = (Element) nodeList.item(i);
-        }
-        return elements;
-    }
-
-    /**
-     * Retrieves the first child element matching the specified namespace and local name.
-     *
-     * @param parent       The parent element.
-     * @param namespaceURI The namespace URI.
-     * @param localName    The local name of the child element.
-     * @return The first matching child element, or null if none found.
-     */
-    private Element getChildElementNS(Element parent, String namespaceURI, String localName) {
-        var nodeList = parent.getElementsByTagNameNS(namespaceURI, localName);
-        return nodeList.getLength() > 0 ? (Element) nodeList.item(0) : null;
-    }
 }
@@ -1,32 +1,17 @@
 package uk.gov.moj.cpp.service.insights.liquibase.parser.changes;
 
-import uk.gov.moj.cpp.service.insights.liquibase.model.Table;
+import uk.gov.moj.cpp.service.insights.liquibase.model.SchemaModel;
 
-import java.util.Map;
-
-import org.w3c.dom.Element;
-
-public final class DropIndexChange implements Change {
-    private final Element element;
-
-    public DropIndexChange(Element element) {
-        this.element = element;
-    }
+public record DropIndexChange(String tableName, String indexName) implements Change {
 
     @Override
-    public void apply(Map<String, Table> tables) {
-        String tableName = element.getAttribute("tableName").toLowerCase();
-        String indexName = element.getAttribute("indexName");
+    public void apply(SchemaModel schema) {
+        String tableName = this.tableName.toLowerCase();
 
         if (tableName.isEmpty() || indexName.isEmpty()) {
             return;
         }
 
-        Table table = tables.get(tableName);
-        if (table == null) {
-            return;
-        }
-
-        boolean removed = table.indexes().removeIf(index -> index.name().equalsIgnoreCase(indexName));
+        schema.dropIndex(tableName, indexName);
     }
 }
@@ -0,0 +1,17 @@
+package uk.gov.moj.cpp.service.insights.liquibase.parser.changes;
+
+import uk.gov.moj.cpp.service.insights.liquibase.model.SchemaModel;
+
+public record DropUniqueConstraintChange(String tableName, String constraintName) implements Change {
+
+    @Override
+    public void apply(SchemaModel schema) {
+        String tableName = this.tableName.toLowerCase();
+
+        if (tableName.isEmpty() || constraintName.isEmpty()) {
+            return;
+        }
+
+        schema.dropIndex(tableName, constraintName);
+    }
+}
@@ -0,0 +1,68 @@
+package uk.gov.moj.cpp.service.insights.liquibase.visualization;
+
+import uk.gov.moj.cpp.service.insights.util.HtmlUtil;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Generates the index page of a multi-service schema visualization, linking to the page of each service.
+ */
+public final class SchemaIndexGenerator {
+
+    private SchemaIndexGenerator() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated.");
+    }
+
+    /**
+     * Generates the index page.
+     *
+     * @param entries    The services, in the order they are listed.
+     * @param outputPath Path where the HTML file is generated; the service pages are expected in the same directory.
+     * @throws IOException If an I/O error occurs.
+     */
+    public static void generateHTMLIndex(List<Entry> entries, Path outputPath) throws IOException {
+        StringBuilder html = new StringBuilder();
+        html.append("<!DOCTYPE html>\n");
+        html.append("<html lang=\"en\">\n");
+        html.append("<head>\n");
+        html.append("    <meta charset=\"UTF-8\">\n");
+        html.append("    <title>Database Schema Visualizations</title>\n");
+        html.append("    <link href=\"https://stackpath.bootstrapcdn.com/bootstrap/4.5.2/css/bootstrap.min.css\" rel=\"stylesheet\">\n");
+        html.append("</head>\n");
+        html.append("<body class=\"container my-4\">\n");
+        html.append("    <h1 class=\"h3\">Database Schema Visualizations</h1>\n");
+        html.append("    <table class=\"table table-sm\">\n");
+        html.append("        <thead><tr><th>Service</th><th>Tables</th></tr></thead>\n");
+        html.append("        <tbody>\n");
+        for (Entry entry : entries) {
+            html.append("            <tr><td><a href=\"")
+                    .append(URLEncoder.encode(entry.pageFileName(), StandardCharsets.UTF_8).replace("+", "%20"))
+                    .append("\">").append(HtmlUtil.escapeHtml(entry.serviceName())).append("</a></td><td>")
+                    .append(entry.tableCount()).append("</td></tr>\n");
+        }
+        html.append("        </tbody>\n");
+        html.append("    </table>\n");
+        html.append("</body>\n");
+        html.append("</html>\n");
+
+        try (Writer writer = Files.newBufferedWriter(outputPath, StandardCharsets.UTF_8)) {
+            writer.write(html.toString());
+        }
+    }
+
+    /**
+     * A service listed in the index.
+     *
+     * @param serviceName  The name of the service.
+     * @param pageFileName The file name of the schema visualization of the service.
+     * @param tableCount   The number of tables of its schema.
+     */
+    public record Entry(String serviceName, String pageFileName, int tableCount) {
+    }
+}
@@ -0,0 +1,164 @@
+package uk.gov.moj.cpp.service.insights.liquibase.visualization;
+
+import uk.gov.moj.cpp.service.insights.liquibase.collector.FileCollector;
+import uk.gov.moj.cpp.service.insights.liquibase.model.SchemaBuildState;
+import uk.gov.moj.cpp.service.insights.liquibase.model.SchemaBuildState.ServiceState;
+import uk.gov.moj.cpp.service.insights.liquibase.model.Service;
+import uk.gov.moj.cpp.service.insights.liquibase.parser.ChangeLogPipeline;
+import uk.gov.moj.cpp.service.insights.util.HashUtil;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * Visualizes the schemas of several services, one page per service, and links them from an index page.
+ * <p>
+ * Services are visualized concurrently, one task per service, while their change log files are parsed by the
+ * executor of the pipeline. A service whose change log files hash the same as in the state of the previous run,
+ * and whose page still exists, is not visualized again. Only the files under the Liquibase directory of a service
+ * are hashed, so a service whose master change log includes a file from outside that directory is always
+ * visualized.
+ */
+public class ServiceSchemaVisualizer {
+
+    private final Log log;
+    private final ChangeLogPipeline pipeline;
+    private final IVisualizationGenerator generator;
+    private final String masterChangeLog;
+    private final int threads;
+
+    /**
+     * Constructs a ServiceSchemaVisualizer.
+     *
+     * @param log             Maven's Log interface for logging messages.
+     * @param pipeline        Pipeline building the schema of a service; it is called from several threads.
+     * @param generator       Generator of the page of a service.
+     * @param masterChangeLog Master change log, relative to the Liquibase directory of each service, or null to
+     *                        apply every change log file in file name order.
+     * @param threads         Number of services visualized concurrently.
+     */
+    public ServiceSchemaVisualizer(Log log, ChangeLogPipeline pipeline, IVisualizationGenerator generator,
+                                   String masterChangeLog, int threads) {
+        this.log = log;
+        this.pipeline = pipeline;
+        this.generator = generator;
+        this.masterChangeLog = masterChangeLog;
+        this.threads = threads;
+    }
+
+    /**
+     * Visualizes the services and generates the index page.
+     *
+     * @param services       The services.
+     * @param previousState  The state of the previous run, or null to visualize every service.
+     * @param outputDir      Directory receiving the pages.
+     * @param schemaFileName Name of a page, prefixed with the service name.
+     * @param indexFileName  Name of the index page.
+     * @return The state of this run, to be saved once the pages are written.
+     * @throws Exception If a service cannot be visualized.
+     */
+    public SchemaBuildState visualize(List<Service> services, SchemaBuildState previousState, File outputDir,
+                                      String schemaFileName, String indexFileName) throws Exception {
+        List<Service> sortedServices = new ArrayList<>(services);
+        sortedServices.sort(Comparator.comparing(Service::name));
+        SchemaBuildState buildState = new SchemaBuildState();
+
+        ExecutorService serviceExecutor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<SchemaIndexGenerator.Entry>> futures = new ArrayList<>();
+            for (Service service : sortedServices) {
+                futures.add(serviceExecutor.submit(() ->
+                        visualizeService(service, previousState, buildState, outputDir, schemaFileName)));
+            }
+            List<SchemaIndexGenerator.Entry> entries = new ArrayList<>();
+            for (Future<SchemaIndexGenerator.Entry> future : futures) {
+                entries.add(await(future));
+            }
+
+            Path indexPath = new File(outputDir, indexFileName).toPath();
+            SchemaIndexGenerator.generateHTMLIndex(entries, indexPath);
+            log.info("Schema visualization index generated at: " + indexPath.toAbsolutePath());
+        } finally {
+            serviceExecutor.shutdownNow();
+        }
+        return buildState;
+    }
+
+    private SchemaIndexGenerator.Entry visualizeService(Service service, SchemaBuildState previousState,
+                                                        SchemaBuildState buildState, File outputDir,
+                                                        String schemaFileName) throws Exception {
+        File liquibaseDir = new File(service.liquibaseDir());
+        // Every change log file is hashed, whether the master change log includes it or not, so that the check
+        // does not need to parse them
+        List<File> xmlFiles = FileCollector.collectChangeLogFiles(liquibaseDir.getAbsolutePath());
+        service.xmlFiles().addAll(xmlFiles);
+        String hash = hash(liquibaseDir.toPath(), xmlFiles);
+        String pageFileName = service.name() + "-" + schemaFileName;
+        File page = new File(outputDir, pageFileName);
+
+        ServiceState previous = previousState == null ? null : previousState.getService(service.name()).orElse(null);
+        if (previous != null && hash.equals(previous.getHash()) && page.isFile()) {
+            log.info("Change logs of " + service.name() + " are unchanged, skipping its visualization.");
+            putService(buildState, service.name(), previous);
+            return new SchemaIndexGenerator.Entry(service.name(), pageFileName, previous.getTableCount());
+        }
+
+        List<Path> appliedFiles = new ArrayList<>();
+        service.tables().putAll(pipeline.buildSchema(liquibaseDir, masterChangeLog, appliedFiles));
+        generator.generateHTMLVisualization(service.tables(), page.getAbsolutePath(), service.name());
+        log.info("Schema visualization of " + service.name() + " generated at: " + page.getAbsolutePath());
+        Path liquibasePath = liquibaseDir.toPath().toAbsolutePath().normalize();
+        Path outsideFile = appliedFiles.stream().filter(file -> !file.startsWith(liquibasePath)).findFirst().orElse(null);
+        if (outsideFile != null) {
+            log.info("Change logs of " + service.name() + " include " + outsideFile
+                    + " from outside its Liquibase directory; it will be visualized on every run.");
+        }
+        ServiceState serviceState = new ServiceState(outsideFile == null ? hash : null, service.tables().size());
+        putService(buildState, service.name(), serviceState);
+        return new SchemaIndexGenerator.Entry(service.name(), pageFileName, serviceState.getTableCount());
+    }
+
+    private static void putService(SchemaBuildState buildState, String serviceName, ServiceState serviceState) {
+        synchronized (buildState) {
+            buildState.putService(serviceName, serviceState);
+        }
+    }
+
+    /**
+     * Hashes the master change log, then the paths, relative to the given directory, and the content of the files,
+     * in order.
+     */
+    private String hash(Path dir, List<File> files) throws IOException {
+        MessageDigest digest = HashUtil.newDigest();
+        digest.update(((masterChangeLog == null ? "" : masterChangeLog.trim()) + "\n").getBytes(StandardCharsets.UTF_8));
+        for (File file : files) {
+            digest.update((dir.toAbsolutePath().relativize(file.toPath().toAbsolutePath()) + "\n").getBytes(StandardCharsets.UTF_8));
+            digest.update(Files.readAllBytes(file.toPath()));
+        }
+        return HashUtil.toHex(digest);
+    }
+
+    private static <T> T await(Future<T> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
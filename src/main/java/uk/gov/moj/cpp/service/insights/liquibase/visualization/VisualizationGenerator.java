@@ -1,6 +1,7 @@
 package uk.gov.moj.cpp.service.insights.liquibase.visualization;
 
-import uk.gov.moj.cpp.service.insights.liquibase.model.Column;
+import uk.gov.moj.cpp.service.insights.liquibase.analysis.ReferenceInference;
+import uk.gov.moj.cpp.service.insights.liquibase.analysis.ReferenceInference.InferredReference;
 import uk.gov.moj.cpp.service.insights.liquibase.model.ForeignKey;
 import uk.gov.moj.cpp.service.insights.liquibase.model.Table;
 import uk.gov.moj.cpp.service.insights.util.JsonUtil;
@@ -10,27 +11,14 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.io.Writer;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.stream.Collectors;
 
 public class VisualizationGenerator implements IVisualizationGenerator {
     public static final String STRING_SEPARATOR = "~~";
-    private static final Set<String> AUDIT_COLUMNS = Set.of(
-            "created_at",
-            "created_by",
-            "payload",
-            "last_modified_ts",
-            "last_updated_ts",
-            "updated_by",
-            "deleted_at",
-            "deleted_by"
-            // Add any other audit columns as needed
-    );
 
     @Override
     public void generateHTMLVisualization(Map<String, Table> tables, String filePath, String serviceName) throws IOException {
@@ -641,7 +629,7 @@ public class VisualizationGenerator implements IVisualizationGenerator {
         }
 
         // Reference Edges
-        List<String> referenceEdges = inferReferenceEdges(tables, nodeIds, sortedTableNames);
+        List<String> referenceEdges = inferReferenceEdges(tables, nodeIds);
         elements.addAll(referenceEdges);
 
         // Join elements with commas and proper indentation
@@ -650,123 +638,42 @@ public class VisualizationGenerator implements IVisualizationGenerator {
 
     /**
      * Establish reference relationships based on naming conventions.
-     * Only considers columns ending with _id or _key, excluding primary and foreign keys.
+     * Only considers columns ending with _id or _key, excluding audit and foreign key columns.
      *
-     * @param tables           The schema model.
-     * @param nodeIds          Mapping from table names to unique node IDs.
-     * @param sortedTableNames List of sorted table names.
+     * @param tables  The schema model.
+     * @param nodeIds Mapping from table names to unique node IDs.
      * @return List of reference edge elements as strings.
      */
-    private List<String> inferReferenceEdges(Map<String, Table> tables, Map<String, String> nodeIds, List<String> sortedTableNames) {
+    private List<String> inferReferenceEdges(Map<String, Table> tables, Map<String, String> nodeIds) {
         List<String> elementsList = new ArrayList<>();
         int edgeCount = 0;
 
-        // Preprocess: Create a map for quick table name lookup (case-insensitive)
-        Map<String, String> lowerCaseTableMap = tables.keySet().stream()
-                .collect(Collectors.toMap(String::toLowerCase, name -> name));
-
-        for (String tableName : sortedTableNames) {
-            Table table = tables.get(tableName);
-            for (Map.Entry<String, Column> columnEntry : table.columns().entrySet()) {
-                final Column columnValue = columnEntry.getValue();
-                String columnName = columnValue.name().toLowerCase();
-
-                // Skip audit columns
-                if (AUDIT_COLUMNS.contains(columnName)) {
-                    continue;
-                }
-
-                // Skip primary and foreign key columns
-                if (isForeignKeyColumn(columnValue, table)) {
-                    continue;
-                }
-
-                // Check if column ends with _id or _key
-                if (columnName.endsWith("_id") || columnName.endsWith("_key")) {
-                    // Remove the suffix to get the base name
-                    String baseName = columnName.endsWith("_id") ?
-                            columnName.substring(0, columnName.length() - 3) :
-                            columnName.substring(0, columnName.length() - 4);
-
-                    String referencedTable = findReferencedTable(baseName, lowerCaseTableMap);
-
-                    if (referencedTable != null) {
-                        String sourceId = nodeIds.get(table.name());
-                        String targetId = nodeIds.get(referencedTable);
-
-                        if (sourceId != null && targetId != null) {
-                            String edgeId = "ref_e" + edgeCount++;
-                            String edgeLabel = escapeJavaScriptString(columnValue.name());
-
-                            String edgeElement = """
-                                            {
-                                                data: {
-                                                    id: '%s',
-                                                    source: '%s',
-                                                    target: '%s',
-                                                    label: '%s',
-                                                    type: 'reference'
-                                                }
-                                            }
-                                    """.formatted(edgeId, sourceId, targetId, edgeLabel);
-                            elementsList.add(edgeElement);
-                        }
-                    }
-                }
+        for (InferredReference reference : ReferenceInference.inferReferences(tables)) {
+            String sourceId = nodeIds.get(reference.tableName());
+            String targetId = nodeIds.get(reference.referencedTable());
+
+            if (sourceId != null && targetId != null) {
+                String edgeId = "ref_e" + edgeCount++;
+                String edgeLabel = escapeJavaScriptString(reference.columnName());
+
+                String edgeElement = """
+                                {
+                                    data: {
+                                        id: '%s',
+                                        source: '%s',
+                                        target: '%s',
+                                        label: '%s',
+                                        type: 'reference'
+                                    }
+                                }
+                        """.formatted(edgeId, sourceId, targetId, edgeLabel);
+                elementsList.add(edgeElement);
             }
         }
 
         return elementsList;
     }
 
-    /**
-     * Determines if a column is part of a foreign key.
-     *
-     * @param column The column to check.
-     * @param table  The table containing the column.
-     * @return True if the column is a foreign key, false otherwise.
-     */
-    private boolean isForeignKeyColumn(Column column, Table table) {
-        return table.foreignKeys().stream()
-                .anyMatch(fk -> fk.columnName().equalsIgnoreCase(column.name()));
-    }
-
-    /**
-     * Attempts to find the referenced table based on the base name.
-     * First tries exact match, then appends various suffixes and retries.
-     *
-     * @param baseName          The base name derived from the column name.
-     * @param lowerCaseTableMap The map of table names in lowercase to actual names.
-     * @return The referenced table name if found, otherwise null.
-     */
-    private String findReferencedTable(String baseName, Map<String, String> lowerCaseTableMap) {
-        // Direct match (case-insensitive)
-        String matchedTable = lowerCaseTableMap.get(baseName.toLowerCase());
-        if (matchedTable != null) {
-            return matchedTable;
-        }
-
-        List<String> suffixes = Arrays.asList("_details", "_detail", "details", "detail", "cpp_", "cpp", "ha_");
-
-        // Attempt to find matching table with suffixes
-        for (String suffix : suffixes) {
-            String nameWithSuffix = baseName + suffix;
-            matchedTable = lowerCaseTableMap.get(nameWithSuffix.toLowerCase());
-            if (matchedTable != null) {
-                return matchedTable;
-            }
-
-            nameWithSuffix = suffix + baseName;
-            matchedTable = lowerCaseTableMap.get(nameWithSuffix.toLowerCase());
-            if (matchedTable != null) {
-                return matchedTable;
-            }
-        }
-
-        // If no match found, return null
-        return null;
-    }
-
     private void writeHTMLEnd(Writer writer) throws IOException {
         String htmlEnd = """
                     </body>
@@ -1,30 +1,41 @@
 package uk.gov.moj.cpp.service.insights.model;
 
 import java.util.Collection;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
+import com.github.javaparser.ast.body.TypeDeclaration;
+
 /**
  * Represents information about a Java class.
+ * <p>
+ * A ClassInfo is populated while the index is built and then frozen. Freezing replaces every
+ * collection with an immutable copy, after which the instance can be read from any thread
+ * without synchronisation and any further modification fails.
  */
 public class ClassInfo {
     private final String className;
     private final String packageName;
-    private final Map<String, String> importMap;
-    private final Map<String, MethodInfo> methods = new ConcurrentHashMap<>();
-    private final Map<String, DependencyInfo> dependencies = new ConcurrentHashMap<>();
-    private final Set<String> implementedInterfaces = ConcurrentHashMap.newKeySet();
-    private final Set<MethodInfo> inheritedMethods = new HashSet<>();
+    private Map<String, String> importMap;
+    private Map<String, MethodInfo> methods = new ConcurrentHashMap<>();
+    private Map<String, DependencyInfo> dependencies = new ConcurrentHashMap<>();
+    private Set<String> implementedInterfaces = ConcurrentHashMap.newKeySet();
+    private Map<String, MethodInfo> inheritedMethods = new LinkedHashMap<>();
     private String superClassFullName;
+    private TypeDeclaration<?> typeDeclaration;
+    private boolean isInterface;
+    private boolean isAbstract;
+    private boolean frozen;
 
     public ClassInfo(String className, String packageName, Map<String, String> importMap) {
         this.className = className;
         this.packageName = packageName;
-        this.importMap = new HashMap<>(importMap);
+        this.importMap = new LinkedHashMap<>(importMap);
     }
 
     public String getClassName() {
@@ -53,13 +64,25 @@ public class ClassInfo {
     }
 
     public void addDependency(DependencyInfo dependencyInfo) {
+        checkNotFrozen();
         dependencies.putIfAbsent(dependencyInfo.getName(), dependencyInfo);
         if (dependencyInfo.isInjected()) {
             dependencies.put(dependencyInfo.getName(), dependencyInfo);
         }
     }
 
+    /**
+     * Replaces an existing dependency, e.g. once its interface type has been resolved to an implementation.
+     *
+     * @param dependencyInfo The dependency replacing the one with the same name.
+     */
+    public void replaceDependency(DependencyInfo dependencyInfo) {
+        checkNotFrozen();
+        dependencies.put(dependencyInfo.getName(), dependencyInfo);
+    }
+
     public void addImplementedInterface(String interfaceName) {
+        checkNotFrozen();
         implementedInterfaces.add(interfaceName);
     }
 
@@ -68,6 +91,7 @@ public class ClassInfo {
     }
 
     public void setSuperClass(final String superClassFullName) {
+        checkNotFrozen();
         this.superClassFullName = superClassFullName;
     }
 
@@ -75,18 +99,61 @@ public class ClassInfo {
         return superClassFullName;
     }
 
-    public Set<MethodInfo> getInheritedMethods() {
-        return inheritedMethods;
+    /**
+     * Retrieves the declaration of the class, giving access to its annotations, fields and type arguments.
+     *
+     * @return The type declaration, or {@code null} if it was not recorded.
+     */
+    public TypeDeclaration<?> getTypeDeclaration() {
+        return typeDeclaration;
+    }
+
+    public void setTypeDeclaration(TypeDeclaration<?> typeDeclaration) {
+        checkNotFrozen();
+        this.typeDeclaration = typeDeclaration;
+    }
+
+    public boolean isInterface() {
+        return isInterface;
+    }
+
+    public void setInterface(boolean isInterface) {
+        checkNotFrozen();
+        this.isInterface = isInterface;
+    }
+
+    public boolean isAbstract() {
+        return isAbstract;
+    }
+
+    public void setAbstract(boolean isAbstract) {
+        checkNotFrozen();
+        this.isAbstract = isAbstract;
+    }
+
+    /**
+     * Checks if the class can be instantiated, i.e. it is neither an interface nor abstract.
+     *
+     * @return {@code true} for concrete classes; {@code false} otherwise.
+     */
+    public boolean isConcrete() {
+        return !isInterface && !isAbstract;
+    }
+
+    public Collection<MethodInfo> getInheritedMethods() {
+        return inheritedMethods.values();
     }
 
     public void addInheritedMethod(MethodInfo method) {
-        this.inheritedMethods.add(method);
+        checkNotFrozen();
+        this.inheritedMethods.putIfAbsent(method.getSignature(), method);
     }
 
     // Modify addMethod to check for duplicates or overrides
     public void addMethod(MethodInfo methodInfo) {
+        checkNotFrozen();
         // Remove any inherited method with the same signature
-        inheritedMethods.removeIf(inherited -> inherited.getSignature().equals(methodInfo.getSignature()));
+        inheritedMethods.remove(methodInfo.getSignature());
         methods.put(methodInfo.getSignature(), methodInfo);
     }
 
@@ -97,6 +164,44 @@ public class ClassInfo {
      * @return True if the method exists in the class's declared methods, false otherwise.
      */
     public boolean hasMethod(String signature) {
-        return methods.values().stream().anyMatch(method -> method.getSignature().equals(signature));
+        return methods.containsKey(signature);
+    }
+
+    /**
+     * Finds a declared or inherited method by its signature.
+     *
+     * @param signature The signature of the method to find.
+     * @return Optional containing the declared method, or the inherited one if the class does not declare it.
+     */
+    public Optional<MethodInfo> findMethod(String signature) {
+        MethodInfo declared = methods.get(signature);
+        return declared != null ? Optional.of(declared) : Optional.ofNullable(inheritedMethods.get(signature));
+    }
+
+    /**
+     * Replaces all collections with immutable copies. The class can no longer be modified afterwards.
+     */
+    public void freeze() {
+        if (frozen) {
+            return;
+        }
+        // Insertion-ordered copies keep the build-time iteration order, imports in declaration order, so that
+        // overload resolution stays deterministic
+        importMap = Collections.unmodifiableMap(new LinkedHashMap<>(importMap));
+        methods = Collections.unmodifiableMap(new LinkedHashMap<>(methods));
+        dependencies = Collections.unmodifiableMap(new LinkedHashMap<>(dependencies));
+        implementedInterfaces = Collections.unmodifiableSet(new LinkedHashSet<>(implementedInterfaces));
+        inheritedMethods = Collections.unmodifiableMap(new LinkedHashMap<>(inheritedMethods));
+        frozen = true;
+    }
+
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    private void checkNotFrozen() {
+        if (frozen) {
+            throw new IllegalStateException("ClassInfo " + className + " is frozen and cannot be modified.");
+        }
     }
 }
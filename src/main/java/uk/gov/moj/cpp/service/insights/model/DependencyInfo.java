@@ -1,24 +1,28 @@
 package uk.gov.moj.cpp.service.insights.model;
 
-import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Represents a dependency of a class, such as a field or constructor parameter.
+ * Instances are immutable; resolving an interface dependency produces a new instance.
  */
 public class DependencyInfo {
     private final String name;
+    private final String type;
     private final boolean injected;
     private final boolean isField;
     private final List<String> implementingClasses;
-    private String type;
 
     public DependencyInfo(String name, String type, boolean injected, boolean isField) {
+        this(name, type, injected, isField, List.of());
+    }
+
+    private DependencyInfo(String name, String type, boolean injected, boolean isField, List<String> implementingClasses) {
         this.name = name;
         this.type = type;
         this.injected = injected;
         this.isField = isField;
-        this.implementingClasses = new ArrayList<>();
+        this.implementingClasses = List.copyOf(implementingClasses);
     }
 
     public String getName() {
@@ -29,10 +33,6 @@ public class DependencyInfo {
         return type;
     }
 
-    public void setType(String type) {
-        this.type = type;
-    }
-
     public boolean isInjected() {
         return injected;
     }
@@ -45,7 +45,14 @@ public class DependencyInfo {
         return implementingClasses;
     }
 
-    public void addImplementingClass(String implClass) {
-        this.implementingClasses.add(implClass);
+    /**
+     * Creates a copy of this dependency resolved against the implementations of its declared type.
+     *
+     * @param resolvedType        The type to use for the dependency, e.g. the single implementing class.
+     * @param implementingClasses The implementing classes, or a marker such as "AMBIGUOUS".
+     * @return A new DependencyInfo.
+     */
+    public DependencyInfo resolvedTo(String resolvedType, List<String> implementingClasses) {
+        return new DependencyInfo(name, resolvedType, injected, isField, implementingClasses);
     }
 }
@@ -8,6 +8,7 @@ import uk.gov.moj.cpp.service.insights.util.ASTUtils;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -33,9 +34,16 @@ public class CallGraphResolverImpl implements CallGraphResolver {
     private final IndexBuilderImpl indexBuilder;
 
     /**
-     * Concurrent map storing method signatures mapped to the list of method signatures they call.
+     * Map storing method signatures mapped to the list of method signatures they call.
+     * Immutable; replaced once the call graph has been resolved.
      */
-    private final ConcurrentMap<String, List<String>> methodCallMap = new ConcurrentHashMap<>();
+    private Map<String, List<String>> methodCallMap = Map.of();
+
+    /**
+     * Whether calls to interface or abstract methods are followed only to implementations
+     * that are injected by their concrete type.
+     */
+    private final boolean injectedTargetsOnly;
 
     /**
      * Constructs a CallGraphResolverImpl with the provided IndexBuilderImpl.
@@ -43,22 +51,43 @@ public class CallGraphResolverImpl implements CallGraphResolver {
      * @param indexBuilder The IndexBuilderImpl instance used to access class and method information.
      */
     public CallGraphResolverImpl(IndexBuilderImpl indexBuilder) {
+        this(indexBuilder, false);
+    }
+
+    /**
+     * Constructs a CallGraphResolverImpl with the provided IndexBuilderImpl.
+     *
+     * @param indexBuilder        The IndexBuilderImpl instance used to access class and method information.
+     * @param injectedTargetsOnly Whether to prune interface and abstract calls to implementations injected
+     *                            by their concrete type.
+     */
+    public CallGraphResolverImpl(IndexBuilderImpl indexBuilder, boolean injectedTargetsOnly) {
         this.indexBuilder = indexBuilder;
+        this.injectedTargetsOnly = injectedTargetsOnly;
     }
 
     /**
      * Builds the call graph by iterating over all classes and their methods,
      * parsing each method body to identify method calls.
+     * The index must be frozen, which allows classes to be processed in parallel.
      */
     @Override
     public void resolveCallGraph() {
-        // Iterate over all ClassInfo instances in the index
-        for (ClassInfo classInfo : indexBuilder.getClassInfoMap().values()) {
+        if (!indexBuilder.isFrozen()) {
+            throw new IllegalStateException("The index must be built before the call graph is resolved.");
+        }
+        ConcurrentMap<String, List<String>> callMap = new ConcurrentHashMap<>();
+        // Iterate over all ClassInfo instances in the index; each method's callees are collected by a single thread
+        indexBuilder.getClassInfoMap().values().parallelStream().forEach(classInfo -> {
             // Iterate over all declared methods in the class
             for (MethodInfo methodInfo : classInfo.getMethods().values()) {
-                parseMethodBody(classInfo, methodInfo);
+                parseMethodBody(classInfo, methodInfo, callMap);
             }
-        }
+        });
+
+        Map<String, List<String>> frozenCallMap = new HashMap<>();
+        callMap.forEach((caller, callees) -> frozenCallMap.put(caller, List.copyOf(callees)));
+        methodCallMap = Map.copyOf(frozenCallMap);
     }
 
     /**
@@ -66,8 +95,9 @@ public class CallGraphResolverImpl implements CallGraphResolver {
      *
      * @param classInfo  The ClassInfo instance representing the class containing the method.
      * @param methodInfo The MethodInfo instance representing the method to parse.
+     * @param callMap    The map accumulating the callees of each method.
      */
-    private void parseMethodBody(ClassInfo classInfo, MethodInfo methodInfo) {
+    private void parseMethodBody(ClassInfo classInfo, MethodInfo methodInfo, ConcurrentMap<String, List<String>> callMap) {
         // Retrieve the body declaration (method or constructor)
         BodyDeclaration<?> bodyDecl = methodInfo.getMethodDeclaration();
 
@@ -84,7 +114,7 @@ public class CallGraphResolverImpl implements CallGraphResolver {
                 String calledMethodSignature = resolveMethodCall(classInfo, callExpr);
                 if (calledMethodSignature != null) {
                     // Add the called method signature to the caller's entry in the call map
-                    methodCallMap.computeIfAbsent(methodInfo.getSignature(),
+                    callMap.computeIfAbsent(methodInfo.getSignature(),
                                     k -> Collections.synchronizedList(new ArrayList<>()))
                             .add(calledMethodSignature);
                 }
@@ -100,7 +130,7 @@ public class CallGraphResolverImpl implements CallGraphResolver {
                 String calledMethodSignature = resolveMethodCall(classInfo, callExpr);
                 if (calledMethodSignature != null) {
                     // Add the called method signature to the constructor's entry in the call map
-                    methodCallMap.computeIfAbsent(methodInfo.getSignature(),
+                    callMap.computeIfAbsent(methodInfo.getSignature(),
                                     k -> Collections.synchronizedList(new ArrayList<>()))
                             .add(calledMethodSignature);
                 }
@@ -307,6 +337,10 @@ public class CallGraphResolverImpl implements CallGraphResolver {
         for (String callee : callees) {
             buildCallStack(callee, callStack, visited);
         }
+        // Follow every implementation of a dispatched method, as well as its own body if it has one
+        for (String target : indexBuilder.getDispatchTable().getTargets(methodSignature, injectedTargetsOnly)) {
+            buildCallStack(target, callStack, visited);
+        }
     }
 
     /**
@@ -328,19 +362,8 @@ public class CallGraphResolverImpl implements CallGraphResolver {
             return Optional.empty(); // Class not found in the index
         }
 
-        // Search for the MethodInfo in declared methods
-        Optional<MethodInfo> methodOpt = classInfo.getMethods().values().stream()
-                .filter(m -> m.getSignature().equals(methodSignature))
-                .findFirst();
-
-        if (methodOpt.isPresent()) {
-            return methodOpt;
-        }
-
-        // If not found in declared methods, search in inherited methods
-        return classInfo.getInheritedMethods().stream()
-                .filter(m -> m.getSignature().equals(methodSignature))
-                .findFirst();
+        // Search for the MethodInfo in declared methods, then in inherited methods
+        return classInfo.findMethod(methodSignature);
     }
 
     /**
@@ -349,6 +372,6 @@ public class CallGraphResolverImpl implements CallGraphResolver {
      * @return An unmodifiable view of the method call map.
      */
     public Map<String, List<String>> getMethodCallMap() {
-        return Collections.unmodifiableMap(methodCallMap);
+        return methodCallMap;
     }
 }
@@ -7,6 +7,8 @@ import java.nio.file.Path;
 import java.util.List;
 import java.util.Optional;
 
+import com.github.javaparser.ast.body.BodyDeclaration;
+
 public interface MethodStackTracerService {
     void buildIndex(List<Path> sourcePaths) throws IOException;
 
@@ -29,4 +31,24 @@ public interface MethodStackTracerService {
      * @return Optional containing the method body as a String.
      */
     Optional<String> getMethodBody(String methodSignature);
+
+    /**
+     * Retrieves the declaration holding the body of a method given its signature.
+     * Interface and abstract methods are resolved to the implementing declaration.
+     *
+     * @param methodSignature The fully qualified method signature.
+     * @return Optional containing the method or constructor declaration.
+     */
+    Optional<BodyDeclaration<?>> getMethodDeclaration(String methodSignature);
+
+    /**
+     * Streams the given method and every method reachable from it to the visitor,
+     * in call stack order. Methods without a resolvable body are skipped.
+     *
+     * @param className  Fully qualified class name declaring the method.
+     * @param methodName Method name including its parameter types, e.g. {@code handle(Envelope)}.
+     * @param visitor    The visitor receiving each reachable method.
+     * @return {@code true} if the method was found and traced; {@code false} otherwise.
+     */
+    boolean traceMethod(String className, String methodName, MethodVisitor visitor);
 }
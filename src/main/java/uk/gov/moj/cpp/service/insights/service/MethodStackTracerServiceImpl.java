@@ -4,12 +4,12 @@ import uk.gov.moj.cpp.service.insights.indexer.IndexBuilderImpl;
 import uk.gov.moj.cpp.service.insights.model.ClassInfo;
 import uk.gov.moj.cpp.service.insights.model.MethodInfo;
 import uk.gov.moj.cpp.service.insights.resolver.CallGraphResolver;
+import uk.gov.moj.cpp.service.insights.util.ASTUtils;
 
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.List;
 import java.util.Optional;
-import java.util.Set;
 
 import com.github.javaparser.ast.body.BodyDeclaration;
 import com.github.javaparser.ast.stmt.BlockStmt;
@@ -47,6 +47,13 @@ public class MethodStackTracerServiceImpl implements MethodStackTracerService {
 
     @Override
     public Optional<String> getMethodBody(String methodSignature) {
+        return getMethodDeclaration(methodSignature)
+                .flatMap(ASTUtils::getBody)
+                .map(BlockStmt::toString);
+    }
+
+    @Override
+    public Optional<BodyDeclaration<?>> getMethodDeclaration(String methodSignature) {
         Optional<MethodInfo> methodInfoOpt = callGraphResolver.findMethodInfo(methodSignature);
         if (methodInfoOpt.isEmpty()) {
             return Optional.empty();
@@ -55,61 +62,62 @@ public class MethodStackTracerServiceImpl implements MethodStackTracerService {
         BodyDeclaration<?> bodyDecl = methodInfoOpt.get().getMethodDeclaration();
 
         if (bodyDecl instanceof com.github.javaparser.ast.body.MethodDeclaration methodDecl) {
-            Optional<String> body = methodDecl.getBody().map(BlockStmt::toString);
-            if (body.isPresent()) {
-                return body;
+            if (methodDecl.getBody().isPresent()) {
+                return Optional.of(methodDecl);
             } else {
                 // Likely an abstract method or interface method
-                // Attempt to find the implementing class's method body
-                return findImplementingMethodBody(methodSignature);
+                // Attempt to find the implementing class's method declaration
+                return findImplementingMethodDeclaration(methodSignature);
             }
         } else if (bodyDecl instanceof com.github.javaparser.ast.body.ConstructorDeclaration constructorDecl) {
-            return Optional.of(constructorDecl.getBody().toString());
+            return Optional.of(constructorDecl);
         }
 
         return Optional.empty();
     }
 
-    /**
-     * Finds the method body from the implementing class for a given interface method signature.
-     *
-     * @param interfaceMethodSignature The method signature from the interface.
-     * @return Optional containing the implementing class's method body if found.
-     */
-    private Optional<String> findImplementingMethodBody(String interfaceMethodSignature) {
-        // Parse the interface method signature
-        // Expected format: "com.example.Interface#methodName(paramType1,paramType2,...)"
-        int hashIndex = interfaceMethodSignature.indexOf('#');
-        if (hashIndex == -1) {
-            return Optional.empty();
+    @Override
+    public boolean traceMethod(String className, String methodName, MethodVisitor visitor) {
+        Optional<ClassInfo> classInfoOpt = getClassInfo(className);
+        if (classInfoOpt.isEmpty()) {
+            return false;
         }
 
-        String interfaceName = interfaceMethodSignature.substring(0, hashIndex);
-        String methodPart = interfaceMethodSignature.substring(hashIndex + 1); // "methodName(paramType1,paramType2,...)"
-
-        // Find implementing classes
-        Set<String> implementingClasses = indexBuilder.getInterfaceImplMap().getOrDefault(interfaceName, Set.of());
-
-        if (implementingClasses.isEmpty()) {
-            return Optional.empty();
+        String methodSignature = getMethodSignature(className, methodName);
+        if (!classInfoOpt.get().getMethods().containsKey(methodSignature)) {
+            return false;
         }
 
-        // For simplicity, handle the case with exactly one implementation
-        if (implementingClasses.size() == 1) {
-            String implClass = implementingClasses.iterator().next();
-            String implMethodSignature = implClass + "#" + methodPart;
-            Optional<MethodInfo> implMethodInfoOpt = callGraphResolver.findMethodInfo(implMethodSignature);
-            if (implMethodInfoOpt.isPresent()) {
-                BodyDeclaration<?> implBodyDecl = implMethodInfoOpt.get().getMethodDeclaration();
-                if (implBodyDecl instanceof com.github.javaparser.ast.body.MethodDeclaration implMethodDecl) {
-                    return implMethodDecl.getBody().map(BlockStmt::toString);
-                } else if (implBodyDecl instanceof com.github.javaparser.ast.body.ConstructorDeclaration implConstructorDecl) {
-                    return Optional.of(implConstructorDecl.getBody().toString());
-                }
+        getMethodDeclaration(methodSignature).ifPresent(declaration -> visitor.visit(methodSignature, declaration));
+
+        for (String calleeSignature : getMethodStack(methodSignature)) {
+            // Skip the initial method as it's already visited
+            if (calleeSignature.equals(methodSignature) || calleeSignature.endsWith("#apply(Object)")) {
+                continue;
+            }
+            // Interface and abstract methods are followed by their implementations in the call stack
+            Optional<BodyDeclaration<?>> declaration = getMethodDeclaration(calleeSignature);
+            if (declaration.isEmpty() || indexBuilder.getDispatchTable().isDispatched(calleeSignature)
+                    && ASTUtils.getBody(declaration.get()).isEmpty()) {
+                continue;
             }
+            visitor.visit(calleeSignature, declaration.get());
         }
+        return true;
+    }
 
-        return Optional.empty();
+    /**
+     * Finds the method declaration from the implementing class for a given interface or abstract method signature.
+     *
+     * @param interfaceMethodSignature The method signature from the interface or abstract class.
+     * @return Optional containing the implementing method declaration if there is exactly one implementation.
+     */
+    private Optional<BodyDeclaration<?>> findImplementingMethodDeclaration(String interfaceMethodSignature) {
+        List<String> targets = indexBuilder.getDispatchTable().getTargets(interfaceMethodSignature, false);
+        if (targets.size() != 1) {
+            return Optional.empty();
+        }
+        return callGraphResolver.findMethodInfo(targets.get(0)).map(MethodInfo::getMethodDeclaration);
     }
 
 }
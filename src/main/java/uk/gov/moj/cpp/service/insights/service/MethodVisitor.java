@@ -0,0 +1,19 @@
+package uk.gov.moj.cpp.service.insights.service;
+
+import com.github.javaparser.ast.body.BodyDeclaration;
+
+/**
+ * Callback receiving the methods reachable from a traced method, one at a time.
+ */
+@FunctionalInterface
+public interface MethodVisitor {
+
+    /**
+     * Visits a reachable method.
+     *
+     * @param methodSignature The fully qualified signature of the method as it appears in the call graph.
+     * @param declaration     The declaration holding the method body. For interface or abstract methods
+     *                        this is the declaration of the implementing class.
+     */
+    void visit(String methodSignature, BodyDeclaration<?> declaration);
+}
@@ -1,18 +1,28 @@
 package uk.gov.moj.cpp.service.insights.util;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.body.BodyDeclaration;
 import com.github.javaparser.ast.body.ConstructorDeclaration;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.expr.AnnotationExpr;
 import com.github.javaparser.ast.expr.AssignExpr;
+import com.github.javaparser.ast.expr.BinaryExpr;
+import com.github.javaparser.ast.expr.BooleanLiteralExpr;
 import com.github.javaparser.ast.expr.Expression;
 import com.github.javaparser.ast.expr.FieldAccessExpr;
+import com.github.javaparser.ast.expr.MemberValuePair;
 import com.github.javaparser.ast.expr.MethodCallExpr;
+import com.github.javaparser.ast.expr.StringLiteralExpr;
 import com.github.javaparser.ast.nodeTypes.NodeWithAnnotations;
 import com.github.javaparser.ast.stmt.BlockStmt;
 
@@ -34,10 +44,11 @@ public final class ASTUtils {
      * Builds a map of simple class names to fully qualified names from import declarations.
      *
      * @param compilationUnit The CompilationUnit to process.
-     * @return An unmodifiable map where keys are simple class names and values are fully qualified names.
+     * @return An unmodifiable map where keys are simple class names and values are fully qualified names, in
+     * declaration order.
      */
     public static Map<String, String> buildImportMap(CompilationUnit compilationUnit) {
-        Map<String, String> importMap = new HashMap<>();
+        Map<String, String> importMap = new LinkedHashMap<>();
         compilationUnit.getImports().forEach(importDeclaration -> {
             String imported = importDeclaration.getNameAsString();
             if (!importDeclaration.isAsterisk()) {
@@ -45,7 +56,7 @@ public final class ASTUtils {
                 importMap.put(simpleName, imported);
             }
         });
-        return Map.copyOf(importMap);
+        return Collections.unmodifiableMap(importMap);
     }
 
     /**
@@ -64,6 +75,86 @@ public final class ASTUtils {
                 });
     }
 
+    /**
+     * Finds an annotation of a node by its simple name, whether it is written qualified or not.
+     *
+     * @param node           The annotated node.
+     * @param annotationName The simple name of the annotation, e.g. {@code Table}.
+     * @return Optional containing the first matching annotation.
+     */
+    public static Optional<AnnotationExpr> findAnnotation(NodeWithAnnotations<?> node, String annotationName) {
+        return node.getAnnotations().stream()
+                .filter(annotation -> annotation.getName().getIdentifier().equals(annotationName))
+                .findFirst();
+    }
+
+    /**
+     * Retrieves an attribute of an annotation as an expression. The {@code value} attribute is also found when
+     * written as a single member, e.g. {@code @Query("...")}.
+     *
+     * @param annotation The annotation.
+     * @param attribute  The attribute name.
+     * @return Optional containing the attribute expression.
+     */
+    public static Optional<Expression> getAnnotationAttribute(AnnotationExpr annotation, String attribute) {
+        if (annotation.isSingleMemberAnnotationExpr()) {
+            return "value".equals(attribute)
+                    ? Optional.of(annotation.asSingleMemberAnnotationExpr().getMemberValue())
+                    : Optional.empty();
+        }
+        if (annotation.isNormalAnnotationExpr()) {
+            return annotation.asNormalAnnotationExpr().getPairs().stream()
+                    .filter(pair -> pair.getNameAsString().equals(attribute))
+                    .map(MemberValuePair::getValue)
+                    .findFirst();
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Retrieves a String attribute of an annotation, concatenating string literals split over several lines.
+     *
+     * @param annotation The annotation.
+     * @param attribute  The attribute name.
+     * @return Optional containing the value; empty if the attribute is missing or not made of string literals.
+     */
+    public static Optional<String> getAnnotationStringValue(AnnotationExpr annotation, String attribute) {
+        return getAnnotationAttribute(annotation, attribute).map(ASTUtils::concatenateStringLiterals);
+    }
+
+    /**
+     * Checks whether a boolean attribute of an annotation is set to {@code true}.
+     *
+     * @param annotation The annotation.
+     * @param attribute  The attribute name.
+     * @return {@code true} if the attribute is the literal {@code true}; {@code false} otherwise.
+     */
+    public static boolean isAnnotationFlagSet(AnnotationExpr annotation, String attribute) {
+        return getAnnotationAttribute(annotation, attribute)
+                .filter(Expression::isBooleanLiteralExpr)
+                .map(Expression::asBooleanLiteralExpr)
+                .map(BooleanLiteralExpr::getValue)
+                .orElse(false);
+    }
+
+    private static String concatenateStringLiterals(Expression expression) {
+        if (expression instanceof StringLiteralExpr stringLiteral) {
+            return stringLiteral.asString();
+        }
+        if (expression.isTextBlockLiteralExpr()) {
+            return expression.asTextBlockLiteralExpr().asString();
+        }
+        if (expression instanceof BinaryExpr binary && binary.getOperator() == BinaryExpr.Operator.PLUS) {
+            String left = concatenateStringLiterals(binary.getLeft());
+            String right = concatenateStringLiterals(binary.getRight());
+            return left == null || right == null ? null : left + right;
+        }
+        if (expression.isEnclosedExpr()) {
+            return concatenateStringLiterals(expression.asEnclosedExpr().getInner());
+        }
+        return null;
+    }
+
     /**
      * Checks if any constructor of a class has parameters (implying normal constructor injection)
      * or is annotated with specific injection annotations (e.g., @Inject).
@@ -152,6 +243,21 @@ public final class ASTUtils {
         return List.copyOf(methodCalls);
     }
 
+    /**
+     * Retrieves the body of a method or constructor declaration.
+     *
+     * @param declaration The method or constructor declaration.
+     * @return Optional containing the body; empty for abstract methods or other declarations.
+     */
+    public static Optional<BlockStmt> getBody(BodyDeclaration<?> declaration) {
+        if (declaration instanceof MethodDeclaration methodDecl) {
+            return methodDecl.getBody();
+        } else if (declaration instanceof ConstructorDeclaration constructorDecl) {
+            return Optional.of(constructorDecl.getBody());
+        }
+        return Optional.empty();
+    }
+
     /**
      * Collects field assignments in a constructor body.
      *
@@ -0,0 +1,14 @@
+package uk.gov.moj.cpp.service.insights.util;
+
+/**
+ * State recorded by an incremental goal for its next run, saved and loaded as JSON with {@link BuildStateUtil}.
+ */
+public interface BuildState {
+
+    /**
+     * Tells whether loaded state can be used: it was written with the current layout version and is complete.
+     *
+     * @return {@code true} if the state can be used; {@code false} if it must be ignored.
+     */
+    boolean isCurrent();
+}
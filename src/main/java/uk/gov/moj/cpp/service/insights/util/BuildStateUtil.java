@@ -0,0 +1,89 @@
+package uk.gov.moj.cpp.service.insights.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * Utility class to save and load the {@link BuildState} of the incremental goals as compact JSON.
+ * This class is immutable and cannot be instantiated.
+ */
+public final class BuildStateUtil {
+
+    private static final Gson GSON = new GsonBuilder().disableHtmlEscaping().create();
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private BuildStateUtil() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated.");
+    }
+
+    /**
+     * Loads state previously saved with {@link #writeJson(BuildState, Writer)}.
+     *
+     * @param reader Reader over the JSON state.
+     * @param type   The class of the state.
+     * @param <T>    The type of the state.
+     * @return The state, or empty if it is not current.
+     * @throws JsonParseException If the content is not valid state.
+     */
+    public static <T extends BuildState> Optional<T> readJson(Reader reader, Class<T> type) {
+        T state = GSON.fromJson(reader, type);
+        return state == null || !state.isCurrent() ? Optional.empty() : Optional.of(state);
+    }
+
+    /**
+     * Writes state as compact JSON.
+     *
+     * @param state  The state.
+     * @param writer Writer receiving the JSON state.
+     */
+    public static void writeJson(BuildState state, Writer writer) {
+        GSON.toJson(state, state.getClass(), writer);
+    }
+
+    /**
+     * Loads the state saved by a previous run. A missing, unreadable or outdated state file is ignored, as if
+     * there had been no previous run.
+     *
+     * @param stateFile The state file.
+     * @param type      The class of the state.
+     * @param log       Maven's Log interface, warned about an unreadable state file.
+     * @param <T>       The type of the state.
+     * @return The state, or empty if there is no usable state.
+     */
+    public static <T extends BuildState> Optional<T> read(Path stateFile, Class<T> type, Log log) {
+        if (!Files.isRegularFile(stateFile)) {
+            return Optional.empty();
+        }
+        try (Reader reader = Files.newBufferedReader(stateFile, StandardCharsets.UTF_8)) {
+            return readJson(reader, type);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring unreadable build state " + stateFile + ": " + e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Saves state for the next run.
+     *
+     * @param stateFile The state file.
+     * @param state     The state.
+     * @throws IOException If the file cannot be written.
+     */
+    public static void write(Path stateFile, BuildState state) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(stateFile, StandardCharsets.UTF_8)) {
+            writeJson(state, writer);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package uk.gov.moj.cpp.service.insights.util;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Utility class for the SHA-256 hashes used to recognise unchanged files between runs and identical files
+ * between trees.
+ * This class is immutable and cannot be instantiated.
+ */
+public final class HashUtil {
+
+    private static final String HASH_ALGORITHM = "SHA-256";
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private HashUtil() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated.");
+    }
+
+    /**
+     * Creates a SHA-256 digest, to hash several values into one.
+     *
+     * @return A new digest.
+     */
+    public static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(HASH_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(HASH_ALGORITHM + " is not available.", e);
+        }
+    }
+
+    /**
+     * Completes a digest.
+     *
+     * @param digest The digest.
+     * @return The hash, as lower-case hexadecimal.
+     */
+    public static String toHex(MessageDigest digest) {
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Hashes the content of a file.
+     *
+     * @param file The file.
+     * @return The SHA-256 hash of its content, as lower-case hexadecimal.
+     * @throws IOException If the file cannot be read.
+     */
+    public static String hash(Path file) throws IOException {
+        MessageDigest digest = newDigest();
+        digest.update(Files.readAllBytes(file));
+        return toHex(digest);
+    }
+}
@@ -0,0 +1,32 @@
+package uk.gov.moj.cpp.service.insights.util;
+
+/**
+ * Utility class for the HTML reports.
+ * This class is immutable and cannot be instantiated.
+ */
+public final class HtmlUtil {
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private HtmlUtil() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated.");
+    }
+
+    /**
+     * Escapes special characters in HTML to prevent injection, in text as well as in attribute values.
+     *
+     * @param text The text to escape; may be null.
+     * @return The escaped HTML string, empty for null.
+     */
+    public static String escapeHtml(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.replace("&", "&amp;")
+                .replace("<", "&lt;")
+                .replace(">", "&gt;")
+                .replace("\"", "&quot;")
+                .replace("'", "&#39;");
+    }
+}
@@ -8,7 +8,6 @@ import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Deque;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -480,29 +479,17 @@ public final class ServiceUtil {
         return null;
     }
 
-    public static Set<String> scanForServiceInQuotes(String methodSourceCode) {
-        Set<String> namesCalled = new HashSet<>();
-        String[] lines = methodSourceCode.split("\n");
-        for (String line : lines) {
-            int startIndex = 0;
-            while ((startIndex = line.indexOf("\"", startIndex)) != -1) {
-                int endIndex = line.indexOf("\"", startIndex + 1);
-                if (endIndex != -1) {
-                    String quotedText = line.substring(startIndex + 1, endIndex);
-                    if (!quotedText.contains(" ")) {  // Ensure no spaces in the quoted text
-                        SERVICE_NAMES.forEach(s -> {
-                            if (quotedText.contains(s)) {
-                                namesCalled.add(quotedText);
-                            }
-                        });
-                    }
-                    startIndex = endIndex + 1;
-                } else {
-                    break;
-                }
-            }
+    /**
+     * Checks if a string literal value names a service action, e.g. {@code "hearing.command.add-defendant"}.
+     *
+     * @param quotedText The string literal value.
+     * @return {@code true} if the value contains no spaces and contains a predefined service name; {@code false} otherwise.
+     */
+    public static boolean isServiceReference(String quotedText) {
+        if (quotedText.contains(" ")) {  // Ensure no spaces in the quoted text
+            return false;
         }
-        return namesCalled;
+        return SERVICE_NAMES.stream().anyMatch(quotedText::contains);
     }
 
     /**
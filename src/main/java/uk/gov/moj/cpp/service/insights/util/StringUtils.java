@@ -1,5 +1,6 @@
 package uk.gov.moj.cpp.service.insights.util;
 
+import uk.gov.moj.cpp.service.insights.drlparser.parser.ClassLookup;
 import uk.gov.moj.cpp.service.insights.drlparser.parser.JavaClassIndexer;
 
 import java.util.Optional;
@@ -224,15 +225,15 @@ public final class StringUtils {
      *
      * <p>
      * The method handles both name expressions and string literals,
-     * resolving them using the provided {@code ClassInfo} and {@code JavaClassIndexer}.
+     * resolving them using the provided {@code ClassInfo} and {@code ClassLookup}.
      * </p>
      *
      * @param expr      the {@code Expression} instance to extract from
      * @param classInfo the {@code ClassInfo} for resolving variables
-     * @param indexer   the {@code JavaClassIndexer} instance
+     * @param indexer   the {@code ClassLookup} of the indexed classes
      * @return the enum constant as a string, or {@code null} if not applicable
      */
-    public static String extractEnumConstant(Expression expr, JavaClassIndexer.ClassInfo classInfo, JavaClassIndexer indexer) {
+    public static String extractEnumConstant(Expression expr, JavaClassIndexer.ClassInfo classInfo, ClassLookup indexer) {
         if (expr.isNameExpr()) {
             String varName = expr.asNameExpr().getNameAsString();
             return resolveStaticVariable(varName, classInfo, indexer).orElse(varName);
@@ -247,15 +248,15 @@ public final class StringUtils {
      *
      * <p>
      * The method handles both string literals and name expressions,
-     * resolving them using the provided {@code ClassInfo} and {@code JavaClassIndexer}.
+     * resolving them using the provided {@code ClassInfo} and {@code ClassLookup}.
      * </p>
      *
      * @param expr      the {@code Expression} instance to extract from
      * @param classInfo the {@code ClassInfo} for resolving variables
-     * @param indexer   the {@code JavaClassIndexer} instance
+     * @param indexer   the {@code ClassLookup} of the indexed classes
      * @return the extracted string value, or {@code null} if not applicable
      */
-    public static String extractStringValue(Expression expr, JavaClassIndexer.ClassInfo classInfo, JavaClassIndexer indexer) {
+    public static String extractStringValue(Expression expr, JavaClassIndexer.ClassInfo classInfo, ClassLookup indexer) {
         if (expr.isStringLiteralExpr()) {
             String result = expr.asStringLiteralExpr().asString();
             return resolveStaticVariable(result, classInfo, indexer).orElse(result);
@@ -275,10 +276,10 @@ public final class StringUtils {
      *
      * @param varName   the name of the variable to resolve
      * @param classInfo the {@code ClassInfo} containing variable details
-     * @param indexer   the {@code JavaClassIndexer} instance
+     * @param indexer   the {@code ClassLookup} of the indexed classes
      * @return an {@code Optional} containing the resolved value if found; otherwise, an empty {@code Optional}
      */
-    private static Optional<String> resolveStaticVariable(String varName, JavaClassIndexer.ClassInfo classInfo, JavaClassIndexer indexer) {
+    private static Optional<String> resolveStaticVariable(String varName, JavaClassIndexer.ClassInfo classInfo, ClassLookup indexer) {
         return classInfo.getField(varName)
                 .flatMap(fieldDecl -> fieldDecl.getVariable(0).getInitializer())
                 .map(Expression::toString)
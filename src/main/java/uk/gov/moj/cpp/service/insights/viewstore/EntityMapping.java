@@ -0,0 +1,49 @@
+package uk.gov.moj.cpp.service.insights.viewstore;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Mapping of a JPA entity to its viewstore table.
+ *
+ * @param className    The fully qualified name of the entity class.
+ * @param entityName   The entity name used by JPQL queries.
+ * @param tableName    The lower-cased name of the table.
+ * @param columns      Lower-cased column of each persistent property, by property path; properties of embedded
+ *                     objects have paths such as {@code id.caseId}, and many-to-one associations map to their join
+ *                     column.
+ * @param associations Paths of the properties mapped to a join column.
+ */
+public record EntityMapping(String className, String entityName, String tableName, Map<String, String> columns,
+                            Set<String> associations) {
+
+    public EntityMapping {
+        columns = Collections.unmodifiableMap(new LinkedHashMap<>(columns));
+        associations = Set.copyOf(associations);
+    }
+
+    /**
+     * Resolves the column of a property path. The identifier of an associated entity, e.g. {@code hearing.id},
+     * resolves to the join column of the association.
+     *
+     * @param propertyPath The property path, relative to the entity.
+     * @return Optional containing the column; empty if the path does not map to a column of the table.
+     */
+    public Optional<String> columnFor(String propertyPath) {
+        String column = columns.get(propertyPath);
+        if (column != null) {
+            return Optional.of(column);
+        }
+        int lastDot = propertyPath.lastIndexOf('.');
+        if (lastDot > 0 && "id".equals(propertyPath.substring(lastDot + 1))) {
+            String association = propertyPath.substring(0, lastDot);
+            if (associations.contains(association)) {
+                return Optional.ofNullable(columns.get(association));
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,122 @@
+package uk.gov.moj.cpp.service.insights.viewstore;
+
+import uk.gov.moj.cpp.service.insights.model.ClassInfo;
+import uk.gov.moj.cpp.service.insights.util.ASTUtils;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import com.github.javaparser.ast.body.FieldDeclaration;
+import com.github.javaparser.ast.body.TypeDeclaration;
+import com.github.javaparser.ast.body.VariableDeclarator;
+
+/**
+ * Resolves the JPA entities of an index of Java classes to their tables and columns, from their {@code @Entity},
+ * {@code @Table}, {@code @Column} and {@code @JoinColumn} annotations.
+ * <p>
+ * Without {@code @Table} or {@code @Column}, the class or field name is used, lower-cased as the database stores
+ * unquoted identifiers. Fields of {@code @MappedSuperclass} parents and of {@code @Embedded} or {@code @EmbeddedId}
+ * objects are included; collections and the inverse side of associations are not, as they have no column in the
+ * table.
+ */
+public final class EntityMappingResolver {
+
+    private static final Set<String> COLLECTION_ANNOTATIONS = Set.of("OneToMany", "ManyToMany", "ElementCollection");
+    private static final Set<String> ASSOCIATION_ANNOTATIONS = Set.of("ManyToOne", "OneToOne");
+    private static final Set<String> EMBEDDED_ANNOTATIONS = Set.of("Embedded", "EmbeddedId");
+
+    private EntityMappingResolver() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated.");
+    }
+
+    /**
+     * Resolves the entities of an index.
+     *
+     * @param classInfoMap The classes of the index, by fully qualified name.
+     * @return The entity mappings, by fully qualified class name.
+     */
+    public static Map<String, EntityMapping> resolveEntities(Map<String, ClassInfo> classInfoMap) {
+        Map<String, EntityMapping> entities = new LinkedHashMap<>();
+        for (ClassInfo classInfo : classInfoMap.values()) {
+            TypeDeclaration<?> typeDecl = classInfo.getTypeDeclaration();
+            if (typeDecl == null || ASTUtils.findAnnotation(typeDecl, "Entity").isEmpty()) {
+                continue;
+            }
+            String simpleName = typeDecl.getNameAsString();
+            String entityName = ASTUtils.findAnnotation(typeDecl, "Entity")
+                    .flatMap(annotation -> ASTUtils.getAnnotationStringValue(annotation, "name"))
+                    .filter(name -> !name.isEmpty())
+                    .orElse(simpleName);
+            String tableName = ASTUtils.findAnnotation(typeDecl, "Table")
+                    .flatMap(annotation -> ASTUtils.getAnnotationStringValue(annotation, "name"))
+                    .filter(name -> !name.isEmpty())
+                    .orElse(simpleName);
+
+            Map<String, String> columns = new LinkedHashMap<>();
+            Set<String> associations = new LinkedHashSet<>();
+            collectColumns(classInfo, "", classInfoMap, columns, associations, new HashSet<>());
+            entities.put(classInfo.getClassName(), new EntityMapping(classInfo.getClassName(), entityName,
+                    unquote(tableName).toLowerCase(), columns, associations));
+        }
+        return entities;
+    }
+
+    private static void collectColumns(ClassInfo classInfo, String prefix, Map<String, ClassInfo> classInfoMap,
+                                       Map<String, String> columns, Set<String> associations, Set<String> visited) {
+        // Guards against cycles between embeddables and against revisiting a shared superclass
+        if (!visited.add(prefix + classInfo.getClassName())) {
+            return;
+        }
+        ClassInfo superClass = classInfo.getSuperclassName() == null ? null : classInfoMap.get(classInfo.getSuperclassName());
+        if (superClass != null) {
+            collectColumns(superClass, prefix, classInfoMap, columns, associations, visited);
+        }
+
+        TypeDeclaration<?> typeDecl = classInfo.getTypeDeclaration();
+        if (typeDecl == null) {
+            return;
+        }
+        for (FieldDeclaration field : typeDecl.getFields()) {
+            if (field.isStatic() || ASTUtils.findAnnotation(field, "Transient").isPresent()
+                    || ASTUtils.hasAnyAnnotation(field, COLLECTION_ANNOTATIONS)) {
+                continue;
+            }
+            for (VariableDeclarator variable : field.getVariables()) {
+                String path = prefix + variable.getNameAsString();
+                if (ASTUtils.hasAnyAnnotation(field, EMBEDDED_ANNOTATIONS)) {
+                    String type = ASTUtils.resolveType(variable.getType().asString(), classInfo.getPackageName(),
+                            classInfo.getImportMap(), classInfoMap);
+                    ClassInfo embeddable = type == null ? null : classInfoMap.get(type);
+                    if (embeddable != null) {
+                        collectColumns(embeddable, path + ".", classInfoMap, columns, associations, visited);
+                    }
+                } else if (ASTUtils.hasAnyAnnotation(field, ASSOCIATION_ANNOTATIONS)) {
+                    boolean inverseSide = ASTUtils.findAnnotation(field, "OneToOne")
+                            .flatMap(annotation -> ASTUtils.getAnnotationStringValue(annotation, "mappedBy"))
+                            .isPresent();
+                    if (!inverseSide) {
+                        columns.put(path, columnName(field, "JoinColumn", variable.getNameAsString() + "_id"));
+                        associations.add(path);
+                    }
+                } else {
+                    columns.put(path, columnName(field, "Column", variable.getNameAsString()));
+                }
+            }
+        }
+    }
+
+    private static String columnName(FieldDeclaration field, String annotationName, String defaultName) {
+        String name = ASTUtils.findAnnotation(field, annotationName)
+                .flatMap(annotation -> ASTUtils.getAnnotationStringValue(annotation, "name"))
+                .filter(value -> !value.isEmpty())
+                .orElse(defaultName);
+        return unquote(name).toLowerCase();
+    }
+
+    private static String unquote(String identifier) {
+        return identifier.replace("\"", "").replace("`", "");
+    }
+}
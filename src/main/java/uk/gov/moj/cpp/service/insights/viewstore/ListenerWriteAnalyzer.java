@@ -0,0 +1,37 @@
+package uk.gov.moj.cpp.service.insights.viewstore;
+
+import uk.gov.moj.cpp.service.insights.service.MethodVisitor;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import com.github.javaparser.ast.body.BodyDeclaration;
+
+/**
+ * Collects the viewstore tables an event listener writes to, from every method reachable from its
+ * {@code @Handles} method.
+ */
+public class ListenerWriteAnalyzer implements MethodVisitor {
+
+    private final ViewstoreWriteResolver writeResolver;
+    private final Set<String> writtenTables = new LinkedHashSet<>();
+
+    /**
+     * Constructs a ListenerWriteAnalyzer.
+     *
+     * @param writeResolver The resolver of the tables written by a method body, shared by all listeners.
+     */
+    public ListenerWriteAnalyzer(ViewstoreWriteResolver writeResolver) {
+        this.writeResolver = writeResolver;
+    }
+
+    @Override
+    public void visit(String methodSignature, BodyDeclaration<?> declaration) {
+        writtenTables.addAll(writeResolver.findWrittenTables(declaration));
+    }
+
+    public Set<String> getWrittenTables() {
+        return Collections.unmodifiableSet(writtenTables);
+    }
+}
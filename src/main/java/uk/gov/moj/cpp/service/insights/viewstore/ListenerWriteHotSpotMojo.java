@@ -0,0 +1,164 @@
+package uk.gov.moj.cpp.service.insights.viewstore;
+
+import uk.gov.moj.cpp.service.insights.indexer.IndexBuilderImpl;
+import uk.gov.moj.cpp.service.insights.parser.JavaFileParserImpl;
+import uk.gov.moj.cpp.service.insights.resolver.CallGraphResolverImpl;
+import uk.gov.moj.cpp.service.insights.service.MethodStackTracerService;
+import uk.gov.moj.cpp.service.insights.service.MethodStackTracerServiceImpl;
+import uk.gov.moj.cpp.service.insights.util.ServiceUtil;
+import uk.gov.moj.cpp.service.insights.util.ServiceUtil.HandlesInfo;
+import uk.gov.moj.cpp.service.insights.util.ServiceUtil.ModuleScanResult;
+import uk.gov.moj.cpp.service.insights.viewstore.ListenerWriteReport.TableWrites;
+
+import java.io.File;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+/**
+ * Maven Plugin to report the viewstore tables each event-listener {@code @Handles} method writes to, following its
+ * call graph into repositories and the entity manager, and the number of distinct events writing to each table.
+ */
+@Mojo(name = "listener-write-hotspots", defaultPhase = LifecyclePhase.VERIFY, threadSafe = true)
+public class ListenerWriteHotSpotMojo extends AbstractMojo {
+
+    /**
+     * Root directory of the service, containing its event-listener module and the repositories and entities.
+     */
+    @Parameter(property = "rootDirectory", defaultValue = "${project.basedir}", required = true)
+    private String rootDirectory;
+
+    /**
+     * Output directory for the report, usually the one of the schema visualization.
+     */
+    @Parameter(property = "outputDir", required = true, defaultValue = "target/html")
+    private File outputDir;
+
+    /**
+     * Name of the report files without extension; a .json and a .html file are written.
+     */
+    @Parameter(property = "writeHotSpotsFileName", required = false, defaultValue = "listener-write-hotspots")
+    private String writeHotSpotsFileName;
+
+    /**
+     * Name of the schema visualization in outputDir linked from the HTML report.
+     */
+    @Parameter(property = "schemaFileName", required = false, defaultValue = "liquibase-schema-visualization.html")
+    private String schemaFileName;
+
+    /**
+     * Maximum number of distinct events writing to a single table before the build fails. Negative to never fail.
+     */
+    @Parameter(property = "maxWritingEventsPerTable", required = false, defaultValue = "-1")
+    private int maxWritingEventsPerTable;
+
+    /**
+     * Number of threads used to analyse @Handles methods. Defaults to the number of available processors.
+     */
+    @Parameter(property = "handlerThreads", required = false, defaultValue = "0")
+    private int handlerThreads;
+
+    public void execute() throws MojoExecutionException, MojoFailureException {
+        getLog().info("Starting Event Listener Write Hot Spots...");
+
+        if (!outputDir.exists()) {
+            if (!outputDir.mkdirs()) {
+                throw new MojoExecutionException("Failed to create output directory: " + outputDir);
+            }
+        }
+
+        ListenerWriteReport report;
+        int threads = handlerThreads > 0 ? handlerThreads : Runtime.getRuntime().availableProcessors();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            IndexBuilderImpl indexBuilder = new IndexBuilderImpl(new JavaFileParserImpl());
+            MethodStackTracerService tracerService = new MethodStackTracerServiceImpl(indexBuilder,
+                    new CallGraphResolverImpl(indexBuilder, false));
+            tracerService.buildIndex(List.of(Path.of(rootDirectory)));
+
+            Map<String, EntityMapping> entities = EntityMappingResolver.resolveEntities(indexBuilder.getClassInfoMap());
+            ViewstoreWriteResolver writeResolver = new ViewstoreWriteResolver(indexBuilder.getClassInfoMap(), entities);
+
+            Map<String, ModuleScanResult> scanResults = ServiceUtil.resolveHandlesValues(
+                    ServiceUtil.scanModules(rootDirectory, getLog()), getLog());
+            List<Callable<ListenerTrace>> tasks = new ArrayList<>();
+            scanResults.forEach((moduleName, moduleResult) -> {
+                if (moduleName.endsWith("event-listener")) {
+                    moduleResult.handles().forEach(handleInfo -> tasks.add(() -> {
+                        ListenerWriteAnalyzer analyzer = new ListenerWriteAnalyzer(writeResolver);
+                        boolean traced = tracerService.traceMethod(handleInfo.className(), handleInfo.methodName(), analyzer);
+                        return new ListenerTrace(handleInfo, traced, analyzer.getWrittenTables());
+                    }));
+                }
+            });
+            getLog().info("Analysing " + tasks.size() + " event listener handlers with " + threads + " threads.");
+
+            // invokeAll returns futures in task order, so results are reduced deterministically
+            Map<String, Set<String>> eventTables = new TreeMap<>();
+            for (Future<ListenerTrace> future : executor.invokeAll(tasks)) {
+                ListenerTrace trace = future.get();
+                if (!trace.traced()) {
+                    getLog().warn("Unable to trace handler " + trace.handlesInfo().className() + "#" + trace.handlesInfo().methodName());
+                }
+                eventTables.computeIfAbsent(trace.handlesInfo().handlesValue(), k -> new LinkedHashSet<>()).addAll(trace.tables());
+            }
+
+            report = ListenerWriteReport.from(eventTables);
+            logReport(report);
+
+            File jsonFile = new File(outputDir, writeHotSpotsFileName + ".json");
+            try (Writer writer = Files.newBufferedWriter(jsonFile.toPath(), StandardCharsets.UTF_8)) {
+                report.writeJson(writer);
+            }
+            File htmlFile = new File(outputDir, writeHotSpotsFileName + ".html");
+            ListenerWriteHtmlGenerator.generateHTML(report, schemaFileName, htmlFile.toPath());
+            getLog().info("Write hot spot report generated at: " + htmlFile.getAbsolutePath());
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MojoExecutionException("Event listener analysis was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new MojoExecutionException("Event listener analysis failed: " + e.getCause().getMessage(), e.getCause());
+        } catch (Exception e) {
+            throw new MojoExecutionException("Error during write hot spot analysis", e);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        if (maxWritingEventsPerTable >= 0 && !report.tables().isEmpty()
+                && report.tables().get(0).eventCount() > maxWritingEventsPerTable) {
+            TableWrites hottest = report.tables().get(0);
+            throw new MojoFailureException("Table " + hottest.tableName() + " is written by " + hottest.eventCount()
+                    + " events, more than the " + maxWritingEventsPerTable + " allowed by maxWritingEventsPerTable.");
+        }
+    }
+
+    private void logReport(ListenerWriteReport report) {
+        getLog().info("Found " + report.eventTables().size() + " events writing to " + report.tables().size() + " tables.");
+        for (TableWrites table : report.tables()) {
+            getLog().info("  " + table.tableName() + ": " + table.eventCount() + " events");
+        }
+    }
+
+    private record ListenerTrace(HandlesInfo handlesInfo, boolean traced, Set<String> tables) {
+    }
+}
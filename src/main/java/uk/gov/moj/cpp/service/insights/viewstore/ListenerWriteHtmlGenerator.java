@@ -0,0 +1,86 @@
+package uk.gov.moj.cpp.service.insights.viewstore;
+
+import uk.gov.moj.cpp.service.insights.util.HtmlUtil;
+import uk.gov.moj.cpp.service.insights.viewstore.ListenerWriteReport.TableWrites;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Generates the HTML page of a {@link ListenerWriteReport}, listing the tables by fan-in next to a link to the
+ * schema visualization.
+ */
+public final class ListenerWriteHtmlGenerator {
+
+    private ListenerWriteHtmlGenerator() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated.");
+    }
+
+    /**
+     * Generates the page.
+     *
+     * @param report             The report.
+     * @param schemaPageFileName File name of the schema visualization in the same directory, or {@code null} to
+     *                           leave out the link.
+     * @param outputPath         Path where the HTML file is generated.
+     * @throws IOException If an I/O error occurs.
+     */
+    public static void generateHTML(ListenerWriteReport report, String schemaPageFileName, Path outputPath) throws IOException {
+        int maxFanIn = report.tables().isEmpty() ? 1 : report.tables().get(0).eventCount();
+
+        StringBuilder html = new StringBuilder();
+        html.append("<!DOCTYPE html>\n");
+        html.append("<html lang=\"en\">\n");
+        html.append("<head>\n");
+        html.append("    <meta charset=\"UTF-8\">\n");
+        html.append("    <title>Event Listener Write Hot Spots</title>\n");
+        html.append("    <link href=\"https://stackpath.bootstrapcdn.com/bootstrap/4.5.2/css/bootstrap.min.css\" rel=\"stylesheet\">\n");
+        html.append("</head>\n");
+        html.append("<body class=\"container my-4\">\n");
+        html.append("    <h1 class=\"h3\">Event Listener Write Hot Spots</h1>\n");
+        if (schemaPageFileName != null) {
+            html.append("    <p><a href=\"").append(encode(schemaPageFileName)).append("\">Schema visualization</a></p>\n");
+        }
+
+        html.append("    <h2 class=\"h4 mt-4\">Tables by number of writing events</h2>\n");
+        html.append("    <table class=\"table table-sm\">\n");
+        html.append("        <thead><tr><th>Table</th><th>Events</th><th style=\"width: 30%\"></th><th>Written by</th></tr></thead>\n");
+        html.append("        <tbody>\n");
+        for (TableWrites table : report.tables()) {
+            int width = Math.max(1, table.eventCount() * 100 / maxFanIn);
+            html.append("            <tr><td>").append(HtmlUtil.escapeHtml(table.tableName())).append("</td><td>")
+                    .append(table.eventCount()).append("</td><td><div class=\"progress\"><div class=\"progress-bar bg-danger\" style=\"width: ")
+                    .append(width).append("%\"></div></div></td><td><small>")
+                    .append(HtmlUtil.escapeHtml(String.join(", ", table.events()))).append("</small></td></tr>\n");
+        }
+        html.append("        </tbody>\n");
+        html.append("    </table>\n");
+
+        html.append("    <h2 class=\"h4 mt-4\">Tables written by each event</h2>\n");
+        html.append("    <table class=\"table table-sm\">\n");
+        html.append("        <thead><tr><th>Event</th><th>Tables</th></tr></thead>\n");
+        html.append("        <tbody>\n");
+        for (Map.Entry<String, List<String>> entry : report.eventTables().entrySet()) {
+            html.append("            <tr><td>").append(HtmlUtil.escapeHtml(entry.getKey())).append("</td><td>")
+                    .append(HtmlUtil.escapeHtml(String.join(", ", entry.getValue()))).append("</td></tr>\n");
+        }
+        html.append("        </tbody>\n");
+        html.append("    </table>\n");
+        html.append("</body>\n");
+        html.append("</html>\n");
+
+        try (Writer writer = Files.newBufferedWriter(outputPath, StandardCharsets.UTF_8)) {
+            writer.write(html.toString());
+        }
+    }
+
+    private static String encode(String fileName) {
+        return URLEncoder.encode(fileName, StandardCharsets.UTF_8).replace("+", "%20");
+    }
+}
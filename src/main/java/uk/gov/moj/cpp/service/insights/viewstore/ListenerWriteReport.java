@@ -0,0 +1,74 @@
+package uk.gov.moj.cpp.service.insights.viewstore;
+
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+/**
+ * The viewstore tables written by the events an event listener handles, and the fan-in of each table: the number
+ * of distinct events writing to it. Tables written by many events are where replays and catch-ups contend.
+ *
+ * @param eventTables The tables written by each event, by event name.
+ * @param tables      The written tables, by decreasing fan-in then name.
+ */
+public record ListenerWriteReport(Map<String, List<String>> eventTables, List<TableWrites> tables) {
+
+    private static final Gson GSON = new GsonBuilder().disableHtmlEscaping().setPrettyPrinting().create();
+
+    public ListenerWriteReport {
+        eventTables = Collections.unmodifiableMap(new TreeMap<>(eventTables));
+        tables = List.copyOf(tables);
+    }
+
+    /**
+     * Builds the report, computing the fan-in of each table.
+     *
+     * @param eventTables The tables written by each event, by event name.
+     * @return The report.
+     */
+    public static ListenerWriteReport from(Map<String, ? extends Set<String>> eventTables) {
+        Map<String, List<String>> sortedEventTables = new TreeMap<>();
+        Map<String, List<String>> tableEvents = new TreeMap<>();
+        new TreeMap<>(eventTables).forEach((event, tables) -> {
+            List<String> sortedTables = tables.stream().sorted().toList();
+            sortedEventTables.put(event, sortedTables);
+            sortedTables.forEach(table -> tableEvents.computeIfAbsent(table, k -> new ArrayList<>()).add(event));
+        });
+
+        List<TableWrites> tables = new ArrayList<>();
+        tableEvents.forEach((table, events) -> tables.add(new TableWrites(table, events.size(), events)));
+        tables.sort(Comparator.comparingInt(TableWrites::eventCount).reversed().thenComparing(TableWrites::tableName));
+        return new ListenerWriteReport(sortedEventTables, tables);
+    }
+
+    /**
+     * Writes the report as JSON.
+     *
+     * @param writer Writer receiving the JSON.
+     */
+    public void writeJson(Writer writer) {
+        GSON.toJson(this, ListenerWriteReport.class, writer);
+    }
+
+    /**
+     * The events writing to a table.
+     *
+     * @param tableName  The lower-cased table name.
+     * @param eventCount The number of distinct events writing to it.
+     * @param events     The events, in name order.
+     */
+    public record TableWrites(String tableName, int eventCount, List<String> events) {
+
+        public TableWrites {
+            events = List.copyOf(events);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package uk.gov.moj.cpp.service.insights.viewstore;
+
+import uk.gov.moj.cpp.service.insights.indexer.IndexBuilderImpl;
+import uk.gov.moj.cpp.service.insights.liquibase.model.Table;
+import uk.gov.moj.cpp.service.insights.liquibase.parser.ChangeLogParser;
+import uk.gov.moj.cpp.service.insights.liquibase.parser.ChangeLogPipeline;
+import uk.gov.moj.cpp.service.insights.parser.JavaFileParserImpl;
+import uk.gov.moj.cpp.service.insights.viewstore.QueryIndexChecker.UnindexedQuery;
+import uk.gov.moj.cpp.service.insights.viewstore.RepositoryQueryExtractor.ExtractedQueries;
+import uk.gov.moj.cpp.service.insights.viewstore.RepositoryQueryExtractor.RepositoryQuery;
+import uk.gov.moj.cpp.service.insights.viewstore.RepositoryQueryExtractor.UnresolvedQuery;
+
+import java.io.File;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+/**
+ * Maven Plugin to check the repository queries of a service against the indexes of its viewstore: the filtered and
+ * ordered columns of each query are taken from the Java sources and compared with the schema built from the
+ * Liquibase change logs.
+ */
+@Mojo(name = "query-index-advisor", defaultPhase = LifecyclePhase.VERIFY, threadSafe = true)
+public class QueryIndexAdvisorMojo extends AbstractMojo {
+
+    /**
+     * Root directory of the Java sources of the repositories and entities.
+     */
+    @Parameter(property = "rootDirectory", defaultValue = "${project.basedir}", required = true)
+    private String rootDirectory;
+
+    /**
+     * Directory containing the Liquibase change log XML files of the viewstore.
+     */
+    @Parameter(property = "changeLogsDir", required = true)
+    private File changeLogsDir;
+
+    /**
+     * Master change log, relative to changeLogsDir. When set, only the files it includes, directly or not, are
+     * parsed, in include order; otherwise every XML file under changeLogsDir is parsed in file name order.
+     */
+    @Parameter(property = "masterChangeLog", required = false)
+    private String masterChangeLog;
+
+    /**
+     * Output directory for the query index report.
+     */
+    @Parameter(property = "outputDir", required = true, defaultValue = "target/html")
+    private File outputDir;
+
+    /**
+     * Name of the JSON query index report.
+     */
+    @Parameter(property = "queryIndexAdviceFileName", required = false, defaultValue = "query-index-advice.json")
+    private String queryIndexAdviceFileName;
+
+    /**
+     * Maximum number of repository queries without a supporting index before the build fails. Negative to never
+     * fail.
+     */
+    @Parameter(property = "maxUnindexedQueries", required = false, defaultValue = "-1")
+    private int maxUnindexedQueries;
+
+    /**
+     * Number of threads parsing change log files ahead of the one being applied. Defaults to the number of
+     * available processors.
+     */
+    @Parameter(property = "changeLogThreads", required = false, defaultValue = "0")
+    private int changeLogThreads;
+
+    public void execute() throws MojoExecutionException, MojoFailureException {
+        getLog().info("Starting Query Index Advisor...");
+
+        if (!changeLogsDir.exists() || !changeLogsDir.isDirectory()) {
+            throw new MojoExecutionException("The provided changeLogsDir does not exist or is not a directory: " + changeLogsDir);
+        }
+
+        if (!outputDir.exists()) {
+            if (!outputDir.mkdirs()) {
+                throw new MojoExecutionException("Failed to create output directory: " + outputDir);
+            }
+        }
+
+        QueryIndexReport report;
+        int threads = changeLogThreads > 0 ? changeLogThreads : Runtime.getRuntime().availableProcessors();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            Map<String, Table> tables = new ChangeLogPipeline(new ChangeLogParser(), executor, threads * 2)
+                    .buildSchema(changeLogsDir, masterChangeLog);
+
+            IndexBuilderImpl indexBuilder = new IndexBuilderImpl(new JavaFileParserImpl());
+            indexBuilder.buildIndex(List.of(Path.of(rootDirectory)));
+            Map<String, EntityMapping> entities = EntityMappingResolver.resolveEntities(indexBuilder.getClassInfoMap());
+            ExtractedQueries queries = RepositoryQueryExtractor.extractQueries(indexBuilder.getClassInfoMap(), entities);
+            getLog().info("Found " + entities.size() + " entities and "
+                    + (queries.queries().size() + queries.unresolvedQueries().size()) + " repository queries.");
+
+            report = QueryIndexChecker.check(queries, tables);
+            logReport(report);
+
+            File reportFile = new File(outputDir, queryIndexAdviceFileName);
+            try (Writer writer = Files.newBufferedWriter(reportFile.toPath(), StandardCharsets.UTF_8)) {
+                report.writeJson(writer);
+            }
+            getLog().info("Query index report generated at: " + reportFile.getAbsolutePath());
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MojoExecutionException("Query index check was interrupted", e);
+        } catch (Exception e) {
+            throw new MojoExecutionException("Error during query index check", e);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        int unindexedQueries = report.unindexedQueries().size();
+        if (maxUnindexedQueries >= 0 && unindexedQueries > maxUnindexedQueries) {
+            throw new MojoFailureException(unindexedQueries + " repository queries have no supporting index, more than the "
+                    + maxUnindexedQueries + " allowed by maxUnindexedQueries.");
+        }
+    }
+
+    private void logReport(QueryIndexReport report) {
+        if (!report.unknownTables().isEmpty()) {
+            getLog().info("Queries on tables outside the schema were not checked: " + report.unknownTables());
+        }
+        for (UnresolvedQuery unresolved : report.unresolvedQueries()) {
+            getLog().warn("Unable to check " + unresolved.repositoryClass() + "#" + unresolved.methodName()
+                    + ": " + unresolved.reason());
+        }
+        getLog().info("Checked " + report.checkedQueries() + " queries, " + report.unindexedQueries().size()
+                + " without a supporting index.");
+        for (UnindexedQuery unindexed : report.unindexedQueries()) {
+            RepositoryQuery query = unindexed.query();
+            List<String> columns = unindexed.reason() == QueryIndexChecker.Reason.FILTER ? query.filterColumns() : query.orderColumns();
+            getLog().warn("Unindexed " + (unindexed.reason() == QueryIndexChecker.Reason.FILTER ? "filter" : "order by")
+                    + " in " + query.repositoryClass() + "#" + query.methodName() + " on " + query.tableName() + columns);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package uk.gov.moj.cpp.service.insights.viewstore;
+
+import uk.gov.moj.cpp.service.insights.liquibase.model.Index;
+import uk.gov.moj.cpp.service.insights.liquibase.model.Table;
+import uk.gov.moj.cpp.service.insights.viewstore.RepositoryQueryExtractor.ExtractedQueries;
+import uk.gov.moj.cpp.service.insights.viewstore.RepositoryQueryExtractor.RepositoryQuery;
+import uk.gov.moj.cpp.service.insights.viewstore.RepositoryQueryExtractor.UnresolvedQuery;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Checks repository queries against the indexes of the viewstore schema.
+ * <p>
+ * A btree index can only narrow a scan on its leading column, so a query is supported when the primary key or an
+ * index of its table starts with one of its filtered columns. A query without filter, but ordered, is supported when
+ * an index starts with its first order column, which avoids sorting the whole table. Queries without filter nor
+ * order read the whole table by design and are not reported.
+ * <p>
+ * This is a conservative check: a query filtering on several columns joined with {@code OR} is reported as
+ * supported as soon as one of them is indexed. A query that is not supported by its mapped columns but has
+ * properties that cannot be mapped to a column is reported as unresolved, as the index it needs cannot be told.
+ */
+public final class QueryIndexChecker {
+
+    private QueryIndexChecker() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated.");
+    }
+
+    /**
+     * Checks repository queries.
+     *
+     * @param queries The repository queries.
+     * @param tables  The viewstore schema.
+     * @return The report of the queries without a supporting index and of those that cannot be checked.
+     */
+    public static QueryIndexReport check(ExtractedQueries queries, Map<String, Table> tables) {
+        int checkedQueries = 0;
+        Set<String> unknownTables = new HashSet<>();
+        List<UnresolvedQuery> unresolvedQueries = new ArrayList<>(queries.unresolvedQueries());
+        List<UnindexedQuery> unindexedQueries = new ArrayList<>();
+        for (RepositoryQuery query : queries.queries()) {
+            Table table = tables.get(query.tableName());
+            if (table == null) {
+                unknownTables.add(query.tableName());
+                continue;
+            }
+            Set<String> leadingColumns = leadingColumns(table);
+            if (query.filterColumns().stream().anyMatch(leadingColumns::contains)) {
+                checkedQueries++;
+            } else if (!query.unresolvedPaths().isEmpty()) {
+                unresolvedQueries.add(new UnresolvedQuery(query.repositoryClass(), query.methodName(),
+                        "unmapped properties " + query.unresolvedPaths() + " of " + query.tableName()));
+            } else {
+                checkedQueries++;
+                if (!query.filterColumns().isEmpty()) {
+                    unindexedQueries.add(new UnindexedQuery(query, Reason.FILTER));
+                } else if (!query.orderColumns().isEmpty() && !leadingColumns.contains(query.orderColumns().get(0))) {
+                    unindexedQueries.add(new UnindexedQuery(query, Reason.ORDER_BY));
+                }
+            }
+        }
+        return new QueryIndexReport(checkedQueries, unknownTables.stream().sorted().toList(), unresolvedQueries, unindexedQueries);
+    }
+
+    private static Set<String> leadingColumns(Table table) {
+        Set<String> leadingColumns = new HashSet<>();
+        if (!table.primaryKeys().isEmpty()) {
+            leadingColumns.add(table.primaryKeys().get(0).toLowerCase());
+        }
+        for (Index index : table.indexes()) {
+            if (!index.columns().isEmpty() && index.columns().get(0) != null) {
+                leadingColumns.add(index.columns().get(0).toLowerCase());
+            }
+        }
+        return leadingColumns;
+    }
+
+    /**
+     * Why a query is not supported by an index.
+     */
+    public enum Reason {
+        /**
+         * No index starts with a filtered column.
+         */
+        FILTER,
+        /**
+         * The query has no filter and no index starts with its first order column.
+         */
+        ORDER_BY
+    }
+
+    /**
+     * A query without a supporting index.
+     *
+     * @param query  The repository query.
+     * @param reason Why it is not supported.
+     */
+    public record UnindexedQuery(RepositoryQuery query, Reason reason) {
+    }
+}
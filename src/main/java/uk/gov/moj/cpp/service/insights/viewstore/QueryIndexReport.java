@@ -0,0 +1,41 @@
+package uk.gov.moj.cpp.service.insights.viewstore;
+
+import uk.gov.moj.cpp.service.insights.viewstore.QueryIndexChecker.UnindexedQuery;
+import uk.gov.moj.cpp.service.insights.viewstore.RepositoryQueryExtractor.UnresolvedQuery;
+
+import java.io.Writer;
+import java.util.List;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+/**
+ * Findings of the query-index-advisor goal.
+ *
+ * @param checkedQueries    The number of repository queries whose table is in the schema and that could be checked.
+ * @param unknownTables     The tables of repository queries that are not in the schema, e.g. tables of another
+ *                          service; their queries are not checked.
+ * @param unresolvedQueries The queries that cannot be checked, as their entity or some of their properties cannot be
+ *                          mapped to the schema.
+ * @param unindexedQueries  The queries without a supporting index.
+ */
+public record QueryIndexReport(int checkedQueries, List<String> unknownTables, List<UnresolvedQuery> unresolvedQueries,
+                               List<UnindexedQuery> unindexedQueries) {
+
+    private static final Gson GSON = new GsonBuilder().disableHtmlEscaping().setPrettyPrinting().create();
+
+    public QueryIndexReport {
+        unknownTables = List.copyOf(unknownTables);
+        unresolvedQueries = List.copyOf(unresolvedQueries);
+        unindexedQueries = List.copyOf(unindexedQueries);
+    }
+
+    /**
+     * Writes the report as JSON.
+     *
+     * @param writer Writer receiving the JSON.
+     */
+    public void writeJson(Writer writer) {
+        GSON.toJson(this, QueryIndexReport.class, writer);
+    }
+}
@@ -0,0 +1,221 @@
+package uk.gov.moj.cpp.service.insights.viewstore;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Extracts the filtered and ordered properties of repository queries, from JPQL or SQL query strings and from
+ * DeltaSpike and Spring Data query method names such as {@code findByCaseIdAndStatusOrderByCreatedAtDesc} or
+ * {@code findDistinctByNameStartingWithIgnoreCase}.
+ * <p>
+ * Only the predicates on the root entity or table of a query are kept, and only those comparing a plain property
+ * or column, as a predicate on a function of a column, e.g. {@code lower(h.name) = :name}, cannot use a plain index
+ * anyway.
+ */
+public final class QueryPredicateParser {
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern ROOT = Pattern.compile(
+            "\\b(?:from|update)\\s+([A-Za-z_][\\w.]*)(?:\\s+(?:as\\s+)?([A-Za-z_]\\w*))?", Pattern.CASE_INSENSITIVE);
+    private static final Pattern WHERE = Pattern.compile("\\bwhere\\b", Pattern.CASE_INSENSITIVE);
+    private static final Pattern ORDER_BY = Pattern.compile("\\border\\s+by\\b", Pattern.CASE_INSENSITIVE);
+    private static final Pattern WHERE_END = Pattern.compile("\\b(?:order\\s+by|group\\s+by|having)\\b", Pattern.CASE_INSENSITIVE);
+    private static final Pattern ORDER_BY_END = Pattern.compile("\\b(?:limit|offset|fetch)\\b", Pattern.CASE_INSENSITIVE);
+    private static final Pattern PREDICATE = Pattern.compile(
+            "(?<![\\w.:?])([A-Za-z_]\\w*(?:\\.[A-Za-z_]\\w*)*)\\s*"
+                    + "(?:=|<>|!=|<=|>=|<|>|\\b(?:not\\s+)?(?:in|like|between)\\b|\\bis\\b)",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern WRITE_STATEMENT = Pattern.compile(
+            "^\\s*(?:update\\s+([A-Za-z_][\\w.]*)|delete\\s+(?:from\\s+)?([A-Za-z_][\\w.]*)|insert\\s+into\\s+([A-Za-z_][\\w.]*))",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern PATH = Pattern.compile("^([A-Za-z_]\\w*(?:\\.[A-Za-z_]\\w*)*)");
+    private static final Set<String> KEYWORDS = Set.of("where", "set", "join", "inner", "left", "right", "outer",
+            "cross", "fetch", "order", "group", "having", "on", "limit", "offset", "union");
+
+    // The subject between the verb and By, e.g. Optional, First10 or DistinctPeople, does not affect the filter
+    private static final Pattern QUERY_METHOD = Pattern.compile(
+            "^(?:find|read|get|query|search|stream|count|exists|remove|delete)(?:[A-Z]\\w*?)??By((?:[A-Z]\\w*)?)$");
+    private static final Pattern LOGICAL_OPERATOR = Pattern.compile("(?<=[a-z0-9])(?:And|Or)(?=[A-Z])");
+    private static final Pattern ORDER_DIRECTION = Pattern.compile("(?<=[a-z0-9])(?:Asc|Desc)(?=[A-Z]|$)");
+    // Stripped repeatedly from the end of a criterion, so that compound keywords such as IsNotNull or
+    // GreaterThanEquals need no entry; AllIgnoreCase comes before IgnoreCase so that All is not left behind
+    private static final List<String> COMPARATORS = List.of("AllIgnoreCase", "AllIgnoringCase", "IgnoreCase",
+            "IgnoringCase", "Equals", "Equal", "GreaterThan", "LessThan", "Between", "Before", "After", "Like",
+            "Containing", "Contains", "StartingWith", "StartsWith", "EndingWith", "EndsWith", "Regex", "Matches",
+            "Null", "Empty", "True", "False", "In", "Not", "Is");
+
+    private QueryPredicateParser() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated.");
+    }
+
+    /**
+     * Parses a JPQL or native SQL query.
+     *
+     * @param query       The query string.
+     * @param nativeQuery Whether the query is SQL; its root is then a table and its paths are columns.
+     * @return Optional containing the parsed query; empty if it has no root entity or table.
+     */
+    public static Optional<ParsedQuery> parseQuery(String query, boolean nativeQuery) {
+        String text = STRING_LITERAL.matcher(query).replaceAll("?");
+        Matcher root = ROOT.matcher(text);
+        if (!root.find()) {
+            return Optional.empty();
+        }
+        String rootName = root.group(1);
+        String alias = root.group(2);
+        int rootEnd = root.end();
+        if (alias != null && KEYWORDS.contains(alias.toLowerCase(Locale.ROOT))) {
+            // The word following the root starts the next clause
+            alias = null;
+            rootEnd = root.end(1);
+        }
+
+        List<String> filterPaths = new ArrayList<>();
+        List<String> orderPaths = new ArrayList<>();
+        Matcher where = WHERE.matcher(text);
+        int clauseStart = rootEnd;
+        if (where.find(rootEnd)) {
+            Matcher whereEnd = WHERE_END.matcher(text);
+            int end = whereEnd.find(where.end()) ? whereEnd.start() : text.length();
+            Matcher predicate = PREDICATE.matcher(text.substring(where.end(), end));
+            while (predicate.find()) {
+                addPath(filterPaths, predicate.group(1), alias, nativeQuery);
+            }
+            clauseStart = end;
+        }
+        Matcher orderBy = ORDER_BY.matcher(text);
+        if (orderBy.find(clauseStart)) {
+            Matcher orderByEnd = ORDER_BY_END.matcher(text);
+            int end = orderByEnd.find(orderBy.end()) ? orderByEnd.start() : text.length();
+            for (String item : text.substring(orderBy.end(), end).split(",")) {
+                Matcher path = PATH.matcher(item.trim());
+                if (path.find()) {
+                    addPath(orderPaths, path.group(1), alias, nativeQuery);
+                }
+            }
+        }
+        return Optional.of(new ParsedQuery(rootName, filterPaths, orderPaths));
+    }
+
+    /**
+     * Finds the entity, or table for SQL, written by an update, delete or insert statement.
+     *
+     * @param query The query string.
+     * @return Optional containing the written entity or table; empty if the query does not write.
+     */
+    public static Optional<String> parseWrittenRoot(String query) {
+        Matcher matcher = WRITE_STATEMENT.matcher(query);
+        if (!matcher.find()) {
+            return Optional.empty();
+        }
+        for (int group = 1; group <= matcher.groupCount(); group++) {
+            if (matcher.group(group) != null) {
+                return Optional.of(matcher.group(group));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Parses a DeltaSpike or Spring Data query method name. Nested properties are separated by an underscore, e.g.
+     * {@code findById_CaseId}.
+     *
+     * @param methodName The name of the repository method.
+     * @return Optional containing the parsed query, without root; empty if the name is not a query method name.
+     */
+    public static Optional<ParsedQuery> parseMethodName(String methodName) {
+        Matcher matcher = QUERY_METHOD.matcher(methodName);
+        if (!matcher.matches()) {
+            return Optional.empty();
+        }
+        String criteria = matcher.group(1);
+        String ordering = "";
+        int orderBy = criteria.indexOf("OrderBy");
+        if (orderBy >= 0) {
+            ordering = criteria.substring(orderBy + "OrderBy".length());
+            criteria = criteria.substring(0, orderBy);
+        }
+
+        List<String> filterPaths = new ArrayList<>();
+        if (!criteria.isEmpty()) {
+            for (String criterion : LOGICAL_OPERATOR.split(criteria)) {
+                addProperty(filterPaths, stripComparators(criterion));
+            }
+        }
+        List<String> orderPaths = new ArrayList<>();
+        if (!ordering.isEmpty()) {
+            for (String order : ORDER_DIRECTION.split(ordering)) {
+                addProperty(orderPaths, order);
+            }
+        }
+        return Optional.of(new ParsedQuery(null, filterPaths, orderPaths));
+    }
+
+    private static void addPath(List<String> paths, String path, String alias, boolean nativeQuery) {
+        String property;
+        if (alias != null && path.startsWith(alias + ".")) {
+            property = path.substring(alias.length() + 1);
+        } else if (alias == null || nativeQuery && !path.contains(".")) {
+            // Unqualified paths are on the root when it has no alias, and are plain columns in SQL
+            property = path;
+        } else {
+            return;
+        }
+        if (!paths.contains(property)) {
+            paths.add(property);
+        }
+    }
+
+    private static String stripComparators(String criterion) {
+        String stripped = criterion;
+        boolean found = true;
+        while (found) {
+            found = false;
+            for (String comparator : COMPARATORS) {
+                if (stripped.length() > comparator.length() && stripped.endsWith(comparator)) {
+                    stripped = stripped.substring(0, stripped.length() - comparator.length());
+                    found = true;
+                    break;
+                }
+            }
+        }
+        return stripped;
+    }
+
+    private static void addProperty(List<String> paths, String capitalized) {
+        if (capitalized.isEmpty()) {
+            return;
+        }
+        List<String> segments = new ArrayList<>();
+        for (String segment : capitalized.split("_")) {
+            if (!segment.isEmpty()) {
+                segments.add(Character.toLowerCase(segment.charAt(0)) + segment.substring(1));
+            }
+        }
+        String path = String.join(".", segments);
+        if (!path.isEmpty() && !paths.contains(path)) {
+            paths.add(path);
+        }
+    }
+
+    /**
+     * The filtered and ordered paths of a query.
+     *
+     * @param root        The entity name, or table name for SQL, the query selects from; {@code null} for query
+     *                    method names, whose root is the entity of their repository.
+     * @param filterPaths The property paths, or columns for SQL, compared in the where clause, in query order.
+     * @param orderPaths  The property paths, or columns for SQL, of the order by clause, in query order.
+     */
+    public record ParsedQuery(String root, List<String> filterPaths, List<String> orderPaths) {
+
+        public ParsedQuery {
+            filterPaths = List.copyOf(filterPaths);
+            orderPaths = List.copyOf(orderPaths);
+        }
+    }
+}
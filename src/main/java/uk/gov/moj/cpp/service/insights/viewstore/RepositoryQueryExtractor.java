@@ -0,0 +1,255 @@
+package uk.gov.moj.cpp.service.insights.viewstore;
+
+import uk.gov.moj.cpp.service.insights.model.ClassInfo;
+import uk.gov.moj.cpp.service.insights.model.MethodInfo;
+import uk.gov.moj.cpp.service.insights.util.ASTUtils;
+import uk.gov.moj.cpp.service.insights.viewstore.QueryPredicateParser.ParsedQuery;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.expr.AnnotationExpr;
+import com.github.javaparser.ast.type.ClassOrInterfaceType;
+
+/**
+ * Extracts the queries of the DeltaSpike and Spring Data repositories of an index of Java classes, and maps the
+ * properties they filter and order on to the columns of the entity tables.
+ * <p>
+ * A repository is a class or interface annotated with {@code @Repository}, or extending one of the generic
+ * repository types; its entity is the {@code forEntity} of the annotation, or the first type argument of the
+ * repository type. Each method annotated with {@code @Query} is parsed from its query string, and each abstract
+ * method without it from its name. Queries named with {@code @Query(named = ...)} and implemented methods are not
+ * extracted. Queries whose entity is unknown are returned as unresolved, and the properties that cannot be mapped to
+ * a column are kept on their query, so that they are reported rather than taken as supported.
+ */
+public final class RepositoryQueryExtractor {
+
+    private static final Set<String> REPOSITORY_TYPES = Set.of("EntityRepository", "FullEntityRepository",
+            "AbstractEntityRepository", "AbstractFullEntityRepository", "CrudRepository", "JpaRepository",
+            "PagingAndSortingRepository");
+
+    private RepositoryQueryExtractor() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated.");
+    }
+
+    /**
+     * Extracts the repository queries of an index.
+     *
+     * @param classInfoMap The classes of the index, by fully qualified name.
+     * @param entities     The entity mappings of the index, by fully qualified class name.
+     * @return The queries whose table is known and the unresolved ones, by repository class name then method
+     * position.
+     */
+    public static ExtractedQueries extractQueries(Map<String, ClassInfo> classInfoMap, Map<String, EntityMapping> entities) {
+        Map<String, EntityMapping> entitiesByName = new HashMap<>();
+        entities.values().forEach(entity -> entitiesByName.putIfAbsent(entity.entityName(), entity));
+
+        List<ClassInfo> repositories = new ArrayList<>();
+        for (ClassInfo classInfo : classInfoMap.values()) {
+            if (classInfo.getTypeDeclaration() instanceof ClassOrInterfaceDeclaration coiDecl && isRepository(coiDecl)) {
+                repositories.add(classInfo);
+            }
+        }
+        repositories.sort(Comparator.comparing(ClassInfo::getClassName));
+
+        List<RepositoryQuery> queries = new ArrayList<>();
+        List<UnresolvedQuery> unresolvedQueries = new ArrayList<>();
+        for (ClassInfo repository : repositories) {
+            EntityMapping entity = findEntity(repository, classInfoMap).map(entities::get).orElse(null);
+
+            List<MethodDeclaration> methods = new ArrayList<>();
+            for (MethodInfo methodInfo : repository.getMethods().values()) {
+                if (methodInfo.getMethodDeclaration() instanceof MethodDeclaration methodDecl) {
+                    methods.add(methodDecl);
+                }
+            }
+            methods.sort(Comparator.comparing(method -> method.getBegin().map(position -> position.line).orElse(0)));
+
+            for (MethodDeclaration method : methods) {
+                extractQuery(repository.getClassName(), method, entity, entitiesByName, unresolvedQueries).ifPresent(queries::add);
+            }
+        }
+        return new ExtractedQueries(queries, unresolvedQueries);
+    }
+
+    /**
+     * Finds the repositories of an index and their entity.
+     *
+     * @param classInfoMap The classes of the index, by fully qualified name.
+     * @return The fully qualified entity class name, by fully qualified repository name; repositories whose entity
+     * cannot be determined are left out.
+     */
+    public static Map<String, String> findRepositoryEntities(Map<String, ClassInfo> classInfoMap) {
+        Map<String, String> repositoryEntities = new HashMap<>();
+        for (ClassInfo classInfo : classInfoMap.values()) {
+            if (classInfo.getTypeDeclaration() instanceof ClassOrInterfaceDeclaration coiDecl && isRepository(coiDecl)) {
+                findEntity(classInfo, classInfoMap).ifPresent(entity -> repositoryEntities.put(classInfo.getClassName(), entity));
+            }
+        }
+        return repositoryEntities;
+    }
+
+    private static Optional<RepositoryQuery> extractQuery(String repositoryClass, MethodDeclaration method,
+                                                          EntityMapping entity, Map<String, EntityMapping> entitiesByName,
+                                                          List<UnresolvedQuery> unresolvedQueries) {
+        Optional<AnnotationExpr> queryAnnotation = ASTUtils.findAnnotation(method, "Query");
+        if (queryAnnotation.isPresent()) {
+            AnnotationExpr annotation = queryAnnotation.get();
+            boolean nativeQuery = ASTUtils.isAnnotationFlagSet(annotation, "isNative")
+                    || ASTUtils.isAnnotationFlagSet(annotation, "nativeQuery");
+            Optional<String> query = ASTUtils.getAnnotationStringValue(annotation, "value").filter(value -> !value.isBlank());
+            if (query.isEmpty()) {
+                return Optional.empty();
+            }
+            Optional<ParsedQuery> parsed = QueryPredicateParser.parseQuery(query.get(), nativeQuery);
+            if (parsed.isEmpty()) {
+                unresolvedQueries.add(new UnresolvedQuery(repositoryClass, method.getNameAsString(),
+                        "no root " + (nativeQuery ? "table" : "entity") + " in query"));
+                return Optional.empty();
+            }
+            if (nativeQuery) {
+                String tableName = unqualify(parsed.get().root()).toLowerCase();
+                return Optional.of(new RepositoryQuery(repositoryClass, method.getNameAsString(), tableName,
+                        lowerCase(parsed.get().filterPaths()), lowerCase(parsed.get().orderPaths()), List.of(), QuerySource.SQL));
+            }
+            EntityMapping root = entitiesByName.get(unqualify(parsed.get().root()));
+            if (root == null) {
+                unresolvedQueries.add(new UnresolvedQuery(repositoryClass, method.getNameAsString(),
+                        "unknown entity " + parsed.get().root()));
+                return Optional.empty();
+            }
+            return Optional.of(toQuery(repositoryClass, method, root, parsed.get(), QuerySource.JPQL));
+        }
+
+        if (method.getBody().isPresent()) {
+            return Optional.empty();
+        }
+        Optional<ParsedQuery> parsed = QueryPredicateParser.parseMethodName(method.getNameAsString());
+        if (parsed.isPresent() && entity == null) {
+            unresolvedQueries.add(new UnresolvedQuery(repositoryClass, method.getNameAsString(), "unknown repository entity"));
+            return Optional.empty();
+        }
+        return parsed.map(query -> toQuery(repositoryClass, method, entity, query, QuerySource.METHOD_NAME));
+    }
+
+    private static RepositoryQuery toQuery(String repositoryClass, MethodDeclaration method, EntityMapping entity,
+                                           ParsedQuery parsed, QuerySource source) {
+        List<String> unresolvedPaths = new ArrayList<>();
+        return new RepositoryQuery(repositoryClass, method.getNameAsString(), entity.tableName(),
+                toColumns(entity, parsed.filterPaths(), unresolvedPaths), toColumns(entity, parsed.orderPaths(), unresolvedPaths),
+                unresolvedPaths, source);
+    }
+
+    private static List<String> toColumns(EntityMapping entity, List<String> paths, List<String> unresolvedPaths) {
+        List<String> columns = new ArrayList<>();
+        for (String path : paths) {
+            Optional<String> column = entity.columnFor(path);
+            if (column.isEmpty()) {
+                if (!unresolvedPaths.contains(path)) {
+                    unresolvedPaths.add(path);
+                }
+            } else if (!columns.contains(column.get())) {
+                columns.add(column.get());
+            }
+        }
+        return columns;
+    }
+
+    private static boolean isRepository(ClassOrInterfaceDeclaration coiDecl) {
+        return ASTUtils.findAnnotation(coiDecl, "Repository").isPresent() || findRepositoryType(coiDecl).isPresent();
+    }
+
+    private static Optional<ClassOrInterfaceType> findRepositoryType(ClassOrInterfaceDeclaration coiDecl) {
+        List<ClassOrInterfaceType> superTypes = new ArrayList<>(coiDecl.getExtendedTypes());
+        superTypes.addAll(coiDecl.getImplementedTypes());
+        return superTypes.stream()
+                .filter(type -> REPOSITORY_TYPES.contains(type.getNameAsString()))
+                .findFirst();
+    }
+
+    private static Optional<String> findEntity(ClassInfo repository, Map<String, ClassInfo> classInfoMap) {
+        ClassOrInterfaceDeclaration coiDecl = (ClassOrInterfaceDeclaration) repository.getTypeDeclaration();
+        Optional<String> entityType = ASTUtils.findAnnotation(coiDecl, "Repository")
+                .flatMap(annotation -> ASTUtils.getAnnotationAttribute(annotation, "forEntity"))
+                .filter(expression -> expression.isClassExpr())
+                .map(expression -> expression.asClassExpr().getType().asString());
+        if (entityType.isEmpty()) {
+            entityType = findRepositoryType(coiDecl)
+                    .flatMap(ClassOrInterfaceType::getTypeArguments)
+                    .filter(arguments -> !arguments.isEmpty())
+                    .map(arguments -> arguments.get(0).asString());
+        }
+        return entityType.map(type -> ASTUtils.resolveType(type, repository.getPackageName(),
+                repository.getImportMap(), classInfoMap));
+    }
+
+    private static String unqualify(String name) {
+        return name.substring(name.lastIndexOf('.') + 1);
+    }
+
+    private static List<String> lowerCase(List<String> names) {
+        return names.stream().map(String::toLowerCase).distinct().toList();
+    }
+
+    /**
+     * How a query was extracted.
+     */
+    public enum QuerySource {
+        JPQL,
+        SQL,
+        METHOD_NAME
+    }
+
+    /**
+     * A repository query mapped to the columns of its table.
+     *
+     * @param repositoryClass The fully qualified name of the repository.
+     * @param methodName      The name of the repository method.
+     * @param tableName       The lower-cased table the query selects from.
+     * @param filterColumns   The columns compared in the where clause, in query order.
+     * @param orderColumns    The columns the results are ordered by, in query order.
+     * @param unresolvedPaths The filtered or ordered properties that cannot be mapped to a column of the table.
+     * @param source          How the query was extracted.
+     */
+    public record RepositoryQuery(String repositoryClass, String methodName, String tableName,
+                                  List<String> filterColumns, List<String> orderColumns, List<String> unresolvedPaths,
+                                  QuerySource source) {
+
+        public RepositoryQuery {
+            filterColumns = List.copyOf(filterColumns);
+            orderColumns = List.copyOf(orderColumns);
+            unresolvedPaths = List.copyOf(unresolvedPaths);
+        }
+    }
+
+    /**
+     * A repository query that cannot be checked.
+     *
+     * @param repositoryClass The fully qualified name of the repository.
+     * @param methodName      The name of the repository method.
+     * @param reason          Why the query cannot be checked, e.g. its entity is unknown.
+     */
+    public record UnresolvedQuery(String repositoryClass, String methodName, String reason) {
+    }
+
+    /**
+     * The queries extracted from the repositories of an index.
+     *
+     * @param queries           The queries whose table is known.
+     * @param unresolvedQueries The queries whose table cannot be determined.
+     */
+    public record ExtractedQueries(List<RepositoryQuery> queries, List<UnresolvedQuery> unresolvedQueries) {
+
+        public ExtractedQueries {
+            queries = List.copyOf(queries);
+            unresolvedQueries = List.copyOf(unresolvedQueries);
+        }
+    }
+}
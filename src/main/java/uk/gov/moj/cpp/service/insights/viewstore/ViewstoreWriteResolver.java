@@ -0,0 +1,192 @@
+package uk.gov.moj.cpp.service.insights.viewstore;
+
+import uk.gov.moj.cpp.service.insights.model.ClassInfo;
+import uk.gov.moj.cpp.service.insights.model.DependencyInfo;
+import uk.gov.moj.cpp.service.insights.model.MethodInfo;
+import uk.gov.moj.cpp.service.insights.util.ASTUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.BodyDeclaration;
+import com.github.javaparser.ast.body.CallableDeclaration;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.body.Parameter;
+import com.github.javaparser.ast.body.TypeDeclaration;
+import com.github.javaparser.ast.body.VariableDeclarator;
+import com.github.javaparser.ast.expr.AnnotationExpr;
+import com.github.javaparser.ast.expr.Expression;
+import com.github.javaparser.ast.expr.MethodCallExpr;
+
+/**
+ * Resolves the viewstore tables a method body writes to, from its calls to repositories and to the JPA
+ * {@code EntityManager}.
+ * <p>
+ * A repository call writes to the table of the repository entity when its name starts like the inherited write
+ * methods and DeltaSpike modifying queries, e.g. {@code save}, {@code saveAndFlush} or {@code removeByCaseId}, and to
+ * the table of its statement when the method is declared with an update, delete or insert {@code @Query}.
+ * {@code persist}, {@code merge} and {@code remove} on an {@code EntityManager} write to the table of the entity
+ * passed, when its type can be told from a parameter, a local variable, a field or a {@code new} expression.
+ * <p>
+ * The resolver only reads the index once built, so one instance can be shared by concurrent analyses.
+ */
+public class ViewstoreWriteResolver {
+
+    private static final Pattern WRITE_METHOD = Pattern.compile("^(?:save|persist|merge|remove|delete|attachAndRemove|insert|update)\\w*$");
+    private static final Set<String> ENTITY_MANAGER_WRITES = Set.of("persist", "merge", "remove");
+
+    private final Map<String, ClassInfo> classInfoMap;
+    private final Map<String, EntityMapping> entities;
+    private final Map<String, String> repositoryTables = new HashMap<>();
+    private final Map<String, String> writeQueryTables = new HashMap<>();
+
+    /**
+     * Constructs a resolver over a built index.
+     *
+     * @param classInfoMap The classes of the index, by fully qualified name.
+     * @param entities     The entity mappings of the index, by fully qualified class name.
+     */
+    public ViewstoreWriteResolver(Map<String, ClassInfo> classInfoMap, Map<String, EntityMapping> entities) {
+        this.classInfoMap = classInfoMap;
+        this.entities = entities;
+
+        Map<String, EntityMapping> entitiesByName = new HashMap<>();
+        entities.values().forEach(entity -> entitiesByName.putIfAbsent(entity.entityName(), entity));
+        RepositoryQueryExtractor.findRepositoryEntities(classInfoMap).forEach((repository, entity) -> {
+            EntityMapping mapping = entities.get(entity);
+            if (mapping != null) {
+                repositoryTables.put(repository, mapping.tableName());
+            }
+            for (MethodInfo methodInfo : classInfoMap.get(repository).getMethods().values()) {
+                if (methodInfo.getMethodDeclaration() instanceof MethodDeclaration method) {
+                    findWriteQueryTable(method, entitiesByName)
+                            .ifPresent(table -> writeQueryTables.put(repository + "#" + method.getNameAsString(), table));
+                }
+            }
+        });
+    }
+
+    /**
+     * Collects the tables written by a method or constructor body; calls to other methods are not followed.
+     *
+     * @param declaration The method or constructor declaration.
+     * @return The lower-cased tables written, in call order and without duplicates.
+     */
+    public List<String> findWrittenTables(BodyDeclaration<?> declaration) {
+        List<String> tables = new ArrayList<>();
+        ClassInfo classInfo = classInfoMap.get(declaringClassName(declaration));
+        if (classInfo == null) {
+            return tables;
+        }
+        ASTUtils.getBody(declaration).ifPresent(body -> {
+            for (MethodCallExpr call : ASTUtils.collectMethodCalls(body)) {
+                findWrittenTable(classInfo, declaration, call)
+                        .filter(table -> !tables.contains(table))
+                        .ifPresent(tables::add);
+            }
+        });
+        return tables;
+    }
+
+    private Optional<String> findWrittenTable(ClassInfo classInfo, BodyDeclaration<?> declaration, MethodCallExpr call) {
+        Optional<String> scopeType = call.getScope().flatMap(scope -> resolveExpressionType(classInfo, declaration, scope));
+        if (scopeType.isEmpty()) {
+            return Optional.empty();
+        }
+        String type = scopeType.get();
+        String methodName = call.getNameAsString();
+
+        String writeQueryTable = writeQueryTables.get(type + "#" + methodName);
+        if (writeQueryTable != null) {
+            return Optional.of(writeQueryTable);
+        }
+        if (repositoryTables.containsKey(type)) {
+            return WRITE_METHOD.matcher(methodName).matches() ? Optional.of(repositoryTables.get(type)) : Optional.empty();
+        }
+        if (type.endsWith("EntityManager") && ENTITY_MANAGER_WRITES.contains(methodName) && call.getArguments().size() == 1) {
+            return resolveExpressionType(classInfo, declaration, call.getArgument(0))
+                    .map(entities::get)
+                    .map(EntityMapping::tableName);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Resolves the fully qualified type of a name, field access or object creation expression.
+     */
+    private Optional<String> resolveExpressionType(ClassInfo classInfo, BodyDeclaration<?> declaration, Expression expression) {
+        String typeName = null;
+        if (expression.isObjectCreationExpr()) {
+            typeName = expression.asObjectCreationExpr().getType().getNameWithScope();
+        } else if (expression.isNameExpr()) {
+            String name = expression.asNameExpr().getNameAsString();
+            typeName = findLocalType(declaration, name)
+                    .orElseGet(() -> classInfo.getDependency(name).map(DependencyInfo::getType).orElse(null));
+        } else if (expression.isFieldAccessExpr() && expression.asFieldAccessExpr().getScope().isThisExpr()) {
+            typeName = classInfo.getDependency(expression.asFieldAccessExpr().getNameAsString())
+                    .map(DependencyInfo::getType)
+                    .orElse(null);
+        }
+        if (typeName == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(ASTUtils.resolveType(typeName, classInfo.getPackageName(), classInfo.getImportMap(), classInfoMap));
+    }
+
+    private static Optional<String> findLocalType(BodyDeclaration<?> declaration, String name) {
+        if (declaration instanceof CallableDeclaration<?> callable) {
+            for (Parameter parameter : callable.getParameters()) {
+                if (parameter.getNameAsString().equals(name)) {
+                    return Optional.of(parameter.getType().asString());
+                }
+            }
+        }
+        return declaration.findAll(VariableDeclarator.class).stream()
+                .filter(variable -> variable.getNameAsString().equals(name) && !variable.getType().isVarType())
+                .map(variable -> variable.getType().asString())
+                .findFirst();
+    }
+
+    private static Optional<String> findWriteQueryTable(MethodDeclaration method, Map<String, EntityMapping> entitiesByName) {
+        Optional<AnnotationExpr> queryAnnotation = ASTUtils.findAnnotation(method, "Query");
+        if (queryAnnotation.isEmpty()) {
+            return Optional.empty();
+        }
+        boolean nativeQuery = ASTUtils.isAnnotationFlagSet(queryAnnotation.get(), "isNative")
+                || ASTUtils.isAnnotationFlagSet(queryAnnotation.get(), "nativeQuery");
+        return ASTUtils.getAnnotationStringValue(queryAnnotation.get(), "value")
+                .flatMap(QueryPredicateParser::parseWrittenRoot)
+                .map(root -> root.substring(root.lastIndexOf('.') + 1))
+                .flatMap(root -> nativeQuery
+                        ? Optional.of(root.toLowerCase())
+                        : Optional.ofNullable(entitiesByName.get(root)).map(EntityMapping::tableName));
+    }
+
+    /**
+     * Derives the fully qualified name of the class declaring a method, nested classes being separated by {@code $}
+     * as in the index.
+     */
+    private static String declaringClassName(Node declaration) {
+        List<String> typeNames = new ArrayList<>();
+        Optional<Node> parent = declaration.getParentNode();
+        while (parent.isPresent()) {
+            if (parent.get() instanceof TypeDeclaration<?> typeDecl) {
+                typeNames.add(0, typeDecl.getNameAsString());
+            }
+            parent = parent.get().getParentNode();
+        }
+        String className = String.join("$", typeNames);
+        String packageName = declaration.findCompilationUnit()
+                .flatMap(CompilationUnit::getPackageDeclaration)
+                .map(packageDecl -> packageDecl.getNameAsString())
+                .orElse("");
+        return packageName.isEmpty() ? className : packageName + "." + className;
+    }
+}
@@ -0,0 +1,63 @@
+package uk.gov.moj.cpp.service.insights.drlparser.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import uk.gov.moj.cpp.service.insights.drlparser.parser.model.ConditionNode;
+import uk.gov.moj.cpp.service.insights.drlparser.parser.model.ConditionNode.Call;
+import uk.gov.moj.cpp.service.insights.drlparser.parser.model.ConditionNode.Literal;
+import uk.gov.moj.cpp.service.insights.drlparser.parser.model.ConditionNode.Logical;
+import uk.gov.moj.cpp.service.insights.drlparser.parser.model.ConditionNode.Name;
+import uk.gov.moj.cpp.service.insights.drlparser.parser.model.ConditionNode.Operator;
+import uk.gov.moj.cpp.service.insights.drlparser.parser.model.ConditionNode.StringLiteral;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class ConditionParserTest {
+
+    private static final Name PROVIDER = new Name(null, "userAndGroupProvider");
+    private static final Name ACTION = new Name(null, "$action");
+
+    @Test
+    void parse_ShouldBuildCallsQualifiedNamesAndStringLiterals() {
+        // Act
+        List<ConditionNode> nodes = ConditionParser.parse(
+                "userAndGroupProvider.isMemberOfAnyOfTheSuppliedGroups($action, RuleConstants.ADMIN, \"Court Clerks\", adminGroups())");
+
+        // Assert
+        assertEquals(List.of(new Call(PROVIDER, "isMemberOfAnyOfTheSuppliedGroups", List.of(
+                ACTION,
+                new Name("RuleConstants", "ADMIN"),
+                new StringLiteral("Court Clerks"),
+                new Call(null, "adminGroups", List.of()))
+        )), nodes);
+    }
+
+    @Test
+    void parse_ShouldBuildBooleanOperatorsWithAndBindingTighterThanOr() {
+        // Act
+        List<ConditionNode> nodes = ConditionParser.parse(
+                "userAndGroupProvider.isSystemUser($action) or !com.example.Groups.enabled() && true");
+
+        // Assert
+        ConditionNode isSystemUser = new Call(PROVIDER, "isSystemUser", List.of(ACTION));
+        ConditionNode enabled = new Call(new Name("com.example", "Groups"), "enabled", List.of());
+        assertEquals(List.of(new Logical(Operator.OR, List.of(
+                isSystemUser,
+                new Logical(Operator.AND, List.of(new Logical(Operator.NOT, List.of(enabled)), new Literal("true")))
+        ))), nodes);
+    }
+
+    @Test
+    void parse_ShouldDropUnterminatedStringLiterals() {
+        // Act
+        List<ConditionNode> nodes = ConditionParser.parse(
+                "userAndGroupProvider.isMemberOfAnyOfTheSuppliedGroups(\n $action, \"System Users\", \"CMS\"\")");
+
+        // Assert
+        assertEquals(List.of(new Call(PROVIDER, "isMemberOfAnyOfTheSuppliedGroups", List.of(
+                ACTION, new StringLiteral("System Users"), new StringLiteral("CMS"))
+        )), nodes);
+    }
+}
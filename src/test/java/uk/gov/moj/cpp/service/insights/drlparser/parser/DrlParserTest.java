@@ -2,11 +2,16 @@ package uk.gov.moj.cpp.service.insights.drlparser.parser;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import uk.gov.moj.cpp.service.insights.drlparser.parser.model.ActionGroupMappings;
+import uk.gov.moj.cpp.service.insights.drlparser.parser.model.ParsedDrlFile;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
@@ -18,9 +23,13 @@ import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
+import com.github.javaparser.StaticJavaParser;
+import com.github.javaparser.ast.body.MethodDeclaration;
 import com.google.common.jimfs.Configuration;
 import com.google.common.jimfs.Jimfs;
 import org.apache.maven.plugin.logging.Log;
@@ -374,4 +383,64 @@ class DrlParserTest {
         assertEquals(Set.of("Super Admin"), commandActions.get("NestedCreateUser"));
 
     }
+
+    /**
+     * Tests that a static helper referenced by several rules is evaluated only once.
+     */
+    @Test
+    void testParseEvaluatesSharedStaticHelperOnce() throws Exception {
+        Path commandApiDir = jimfs.getPath("/drl/command-api");
+        Files.createDirectories(commandApiDir);
+        StringBuilder drl = new StringBuilder("import com.example.Groups;\n");
+        for (int i = 1; i <= 3; i++) {
+            drl.append("rule \"Rule ").append(i).append("\" when\n")
+                    .append("Action(name == \"action-").append(i).append("\")\n")
+                    .append("eval(userAndGroupProvider.isMemberOfAnyOfTheSuppliedGroups($action, Groups.adminGroups()))\n")
+                    .append("then\nend\n");
+        }
+        Files.writeString(commandApiDir.resolve("shared-command.drl"), drl.toString());
+
+        MethodDeclaration adminGroups = StaticJavaParser.parseMethodDeclaration(
+                "public static String[] adminGroups() { return new String[]{\"Court Clerks\", \"Legal Advisers\"}; }");
+        JavaClassIndexer.ClassInfo groupsClass = mock(JavaClassIndexer.ClassInfo.class);
+        when(groupsClass.getMethod("adminGroups")).thenReturn(Optional.of(adminGroups));
+        when(mockIndexer.getClassInfo("com.example.Groups")).thenReturn(Optional.of(groupsClass));
+
+        // Execute parsing
+        ActionGroupMappings mappings = drlParser.parse(List.of(jimfs.getPath("/drl")), mockIndexer);
+
+        assertEquals(3, mappings.size());
+        for (int i = 1; i <= 3; i++) {
+            assertEquals(Set.of("Court Clerks", "Legal Advisers"), mappings.getCommandActionToGroupsMap().get("action-" + i));
+        }
+        verify(groupsClass, times(1)).getMethod("adminGroups");
+    }
+
+    /**
+     * Tests that files are parsed in order and reported with their timings when only one is in flight at a time.
+     */
+    @Test
+    void testParseFilesWithOneTaskInFlight() throws Exception {
+        Path commandApiDir = jimfs.getPath("/drl/command-api");
+        Files.createDirectories(commandApiDir);
+        for (int i = 1; i <= 3; i++) {
+            Files.writeString(commandApiDir.resolve("rule" + i + "-command.drl"),
+                    "rule \"Rule " + i + "\" when\n" +
+                            "Action(name == \"action-" + i + "\")\n" +
+                            "eval(userAndGroupProvider.isMemberOfAnyOfTheSuppliedGroups(\"Group " + i + "\"))\n" +
+                            "then\n" +
+                            "end");
+        }
+        DrlParser boundedParser = new DrlParser(mockLog, Executors.newFixedThreadPool(2), 1);
+        List<Path> files = boundedParser.findDrlFiles(List.of(jimfs.getPath("/drl"))).stream().sorted().toList();
+
+        // Execute parsing
+        Map<Path, ParsedDrlFile> parsedFiles = boundedParser.parseFiles(files, mockIndexer);
+        boundedParser.shutdownExecutor();
+
+        assertEquals(files, List.copyOf(parsedFiles.keySet()));
+        assertEquals(Set.of("Group 2"), parsedFiles.get(files.get(1)).mappings().getCommandActionToGroupsMap().get("action-2"));
+        verify(mockLog).info(argThat((CharSequence message) -> message.toString().startsWith("Parsed 3 DRL files in ")));
+        assertThrows(IllegalArgumentException.class, () -> new DrlParser(mockLog, mock(ExecutorService.class), 0));
+    }
 }
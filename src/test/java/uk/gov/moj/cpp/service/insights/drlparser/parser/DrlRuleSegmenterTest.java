@@ -0,0 +1,121 @@
+package uk.gov.moj.cpp.service.insights.drlparser.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import uk.gov.moj.cpp.service.insights.drlparser.parser.model.DrlRule;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class DrlRuleSegmenterTest {
+
+    private final List<String> imports = new ArrayList<>();
+    private final List<DrlRule> rules = new ArrayList<>();
+
+    @Test
+    void segment_ShouldCollectImportsAndRules() throws IOException {
+        // Arrange
+        String drl = """
+                package uk.gov.moj.cpp.accesscontrol;
+
+                import static com.example.GroupType.*;
+                import com.example.RuleConstants;
+
+                rule "Query - get hearing"
+                  salience 10
+                  when
+                    $action: Action(name == "hearing.get-hearing");
+                    eval(userAndGroupProvider.isMemberOfAnyOfTheSuppliedGroups($action, hearingGroups()));
+                  then
+                    $outcome.setSuccess(true);
+                end
+                """;
+
+        // Act
+        segment(drl);
+
+        // Assert
+        assertEquals(List.of("com.example.GroupType.*", "com.example.RuleConstants"), imports);
+        assertEquals(1, rules.size());
+        assertEquals("Query - get hearing", rules.get(0).name());
+        assertEquals("""
+                $action: Action(name == "hearing.get-hearing");
+                    eval(userAndGroupProvider.isMemberOfAnyOfTheSuppliedGroups($action, hearingGroups()));""",
+                rules.get(0).whenSection());
+    }
+
+    @Test
+    void segment_ShouldIgnoreKeywordsInStringsCommentsAndMemberNames() throws IOException {
+        // Arrange
+        String drl = """
+                rule "when then end"
+                  when
+                    // then end
+                    $action: Action(name == "then.end");
+                    /* rule "nested" when then end */
+                  then
+                    $range.end();
+                    $outcome.setMessage("end");
+                end
+
+                rule "second"
+                  when
+                    $action: Action(name == "second");
+                  then
+                end
+                """;
+
+        // Act
+        segment(drl);
+
+        // Assert
+        assertEquals(2, rules.size());
+        assertEquals("when then end", rules.get(0).name());
+        String whenSection = rules.get(0).whenSection();
+        assertTrue(whenSection.contains("$action: Action(name == \"then.end\");"), "String literal should be kept");
+        assertTrue(!whenSection.contains("nested") && !whenSection.contains("//"), "Comments should be blanked out");
+        assertEquals("second", rules.get(1).name());
+    }
+
+    @Test
+    void segment_ShouldEndUnterminatedStringsAtEndOfLineAndDropIncompleteRules() throws IOException {
+        // Arrange
+        String drl = """
+                rule "stray quote"
+                  when
+                    eval(userAndGroupProvider.isMemberOfAnyOfTheSuppliedGroups($action, "CMS""));
+                  then
+                end
+
+                rule "incomplete"
+                  when
+                    $action: Action(name == "incomplete");
+                """;
+
+        // Act
+        segment(drl);
+
+        // Assert
+        assertEquals(1, rules.size());
+        assertEquals("stray quote", rules.get(0).name());
+    }
+
+    private void segment(String drl) throws IOException {
+        DrlRuleSegmenter.segment(new StringReader(drl), new DrlSegmentVisitor() {
+            @Override
+            public void visitImport(String importTarget) {
+                imports.add(importTarget);
+            }
+
+            @Override
+            public void visitRule(DrlRule rule) {
+                rules.add(rule);
+            }
+        });
+    }
+}
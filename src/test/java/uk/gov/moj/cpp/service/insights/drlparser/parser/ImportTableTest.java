@@ -0,0 +1,58 @@
+package uk.gov.moj.cpp.service.insights.drlparser.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Optional;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ImportTableTest {
+
+    private ImportTable imports;
+
+    @BeforeEach
+    void setUp() {
+        imports = new ImportTable();
+        imports.addImport("com.example.accesscontrol.Outcome");
+        imports.addImport("com.example.GroupType.*");
+        imports.addImport("com.example.RuleConstants.*");
+        imports.addImport("com.example.Permissions.archivePermissions");
+    }
+
+    @Test
+    void resolveMemberOwner_ShouldUseExplicitImportCaseInsensitively() {
+        // Act
+        Optional<String> owner = imports.resolveMemberOwner("ARCHIVEPERMISSIONS", className -> true);
+
+        // Assert
+        assertEquals(Optional.of("com.example.Permissions"), owner);
+    }
+
+    @Test
+    void resolveMemberOwner_ShouldFallBackToTheFirstWildcardDeclaringTheMember() {
+        // Arrange
+        Set<String> declaringClasses = Set.of("com.example.RuleConstants");
+
+        // Act
+        Optional<String> owner = imports.resolveMemberOwner("adminGroups", declaringClasses::contains);
+        Optional<String> unknownOwner = imports.resolveMemberOwner("unknownGroups", className -> false);
+
+        // Assert
+        assertEquals(Optional.of("com.example.RuleConstants"), owner, "Later wildcard declaring the member should win");
+        assertEquals(Optional.of("com.example.GroupType"), unknownOwner, "First wildcard should be used when no class declares the member");
+    }
+
+    @Test
+    void resolveClass_ShouldResolveExplicitAndWildcardImportedClasses() {
+        // Act
+        Optional<String> explicitClass = imports.resolveClass("outcome", className -> false);
+        Optional<String> wildcardClass = imports.resolveClass("RuleConstants", "com.example.RuleConstants"::equals);
+
+        // Assert
+        assertEquals(Optional.of("com.example.accesscontrol.Outcome"), explicitClass);
+        assertEquals(Optional.of("com.example.RuleConstants"), wildcardClass);
+        assertEquals(Optional.empty(), new ImportTable().resolveClass("RuleConstants", className -> true));
+    }
+}
@@ -0,0 +1,141 @@
+package uk.gov.moj.cpp.service.insights.drlparser.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import uk.gov.moj.cpp.service.insights.drlparser.parser.model.DrlBuildState;
+import uk.gov.moj.cpp.service.insights.util.BuildStateUtil;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+
+import org.apache.maven.plugin.logging.Log;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class IncrementalDrlParserTest {
+
+    private static final String GROUPS_SOURCE = """
+            package com.example;
+
+            public final class Groups {
+                public static final String ADMINS = "%s";
+            }
+            """;
+
+    @TempDir
+    Path tempDir;
+
+    private DrlParser drlParser;
+    private IncrementalDrlParser incrementalParser;
+    private List<Path> paths;
+    private Path dependentDrl;
+    private Path groupsSource;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Log log = mock(Log.class);
+        drlParser = spy(new DrlParser(log, Executors.newFixedThreadPool(2)));
+        incrementalParser = new IncrementalDrlParser(log, drlParser);
+
+        Path apiDir = tempDir.resolve("sample-command/sample-command-api");
+        Path rulesDir = Files.createDirectories(apiDir.resolve("src/main/resources/rules"));
+        dependentDrl = Files.writeString(rulesDir.resolve("admin-command.drl"), """
+                import com.example.Groups;
+
+                rule "Admin rule"
+                  when
+                    $action: Action(name == "sample.archive-case");
+                    eval(userAndGroupProvider.isMemberOfAnyOfTheSuppliedGroups($action, Groups.ADMINS));
+                  then
+                    $outcome.setSuccess(true);
+                end
+                """);
+        Files.writeString(rulesDir.resolve("listing-command.drl"), """
+                rule "Listing rule"
+                  when
+                    $action: Action(name == "sample.list-case");
+                    eval(userAndGroupProvider.isMemberOfAnyOfTheSuppliedGroups($action, "Listing Officers"));
+                  then
+                    $outcome.setSuccess(true);
+                end
+                """);
+        Path sourceDir = Files.createDirectories(apiDir.resolve("src/main/java/com/example"));
+        groupsSource = Files.writeString(sourceDir.resolve("Groups.java"), GROUPS_SOURCE.formatted("Court Admins"));
+        paths = List.of(apiDir);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        drlParser.shutdownExecutor();
+    }
+
+    @Test
+    void parse_ShouldReuseUnchangedFiles() throws Exception {
+        // Arrange
+        IncrementalDrlParser.Result first = incrementalParser.parse(paths, new JavaClassIndexer(), null);
+
+        // Act
+        IncrementalDrlParser.Result second = incrementalParser.parse(paths, new JavaClassIndexer(), roundTrip(first.state()));
+
+        // Assert
+        assertTrue(first.changed());
+        assertFalse(second.changed(), "Nothing changed since the previous run");
+        assertEquals(first.mappings().getCommandActionToGroupsMap(), second.mappings().getCommandActionToGroupsMap());
+        assertEquals(Set.of("Court Admins"), second.mappings().getCommandActionToGroupsMap().get("sample.archive-case"));
+        verify(drlParser).parseFiles(any(), any());
+    }
+
+    @Test
+    void parse_ShouldReparseOnlyFilesDependingOnChangedClass() throws Exception {
+        // Arrange
+        DrlBuildState state = roundTrip(incrementalParser.parse(paths, new JavaClassIndexer(), null).state());
+        Files.writeString(groupsSource, GROUPS_SOURCE.formatted("Court Managers"));
+
+        // Act
+        IncrementalDrlParser.Result result = incrementalParser.parse(paths, new JavaClassIndexer(), state);
+
+        // Assert
+        assertTrue(result.changed());
+        verify(drlParser).parseFiles(eq(List.of(dependentDrl)), any());
+        assertEquals(Set.of("Court Managers"), result.mappings().getCommandActionToGroupsMap().get("sample.archive-case"));
+        assertEquals(Set.of("Listing Officers"), result.mappings().getCommandActionToGroupsMap().get("sample.list-case"));
+    }
+
+    @Test
+    void parse_ShouldReparseEverythingWhenJavaSourceIsAdded() throws Exception {
+        // Arrange
+        DrlBuildState state = roundTrip(incrementalParser.parse(paths, new JavaClassIndexer(), null).state());
+        Files.writeString(groupsSource.resolveSibling("Roles.java"), "package com.example; public final class Roles {}");
+
+        // Act
+        IncrementalDrlParser.Result result = incrementalParser.parse(paths, new JavaClassIndexer(), state);
+
+        // Assert
+        assertTrue(result.changed());
+        verify(drlParser, times(2)).parseFiles(argThat(files -> files.size() == 2), any());
+        assertEquals(2, result.mappings().size());
+    }
+
+    private static DrlBuildState roundTrip(DrlBuildState state) {
+        StringWriter writer = new StringWriter();
+        BuildStateUtil.writeJson(state, writer);
+        return BuildStateUtil.readJson(new StringReader(writer.toString()), DrlBuildState.class).orElseThrow();
+    }
+}
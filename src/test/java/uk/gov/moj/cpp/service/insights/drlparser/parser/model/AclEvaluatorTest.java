@@ -0,0 +1,80 @@
+package uk.gov.moj.cpp.service.insights.drlparser.parser.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AclEvaluatorTest {
+
+    private AclEvaluator evaluator;
+
+    @BeforeEach
+    void setUp() {
+        ActionGroupMappings mappings = new ActionGroupMappings();
+        mappings.addCommandAction("hearing.add-defendant", Set.of("Court Clerks", "Legal Advisers"));
+        mappings.addCommandAction("hearing.remove-defendant", Set.of("Court Clerks"));
+        mappings.addCommandAction("hearing.share-results", Set.of("Legal Advisers"));
+        mappings.addQueryAction("hearing.get-hearing", Set.of("Court Clerks", "Listing Officers"));
+        evaluator = AclEvaluator.of(AclIndex.of(mappings));
+    }
+
+    @Test
+    void evaluate_ShouldPermitActionsAllowedToAnyGroupOfTheProfile() {
+        // Act
+        AclEvaluator.PermittedActions clerk = evaluator.evaluate(List.of("Court Clerks"));
+        AclEvaluator.PermittedActions combined = evaluator.evaluate(List.of("Legal Advisers", "Listing Officers", "Unknown Group"));
+        AclEvaluator.PermittedActions unknown = evaluator.evaluate(List.of("Unknown Group"));
+
+        // Assert
+        assertEquals(List.of("hearing.add-defendant", "hearing.remove-defendant"), List.copyOf(clerk.commandActions()));
+        assertEquals(Set.of("hearing.get-hearing"), clerk.queryActions());
+        assertEquals(List.of("hearing.add-defendant", "hearing.share-results"), List.copyOf(combined.commandActions()));
+        assertEquals(Set.of("hearing.get-hearing"), combined.queryActions());
+        assertTrue(unknown.commandActions().isEmpty() && unknown.queryActions().isEmpty());
+    }
+
+    @Test
+    void evaluate_ShouldHandleMoreGroupsThanFitInOneWord() {
+        // Arrange
+        ActionGroupMappings mappings = new ActionGroupMappings();
+        IntStream.range(0, 130).forEach(i -> mappings.addCommandAction("action-" + i, Set.of("group-" + i)));
+        AclEvaluator wideEvaluator = AclEvaluator.of(AclIndex.of(mappings));
+
+        // Act
+        Set<String> permitted = wideEvaluator.evaluate(List.of("group-3", "group-70", "group-129")).commandActions();
+
+        // Assert
+        assertEquals(Set.of("action-3", "action-70", "action-129"), permitted);
+    }
+
+    @Test
+    void evaluateAll_ShouldEvaluateProfilesReadFromJson() {
+        // Arrange
+        String json = """
+                {
+                  "clerk": ["Court Clerks"],
+                  "adviser": ["Legal Advisers"]
+                }
+                """;
+        StringWriter writer = new StringWriter();
+
+        // Act
+        Map<String, AclEvaluator.PermittedActions> results = evaluator.evaluateAll(AclEvaluator.readProfiles(new StringReader(json)));
+        AclEvaluator.writeJson(results, writer);
+
+        // Assert
+        assertEquals(List.of("clerk", "adviser"), List.copyOf(results.keySet()));
+        assertEquals(Set.of("hearing.add-defendant", "hearing.share-results"), results.get("adviser").commandActions());
+        assertTrue(writer.toString().contains("\"commandActions\""), "Export should name the permitted actions");
+        assertEquals(Set.of("hearing.get-hearing"), results.get("clerk").queryActions());
+    }
+}
@@ -0,0 +1,56 @@
+package uk.gov.moj.cpp.service.insights.drlparser.parser.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AclIndexTest {
+
+    private ActionGroupMappings mappings;
+
+    @BeforeEach
+    void setUp() {
+        mappings = new ActionGroupMappings();
+        mappings.addCommandAction("hearing.add-defendant", Set.of("Court Clerks", "Legal Advisers"));
+        mappings.addCommandAction("hearing.remove-defendant", Set.of("Court Clerks"));
+        mappings.addQueryAction("hearing.get-hearing", Set.of("Court Clerks", "Victims & Witness Care Admin"));
+    }
+
+    @Test
+    void of_ShouldIndexActionsByGroup() {
+        // Act
+        AclIndex index = AclIndex.of(mappings);
+
+        // Assert
+        assertEquals(List.of("hearing.add-defendant", "hearing.remove-defendant"),
+                List.copyOf(index.getCommandActions("Court Clerks")));
+        assertEquals(Set.of("hearing.get-hearing"), index.getQueryActions("Court Clerks"));
+        assertEquals(Set.of(), index.getQueryActions("Legal Advisers"));
+        assertEquals(Set.of("Court Clerks", "Legal Advisers", "Victims & Witness Care Admin"), index.getGroupsAndPermissions());
+    }
+
+    @Test
+    void writeJson_ShouldRoundTripBothDirections() {
+        // Arrange
+        AclIndex index = AclIndex.of(mappings);
+        StringWriter writer = new StringWriter();
+
+        // Act
+        index.writeJson(writer);
+        AclIndex loaded = AclIndex.readJson(new StringReader(writer.toString()));
+
+        // Assert
+        assertTrue(writer.toString().contains("\"Victims & Witness Care Admin\""), "Export should not escape HTML characters");
+        assertEquals(index.getCommandActionToGroupsMap(), loaded.getCommandActionToGroupsMap());
+        assertEquals(index.getQueryActionToGroupsMap(), loaded.getQueryActionToGroupsMap());
+        assertEquals(index.getCommandActions("Court Clerks"), loaded.getCommandActions("Court Clerks"));
+        assertEquals(index.getQueryActions("Victims & Witness Care Admin"), loaded.getQueryActions("Victims & Witness Care Admin"));
+    }
+}
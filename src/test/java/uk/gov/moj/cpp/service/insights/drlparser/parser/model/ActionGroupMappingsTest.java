@@ -1,8 +1,11 @@
 package uk.gov.moj.cpp.service.insights.drlparser.parser.model;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.HashSet;
 import java.util.Set;
 
 import org.junit.jupiter.api.Test;
@@ -36,4 +39,32 @@ class ActionGroupMappingsTest {
         assertTrue(mappings.getCommandActionToGroupsMap().isEmpty());
         assertTrue(mappings.getQueryActionToGroupsMap().isEmpty());
     }
+
+    @Test
+    void testIdenticalGroupSetsAreShared() {
+        ActionGroupMappings mappings = new ActionGroupMappings();
+        mappings.addCommandAction("CommandAction1", new HashSet<>(Set.of("Group A", "Group B")));
+        mappings.addCommandAction("CommandAction2", new HashSet<>(Set.of("Group B", "Group A")));
+        mappings.addQueryAction("QueryAction1", new HashSet<>(Set.of("Group A")));
+
+        Set<String> groups1 = mappings.getCommandActionToGroupsMap().get("CommandAction1");
+        Set<String> groups2 = mappings.getCommandActionToGroupsMap().get("CommandAction2");
+        assertSame(groups1, groups2);
+        assertEquals(2, mappings.distinctGroupSetCount());
+        assertThrows(UnsupportedOperationException.class, () -> groups1.add("Group C"));
+    }
+
+    @Test
+    void testMergeUnitesGroupSets() {
+        ActionGroupMappings mappings = new ActionGroupMappings();
+        mappings.addCommandAction("CommandAction1", Set.of("Group A"));
+        ActionGroupMappings other = new ActionGroupMappings();
+        other.addCommandAction("CommandAction1", Set.of("Group B"));
+        other.addQueryAction("QueryAction1", Set.of("Group A"));
+
+        mappings.merge(other);
+
+        assertEquals(Set.of("Group A", "Group B"), mappings.getCommandActionToGroupsMap().get("CommandAction1"));
+        assertSame(mappings.intern(Set.of("Group A")), mappings.getQueryActionToGroupsMap().get("QueryAction1"));
+    }
 }
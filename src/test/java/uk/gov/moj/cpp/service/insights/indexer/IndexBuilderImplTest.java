@@ -2,6 +2,7 @@ package uk.gov.moj.cpp.service.insights.indexer;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import uk.gov.moj.cpp.service.insights.model.ClassInfo;
@@ -514,4 +515,110 @@ class IndexBuilderImplTest {
         assertEquals(1, innerClassInfo.getMethods().size(), "InnerClass should have one method");
         assertTrue(innerClassInfo.getMethods().containsKey("com.example.NestedTestClass$InnerClass#innerMethod()"), "Method innerMethod should be present");
     }
+
+    @Test
+    void buildIndex_ShouldFreezeIndexAndResolveInterfaceDependencies(@TempDir Path tempDir) throws IOException {
+        // Arrange
+        Files.writeString(tempDir.resolve("TestClass.java"), """
+                package com.example;
+
+                import javax.inject.Inject;
+
+                public class TestClass {
+                    @Inject
+                    private Service service;
+                }
+                """);
+        Files.writeString(tempDir.resolve("Service.java"), """
+                package com.example;
+
+                public interface Service {
+                    void run();
+                }
+                """);
+        Files.writeString(tempDir.resolve("ServiceImpl.java"), """
+                package com.example;
+
+                public class ServiceImpl implements Service {
+                    public void run() {}
+                }
+                """);
+
+        // Act
+        indexBuilder.buildIndex(Collections.singletonList(tempDir));
+
+        // Assert
+        assertTrue(indexBuilder.isFrozen(), "Index should be frozen once built");
+        ClassInfo testClassInfo = indexBuilder.getClassInfo("com.example.TestClass").orElseThrow();
+        assertTrue(testClassInfo.isFrozen(), "ClassInfo should be frozen once the index is built");
+
+        DependencyInfo dependencyInfo = testClassInfo.getDependency("service").orElseThrow();
+        assertEquals("com.example.ServiceImpl", dependencyInfo.getType(), "Interface dependency should resolve to its implementation");
+        assertEquals(List.of("com.example.ServiceImpl"), dependencyInfo.getImplementingClasses(), "Implementing class should be recorded");
+
+        assertThrows(UnsupportedOperationException.class, () -> testClassInfo.getMethods().clear(), "Methods should be immutable");
+        assertThrows(IllegalStateException.class, () -> testClassInfo.setSuperClass("com.example.Other"), "Frozen ClassInfo should reject changes");
+        assertThrows(IllegalStateException.class, () -> indexBuilder.buildIndex(Collections.singletonList(tempDir)), "Frozen index should not be rebuilt");
+    }
+
+    @Test
+    void buildIndex_ShouldDispatchOverriddenMethodsWithBodies(@TempDir Path tempDir) throws IOException {
+        // Arrange
+        Files.writeString(tempDir.resolve("TestClass.java"), """
+                package com.example;
+
+                import javax.inject.Inject;
+
+                public class TestClass {
+                    @Inject
+                    private PoliteGreeter greeter;
+                }
+                """);
+        Files.writeString(tempDir.resolve("Greeter.java"), """
+                package com.example;
+
+                public interface Greeter {
+                    default String greet() {
+                        return "hi";
+                    }
+
+                    static Greeter plain() {
+                        return new PlainGreeter();
+                    }
+                }
+                """);
+        Files.writeString(tempDir.resolve("PoliteGreeter.java"), """
+                package com.example;
+
+                public class PoliteGreeter implements Greeter {
+                    @Override
+                    public String greet() {
+                        return "good morning";
+                    }
+                }
+                """);
+        Files.writeString(tempDir.resolve("PlainGreeter.java"), """
+                package com.example;
+
+                public class PlainGreeter implements Greeter {
+                    public void wave() {}
+
+                    public final void bow() {}
+                }
+                """);
+
+        // Act
+        indexBuilder.buildIndex(Collections.singletonList(tempDir));
+
+        // Assert
+        DispatchTable dispatchTable = indexBuilder.getDispatchTable();
+        assertEquals(List.of("com.example.Greeter#greet()", "com.example.PoliteGreeter#greet()"),
+                dispatchTable.getTargets("com.example.Greeter#greet()", false),
+                "Default method should dispatch to its override and to itself for the classes inheriting it");
+        assertEquals(List.of("com.example.PoliteGreeter#greet()"), dispatchTable.getTargets("com.example.Greeter#greet()", true),
+                "Injected implementation should be kept");
+        assertFalse(dispatchTable.isDispatched("com.example.Greeter#plain()"), "Static method should not be dispatched");
+        assertFalse(dispatchTable.isDispatched("com.example.PlainGreeter#wave()"), "Method no class overrides should not be dispatched");
+        assertFalse(dispatchTable.isDispatched("com.example.PoliteGreeter#greet()"), "Method no class overrides should not be dispatched");
+    }
 }
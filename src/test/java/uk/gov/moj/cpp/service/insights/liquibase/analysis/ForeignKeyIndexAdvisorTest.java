@@ -0,0 +1,101 @@
+package uk.gov.moj.cpp.service.insights.liquibase.analysis;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import uk.gov.moj.cpp.service.insights.liquibase.analysis.ForeignKeyIndexAdvisor.UnindexedForeignKey;
+import uk.gov.moj.cpp.service.insights.liquibase.model.Column;
+import uk.gov.moj.cpp.service.insights.liquibase.model.ForeignKey;
+import uk.gov.moj.cpp.service.insights.liquibase.model.Index;
+import uk.gov.moj.cpp.service.insights.liquibase.model.SchemaModel;
+import uk.gov.moj.cpp.service.insights.liquibase.model.Table;
+import uk.gov.moj.cpp.service.insights.liquibase.parser.changes.AddForeignKeyConstraintChange;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class ForeignKeyIndexAdvisorTest {
+
+    @Test
+    void findUnindexedForeignKeys_ShouldReportForeignKeysWithoutLeadingIndexColumn() {
+        // Arrange
+        Table hearing = table("hearing", List.of("id"),
+                List.of(new ForeignKey("case_id", "prosecution_case", "id"), new ForeignKey("court_centre_id", "court_centre", "id")),
+                List.of(new Index("hearing_case_id_idx", List.of("case_id", "hearing_day"), false),
+                        new Index("hearing_day_court_centre_idx", List.of("hearing_day", "court_centre_id"), false)),
+                "id", "case_id", "court_centre_id", "judge_id");
+        Map<String, Table> tables = schema(hearing, table("prosecution_case", List.of("id"), "id"),
+                table("court_centre", List.of("id"), "id"), table("judge", List.of("id"), "id"));
+
+        // Act
+        List<UnindexedForeignKey> declaredOnly = ForeignKeyIndexAdvisor.findUnindexedForeignKeys(tables, false);
+        List<UnindexedForeignKey> withInferred = ForeignKeyIndexAdvisor.findUnindexedForeignKeys(tables, true);
+
+        // Assert
+        assertEquals(List.of(new UnindexedForeignKey("hearing", "court_centre_id", "court_centre", false)), declaredOnly,
+                "Index not starting with the column should not cover it");
+        assertEquals(List.of(
+                new UnindexedForeignKey("hearing", "court_centre_id", "court_centre", false),
+                new UnindexedForeignKey("hearing", "judge_id", "judge", true)), withInferred);
+    }
+
+    @Test
+    void findUnindexedForeignKeys_ShouldAcceptCompositeForeignKeyCoveredByIndexOrPrimaryKey() {
+        // Arrange
+        Table offence = table("offence", List.of("case_id", "case_version", "id"),
+                List.of(new ForeignKey("case_id", "case_version", "case_id", "offence_case_version_fk"),
+                        new ForeignKey("case_version", "case_version", "version", "offence_case_version_fk")),
+                List.of(), "case_id", "case_version", "id");
+        Table defendant = table("defendant", List.of("id"),
+                List.of(new ForeignKey("case_id", "case_version", "case_id", "defendant_case_version_fk"),
+                        new ForeignKey("case_version", "case_version", "version", "defendant_case_version_fk")),
+                List.of(new Index("defendant_case_idx", List.of("case_id", "case_version"), false)),
+                "id", "case_id", "case_version");
+
+        // Act
+        List<UnindexedForeignKey> unindexed = ForeignKeyIndexAdvisor.findUnindexedForeignKeys(schema(offence, defendant), false);
+
+        // Assert
+        assertEquals(List.of(), unindexed);
+    }
+
+    @Test
+    void findUnindexedForeignKeys_ShouldNotGroupIndependentForeignKeysToSameTable() {
+        // Arrange
+        SchemaModel schema = new SchemaModel(schema(table("transfer", List.of("id"), "id", "from_court_id", "to_court_id"),
+                table("court_centre", List.of("id"), "id")));
+        new AddForeignKeyConstraintChange("transfer", "from_court_id", "court_centre", "id", "transfer_from_court_fk").apply(schema);
+        new AddForeignKeyConstraintChange("transfer", "to_court_id", "court_centre", "id", "transfer_to_court_fk").apply(schema);
+        schema.addIndex("transfer", new Index("transfer_courts_idx", List.of("from_court_id", "to_court_id"), false));
+
+        // Act
+        List<UnindexedForeignKey> unindexed = ForeignKeyIndexAdvisor.findUnindexedForeignKeys(schema.tables(), false);
+
+        // Assert
+        assertEquals(List.of(new UnindexedForeignKey("transfer", "to_court_id", "court_centre", false)), unindexed,
+                "Second column of the index should not cover a foreign key of another constraint");
+    }
+
+    private static Map<String, Table> schema(Table... tables) {
+        Map<String, Table> schema = new LinkedHashMap<>();
+        for (Table table : tables) {
+            schema.put(table.name(), table);
+        }
+        return schema;
+    }
+
+    private static Table table(String name, List<String> primaryKeys, String... columnNames) {
+        return table(name, primaryKeys, List.of(), List.of(), columnNames);
+    }
+
+    private static Table table(String name, List<String> primaryKeys, List<ForeignKey> foreignKeys, List<Index> indexes,
+                               String... columnNames) {
+        Map<String, Column> columns = new LinkedHashMap<>();
+        for (String columnName : columnNames) {
+            columns.put(columnName, new Column(columnName, "UUID", primaryKeys.contains(columnName), true, null, null));
+        }
+        return new Table(name, columns, primaryKeys, foreignKeys, indexes);
+    }
+}
@@ -0,0 +1,67 @@
+package uk.gov.moj.cpp.service.insights.liquibase.analysis;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import uk.gov.moj.cpp.service.insights.liquibase.analysis.RedundantIndexDetector.RedundantIndex;
+import uk.gov.moj.cpp.service.insights.liquibase.analysis.RedundantIndexDetector.Redundancy;
+import uk.gov.moj.cpp.service.insights.liquibase.model.Index;
+import uk.gov.moj.cpp.service.insights.liquibase.model.Table;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class RedundantIndexDetectorTest {
+
+    @Test
+    void findRedundantIndexes_ShouldReportDuplicatesAndPrefixesOfIndexesAndPrimaryKey() {
+        // Arrange
+        Table hearing = table("hearing", List.of("id", "version"),
+                new Index("hearing_id_idx", List.of("id"), false),
+                new Index("hearing_pk_copy_idx", List.of("ID", "version"), true),
+                new Index("hearing_case_idx", List.of("case_id"), false),
+                new Index("hearing_case_day_idx", List.of("case_id", "hearing_day"), false),
+                new Index("hearing_day_idx", List.of("hearing_day"), false),
+                new Index("hearing_day_copy_idx", List.of("hearing_day"), false),
+                new Index("hearing_reference_uq", List.of("reference"), true),
+                new Index("hearing_reference_type_idx", List.of("reference", "type"), false));
+        Table court = table("court_centre", List.of("id"), new Index("court_centre_code_idx", List.of("code"), false));
+        Map<String, Table> tables = new LinkedHashMap<>();
+        tables.put("hearing", hearing);
+        tables.put("court_centre", court);
+
+        // Act
+        Map<String, List<RedundantIndex>> redundantIndexes = RedundantIndexDetector.findRedundantIndexes(tables);
+
+        // Assert
+        assertEquals(List.of("hearing"), List.copyOf(redundantIndexes.keySet()));
+        assertEquals(List.of(
+                new RedundantIndex("hearing", "hearing_id_idx", List.of("id"), Redundancy.PREFIX, "PRIMARY KEY"),
+                new RedundantIndex("hearing", "hearing_pk_copy_idx", List.of("ID", "version"), Redundancy.DUPLICATE, "PRIMARY KEY"),
+                new RedundantIndex("hearing", "hearing_case_idx", List.of("case_id"), Redundancy.PREFIX, "hearing_case_day_idx"),
+                new RedundantIndex("hearing", "hearing_day_copy_idx", List.of("hearing_day"), Redundancy.DUPLICATE, "hearing_day_idx")),
+                redundantIndexes.get("hearing"), "The unique index prefixing a wider index should be kept");
+    }
+
+    @Test
+    void findRedundantIndexes_ShouldKeepUniqueIndexOverItsNonUniqueDuplicate() {
+        // Arrange
+        Table offence = table("offence", List.of("id"),
+                new Index("offence_code_idx", List.of("code", "version"), false),
+                new Index("offence_code_uq", List.of("code", "version"), true));
+
+        // Act
+        List<RedundantIndex> redundantIndexes = RedundantIndexDetector.findRedundantIndexes(offence);
+
+        // Assert
+        assertEquals(List.of(new RedundantIndex("offence", "offence_code_idx", List.of("code", "version"),
+                Redundancy.DUPLICATE, "offence_code_uq")), redundantIndexes);
+    }
+
+    private static Table table(String name, List<String> primaryKeys, Index... indexes) {
+        return new Table(name, new LinkedHashMap<>(), new ArrayList<>(primaryKeys), new ArrayList<>(), new ArrayList<>(List.of(indexes)));
+    }
+}
@@ -0,0 +1,76 @@
+package uk.gov.moj.cpp.service.insights.liquibase.collector;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import uk.gov.moj.cpp.service.insights.liquibase.collector.ChangeLogIncludeResolver.Include;
+import uk.gov.moj.cpp.service.insights.liquibase.exception.ChangeLogParsingException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ChangeLogIncludeResolverTest {
+
+    private static final String EMPTY_CHANGE_LOG = "<databaseChangeLog/>";
+
+    @TempDir
+    Path tempDir;
+
+    private Path changeLogsDir;
+    private Path master;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        changeLogsDir = Files.createDirectories(tempDir.resolve("src/main/resources/liquibase"));
+        master = write("master.xml");
+        write("changesets/001-create-case.xml");
+        write("changesets/002-create-hearing.xml");
+        write("changesets/sub/003-add-index.xml");
+    }
+
+    @Test
+    void resolve_ShouldFindIncludesLikeClasspathResources() throws Exception {
+        // Arrange
+        Include include = new Include("liquibase/changesets/002-create-hearing.xml", false, false, 0);
+
+        // Act
+        List<Path> files = new ChangeLogIncludeResolver(changeLogsDir.toFile()).resolve(master, include);
+
+        // Assert
+        assertEquals(List.of(changeLogsDir.resolve("changesets/002-create-hearing.xml").toAbsolutePath()), files);
+    }
+
+    @Test
+    void resolve_ShouldListIncludeAllDirectoryInPathOrder() throws Exception {
+        // Arrange
+        Include include = new Include("changesets/", true, true, 0);
+
+        // Act
+        List<Path> files = new ChangeLogIncludeResolver(changeLogsDir.toFile()).resolve(master, include);
+
+        // Assert
+        assertEquals(List.of("001-create-case.xml", "002-create-hearing.xml", "003-add-index.xml"),
+                files.stream().map(file -> file.getFileName().toString()).toList());
+    }
+
+    @Test
+    void resolve_ShouldRejectMissingInclude() {
+        // Arrange
+        Include include = new Include("missing.xml", false, true, 0);
+
+        // Act & Assert
+        assertThrows(ChangeLogParsingException.class, () -> new ChangeLogIncludeResolver(changeLogsDir.toFile()).resolve(master, include));
+    }
+
+    private Path write(String relativePath) throws IOException {
+        Path file = changeLogsDir.resolve(relativePath);
+        Files.createDirectories(file.getParent());
+        return Files.writeString(file, EMPTY_CHANGE_LOG).toAbsolutePath();
+    }
+}
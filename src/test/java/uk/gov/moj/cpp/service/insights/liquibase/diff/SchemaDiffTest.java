@@ -0,0 +1,86 @@
+package uk.gov.moj.cpp.service.insights.liquibase.diff;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import uk.gov.moj.cpp.service.insights.liquibase.diff.SchemaDiff.TableDiff;
+import uk.gov.moj.cpp.service.insights.liquibase.model.Column;
+import uk.gov.moj.cpp.service.insights.liquibase.model.ForeignKey;
+import uk.gov.moj.cpp.service.insights.liquibase.model.Index;
+import uk.gov.moj.cpp.service.insights.liquibase.model.Table;
+
+import java.io.StringWriter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class SchemaDiffTest {
+
+    @Test
+    void between_ShouldReportAddedDroppedAndModifiedTables() {
+        // Arrange
+        Table baseHearing = table("hearing", List.of(column("id", "UUID"), column("listed_date", "DATE")), List.of());
+        Table hearing = table("hearing", List.of(column("id", "UUID"), column("listed_date", "TIMESTAMP"), column("case_id", "UUID")),
+                List.of(new ForeignKey("case_id", "prosecution_case", "id")), List.of(new Index("hearing_case_id_idx", List.of("case_id"), false)));
+        Map<String, Table> base = schema(table("court_centre", List.of(column("id", "UUID")), List.of()), baseHearing);
+        Map<String, Table> target = schema(hearing, table("prosecution_case", List.of(column("id", "UUID")), List.of()));
+
+        // Act
+        SchemaDiff diff = SchemaDiff.between(base, target);
+
+        // Assert
+        assertEquals(List.of("prosecution_case"), diff.addedTables().stream().map(Table::name).toList());
+        assertEquals(List.of("court_centre"), diff.droppedTables().stream().map(Table::name).toList());
+        TableDiff hearingDiff = diff.modifiedTables().get(0);
+        assertEquals(List.of("case_id"), hearingDiff.addedColumns().stream().map(Column::name).toList());
+        assertEquals("TIMESTAMP", hearingDiff.modifiedColumns().get(0).target().type());
+        assertEquals(List.of(new ForeignKey("case_id", "prosecution_case", "id")), hearingDiff.addedForeignKeys());
+        assertEquals(1, hearingDiff.addedIndexes().size());
+        assertNull(hearingDiff.basePrimaryKey(), "Unchanged primary key should be left out");
+    }
+
+    @Test
+    void writeReports_ShouldDescribeTheDifferences() throws Exception {
+        // Arrange
+        Table hearing = table("hearing", List.of(column("id", "UUID")), List.of());
+        SchemaDiff diff = SchemaDiff.between(schema(), schema(hearing));
+        StringWriter json = new StringWriter();
+        StringWriter html = new StringWriter();
+
+        // Act
+        SchemaDiffReportWriter.writeJson(diff, json);
+        SchemaDiffReportWriter.writeHtml(diff, "Schema diff: <base> vs work", html);
+
+        // Assert
+        assertTrue(json.toString().contains("\"addedTables\""));
+        assertTrue(json.toString().contains("\"name\": \"hearing\""));
+        assertTrue(html.toString().contains("Schema diff: &lt;base&gt; vs work"));
+        assertTrue(html.toString().contains("<strong>hearing</strong> (id)"));
+        assertTrue(SchemaDiff.between(schema(hearing), schema(hearing)).isEmpty());
+    }
+
+    private static Map<String, Table> schema(Table... tables) {
+        Map<String, Table> schema = new LinkedHashMap<>();
+        for (Table table : tables) {
+            schema.put(table.name(), table);
+        }
+        return schema;
+    }
+
+    private static Table table(String name, List<Column> columns, List<ForeignKey> foreignKeys) {
+        return table(name, columns, foreignKeys, List.of());
+    }
+
+    private static Table table(String name, List<Column> columns, List<ForeignKey> foreignKeys, List<Index> indexes) {
+        Map<String, Column> columnsByName = new LinkedHashMap<>();
+        columns.forEach(column -> columnsByName.put(column.name(), column));
+        return new Table(name, columnsByName, List.of("id"), foreignKeys, indexes);
+    }
+
+    private static Column column(String name, String type) {
+        return new Column(name, type, "id".equals(name), true, null, null);
+    }
+}
@@ -0,0 +1,39 @@
+package uk.gov.moj.cpp.service.insights.liquibase.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import uk.gov.moj.cpp.service.insights.liquibase.model.SchemaBuildState.ServiceState;
+import uk.gov.moj.cpp.service.insights.util.BuildStateUtil;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import org.junit.jupiter.api.Test;
+
+class SchemaBuildStateTest {
+
+    @Test
+    void readJson_ShouldReadBackWrittenState() {
+        // Arrange
+        SchemaBuildState state = new SchemaBuildState();
+        state.putService("hearing", new ServiceState("abc123", 42));
+        StringWriter json = new StringWriter();
+
+        // Act
+        BuildStateUtil.writeJson(state, json);
+        SchemaBuildState readState = BuildStateUtil.readJson(new StringReader(json.toString()), SchemaBuildState.class).orElseThrow();
+
+        // Assert
+        ServiceState hearing = readState.getService("hearing").orElseThrow();
+        assertEquals("abc123", hearing.getHash());
+        assertEquals(42, hearing.getTableCount());
+        assertTrue(readState.getService("listing").isEmpty());
+    }
+
+    @Test
+    void readJson_ShouldIgnoreStateOfAnotherVersion() {
+        // Act & Assert
+        assertTrue(BuildStateUtil.readJson(new StringReader("{\"version\":0,\"services\":{}}"), SchemaBuildState.class).isEmpty());
+    }
+}
@@ -0,0 +1,65 @@
+package uk.gov.moj.cpp.service.insights.liquibase.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import uk.gov.moj.cpp.service.insights.liquibase.parser.changes.AddColumnChange;
+import uk.gov.moj.cpp.service.insights.liquibase.parser.changes.Change;
+import uk.gov.moj.cpp.service.insights.liquibase.parser.changes.ChangeSet;
+import uk.gov.moj.cpp.service.insights.liquibase.parser.changes.CreateTableChange;
+import uk.gov.moj.cpp.service.insights.liquibase.parser.changes.DropTableChange;
+import uk.gov.moj.cpp.service.insights.liquibase.parser.changes.RenameTableChange;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class SchemaHistoryTest {
+
+    @Test
+    void getSchema_ShouldReturnTheSchemaAfterEachChangeSet() {
+        // Arrange
+        SchemaHistory history = new SchemaHistory(2);
+
+        // Act
+        history.apply(changeSet("1", null, new CreateTableChange("case", List.of(column("id")), List.of())));
+        history.apply(changeSet("2", null, new CreateTableChange("hearing", List.of(column("id")), List.of())));
+        history.apply(changeSet("3", "release-1", new AddColumnChange("case", List.of(column("urn")))));
+        history.apply(changeSet("4", null, new RenameTableChange("case", "prosecution_case")));
+        history.apply(changeSet("5", null, new DropTableChange("hearing")));
+
+        // Assert
+        assertEquals(5, history.size());
+        assertEquals(List.of("id"), List.copyOf(history.getSchema(0).get("case").columns().keySet()));
+        assertEquals(List.of("case", "hearing"), List.copyOf(history.getSchema(1).keySet()));
+        assertEquals(List.of("id", "urn"), List.copyOf(history.getSchemaAsOf("release-1").orElseThrow().get("case").columns().keySet()));
+        assertEquals(List.of("hearing", "prosecution_case"), List.copyOf(history.getSchemaAsOf("4").orElseThrow().keySet()));
+        assertEquals(List.of("prosecution_case"), List.copyOf(history.getCurrentSchema().keySet()));
+        assertTrue(history.getSchemaAsOf("unknown").isEmpty());
+    }
+
+    @Test
+    void apply_ShouldShareTablesNotModifiedByTheChangeSet() {
+        // Arrange
+        SchemaHistory history = new SchemaHistory();
+        history.apply(changeSet("1", null, new CreateTableChange("case", List.of(column("id")), List.of())));
+
+        // Act
+        history.apply(changeSet("2", null, new CreateTableChange("hearing", List.of(column("id")), List.of())));
+
+        // Assert
+        Map<String, Table> before = history.getSchema(0);
+        Map<String, Table> after = history.getSchema(1);
+        assertSame(before.get("case"), after.get("case"));
+    }
+
+    private static ChangeSet changeSet(String id, String tag, Change change) {
+        return new ChangeSet(id, "dev", tag, List.of(change));
+    }
+
+    private static Column column(String name) {
+        return new Column(name, "UUID", false, true, null, null);
+    }
+}
@@ -0,0 +1,100 @@
+package uk.gov.moj.cpp.service.insights.liquibase.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import uk.gov.moj.cpp.service.insights.liquibase.model.SchemaModel.InboundForeignKey;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SchemaModelTest {
+
+    private SchemaModel schema;
+
+    @BeforeEach
+    void setUp() {
+        schema = new SchemaModel();
+        schema.putTable(table("prosecution_case", "id"));
+        schema.putTable(table("defendant", "id", "case_id"));
+        schema.putTable(table("offence", "id", "case_id"));
+        schema.addForeignKey("defendant", new ForeignKey("case_id", "prosecution_case", "id"));
+        schema.addForeignKey("offence", new ForeignKey("case_id", "prosecution_case", "id"));
+    }
+
+    @Test
+    void renameTable_ShouldRetargetInboundForeignKeys() {
+        // Act
+        schema.renameTable("prosecution_case", "court_case");
+
+        // Assert
+        assertEquals(List.of(new ForeignKey("case_id", "court_case", "id")), schema.tables().get("defendant").foreignKeys());
+        assertEquals(List.of(new ForeignKey("case_id", "court_case", "id")), schema.tables().get("offence").foreignKeys());
+        assertEquals(List.of(), schema.getInboundForeignKeys("prosecution_case"));
+        assertEquals(2, schema.getInboundForeignKeys("court_case").size());
+    }
+
+    @Test
+    void renameColumn_ShouldUpdateOwnAndInboundForeignKeys() {
+        // Act
+        schema.renameColumn("prosecution_case", "id", "case_id");
+        schema.renameColumn("offence", "case_id", "prosecution_case_id");
+
+        // Assert
+        assertEquals(List.of(new ForeignKey("case_id", "prosecution_case", "case_id")), schema.tables().get("defendant").foreignKeys());
+        assertEquals(List.of(new ForeignKey("prosecution_case_id", "prosecution_case", "case_id")), schema.tables().get("offence").foreignKeys());
+        assertEquals(List.of(
+                        new InboundForeignKey("defendant", new ForeignKey("case_id", "prosecution_case", "case_id")),
+                        new InboundForeignKey("offence", new ForeignKey("prosecution_case_id", "prosecution_case", "case_id"))),
+                schema.getInboundForeignKeys("prosecution_case"));
+    }
+
+    @Test
+    void dropTableAndColumn_ShouldRemoveForeignKeysFromTheIndex() {
+        // Act
+        schema.dropColumn("offence", "case_id");
+        schema.dropTable("prosecution_case");
+
+        // Assert
+        assertTrue(schema.tables().get("defendant").foreignKeys().isEmpty());
+        assertTrue(schema.tables().get("offence").foreignKeys().isEmpty());
+        assertEquals(List.of(), schema.getInboundForeignKeys("prosecution_case"));
+    }
+
+    @Test
+    void tables_ShouldOnlyBeChangedThroughTheSchema() {
+        // Arrange
+        Table defendant = schema.tables().get("defendant");
+        schema.takeModifiedTables();
+
+        // Act
+        schema.putColumn("defendant", new Column("Offence_ID", "UUID", false, true, null, null));
+        schema.addPrimaryKey("defendant", "id");
+        schema.addPrimaryKey("defendant", "id");
+        schema.addIndex("defendant", new Index("defendant_case_idx", List.of("case_id"), false));
+
+        // Assert
+        assertThrows(UnsupportedOperationException.class,
+                () -> defendant.foreignKeys().add(new ForeignKey("id", "offence", "id")));
+        assertThrows(UnsupportedOperationException.class, () -> defendant.columns().remove("case_id"));
+        assertEquals(List.of("id", "case_id", "offence_id"), List.copyOf(defendant.columns().keySet()));
+        assertEquals(List.of("id"), defendant.primaryKeys());
+        assertEquals(1, defendant.indexes().size());
+        assertEquals(Set.of("defendant"), schema.takeModifiedTables());
+    }
+
+    private static Table table(String name, String... columnNames) {
+        Map<String, Column> columns = new LinkedHashMap<>();
+        for (String columnName : columnNames) {
+            columns.put(columnName, new Column(columnName, "UUID", "id".equals(columnName), false, null, null));
+        }
+        return new Table(name, columns, new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+    }
+}
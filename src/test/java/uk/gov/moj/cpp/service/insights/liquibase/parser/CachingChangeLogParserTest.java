@@ -0,0 +1,54 @@
+package uk.gov.moj.cpp.service.insights.liquibase.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import uk.gov.moj.cpp.service.insights.liquibase.exception.ChangeLogParsingException;
+import uk.gov.moj.cpp.service.insights.liquibase.parser.changes.ChangeLog;
+import uk.gov.moj.cpp.service.insights.liquibase.parser.changes.ChangeSet;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CachingChangeLogParserTest {
+
+    private static final String CHANGE_LOG = """
+            <databaseChangeLog xmlns="http://www.liquibase.org/xml/ns/dbchangelog">
+                <changeSet id="1" author="dev"><createTable tableName="%s"/></changeSet>
+            </databaseChangeLog>
+            """;
+
+    @Test
+    void readChangeSets_ShouldParseIdenticalContentOnlyOnce(@TempDir Path tempDir) throws Exception {
+        // Arrange
+        File base = Files.writeString(Files.createDirectories(tempDir.resolve("base")).resolve("001.xml"), CHANGE_LOG.formatted("hearing")).toFile();
+        File work = Files.writeString(Files.createDirectories(tempDir.resolve("work")).resolve("001.xml"), CHANGE_LOG.formatted("hearing")).toFile();
+        File changed = Files.writeString(tempDir.resolve("work").resolve("002.xml"), CHANGE_LOG.formatted("defendant")).toFile();
+        AtomicInteger parseCount = new AtomicInteger();
+        CachingChangeLogParser parser = new CachingChangeLogParser(new ChangeLogParser() {
+            @Override
+            public ChangeLog readChangeLog(File xmlFile) throws ChangeLogParsingException {
+                parseCount.incrementAndGet();
+                return super.readChangeLog(xmlFile);
+            }
+        });
+
+        // Act
+        List<ChangeSet> baseChangeSets = parser.readChangeSets(base);
+        List<ChangeSet> workChangeSets = parser.readChangeSets(work);
+        List<ChangeSet> changedChangeSets = parser.readChangeSets(changed);
+
+        // Assert
+        assertSame(baseChangeSets, workChangeSets, "File with the same content should not be parsed again");
+        assertNotSame(baseChangeSets, changedChangeSets);
+        assertEquals(2, parseCount.get());
+        assertEquals(1, parser.getHits());
+    }
+}
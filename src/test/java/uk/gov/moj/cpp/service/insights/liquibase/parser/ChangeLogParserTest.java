@@ -0,0 +1,137 @@
+package uk.gov.moj.cpp.service.insights.liquibase.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import uk.gov.moj.cpp.service.insights.liquibase.exception.ChangeLogParsingException;
+import uk.gov.moj.cpp.service.insights.liquibase.model.ForeignKey;
+import uk.gov.moj.cpp.service.insights.liquibase.model.Index;
+import uk.gov.moj.cpp.service.insights.liquibase.model.Table;
+import uk.gov.moj.cpp.service.insights.liquibase.parser.changes.Change;
+import uk.gov.moj.cpp.service.insights.liquibase.parser.changes.ChangeSet;
+import uk.gov.moj.cpp.service.insights.liquibase.parser.changes.CreateIndexChange;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ChangeLogParserTest {
+
+    private static final String CHANGE_LOG = """
+            <?xml version="1.0" encoding="UTF-8"?>
+            <databaseChangeLog xmlns="http://www.liquibase.org/xml/ns/dbchangelog">
+                <changeSet id="1" author="dev">
+                    <comment>Create the hearing tables</comment>
+                    <createTable tableName="Hearing">
+                        <column name="ID" type="UUID">
+                            <constraints primaryKey="true" nullable="false"/>
+                        </column>
+                        <column name="court_centre_id" type="UUID">
+                            <constraints referencedTableName="court_centre" referencedColumnNames="id"/>
+                        </column>
+                    </createTable>
+                    <rollback>
+                        <dropTable tableName="hearing"/>
+                    </rollback>
+                </changeSet>
+                <changeSet id="2" author="dev">
+                    <addColumn tableName="hearing">
+                        <column name="listed_date" type="DATE"/>
+                    </addColumn>
+                    <createIndex tableName="hearing" indexName="hearing_listed_date_idx" unique="false">
+                        <column name="LISTED_DATE"/>
+                    </createIndex>
+                    <renameColumn tableName="hearing" oldColumnName="listed_date" newColumnName="listing_date"/>
+                    <tagDatabase tag="release-1"/>
+                </changeSet>
+            </databaseChangeLog>
+            """;
+
+    private final ChangeLogParser parser = new ChangeLogParser();
+
+    @Test
+    void readChanges_ShouldReadTypedChangesInOrderWithoutRollbacks(@TempDir Path tempDir) throws Exception {
+        // Arrange
+        Path changeLog = Files.writeString(tempDir.resolve("001-hearing.xml"), CHANGE_LOG);
+
+        // Act
+        List<Change> changes = parser.readChanges(changeLog.toFile());
+
+        // Assert
+        assertEquals(List.of("CreateTableChange", "AddColumnChange", "CreateIndexChange", "RenameColumnChange"),
+                changes.stream().map(change -> change.getClass().getSimpleName()).toList());
+        assertEquals(new CreateIndexChange("hearing", "hearing_listed_date_idx", false, List.of("listed_date")), changes.get(2));
+    }
+
+    @Test
+    void parseChangeLog_ShouldBuildTablesFromChanges(@TempDir Path tempDir) throws Exception {
+        // Arrange
+        Path changeLog = Files.writeString(tempDir.resolve("001-hearing.xml"), CHANGE_LOG);
+        Map<String, Table> tables = new LinkedHashMap<>();
+
+        // Act
+        parser.parseChangeLog(changeLog.toFile(), tables);
+
+        // Assert
+        Table hearing = tables.get("hearing");
+        assertEquals(List.of("id", "court_centre_id", "listing_date"), List.copyOf(hearing.columns().keySet()));
+        assertTrue(hearing.columns().get("id").isPrimaryKey());
+        assertEquals(List.of(new ForeignKey("court_centre_id", "court_centre", "id")), hearing.foreignKeys());
+        assertEquals(List.of("listed_date"), hearing.indexes().get(0).columns());
+    }
+
+    @Test
+    void readChangeSets_ShouldKeepChangeSetIdsAndTags(@TempDir Path tempDir) throws Exception {
+        // Arrange
+        Path changeLog = Files.writeString(tempDir.resolve("001-hearing.xml"), CHANGE_LOG);
+
+        // Act
+        List<ChangeSet> changeSets = parser.readChangeSets(changeLog.toFile());
+
+        // Assert
+        assertEquals(List.of("1", "2"), changeSets.stream().map(ChangeSet::id).toList());
+        assertEquals(1, changeSets.get(0).changes().size());
+        assertNull(changeSets.get(0).tag());
+        assertEquals("release-1", changeSets.get(1).tag());
+        assertEquals(3, changeSets.get(1).changes().size());
+    }
+
+    @Test
+    void parseChangeLog_ShouldRecordUniqueConstraintsAsUniqueIndexes(@TempDir Path tempDir) throws Exception {
+        // Arrange
+        Path changeLog = Files.writeString(tempDir.resolve("002-unique.xml"), """
+                <databaseChangeLog xmlns="http://www.liquibase.org/xml/ns/dbchangelog">
+                    <changeSet id="1" author="dev">
+                        <addUniqueConstraint tableName="hearing" constraintName="hearing_case_uq" columnNames="case_id, Hearing_Day"/>
+                        <addUniqueConstraint tableName="hearing" constraintName="hearing_reference_uq" columnNames="reference"/>
+                        <dropUniqueConstraint tableName="hearing" constraintName="hearing_reference_uq"/>
+                    </changeSet>
+                </databaseChangeLog>
+                """);
+        Map<String, Table> tables = new LinkedHashMap<>();
+
+        // Act
+        parser.parseChangeLog(changeLog.toFile(), tables);
+
+        // Assert
+        assertEquals(List.of(new Index("hearing_case_uq", List.of("case_id", "hearing_day"), true)),
+                tables.get("hearing").indexes());
+    }
+
+    @Test
+    void readChanges_ShouldRejectMalformedChangeLog(@TempDir Path tempDir) throws IOException {
+        // Arrange
+        Path changeLog = Files.writeString(tempDir.resolve("broken.xml"), "<databaseChangeLog><changeSet>");
+
+        // Act & Assert
+        assertThrows(ChangeLogParsingException.class, () -> parser.readChanges(changeLog.toFile()));
+    }
+}
@@ -0,0 +1,187 @@
+package uk.gov.moj.cpp.service.insights.liquibase.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import uk.gov.moj.cpp.service.insights.liquibase.exception.ChangeLogParsingException;
+import uk.gov.moj.cpp.service.insights.liquibase.model.Table;
+import uk.gov.moj.cpp.service.insights.liquibase.parser.changes.Change;
+import uk.gov.moj.cpp.service.insights.liquibase.parser.changes.ChangeLog;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ChangeLogPipelineTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @TempDir
+    Path tempDir;
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void buildSchema_ShouldApplyFilesInOrderWhateverOrderTheyAreParsedIn() throws Exception {
+        // Arrange
+        File createTable = changeLog("001-create.xml", "<createTable tableName=\"case\"><column name=\"id\" type=\"UUID\"/></createTable>");
+        File renameTable = changeLog("002-rename.xml", "<renameTable oldTableName=\"case\" newTableName=\"prosecution_case\"/>");
+        File addColumn = changeLog("003-add.xml", "<addColumn tableName=\"prosecution_case\"><column name=\"urn\" type=\"TEXT\"/></addColumn>");
+        ChangeLogPipeline pipeline = new ChangeLogPipeline(new SlowFirstFileParser(createTable), executor, 2);
+
+        // Act
+        Map<String, Table> tables = pipeline.buildSchema(List.of(createTable, renameTable, addColumn));
+
+        // Assert
+        assertEquals(List.of("prosecution_case"), List.copyOf(tables.keySet()));
+        assertEquals(List.of("id", "urn"), List.copyOf(tables.get("prosecution_case").columns().keySet()));
+    }
+
+    @Test
+    void buildSchema_ShouldReportFileThatCannotBeParsed() throws IOException {
+        // Arrange
+        File createTable = changeLog("001-create.xml", "<createTable tableName=\"case\"/>");
+        File broken = Files.writeString(tempDir.resolve("002-broken.xml"), "<databaseChangeLog>").toFile();
+        ChangeLogPipeline pipeline = new ChangeLogPipeline(new ChangeLogParser(), executor, 1);
+
+        // Act & Assert
+        ChangeLogParsingException exception = assertThrows(ChangeLogParsingException.class,
+                () -> pipeline.buildSchema(List.of(createTable, broken)));
+        assertEquals("Failed to parse change log: 002-broken.xml", exception.getMessage());
+    }
+
+    @Test
+    void buildSchema_ShouldRunIncludesAtTheirPlaceInTheMasterChangeLog() throws Exception {
+        // Arrange
+        changeLog("changesets/002-rename.xml", "<renameTable oldTableName=\"case\" newTableName=\"prosecution_case\"/>");
+        Files.writeString(tempDir.resolve("master.xml"), """
+                <databaseChangeLog xmlns="http://www.liquibase.org/xml/ns/dbchangelog">
+                    <changeSet id="001" author="dev"><createTable tableName="case"/></changeSet>
+                    <include file="changesets/002-rename.xml" relativeToChangelogFile="true"/>
+                    <changeSet id="003" author="dev">
+                        <addColumn tableName="prosecution_case"><column name="urn" type="TEXT"/></addColumn>
+                    </changeSet>
+                    <includeAll path="changesets/" relativeToChangelogFile="true"/>
+                </databaseChangeLog>
+                """);
+        ChangeLogPipeline pipeline = new ChangeLogPipeline(new ChangeLogParser(), executor, 2);
+
+        // Act
+        Map<String, Table> tables = pipeline.buildSchema(tempDir.toFile(), "master.xml");
+
+        // Assert
+        assertEquals(List.of("prosecution_case"), List.copyOf(tables.keySet()));
+        assertEquals(List.of("urn"), List.copyOf(tables.get("prosecution_case").columns().keySet()),
+                "The changeSet after the include should see the renamed table");
+    }
+
+    @Test
+    void buildSchema_ShouldBoundTheIncludedFilesParsedAhead() throws Exception {
+        // Arrange
+        for (int i = 1; i <= 12; i++) {
+            changeLog("changesets/%03d-create.xml".formatted(i), "<createTable tableName=\"table_%d\"/>".formatted(i));
+        }
+        Files.writeString(tempDir.resolve("changesets/005-nested.xml"), """
+                <databaseChangeLog xmlns="http://www.liquibase.org/xml/ns/dbchangelog">
+                    <includeAll path="../nested/" relativeToChangelogFile="true"/>
+                </databaseChangeLog>
+                """);
+        for (int i = 1; i <= 4; i++) {
+            changeLog("nested/%03d-create.xml".formatted(i), "<createTable tableName=\"nested_%d\"/>".formatted(i));
+        }
+        Files.writeString(tempDir.resolve("master.xml"), """
+                <databaseChangeLog xmlns="http://www.liquibase.org/xml/ns/dbchangelog">
+                    <includeAll path="changesets/" relativeToChangelogFile="true"/>
+                </databaseChangeLog>
+                """);
+        ExecutorService wideExecutor = Executors.newFixedThreadPool(8);
+        CountingParser parser = new CountingParser();
+        ChangeLogPipeline pipeline = new ChangeLogPipeline(parser, wideExecutor, 2);
+
+        // Act
+        Map<String, Table> tables;
+        try {
+            tables = pipeline.buildSchema(tempDir.toFile(), "master.xml");
+        } finally {
+            wideExecutor.shutdownNow();
+        }
+
+        // Assert
+        assertEquals(18, parser.parsed.get());
+        assertTrue(parser.maxInFlight.get() <= 2, "At most maxFilesAhead files should be parsed at once, was " + parser.maxInFlight);
+        assertEquals(List.of("table_1", "table_2", "table_3", "table_4", "table_5", "nested_1", "nested_2", "nested_3",
+                "nested_4", "table_6", "table_7", "table_8", "table_9", "table_10", "table_11", "table_12"),
+                List.copyOf(tables.keySet()));
+    }
+
+    private File changeLog(String fileName, String changes) throws IOException {
+        Path file = tempDir.resolve(fileName);
+        Files.createDirectories(file.getParent());
+        return Files.writeString(file, """
+                <databaseChangeLog xmlns="http://www.liquibase.org/xml/ns/dbchangelog">
+                    <changeSet id="%s" author="dev">%s</changeSet>
+                </databaseChangeLog>
+                """.formatted(fileName, changes)).toFile();
+    }
+
+    /**
+     * Parser recording how many files it parses at once.
+     */
+    private static final class CountingParser extends ChangeLogParser {
+        private final AtomicInteger parsed = new AtomicInteger();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger maxInFlight = new AtomicInteger();
+
+        @Override
+        public ChangeLog readChangeLog(File xmlFile) throws ChangeLogParsingException {
+            parsed.incrementAndGet();
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(20);
+                return super.readChangeLog(xmlFile);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ChangeLogParsingException("Interrupted while parsing " + xmlFile.getName(), e);
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Parser finishing the first file after the others.
+     */
+    private static final class SlowFirstFileParser extends ChangeLogParser {
+        private final File slowFile;
+
+        private SlowFirstFileParser(File slowFile) {
+            this.slowFile = slowFile;
+        }
+
+        @Override
+        public List<Change> readChanges(File xmlFile) throws ChangeLogParsingException {
+            if (xmlFile.equals(slowFile)) {
+                try {
+                    Thread.sleep(200);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return super.readChanges(xmlFile);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package uk.gov.moj.cpp.service.insights.liquibase.visualization;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import uk.gov.moj.cpp.service.insights.liquibase.model.SchemaBuildState;
+import uk.gov.moj.cpp.service.insights.liquibase.model.Service;
+import uk.gov.moj.cpp.service.insights.liquibase.model.Table;
+import uk.gov.moj.cpp.service.insights.liquibase.parser.ChangeLogParser;
+import uk.gov.moj.cpp.service.insights.liquibase.parser.ChangeLogPipeline;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.maven.plugin.logging.Log;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ServiceSchemaVisualizerTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+    private final Set<String> generatedServices = ConcurrentHashMap.newKeySet();
+
+    @TempDir
+    Path tempDir;
+
+    private File outputDir;
+    private IVisualizationGenerator generator;
+    private ServiceSchemaVisualizer visualizer;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        outputDir = Files.createDirectories(tempDir.resolve("html")).toFile();
+        generator = (tables, filePath, serviceName) -> {
+            generatedServices.add(serviceName);
+            Files.writeString(Path.of(filePath), String.join(",", tables.keySet()));
+        };
+        visualizer = new ServiceSchemaVisualizer(mock(Log.class), new ChangeLogPipeline(new ChangeLogParser(), executor, 4),
+                generator, null, 3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void visualize_ShouldVisualizeEveryServiceConcurrentlyAndLinkThemFromIndex() throws Exception {
+        // Arrange
+        List<Service> services = List.of(service("listing", "hearing_day"), service("hearing", "hearing", "defendant"),
+                service("progression", "prosecution_case"));
+
+        // Act
+        SchemaBuildState state = visualizer.visualize(services, null, outputDir, "schema.html", "index.html");
+
+        // Assert
+        assertEquals(Set.of("hearing", "listing", "progression"), generatedServices);
+        assertEquals("hearing,defendant", Files.readString(outputDir.toPath().resolve("hearing-schema.html")));
+        assertEquals(2, state.getService("hearing").orElseThrow().getTableCount());
+        String index = Files.readString(outputDir.toPath().resolve("index.html"));
+        assertTrue(index.indexOf("hearing-schema.html") < index.indexOf("listing-schema.html")
+                && index.indexOf("listing-schema.html") < index.indexOf("progression-schema.html"), "Services should be listed by name");
+        assertTrue(index.contains(">hearing</a></td><td>2</td>"));
+    }
+
+    @Test
+    void visualize_ShouldSkipServicesWhoseChangeLogsAreUnchanged() throws Exception {
+        // Arrange
+        List<Service> services = List.of(service("hearing", "hearing", "defendant"), service("listing", "hearing_day"));
+        SchemaBuildState previousState = visualizer.visualize(services, null, outputDir, "schema.html", "index.html");
+        generatedServices.clear();
+        writeChangeLog("listing", "hearing_day", "court_room");
+
+        // Act
+        SchemaBuildState state = visualizer.visualize(List.of(service("hearing"), service("listing")), previousState,
+                outputDir, "schema.html", "index.html");
+
+        // Assert
+        assertEquals(Set.of("listing"), generatedServices);
+        assertEquals(2, state.getService("hearing").orElseThrow().getTableCount(), "Skipped service should keep its state");
+        assertEquals(2, state.getService("listing").orElseThrow().getTableCount());
+        assertTrue(Files.readString(outputDir.toPath().resolve("index.html")).contains(">hearing</a></td><td>2</td>"));
+    }
+
+    @Test
+    void visualize_ShouldNotSkipServicesIncludingChangeLogsFromOutsideTheirLiquibaseDirectory() throws Exception {
+        // Arrange
+        ServiceSchemaVisualizer masterVisualizer = new ServiceSchemaVisualizer(mock(Log.class),
+                new ChangeLogPipeline(new ChangeLogParser(), executor, 4), generator, "master.xml", 3);
+        Path liquibaseDir = Files.createDirectories(tempDir.resolve("hearing").resolve("liquibase"));
+        Files.writeString(liquibaseDir.resolve("master.xml"), """
+                <databaseChangeLog xmlns="http://www.liquibase.org/xml/ns/dbchangelog">
+                    <include file="shared/001-create.xml"/>
+                </databaseChangeLog>
+                """);
+        Path sharedDir = Files.createDirectories(tempDir.resolve("hearing").resolve("shared"));
+        writeChangeLog(sharedDir, "hearing");
+        List<Service> services = List.of(service("hearing"));
+        SchemaBuildState previousState = masterVisualizer.visualize(services, null, outputDir, "schema.html", "index.html");
+        generatedServices.clear();
+        writeChangeLog(sharedDir, "hearing", "defendant");
+
+        // Act
+        SchemaBuildState state = masterVisualizer.visualize(List.of(service("hearing")), previousState,
+                outputDir, "schema.html", "index.html");
+
+        // Assert
+        assertEquals(Set.of("hearing"), generatedServices);
+        assertEquals(2, state.getService("hearing").orElseThrow().getTableCount());
+    }
+
+    private Service service(String name, String... tableNames) throws IOException {
+        Path liquibaseDir = tempDir.resolve(name).resolve("liquibase");
+        if (tableNames.length > 0) {
+            writeChangeLog(name, tableNames);
+        }
+        Map<String, Table> tables = new LinkedHashMap<>();
+        return new Service(name, liquibaseDir.toString(), new ArrayList<>(), tables);
+    }
+
+    private void writeChangeLog(String serviceName, String... tableNames) throws IOException {
+        writeChangeLog(Files.createDirectories(tempDir.resolve(serviceName).resolve("liquibase")), tableNames);
+    }
+
+    private static void writeChangeLog(Path dir, String... tableNames) throws IOException {
+        StringBuilder changes = new StringBuilder();
+        for (String tableName : tableNames) {
+            changes.append("<createTable tableName=\"").append(tableName).append("\"><column name=\"id\" type=\"UUID\"/></createTable>");
+        }
+        Files.writeString(dir.resolve("001-create.xml"), """
+                <databaseChangeLog xmlns="http://www.liquibase.org/xml/ns/dbchangelog">
+                    <changeSet id="001" author="dev">%s</changeSet>
+                </databaseChangeLog>
+                """.formatted(changes));
+    }
+}
@@ -0,0 +1,188 @@
+package uk.gov.moj.cpp.service.insights.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import uk.gov.moj.cpp.service.insights.common.CommandHandlerAnalyzer;
+import uk.gov.moj.cpp.service.insights.indexer.IndexBuilderImpl;
+import uk.gov.moj.cpp.service.insights.parser.JavaFileParserImpl;
+import uk.gov.moj.cpp.service.insights.resolver.CallGraphResolverImpl;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MethodStackTracerServiceImplTest {
+
+    private MethodStackTracerService tracerService;
+
+    @BeforeEach
+    void setUp() {
+        IndexBuilderImpl indexBuilder = new IndexBuilderImpl(new JavaFileParserImpl());
+        tracerService = new MethodStackTracerServiceImpl(indexBuilder, new CallGraphResolverImpl(indexBuilder));
+    }
+
+    @Test
+    void traceMethod_ShouldVisitHandlerAndReachableMethods(@TempDir Path tempDir) throws IOException {
+        // Arrange
+        writeSources(tempDir);
+        tracerService.buildIndex(Collections.singletonList(tempDir));
+
+        // Act
+        List<String> visited = new ArrayList<>();
+        boolean traced = tracerService.traceMethod("com.example.AddDefendantHandler", "handle(String)",
+                (signature, declaration) -> visited.add(signature));
+
+        // Assert
+        assertTrue(traced, "Handler should be traced");
+        assertEquals("com.example.AddDefendantHandler#handle(String)", visited.get(0), "Handler should be visited first");
+        assertTrue(visited.contains("com.example.AddDefendantHandler#validate(String)"), "Private helper should be visited");
+        assertTrue(visited.contains("com.example.EventFactory#create(String)"), "Interface call should resolve to its implementation");
+    }
+
+    @Test
+    void traceMethod_ShouldReturnFalseForUnknownMethod(@TempDir Path tempDir) throws IOException {
+        // Arrange
+        writeSources(tempDir);
+        tracerService.buildIndex(Collections.singletonList(tempDir));
+
+        // Act
+        boolean traced = tracerService.traceMethod("com.example.AddDefendantHandler", "missing()",
+                (signature, declaration) -> {
+                });
+
+        // Assert
+        assertFalse(traced, "Unknown method should not be traced");
+    }
+
+    @Test
+    void commandHandlerAnalyzer_ShouldCollectEventsAndAggregatesFromReachableMethods(@TempDir Path tempDir) throws IOException {
+        // Arrange
+        writeSources(tempDir);
+        tracerService.buildIndex(Collections.singletonList(tempDir));
+        CommandHandlerAnalyzer analyzer = new CommandHandlerAnalyzer(
+                Map.of("DefendantAdded", "hearing.events.defendant-added",
+                        "DefendantRejected", "hearing.events.defendant-rejected"),
+                List.of("HearingAggregate.class"));
+
+        // Act
+        tracerService.traceMethod("com.example.AddDefendantHandler", "handle(String)", analyzer);
+
+        // Assert
+        assertEquals(Set.of("hearing.events.defendant-added"), analyzer.getResult().getGeneratedEvents(),
+                "Only events created in reachable code should be collected");
+        assertEquals(Set.of("HearingAggregate"), analyzer.getResult().getUsedAggregates(), "Aggregate should be collected");
+    }
+
+    @Test
+    void traceMethod_ShouldFollowEveryImplementationOfAnInterfaceCall(@TempDir Path tempDir) throws IOException {
+        // Arrange
+        writeSources(tempDir);
+        writeSecondImplementation(tempDir);
+        tracerService.buildIndex(Collections.singletonList(tempDir));
+
+        // Act
+        List<String> visited = new ArrayList<>();
+        tracerService.traceMethod("com.example.AddDefendantHandler", "handle(String)",
+                (signature, declaration) -> visited.add(signature));
+
+        // Assert
+        assertTrue(visited.contains("com.example.EventFactory#create(String)"), "First implementation should be visited");
+        assertTrue(visited.contains("com.example.AuditEventFactory#create(String)"), "Second implementation should be visited");
+        assertFalse(visited.contains("com.example.Factory#create(String)"), "Interface method has no body to visit");
+    }
+
+    @Test
+    void traceMethod_ShouldPruneToInjectedImplementationsWhenRequested(@TempDir Path tempDir) throws IOException {
+        // Arrange
+        writeSources(tempDir);
+        writeSecondImplementation(tempDir);
+        Files.writeString(tempDir.resolve("AuditHandler.java"), """
+                package com.example;
+
+                import javax.inject.Inject;
+
+                public class AuditHandler {
+                    @Inject
+                    private AuditEventFactory auditEventFactory;
+                }
+                """);
+        IndexBuilderImpl indexBuilder = new IndexBuilderImpl(new JavaFileParserImpl());
+        tracerService = new MethodStackTracerServiceImpl(indexBuilder, new CallGraphResolverImpl(indexBuilder, true));
+        tracerService.buildIndex(Collections.singletonList(tempDir));
+
+        // Act
+        List<String> visited = new ArrayList<>();
+        tracerService.traceMethod("com.example.AddDefendantHandler", "handle(String)",
+                (signature, declaration) -> visited.add(signature));
+
+        // Assert
+        assertTrue(visited.contains("com.example.AuditEventFactory#create(String)"), "Injected implementation should be visited");
+        assertFalse(visited.contains("com.example.EventFactory#create(String)"), "Implementation never injected should be pruned");
+    }
+
+    private void writeSecondImplementation(Path tempDir) throws IOException {
+        Files.writeString(tempDir.resolve("AuditEventFactory.java"), """
+                package com.example;
+
+                public class AuditEventFactory implements Factory {
+                    public Object create(String defendant) {
+                        return defendant;
+                    }
+                }
+                """);
+    }
+
+    private void writeSources(Path tempDir) throws IOException {
+        Files.writeString(tempDir.resolve("AddDefendantHandler.java"), """
+                package com.example;
+
+                import javax.inject.Inject;
+
+                public class AddDefendantHandler {
+
+                    @Inject
+                    private Factory factory;
+
+                    public void handle(String defendant) {
+                        validate(defendant);
+                        aggregate(HearingAggregate.class);
+                        factory.create(defendant);
+                    }
+
+                    private void validate(String defendant) {
+                        // DefendantRejected is only mentioned in a comment
+                    }
+
+                    private void aggregate(Class<?> type) {
+                    }
+                }
+                """);
+        Files.writeString(tempDir.resolve("Factory.java"), """
+                package com.example;
+
+                public interface Factory {
+                    Object create(String defendant);
+                }
+                """);
+        Files.writeString(tempDir.resolve("EventFactory.java"), """
+                package com.example;
+
+                public class EventFactory implements Factory {
+                    public Object create(String defendant) {
+                        return new DefendantAdded(defendant);
+                    }
+                }
+                """);
+    }
+}
@@ -0,0 +1,121 @@
+package uk.gov.moj.cpp.service.insights.viewstore;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import uk.gov.moj.cpp.service.insights.indexer.IndexBuilderImpl;
+import uk.gov.moj.cpp.service.insights.parser.JavaFileParserImpl;
+import uk.gov.moj.cpp.service.insights.resolver.CallGraphResolverImpl;
+import uk.gov.moj.cpp.service.insights.service.MethodStackTracerService;
+import uk.gov.moj.cpp.service.insights.service.MethodStackTracerServiceImpl;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ListenerWriteAnalyzerTest {
+
+    @Test
+    void visit_ShouldCollectTablesWrittenThroughRepositoriesAndEntityManager(@TempDir Path tempDir) throws Exception {
+        // Arrange
+        Files.writeString(tempDir.resolve("Hearing.java"), """
+                package com.example.entity;
+
+                @Entity
+                @Table(name = "ha_hearing")
+                public class Hearing {
+                    @Id
+                    private UUID id;
+                }
+                """);
+        Files.writeString(tempDir.resolve("HearingDay.java"), """
+                package com.example.entity;
+
+                @Entity
+                @Table(name = "ha_hearing_day")
+                public class HearingDay {
+                    @Id
+                    private UUID id;
+                }
+                """);
+        Files.writeString(tempDir.resolve("Judge.java"), """
+                package com.example.entity;
+
+                @Entity
+                @Table(name = "ha_judge")
+                public class Judge {
+                    @Id
+                    private UUID id;
+                }
+                """);
+        Files.writeString(tempDir.resolve("HearingRepository.java"), """
+                package com.example.repository;
+
+                import com.example.entity.Hearing;
+
+                @Repository
+                public interface HearingRepository extends EntityRepository<Hearing, UUID> {
+
+                    Hearing findBy(UUID id);
+
+                    @Modifying
+                    @Query("delete from HearingDay d where d.hearingId = :hearingId")
+                    void clearDays(UUID hearingId);
+                }
+                """);
+        Files.writeString(tempDir.resolve("HearingService.java"), """
+                package com.example.service;
+
+                import com.example.entity.Judge;
+
+                public class HearingService {
+                    @Inject
+                    private EntityManager entityManager;
+
+                    public void addJudge(UUID id) {
+                        Judge judge = new Judge();
+                        entityManager.persist(judge);
+                    }
+                }
+                """);
+        Files.writeString(tempDir.resolve("HearingEventListener.java"), """
+                package com.example.listener;
+
+                import com.example.entity.Hearing;
+                import com.example.repository.HearingRepository;
+                import com.example.service.HearingService;
+
+                public class HearingEventListener {
+                    @Inject
+                    private HearingRepository hearingRepository;
+                    @Inject
+                    private HearingService hearingService;
+
+                    @Handles("hearing.events.hearing-initiated")
+                    public void hearingInitiated(JsonEnvelope envelope) {
+                        Hearing hearing = hearingRepository.findBy(UUID.randomUUID());
+                        hearingRepository.clearDays(hearing.getId());
+                        hearingRepository.save(hearing);
+                        hearingService.addJudge(hearing.getId());
+                    }
+                }
+                """);
+        IndexBuilderImpl indexBuilder = new IndexBuilderImpl(new JavaFileParserImpl());
+        MethodStackTracerService tracerService = new MethodStackTracerServiceImpl(indexBuilder, new CallGraphResolverImpl(indexBuilder));
+        tracerService.buildIndex(List.of(tempDir));
+        ViewstoreWriteResolver writeResolver = new ViewstoreWriteResolver(indexBuilder.getClassInfoMap(),
+                EntityMappingResolver.resolveEntities(indexBuilder.getClassInfoMap()));
+        ListenerWriteAnalyzer analyzer = new ListenerWriteAnalyzer(writeResolver);
+
+        // Act
+        boolean traced = tracerService.traceMethod("com.example.listener.HearingEventListener",
+                "hearingInitiated(JsonEnvelope)", analyzer);
+
+        // Assert
+        assertTrue(traced);
+        assertEquals(List.of("ha_hearing_day", "ha_hearing", "ha_judge"), List.copyOf(analyzer.getWrittenTables()));
+    }
+}
@@ -0,0 +1,35 @@
+package uk.gov.moj.cpp.service.insights.viewstore;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import uk.gov.moj.cpp.service.insights.viewstore.ListenerWriteReport.TableWrites;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class ListenerWriteReportTest {
+
+    @Test
+    void from_ShouldRankTablesByNumberOfWritingEvents() {
+        // Arrange
+        Map<String, Set<String>> eventTables = Map.of(
+                "hearing.events.hearing-initiated", new LinkedHashSet<>(List.of("ha_hearing", "ha_hearing_day")),
+                "hearing.events.hearing-extended", new LinkedHashSet<>(List.of("ha_hearing")),
+                "hearing.events.judge-assigned", new LinkedHashSet<>(List.of("ha_judge", "ha_hearing")));
+
+        // Act
+        ListenerWriteReport report = ListenerWriteReport.from(eventTables);
+
+        // Assert
+        assertEquals(List.of(
+                new TableWrites("ha_hearing", 3, List.of("hearing.events.hearing-extended",
+                        "hearing.events.hearing-initiated", "hearing.events.judge-assigned")),
+                new TableWrites("ha_hearing_day", 1, List.of("hearing.events.hearing-initiated")),
+                new TableWrites("ha_judge", 1, List.of("hearing.events.judge-assigned"))), report.tables());
+        assertEquals(List.of("ha_hearing", "ha_judge"), report.eventTables().get("hearing.events.judge-assigned"));
+    }
+}
@@ -0,0 +1,173 @@
+package uk.gov.moj.cpp.service.insights.viewstore;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import uk.gov.moj.cpp.service.insights.indexer.IndexBuilderImpl;
+import uk.gov.moj.cpp.service.insights.liquibase.model.Index;
+import uk.gov.moj.cpp.service.insights.liquibase.model.Table;
+import uk.gov.moj.cpp.service.insights.parser.JavaFileParserImpl;
+import uk.gov.moj.cpp.service.insights.viewstore.QueryIndexChecker.Reason;
+import uk.gov.moj.cpp.service.insights.viewstore.RepositoryQueryExtractor.ExtractedQueries;
+import uk.gov.moj.cpp.service.insights.viewstore.RepositoryQueryExtractor.QuerySource;
+import uk.gov.moj.cpp.service.insights.viewstore.RepositoryQueryExtractor.RepositoryQuery;
+import uk.gov.moj.cpp.service.insights.viewstore.RepositoryQueryExtractor.UnresolvedQuery;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class QueryIndexCheckerTest {
+
+    @Test
+    void check_ShouldReportRepositoryQueriesWithoutSupportingIndex(@TempDir Path tempDir) throws Exception {
+        // Arrange
+        Files.writeString(tempDir.resolve("Hearing.java"), """
+                package com.example.persistence.entity;
+
+                import javax.persistence.*;
+
+                @Entity
+                @Table(name = "hearing")
+                public class Hearing {
+                    @Id
+                    @Column(name = "id")
+                    private UUID id;
+                    @Column(name = "case_id")
+                    private UUID caseId;
+                    @Column(name = "listed_date")
+                    private LocalDate listedDate;
+                    @ManyToOne
+                    @JoinColumn(name = "court_centre_id")
+                    private CourtCentre courtCentre;
+                    @OneToMany(mappedBy = "hearing")
+                    private List<HearingDay> hearingDays;
+                    @Transient
+                    private String displayName;
+                }
+                """);
+        Files.writeString(tempDir.resolve("HearingRepository.java"), """
+                package com.example.persistence.repository;
+
+                import com.example.persistence.entity.Hearing;
+                import org.apache.deltaspike.data.api.EntityRepository;
+                import org.apache.deltaspike.data.api.Query;
+                import org.apache.deltaspike.data.api.Repository;
+
+                @Repository
+                public interface HearingRepository extends EntityRepository<Hearing, UUID> {
+
+                    List<Hearing> findByCaseId(UUID caseId);
+
+                    List<Hearing> findByListedDateOrderById(LocalDate listedDate);
+
+                    @Query("select h from Hearing h where h.courtCentre.id = :courtCentreId "
+                            + "order by h.listedDate")
+                    List<Hearing> findByCourtCentre(UUID courtCentreId);
+
+                    @Query(value = "select * from hearing order by listed_date", isNative = true)
+                    List<Hearing> findAllByDate();
+                }
+                """);
+        IndexBuilderImpl indexBuilder = new IndexBuilderImpl(new JavaFileParserImpl());
+        indexBuilder.buildIndex(List.of(tempDir));
+
+        Table hearing = new Table("hearing", new LinkedHashMap<>(), new ArrayList<>(List.of("id")), new ArrayList<>(),
+                new ArrayList<>(List.of(new Index("hearing_case_id_idx", List.of("case_id"), false))));
+        Map<String, Table> tables = Map.of("hearing", hearing);
+
+        // Act
+        Map<String, EntityMapping> entities = EntityMappingResolver.resolveEntities(indexBuilder.getClassInfoMap());
+        ExtractedQueries queries = RepositoryQueryExtractor.extractQueries(indexBuilder.getClassInfoMap(), entities);
+        QueryIndexReport report = QueryIndexChecker.check(queries, tables);
+
+        // Assert
+        assertEquals(Map.of("id", "id", "caseId", "case_id", "listedDate", "listed_date", "courtCentre", "court_centre_id"),
+                entities.get("com.example.persistence.entity.Hearing").columns());
+        String repository = "com.example.persistence.repository.HearingRepository";
+        assertEquals(List.of(
+                new RepositoryQuery(repository, "findByCaseId", "hearing", List.of("case_id"), List.of(), List.of(), QuerySource.METHOD_NAME),
+                new RepositoryQuery(repository, "findByListedDateOrderById", "hearing", List.of("listed_date"), List.of("id"), List.of(), QuerySource.METHOD_NAME),
+                new RepositoryQuery(repository, "findByCourtCentre", "hearing", List.of("court_centre_id"), List.of("listed_date"), List.of(), QuerySource.JPQL),
+                new RepositoryQuery(repository, "findAllByDate", "hearing", List.of(), List.of("listed_date"), List.of(), QuerySource.SQL)), queries.queries());
+        assertEquals(List.of(), report.unresolvedQueries());
+        assertEquals(4, report.checkedQueries());
+        assertEquals(List.of(Reason.FILTER, Reason.FILTER, Reason.ORDER_BY),
+                report.unindexedQueries().stream().map(QueryIndexChecker.UnindexedQuery::reason).toList());
+        assertEquals(List.of("findByListedDateOrderById", "findByCourtCentre", "findAllByDate"),
+                report.unindexedQueries().stream().map(unindexed -> unindexed.query().methodName()).toList());
+    }
+
+    @Test
+    void check_ShouldReportQueriesThatCannotBeMappedToTheSchema(@TempDir Path tempDir) throws Exception {
+        // Arrange
+        Files.writeString(tempDir.resolve("Hearing.java"), """
+                package com.example.persistence.entity;
+
+                import javax.persistence.*;
+
+                @Entity
+                @Table(name = "hearing")
+                public class Hearing {
+                    @Id
+                    @Column(name = "id")
+                    private UUID id;
+                    @Column(name = "case_id")
+                    private UUID caseId;
+                    @Column(name = "listed_date")
+                    private LocalDate listedDate;
+                }
+                """);
+        Files.writeString(tempDir.resolve("HearingRepository.java"), """
+                package com.example.persistence.repository;
+
+                import com.example.persistence.entity.Hearing;
+                import org.springframework.data.jpa.repository.JpaRepository;
+                import org.springframework.data.jpa.repository.Query;
+
+                public interface HearingRepository extends JpaRepository<Hearing, UUID> {
+
+                    List<Hearing> findDistinctByCaseIdInAndListedDateAfter(List<UUID> caseIds, LocalDate date);
+
+                    List<Hearing> readByListedDateIsNotNullOrderByCaseIdDesc();
+
+                    List<Hearing> findAllByJudgeName(String judgeName);
+
+                    @Query("select d from Defendant d where d.hearingId = :hearingId")
+                    List<Object> findDefendants(UUID hearingId);
+                }
+                """);
+        IndexBuilderImpl indexBuilder = new IndexBuilderImpl(new JavaFileParserImpl());
+        indexBuilder.buildIndex(List.of(tempDir));
+
+        Table hearing = new Table("hearing", new LinkedHashMap<>(), new ArrayList<>(List.of("id")), new ArrayList<>(),
+                new ArrayList<>(List.of(new Index("hearing_case_id_idx", List.of("case_id"), false))));
+
+        // Act
+        Map<String, EntityMapping> entities = EntityMappingResolver.resolveEntities(indexBuilder.getClassInfoMap());
+        ExtractedQueries queries = RepositoryQueryExtractor.extractQueries(indexBuilder.getClassInfoMap(), entities);
+        QueryIndexReport report = QueryIndexChecker.check(queries, Map.of("hearing", hearing));
+
+        // Assert
+        String repository = "com.example.persistence.repository.HearingRepository";
+        assertEquals(List.of(
+                new RepositoryQuery(repository, "findDistinctByCaseIdInAndListedDateAfter", "hearing",
+                        List.of("case_id", "listed_date"), List.of(), List.of(), QuerySource.METHOD_NAME),
+                new RepositoryQuery(repository, "readByListedDateIsNotNullOrderByCaseIdDesc", "hearing",
+                        List.of("listed_date"), List.of("case_id"), List.of(), QuerySource.METHOD_NAME),
+                new RepositoryQuery(repository, "findAllByJudgeName", "hearing",
+                        List.of(), List.of(), List.of("judgeName"), QuerySource.METHOD_NAME)), queries.queries());
+        assertEquals(List.of(
+                new UnresolvedQuery(repository, "findDefendants", "unknown entity Defendant"),
+                new UnresolvedQuery(repository, "findAllByJudgeName", "unmapped properties [judgeName] of hearing")),
+                report.unresolvedQueries(), "Queries that cannot be mapped should not be taken as supported");
+        assertEquals(2, report.checkedQueries());
+        assertEquals(List.of("readByListedDateIsNotNullOrderByCaseIdDesc"),
+                report.unindexedQueries().stream().map(unindexed -> unindexed.query().methodName()).toList());
+    }
+}
@@ -0,0 +1,64 @@
+package uk.gov.moj.cpp.service.insights.viewstore;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import uk.gov.moj.cpp.service.insights.viewstore.QueryPredicateParser.ParsedQuery;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+class QueryPredicateParserTest {
+
+    @Test
+    void parseQuery_ShouldKeepRootAliasPredicatesAndOrder() {
+        // Arrange
+        String query = "SELECT h FROM Hearing h JOIN h.defendants d WHERE h.caseId = :caseId AND d.name = 'x = y'"
+                + " AND lower(h.type) = :type AND h.listedDate BETWEEN :from AND :to AND h.deletedAt IS NULL"
+                + " ORDER BY h.listedDate DESC, h.id";
+
+        // Act
+        Optional<ParsedQuery> parsed = QueryPredicateParser.parseQuery(query, false);
+
+        // Assert
+        assertEquals(new ParsedQuery("Hearing", List.of("caseId", "listedDate", "deletedAt"), List.of("listedDate", "id")),
+                parsed.orElseThrow());
+    }
+
+    @Test
+    void parseQuery_ShouldKeepUnqualifiedColumnsOfNativeQueries() {
+        // Act
+        Optional<ParsedQuery> parsed = QueryPredicateParser.parseQuery(
+                "select * from viewstore.hearing where court_centre_id = ?1 and status in (?2) limit 10", true);
+
+        // Assert
+        assertEquals(new ParsedQuery("viewstore.hearing", List.of("court_centre_id", "status"), List.of()), parsed.orElseThrow());
+    }
+
+    @Test
+    void parseMethodName_ShouldSplitCriteriaComparatorsAndOrdering() {
+        // Act
+        Optional<ParsedQuery> parsed = QueryPredicateParser.parseMethodName(
+                "findByCaseIdAndListedDateGreaterThanEqualsOrOrganisationNameLikeIgnoreCaseOrderByListedDateDescId_Version");
+
+        // Assert
+        assertEquals(new ParsedQuery(null, List.of("caseId", "listedDate", "organisationName"), List.of("listedDate", "id.version")),
+                parsed.orElseThrow());
+        assertTrue(QueryPredicateParser.parseMethodName("save").isEmpty());
+    }
+
+    @Test
+    void parseMethodName_ShouldAcceptSpringDataPrefixesAndKeywords() {
+        // Act
+        Optional<ParsedQuery> parsed = QueryPredicateParser.parseMethodName(
+                "findFirst10ByStatusNotInAndNameStartingWithOrTitleContainingAllIgnoreCaseOrderByName");
+
+        // Assert
+        assertEquals(new ParsedQuery(null, List.of("status", "name", "title"), List.of("name")), parsed.orElseThrow());
+        assertEquals(List.of("caseId"), QueryPredicateParser.parseMethodName("getByCaseIdIsTrue").orElseThrow().filterPaths());
+        assertEquals(List.of("reference"), QueryPredicateParser.parseMethodName("findAllByReferenceEndingWith").orElseThrow().filterPaths());
+        assertTrue(QueryPredicateParser.parseMethodName("getBytes").isEmpty());
+    }
+}